@@ -1,13 +1,13 @@
 package org.example;
-import javax.swing.JFrame;
-import org.jfree.chart.ChartFactory;
-import org.jfree.chart.ChartPanel;
-import org.jfree.chart.JFreeChart;
-import org.jfree.chart.plot.PlotOrientation;
-import org.jfree.data.xy.XYSeries;
-import org.jfree.data.xy.XYSeriesCollection;
 import org.example.backtest.BacktestResult;
 import org.example.backtest.Backtester;
+import org.example.backtest.RebalanceFrequency;
+import org.example.backtest.RotatingUniverseBacktester;
+import org.example.backtest.UniverseChange;
+import org.example.charts.Chart;
+import org.example.charts.ChartRenderer;
+import org.example.charts.ChartSeries;
+import org.example.charts.Downsampler;
 import org.example.datafetcher.ApiMarketDataFetcher;
 import org.example.datafetcher.DatabaseMarketDataFetcher;
 import org.example.datafetcher.FundamentalDataFetcher;
@@ -16,12 +16,17 @@ import org.example.models.MarketDataPoint;
 import org.example.models.StockFundamentals;
 import org.example.repository.MarketDataRepository;
 import org.example.repository.StockFundamentalsRepository;
+import org.example.screening.ScreeningEngine;
+import org.example.screening.SectorIndex;
 import org.example.strategy.MovingAverageStrategy;
 import org.example.strategy.RsiStrategy;
 import org.example.utils.AppLogger;
 
+import java.awt.GraphicsEnvironment;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -34,12 +39,32 @@ public class Main {
     private static final String API_KEY = "UH3MZPUZMQ0W7S4";
     private static final BigDecimal INITIAL_CAPITAL = new BigDecimal("100000");
 
+    /**
+     * Backtests the screened universe with a moving average strategy.
+     * <pre>
+     * Main [--rotate MONTHLY|QUARTERLY START END]
+     * </pre>
+     * Without arguments the universe is screened once on the latest fundamentals. With
+     * {@code --rotate} it is screened again at every period start between the two dates, on the
+     * fundamentals known at the time, see {@link RotatingUniverseBacktester}.
+     */
     public static void main(String[] args) {
         try {
             // Initialize dependencies
             MarketDataRepository marketDataRepository = new MarketDataRepository();
             DatabaseMarketDataFetcher databaseFetcher = new DatabaseMarketDataFetcher(marketDataRepository);
 
+            if (args.length > 0) {
+                if (args.length != 4 || !args[0].equals("--rotate")) {
+                    System.out.println("Usage: Main [--rotate MONTHLY|QUARTERLY START END]");
+                    return;
+                }
+                BacktestResult result = runRotatingUniverseBacktest(databaseFetcher,
+                        RebalanceFrequency.valueOf(args[1].toUpperCase()), LocalDate.parse(args[2]), LocalDate.parse(args[3]));
+                displayBacktestResults(result);
+                return;
+            }
+
             // Fetch and filter stock fundamentals
             List<StockFundamentals> filteredStocks = fetchAndFilterStocks();
 
@@ -59,39 +84,30 @@ public class Main {
             logger.error("Error in main application flow", e);
         }
     }
+    /**
+     * Plots daily returns, downsampled to the chart width so that long series stay responsive.
+     * Shown in a window when there is a display, written to daily-returns.png otherwise.
+     */
     public static void plotDailyReturns(List<BigDecimal> dailyReturns) {
-        // Create an XYSeries to hold the data
-        XYSeries series = new XYSeries("Daily Returns");
-
-        // Populate the series with the daily returns and time points (e.g., day 1, day 2, ...)
-        for (int i = 0; i < dailyReturns.size(); i++) {
-            series.add(i + 1, dailyReturns.get(i).doubleValue()); // i+1 for days starting from 1
+        Chart chart = new Chart("Daily Returns Over Time", "Time (Days)", "Daily Return",
+                List.of(ChartSeries.of("Daily Returns", dailyReturns)));
+
+        // Min/max bucketing keeps every spike of the returns
+        ChartRenderer renderer = new ChartRenderer(800, 600, Downsampler.Method.MIN_MAX);
+        if (!GraphicsEnvironment.isHeadless()) {
+            renderer.show(chart, "Daily Return Plot").exceptionally(e -> {
+                logger.error("Could not show the daily returns plot", e);
+                return null;
+            });
+            return;
+        }
+        Path file = Path.of("daily-returns.png");
+        try {
+            renderer.write(chart, file);
+            logger.info("No display, daily returns plotted to " + file.toAbsolutePath());
+        } catch (IOException e) {
+            logger.error("Could not write " + file, e);
         }
-
-        // Create a dataset from the series
-        XYSeriesCollection dataset = new XYSeriesCollection(series);
-
-        // Create the chart
-        JFreeChart chart = ChartFactory.createXYLineChart(
-                "Daily Returns Over Time",    // Title
-                "Time (Days)",                // X-Axis Label (Time in days)
-                "Daily Return",               // Y-Axis Label (Return value)
-                dataset,                      // Dataset
-                PlotOrientation.VERTICAL,     // Plot orientation
-                true,                         // Include legend
-                true,                         // Tooltips
-                false                         // URLs
-        );
-
-        // Create a panel for the chart and display it in a JFrame
-        ChartPanel chartPanel = new ChartPanel(chart);
-        chartPanel.setPreferredSize(new java.awt.Dimension(800, 600));
-
-        JFrame frame = new JFrame("Daily Return Plot");
-        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        frame.getContentPane().add(chartPanel);
-        frame.pack();
-        frame.setVisible(true);
     }
 
     private static List<StockFundamentals> fetchAndFilterStocks() {
@@ -112,6 +128,24 @@ public class Main {
         return filteredStocks;
     }
 
+    // Re-screens the universe on the fundamentals known at each rebalance, loading bars on joining
+    private static BacktestResult runRotatingUniverseBacktest(DatabaseMarketDataFetcher databaseFetcher,
+                                                              RebalanceFrequency frequency, LocalDate start, LocalDate end) {
+        StockFundamentalsRepository repository = new StockFundamentalsRepository();
+        try {
+            RotatingUniverseBacktester backtester = new RotatingUniverseBacktester(INITIAL_CAPITAL,
+                    new MovingAverageStrategy(), ScreeningEngine.sectorRelativeValue(SectorIndex.standard()),
+                    repository.loadTimeline(), databaseFetcher::fetchMarketData, frequency);
+            BacktestResult result = backtester.runBacktest(start, end);
+            for (UniverseChange change : backtester.getUniverseChanges()) {
+                logger.info(change.date() + ": joined " + change.joined() + ", left " + change.left());
+            }
+            return result;
+        } finally {
+            repository.close();
+        }
+    }
+
     private static Map<String, List<MarketDataPoint>> prepareMarketData(
             List<StockFundamentals> filteredStocks,
             DatabaseMarketDataFetcher databaseFetcher) {
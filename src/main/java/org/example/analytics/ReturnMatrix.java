@@ -0,0 +1,184 @@
+package org.example.analytics;
+
+import org.example.models.MarketDataPoint;
+import org.example.models.PriceSeries;
+import org.example.models.SymbolTable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Close-to-close simple returns of several tickers aligned on a common time axis, stored
+ * row-major in one primitive array (one row per period, one column per ticker).
+ * <p>
+ * The time axis is the union of all tickers' timestamps. A ticker without a bar at a given
+ * timestamp, or before its first bar, contributes a return of zero for that period - its
+ * price is carried forward.
+ */
+public final class ReturnMatrix {
+    private final int[] tickerIds;
+    private final long[] timestamps;
+    private final double[] returns;
+    private final int observations;
+    private final int assets;
+
+    /**
+     * @param tickerIds  Symbol table id per column
+     * @param timestamps End timestamp (local epoch seconds) per row
+     * @param returns    Row-major returns, {@code timestamps.length * tickerIds.length} values
+     */
+    public ReturnMatrix(int[] tickerIds, long[] timestamps, double[] returns) {
+        if (returns.length != tickerIds.length * timestamps.length) {
+            throw new IllegalArgumentException("Expected " + tickerIds.length * timestamps.length
+                    + " returns, got " + returns.length);
+        }
+        this.tickerIds = tickerIds;
+        this.timestamps = timestamps;
+        this.returns = returns;
+        this.observations = timestamps.length;
+        this.assets = tickerIds.length;
+    }
+
+    /**
+     * Builds the matrix from loaded market data
+     *
+     * @param marketData Market data per ticker, sorted by timestamp
+     * @return Aligned return matrix
+     */
+    public static ReturnMatrix fromMarketData(Map<String, List<MarketDataPoint>> marketData) {
+        PriceSeries[] series = new PriceSeries[marketData.size()];
+        int column = 0;
+        for (Map.Entry<String, List<MarketDataPoint>> entry : marketData.entrySet()) {
+            series[column++] = PriceSeries.fromDataPoints(entry.getKey(), entry.getValue());
+        }
+        return fromSeries(series);
+    }
+
+    /**
+     * Builds the matrix from price series
+     *
+     * @param series Price series, one column each
+     * @return Aligned return matrix
+     */
+    public static ReturnMatrix fromSeries(PriceSeries... series) {
+        int assets = series.length;
+        int[] tickerIds = new int[assets];
+        for (int a = 0; a < assets; a++) {
+            tickerIds[a] = SymbolTable.global().idOf(series[a].getTicker());
+        }
+
+        // First pass counts the union of timestamps, second pass fills the rows
+        int rows = countUnionTimestamps(series) - 1;
+        if (rows <= 0) {
+            return new ReturnMatrix(tickerIds, new long[0], new double[0]);
+        }
+        long[] timestamps = new long[rows];
+        double[] returns = new double[rows * assets];
+        int[] next = new int[assets];
+        double[] lastClose = new double[assets];
+
+        for (int row = -1; row < rows; row++) {
+            long timestamp = nextTimestamp(series, next);
+            int offset = row * assets;
+            for (int a = 0; a < assets; a++) {
+                int bar = next[a];
+                if (bar < series[a].size() && series[a].timestampAt(bar) == timestamp) {
+                    double close = series[a].closeAt(bar);
+                    if (row >= 0 && lastClose[a] > 0) {
+                        returns[offset + a] = close / lastClose[a] - 1.0;
+                    }
+                    lastClose[a] = close;
+                    next[a] = bar + 1;
+                }
+            }
+            if (row >= 0) {
+                timestamps[row] = timestamp;
+            }
+        }
+        return new ReturnMatrix(tickerIds, timestamps, returns);
+    }
+
+    private static int countUnionTimestamps(PriceSeries[] series) {
+        int[] next = new int[series.length];
+        int count = 0;
+        long timestamp;
+        while ((timestamp = nextTimestamp(series, next)) != Long.MAX_VALUE) {
+            for (int a = 0; a < series.length; a++) {
+                if (next[a] < series[a].size() && series[a].timestampAt(next[a]) == timestamp) {
+                    next[a]++;
+                }
+            }
+            count++;
+        }
+        return count;
+    }
+
+    // Earliest timestamp not yet consumed across all series
+    private static long nextTimestamp(PriceSeries[] series, int[] next) {
+        long timestamp = Long.MAX_VALUE;
+        for (int a = 0; a < series.length; a++) {
+            if (next[a] < series[a].size()) {
+                timestamp = Math.min(timestamp, series[a].timestampAt(next[a]));
+            }
+        }
+        return timestamp;
+    }
+
+    /**
+     * Copies the most recent rows into a new matrix
+     *
+     * @param count Number of trailing rows to keep
+     * @return Matrix with at most {@code count} rows
+     */
+    public ReturnMatrix tail(int count) {
+        int keep = Math.min(count, observations);
+        int start = observations - keep;
+        long[] tailTimestamps = Arrays.copyOfRange(timestamps, start, observations);
+        double[] tailReturns = Arrays.copyOfRange(returns, start * assets, observations * assets);
+        return new ReturnMatrix(tickerIds.clone(), tailTimestamps, tailReturns);
+    }
+
+    public int observations() {
+        return observations;
+    }
+
+    public int assets() {
+        return assets;
+    }
+
+    public double get(int row, int column) {
+        return returns[row * assets + column];
+    }
+
+    public long timestampAt(int row) {
+        return timestamps[row];
+    }
+
+    public int tickerId(int column) {
+        return tickerIds[column];
+    }
+
+    public String ticker(int column) {
+        return SymbolTable.global().symbol(tickerIds[column]);
+    }
+
+    /**
+     * @return Column of the ticker id, or -1 if the ticker is not in the matrix
+     */
+    public int columnOf(int tickerId) {
+        for (int a = 0; a < assets; a++) {
+            if (tickerIds[a] == tickerId) {
+                return a;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Backing row-major array; callers must not modify it
+     */
+    public double[] rawReturns() {
+        return returns;
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.analytics;
+
+/**
+ * Rolling beta, alpha, correlation, volatility and Sharpe ratio of a strategy's returns
+ * against a benchmark, one value per period.
+ * <p>
+ * All series are computed in a single O(n) pass with a {@link RollingWindow}; entries before
+ * the first full window are NaN.
+ */
+public final class RollingAnalytics {
+    private static final double PERIODS_PER_YEAR = 252.0;
+
+    private final int window;
+    private final double[] beta;
+    private final double[] alpha;
+    private final double[] correlation;
+    private final double[] volatility;
+    private final double[] sharpeRatio;
+
+    private RollingAnalytics(int window, int length) {
+        this.window = window;
+        this.beta = new double[length];
+        this.alpha = new double[length];
+        this.correlation = new double[length];
+        this.volatility = new double[length];
+        this.sharpeRatio = new double[length];
+    }
+
+    /**
+     * Computes the rolling series
+     *
+     * @param strategyReturns  Strategy return per period
+     * @param benchmarkReturns Benchmark return per period, aligned with the strategy returns
+     * @param window           Number of periods in each window
+     * @param riskFreeRate     Risk-free return per period
+     * @return Rolling series over the overlapping length of both inputs
+     */
+    public static RollingAnalytics compute(double[] strategyReturns, double[] benchmarkReturns, int window, double riskFreeRate) {
+        int length = Math.min(strategyReturns.length, benchmarkReturns.length);
+        RollingAnalytics analytics = new RollingAnalytics(window, length);
+        RollingWindow rolling = new RollingWindow(window);
+        double annualization = Math.sqrt(PERIODS_PER_YEAR);
+
+        for (int i = 0; i < length; i++) {
+            rolling.add(benchmarkReturns[i], strategyReturns[i]);
+            if (!rolling.isFull()) {
+                analytics.beta[i] = Double.NaN;
+                analytics.alpha[i] = Double.NaN;
+                analytics.correlation[i] = Double.NaN;
+                analytics.volatility[i] = Double.NaN;
+                analytics.sharpeRatio[i] = Double.NaN;
+                continue;
+            }
+
+            double standardDeviation = Math.sqrt(rolling.varianceY());
+            analytics.beta[i] = rolling.beta();
+            analytics.alpha[i] = rolling.alpha();
+            analytics.correlation[i] = rolling.correlation();
+            analytics.volatility[i] = standardDeviation * annualization;
+            analytics.sharpeRatio[i] = standardDeviation > 0.0
+                    ? (rolling.meanY() - riskFreeRate) / standardDeviation * annualization
+                    : Double.NaN;
+        }
+        return analytics;
+    }
+
+    public int getWindow() {
+        return window;
+    }
+
+    public int length() {
+        return beta.length;
+    }
+
+    // Rolling slope of strategy returns on benchmark returns
+    public double[] getBeta() {
+        return beta;
+    }
+
+    // Rolling intercept, per period
+    public double[] getAlpha() {
+        return alpha;
+    }
+
+    public double[] getCorrelation() {
+        return correlation;
+    }
+
+    // Rolling annualized standard deviation of strategy returns
+    public double[] getVolatility() {
+        return volatility;
+    }
+
+    // Rolling annualized Sharpe ratio
+    public double[] getSharpeRatio() {
+        return sharpeRatio;
+    }
+}
@@ -0,0 +1,143 @@
+package org.example.analytics;
+
+/**
+ * Fixed-size sliding window over paired observations (benchmark x, strategy y).
+ * <p>
+ * Keeps running sums of x, y, x^2, y^2 and x*y so that adding an observation and evicting the
+ * oldest one are O(1), and every regression statistic can be read off in O(1). To keep the
+ * subtract-on-evict drift bounded, the sums are recomputed from the ring buffer once per
+ * full turn of the window, which is still amortized O(1) per observation.
+ */
+public final class RollingWindow {
+    private final int capacity;
+    private final double[] xs;
+    private final double[] ys;
+    private int head;
+    private int count;
+    private int evictionsSinceResync;
+
+    private double sumX;
+    private double sumY;
+    private double sumXX;
+    private double sumYY;
+    private double sumXY;
+
+    /**
+     * @param capacity Number of observations in a full window
+     */
+    public RollingWindow(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Window must hold at least 2 observations: " + capacity);
+        }
+        this.capacity = capacity;
+        this.xs = new double[capacity];
+        this.ys = new double[capacity];
+    }
+
+    /**
+     * Adds an observation, evicting the oldest one once the window is full
+     *
+     * @param x Benchmark value
+     * @param y Strategy value
+     */
+    public void add(double x, double y) {
+        if (count == capacity) {
+            double oldX = xs[head];
+            double oldY = ys[head];
+            sumX -= oldX;
+            sumY -= oldY;
+            sumXX -= oldX * oldX;
+            sumYY -= oldY * oldY;
+            sumXY -= oldX * oldY;
+        } else {
+            count++;
+        }
+
+        xs[head] = x;
+        ys[head] = y;
+        head = head + 1 == capacity ? 0 : head + 1;
+        sumX += x;
+        sumY += y;
+        sumXX += x * x;
+        sumYY += y * y;
+        sumXY += x * y;
+
+        if (count == capacity && ++evictionsSinceResync == capacity) {
+            resync();
+        }
+    }
+
+    public boolean isFull() {
+        return count == capacity;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public void clear() {
+        head = 0;
+        count = 0;
+        evictionsSinceResync = 0;
+        sumX = sumY = sumXX = sumYY = sumXY = 0.0;
+    }
+
+    public double meanX() {
+        return sumX / count;
+    }
+
+    public double meanY() {
+        return sumY / count;
+    }
+
+    // Sample variance of y
+    public double varianceY() {
+        return Math.max(0.0, (sumYY - sumY * sumY / count) / (count - 1));
+    }
+
+    // Sample variance of x
+    public double varianceX() {
+        return Math.max(0.0, (sumXX - sumX * sumX / count) / (count - 1));
+    }
+
+    // Sample covariance of x and y
+    public double covariance() {
+        return (sumXY - sumX * sumY / count) / (count - 1);
+    }
+
+    // Slope of y regressed on x, NaN if x does not vary
+    public double beta() {
+        double varX = varianceX();
+        return varX > 0.0 ? covariance() / varX : Double.NaN;
+    }
+
+    // Intercept of y regressed on x
+    public double alpha() {
+        return meanY() - beta() * meanX();
+    }
+
+    // Pearson correlation of x and y, NaN if either does not vary
+    public double correlation() {
+        double denominator = Math.sqrt(varianceX() * varianceY());
+        return denominator > 0.0 ? covariance() / denominator : Double.NaN;
+    }
+
+    private void resync() {
+        double sx = 0.0, sy = 0.0, sxx = 0.0, syy = 0.0, sxy = 0.0;
+        for (int i = 0; i < count; i++) {
+            double x = xs[i];
+            double y = ys[i];
+            sx += x;
+            sy += y;
+            sxx += x * x;
+            syy += y * y;
+            sxy += x * y;
+        }
+        sumX = sx;
+        sumY = sy;
+        sumXX = sxx;
+        sumYY = syy;
+        sumXY = sxy;
+        evictionsSinceResync = 0;
+    }
+}
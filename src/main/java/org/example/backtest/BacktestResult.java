@@ -1,5 +1,8 @@
 package org.example.backtest;
 
+import org.example.analytics.RollingAnalytics;
+import org.example.metrics.MetricsSnapshot;
+
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.List;
@@ -8,12 +11,29 @@ public record BacktestResult(
         BigDecimal initialCapital,
         BigDecimal finalCapital,
         double totalReturn,
-        List<Trade> trades,
+        EventLog events, // Trades, missed trades and losses, rendered on demand
         List<BigDecimal> dailyReturns,
         double riskFreeRate,
-        List<String> missedSellTrades,    // Added missed sell trades
-        List<String> negativeProfitTrades,  // Added negative profit trades
-        List<String> lossTrades, List<BigDecimal> dailyCapital) { // Track daily capital for drawdown calculation
+        List<BigDecimal> dailyCapital, // Daily equity (cash plus marked positions) for drawdown calculation
+        double[] benchmarkReturns, // Equal-weighted market return per day, aligned with dailyCapital
+        MetricsSnapshot metrics) { // Engine counters and latencies recorded while the run executed
+
+    // Executed trades, including positions closed at the end of the run
+    public List<Trade> trades() {
+        return events.toTrades();
+    }
+
+    public List<String> missedBuyTrades() {
+        return events.render(EventType.MISSED_BUY);
+    }
+
+    public List<String> missedSellTrades() {
+        return events.render(EventType.MISSED_SELL);
+    }
+
+    public List<String> lossTrades() {
+        return events.render(EventType.LOSS);
+    }
 
     // Calculate Sharpe Ratio
     public double calculateSharpeRatio() {
@@ -70,12 +90,33 @@ public record BacktestResult(
 
     // New method to calculate the number of missed sell trades
     public int getMissedSellTradesCount() {
-        return missedSellTrades.size();
+        return events.count(EventType.MISSED_SELL);
     }
 
     // New method to calculate the number of trades with negative profit
     public int getNegativeProfitTradesCount() {
-        return negativeProfitTrades.size();
+        return events.count(EventType.LOSS);
+    }
+
+    // Daily returns of the equity curve, the first measured against the initial capital
+    public double[] calculateEquityReturns() {
+        double[] equityReturns = new double[dailyCapital.size()];
+        double previous = initialCapital.doubleValue();
+        for (int i = 0; i < equityReturns.length; i++) {
+            double current = dailyCapital.get(i).doubleValue();
+            equityReturns[i] = previous != 0.0 ? current / previous - 1.0 : 0.0;
+            previous = current;
+        }
+        return equityReturns;
+    }
+
+    // Rolling beta, alpha, correlation, volatility and Sharpe of the equity returns against the benchmark
+    public RollingAnalytics calculateRollingAnalytics(int window) {
+        return calculateRollingAnalytics(window, 0.0);
+    }
+
+    public RollingAnalytics calculateRollingAnalytics(int window, double periodRiskFreeRate) {
+        return RollingAnalytics.compute(calculateEquityReturns(), benchmarkReturns, window, periodRiskFreeRate);
     }
 
     // New method to calculate the Maximum Drawdown
@@ -108,9 +149,9 @@ public record BacktestResult(
                 "initialCapital=" + initialCapital +
                 ", finalCapital=" + finalCapital +
                 ", totalReturn=" + totalReturn +
-                "%, trades=" + trades.size() +
-                ", missedSellTrades=" + missedSellTrades.size() +
-                ", negativeProfitTrades=" + negativeProfitTrades.size() +
+                "%, trades=" + (events.count(EventType.BUY) + events.count(EventType.SELL)) +
+                ", missedSellTrades=" + getMissedSellTradesCount() +
+                ", negativeProfitTrades=" + getNegativeProfitTradesCount() +
                 ", MaxDrawdown=" + calculateMaxDrawdown() + "%" +
                 ", SharpeRatio=" + calculateSharpeRatio() +
                 ", SortinoRatio=" + calculateSortinoRatio() +
@@ -0,0 +1,207 @@
+package org.example.backtest;
+
+import org.example.metrics.Histogram;
+import org.example.metrics.MetricsRegistry;
+import org.example.models.MarketDataPoint;
+import org.example.models.PriceSeries;
+import org.example.models.SymbolTable;
+import org.example.strategy.CrossSectionalStrategy;
+import org.example.strategy.UniverseSnapshot;
+import org.example.timeseries.SeriesNormalizer;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Backtester for {@link CrossSectionalStrategy} implementations.
+ * <p>
+ * All tickers are walked in lock-step over the union of their timestamps. Holdings, cost
+ * basis and last prices live in primitive arrays indexed by universe slot, so a step only
+ * allocates when a trade is actually made.
+ * <p>
+ * A held ticker with no bar at a rebalance timestamp cannot be traded at a current price. If
+ * the new weights drop it, it is closed at its last known close; otherwise it is kept as is.
+ */
+public class CrossSectionalBacktester {
+    private final BigDecimal initialCapital;
+    private final CrossSectionalStrategy strategy;
+    private final Map<String, List<MarketDataPoint>> marketData;
+
+    public CrossSectionalBacktester(BigDecimal initialCapital, CrossSectionalStrategy strategy,
+                                    Map<String, List<MarketDataPoint>> marketData) {
+        this.initialCapital = initialCapital;
+        this.strategy = strategy;
+        this.marketData = SeriesNormalizer.normalizeAll(marketData);
+    }
+
+    /**
+     * Runs the strategy over all available data
+     *
+     * @return BacktestResult containing performance metrics
+     */
+    public BacktestResult runBacktest() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        LongAdder barCount = metrics.counter(MetricsRegistry.BARS);
+        Histogram signalNanos = metrics.histogram(MetricsRegistry.SIGNAL_NANOS);
+        long runStart = System.nanoTime();
+
+        int universeSize = marketData.size();
+        String[] tickers = new String[universeSize];
+        int[] tickerIds = new int[universeSize];
+        PriceSeries[] series = new PriceSeries[universeSize];
+
+        int slot = 0;
+        for (Map.Entry<String, List<MarketDataPoint>> entry : marketData.entrySet()) {
+            tickers[slot] = entry.getKey();
+            tickerIds[slot] = SymbolTable.global().idOf(entry.getKey());
+            series[slot] = PriceSeries.fromDataPoints(entry.getKey(), entry.getValue());
+            slot++;
+        }
+
+        UniverseSnapshot snapshot = new UniverseSnapshot(tickers, series);
+        int[] nextBar = new int[universeSize];
+        long[] shares = new long[universeSize];
+        double[] averagePrice = new double[universeSize];
+        double[] lastPrice = new double[universeSize];
+        double[] targetWeights = new double[universeSize];
+        int[] tradeSlots = new int[universeSize];
+
+        double cash = initialCapital.doubleValue();
+        double positionsValue = 0.0;
+        double previousEquity = cash;
+        double marketReturnSum = 0.0;
+        int marketReturnCount = 0;
+        double[] benchmarkReturns = new double[64];
+
+        EventLog events = new EventLog();
+        List<BigDecimal> dailyReturns = new ArrayList<>();
+        List<BigDecimal> dailyCapital = new ArrayList<>();
+
+        while (true) {
+            // Next timestamp is the earliest pending bar across the universe
+            long timestamp = Long.MAX_VALUE;
+            for (int s = 0; s < universeSize; s++) {
+                if (nextBar[s] < series[s].size()) {
+                    timestamp = Math.min(timestamp, series[s].timestampAt(nextBar[s]));
+                }
+            }
+            if (timestamp == Long.MAX_VALUE) {
+                break;
+            }
+
+            // Advance every ticker that has a bar at this timestamp and mark it to market
+            snapshot.beginTimestamp(timestamp);
+            double stepReturnSum = 0.0;
+            int stepReturnCount = 0;
+            for (int s = 0; s < universeSize; s++) {
+                int bar = nextBar[s];
+                if (bar < series[s].size() && series[s].timestampAt(bar) == timestamp) {
+                    double price = series[s].closeAt(bar);
+                    if (lastPrice[s] > 0) {
+                        positionsValue += shares[s] * (price - lastPrice[s]);
+                        stepReturnSum += price / lastPrice[s] - 1.0;
+                        stepReturnCount++;
+                    }
+                    lastPrice[s] = price;
+                    barCount.increment();
+                    snapshot.activate(s, bar);
+                    nextBar[s] = bar + 1;
+                }
+            }
+            double stepMarketReturn = stepReturnCount > 0 ? stepReturnSum / stepReturnCount : 0.0;
+            if (stepReturnCount > 0) {
+                marketReturnSum += stepMarketReturn;
+                marketReturnCount++;
+            }
+
+            if (strategy.shouldRebalance(snapshot)) {
+                Arrays.fill(targetWeights, 0.0);
+                long signalStart = System.nanoTime();
+                strategy.computeTargetWeights(snapshot, targetWeights);
+                signalNanos.recordSince(signalStart);
+                metrics.counter(MetricsRegistry.SIGNALS).increment();
+                double equity = cash + positionsValue;
+
+                // Active slots, then held slots without a bar now that the weights drop
+                int tradeCount = 0;
+                for (int i = 0; i < snapshot.activeCount(); i++) {
+                    tradeSlots[tradeCount++] = snapshot.activeSlot(i);
+                }
+                for (int s = 0; s < universeSize; s++) {
+                    if (shares[s] > 0 && targetWeights[s] == 0.0 && series[s].timestampAt(nextBar[s] - 1) != timestamp) {
+                        tradeSlots[tradeCount++] = s;
+                    }
+                }
+
+                // Sells first so that freed cash is available for the buys
+                for (int pass = 0; pass < 2; pass++) {
+                    boolean selling = pass == 0;
+                    for (int i = 0; i < tradeCount; i++) {
+                        int s = tradeSlots[i];
+                        double price = lastPrice[s];
+                        if (!(price > 0)) {
+                            continue;
+                        }
+                        long delta = (long) Math.floor(targetWeights[s] * equity / price) - shares[s];
+
+                        if (selling && delta < 0) {
+                            long quantity = -delta;
+                            cash += quantity * price;
+                            positionsValue -= quantity * price;
+                            shares[s] -= quantity;
+                            events.append(tickerIds[s], timestamp, EventType.SELL, quantity, price);
+
+                            double profit = (price - averagePrice[s]) * quantity;
+                            if (profit < 0) {
+                                events.append(tickerIds[s], timestamp, EventType.LOSS, quantity, profit);
+                            }
+                            if (shares[s] == 0) {
+                                averagePrice[s] = 0.0;
+                            }
+                        } else if (!selling && delta > 0) {
+                            long quantity = Math.min(delta, (long) Math.floor(cash / price));
+                            if (quantity <= 0) {
+                                events.append(tickerIds[s], timestamp, EventType.MISSED_BUY, 0, price);
+                                continue;
+                            }
+                            averagePrice[s] = (averagePrice[s] * shares[s] + price * quantity) / (shares[s] + quantity);
+                            cash -= quantity * price;
+                            positionsValue += quantity * price;
+                            shares[s] += quantity;
+                            events.append(tickerIds[s], timestamp, EventType.BUY, quantity, price);
+                        }
+                    }
+                }
+            }
+
+            double equity = cash + positionsValue;
+            dailyReturns.add(BigDecimal.valueOf(previousEquity > 0 ? equity / previousEquity - 1.0 : 0.0));
+            dailyCapital.add(BigDecimal.valueOf(equity));
+            if (dailyCapital.size() > benchmarkReturns.length) {
+                benchmarkReturns = Arrays.copyOf(benchmarkReturns, benchmarkReturns.length * 2);
+            }
+            benchmarkReturns[dailyCapital.size() - 1] = stepMarketReturn;
+            previousEquity = equity;
+        }
+
+        BigDecimal finalValue = BigDecimal.valueOf(cash + positionsValue);
+        BigDecimal totalReturn = finalValue.subtract(initialCapital)
+                .divide(initialCapital, 4, RoundingMode.HALF_UP)
+                .multiply(BigDecimal.valueOf(100));
+        double risk = marketReturnCount > 0 ? marketReturnSum / marketReturnCount : 0.0;
+
+        metrics.counter(MetricsRegistry.TRADES).add(events.count(EventType.BUY) + events.count(EventType.SELL));
+        metrics.counter(MetricsRegistry.RUNS).increment();
+        metrics.histogram(MetricsRegistry.RUN_NANOS).recordSince(runStart);
+        MetricsRegistry.global().merge(metrics);
+
+        return new BacktestResult(initialCapital, finalValue, totalReturn.doubleValue(), events, dailyReturns, risk,
+                dailyCapital,
+                Arrays.copyOf(benchmarkReturns, dailyCapital.size()), metrics.snapshot());
+    }
+}
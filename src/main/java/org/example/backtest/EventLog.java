@@ -0,0 +1,289 @@
+package org.example.backtest;
+
+import org.example.models.PriceSeries;
+import org.example.models.SymbolTable;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Append-only, columnar log of trades and trade-related events.
+ * <p>
+ * Each event is a ticker id, a timestamp in local epoch seconds, a type, a quantity and a
+ * price, stored in primitive columns split into fixed-size chunks so growing never copies
+ * existing events. Full chunks can optionally be spilled into direct (off-heap) buffers to keep
+ * very large logs out of the Java heap. Nothing is turned into {@link String}s or
+ * {@link Trade} records until it is rendered.
+ */
+public final class EventLog {
+    private static final int CHUNK_SHIFT = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    // Column offsets inside a spilled chunk
+    private static final int TIMESTAMPS_OFFSET = 0;
+    private static final int QUANTITIES_OFFSET = TIMESTAMPS_OFFSET + CHUNK_SIZE * Long.BYTES;
+    private static final int PRICES_OFFSET = QUANTITIES_OFFSET + CHUNK_SIZE * Double.BYTES;
+    private static final int TICKERS_OFFSET = PRICES_OFFSET + CHUNK_SIZE * Double.BYTES;
+    private static final int TYPES_OFFSET = TICKERS_OFFSET + CHUNK_SIZE * Integer.BYTES;
+    private static final int SPILLED_CHUNK_BYTES = TYPES_OFFSET + CHUNK_SIZE;
+
+    /**
+     * Receives events during iteration, without any per-event allocation
+     */
+    @FunctionalInterface
+    public interface EventVisitor {
+        void visit(int tickerId, long timestamp, EventType type, double quantity, double price);
+    }
+
+    private final boolean spillOffHeap;
+    private final List<Chunk> chunks = new ArrayList<>();
+    private final int[] typeCounts = new int[EventType.values().length];
+    private Chunk tail;
+    private int size;
+
+    public EventLog() {
+        this(false);
+    }
+
+    /**
+     * @param spillOffHeap Whether full chunks are moved into direct buffers
+     */
+    public EventLog(boolean spillOffHeap) {
+        this.spillOffHeap = spillOffHeap;
+    }
+
+    /**
+     * Appends an event
+     *
+     * @param tickerId  Symbol table id of the ticker
+     * @param timestamp Local epoch seconds, see {@link PriceSeries#toEpochSeconds}
+     * @param type      Event type
+     * @param quantity  Quantity, see {@link EventType} for its meaning per type
+     * @param price     Price, see {@link EventType} for its meaning per type
+     */
+    public void append(int tickerId, long timestamp, EventType type, double quantity, double price) {
+        int offset = size & CHUNK_MASK;
+        if (offset == 0) {
+            if (tail != null && spillOffHeap) {
+                chunks.set(chunks.size() - 1, tail.spill());
+            }
+            tail = new Chunk();
+            chunks.add(tail);
+        }
+        tail.tickerIds[offset] = tickerId;
+        tail.timestamps[offset] = timestamp;
+        tail.types[offset] = type.code();
+        tail.quantities[offset] = quantity;
+        tail.prices[offset] = price;
+        typeCounts[type.ordinal()]++;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int count(EventType type) {
+        return typeCounts[type.ordinal()];
+    }
+
+    public int tickerIdAt(int index) {
+        return chunkAt(index).tickerId(index & CHUNK_MASK);
+    }
+
+    public long timestampAt(int index) {
+        return chunkAt(index).timestamp(index & CHUNK_MASK);
+    }
+
+    public EventType typeAt(int index) {
+        return EventType.fromCode(chunkAt(index).type(index & CHUNK_MASK));
+    }
+
+    public double quantityAt(int index) {
+        return chunkAt(index).quantity(index & CHUNK_MASK);
+    }
+
+    public double priceAt(int index) {
+        return chunkAt(index).price(index & CHUNK_MASK);
+    }
+
+    /**
+     * @return Timestamp of the last event, or {@code Long.MIN_VALUE} if the log is empty
+     */
+    public long lastTimestamp() {
+        return size > 0 ? timestampAt(size - 1) : Long.MIN_VALUE;
+    }
+
+    public void forEach(EventVisitor visitor) {
+        for (int c = 0; c < chunks.size(); c++) {
+            Chunk chunk = chunks.get(c);
+            int end = Math.min(CHUNK_SIZE, size - (c << CHUNK_SHIFT));
+            for (int i = 0; i < end; i++) {
+                visitor.visit(chunk.tickerId(i), chunk.timestamp(i), EventType.fromCode(chunk.type(i)),
+                        chunk.quantity(i), chunk.price(i));
+            }
+        }
+    }
+
+    public void forEach(EventType type, EventVisitor visitor) {
+        byte code = type.code();
+        for (int c = 0; c < chunks.size(); c++) {
+            Chunk chunk = chunks.get(c);
+            int end = Math.min(CHUNK_SIZE, size - (c << CHUNK_SHIFT));
+            for (int i = 0; i < end; i++) {
+                if (chunk.type(i) == code) {
+                    visitor.visit(chunk.tickerId(i), chunk.timestamp(i), type, chunk.quantity(i), chunk.price(i));
+                }
+            }
+        }
+    }
+
+    // Total quantity over events of a type
+    public double sumQuantity(EventType type) {
+        double[] sum = new double[1];
+        forEach(type, (tickerId, timestamp, t, quantity, price) -> sum[0] += quantity);
+        return sum[0];
+    }
+
+    // Total of the price column over events of a type; for LOSS this is the total loss
+    public double sumPrice(EventType type) {
+        double[] sum = new double[1];
+        forEach(type, (tickerId, timestamp, t, quantity, price) -> sum[0] += price);
+        return sum[0];
+    }
+
+    // Total quantity times price over events of a type, e.g. traded value
+    public double sumNotional(EventType type) {
+        double[] sum = new double[1];
+        forEach(type, (tickerId, timestamp, t, quantity, price) -> sum[0] += quantity * price);
+        return sum[0];
+    }
+
+    /**
+     * @return Number of events of a type per ticker id, indexed by id
+     */
+    public int[] countByTicker(EventType type) {
+        int[] counts = new int[SymbolTable.global().size()];
+        forEach(type, (tickerId, timestamp, t, quantity, price) -> counts[tickerId]++);
+        return counts;
+    }
+
+    /**
+     * Renders the executed buys and sells as {@link Trade} records
+     */
+    public List<Trade> toTrades() {
+        List<Trade> trades = new ArrayList<>(count(EventType.BUY) + count(EventType.SELL));
+        forEach((tickerId, timestamp, type, quantity, price) -> {
+            if (type == EventType.BUY || type == EventType.SELL) {
+                Trade.TradeType side = type == EventType.BUY ? Trade.TradeType.BUY : Trade.TradeType.SELL;
+                trades.add(new Trade(tickerId, side, (int) quantity, BigDecimal.valueOf(price),
+                        PriceSeries.toLocalDateTime(timestamp)));
+            }
+        });
+        return trades;
+    }
+
+    /**
+     * Renders events of a type as text, e.g. {@code "AAPL (Time: 2024-01-02T16:00)"}; LOSS
+     * events also carry {@code " - Loss: <profit>"}
+     */
+    public List<String> render(EventType type) {
+        List<String> lines = new ArrayList<>(count(type));
+        forEach(type, (tickerId, timestamp, t, quantity, price) -> lines.add(render(tickerId, timestamp, t, price)));
+        return lines;
+    }
+
+    /**
+     * Renders one event as text
+     */
+    public String render(int index) {
+        return render(tickerIdAt(index), timestampAt(index), typeAt(index), priceAt(index));
+    }
+
+    private static String render(int tickerId, long timestamp, EventType type, double price) {
+        String line = SymbolTable.global().symbol(tickerId) + " (Time: " + PriceSeries.toLocalDateTime(timestamp) + ")";
+        return type == EventType.LOSS ? line + " - Loss: " + price : line;
+    }
+
+    @Override
+    public String toString() {
+        return "EventLog{events=" + size + ", counts=" + Arrays.toString(typeCounts) + '}';
+    }
+
+    private Chunk chunkAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Event " + index + " of " + size);
+        }
+        return chunks.get(index >>> CHUNK_SHIFT);
+    }
+
+    /**
+     * One block of events, either in on-heap arrays or in a direct buffer once spilled
+     */
+    private static final class Chunk {
+        private final int[] tickerIds;
+        private final long[] timestamps;
+        private final byte[] types;
+        private final double[] quantities;
+        private final double[] prices;
+        private final ByteBuffer spilled;
+
+        Chunk() {
+            this.tickerIds = new int[CHUNK_SIZE];
+            this.timestamps = new long[CHUNK_SIZE];
+            this.types = new byte[CHUNK_SIZE];
+            this.quantities = new double[CHUNK_SIZE];
+            this.prices = new double[CHUNK_SIZE];
+            this.spilled = null;
+        }
+
+        private Chunk(ByteBuffer spilled) {
+            this.tickerIds = null;
+            this.timestamps = null;
+            this.types = null;
+            this.quantities = null;
+            this.prices = null;
+            this.spilled = spilled;
+        }
+
+        // Copies a full on-heap chunk into a direct buffer, column by column
+        Chunk spill() {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(SPILLED_CHUNK_BYTES);
+            buffer.asLongBuffer().put(timestamps);
+            buffer.position(QUANTITIES_OFFSET);
+            buffer.asDoubleBuffer().put(quantities);
+            buffer.position(PRICES_OFFSET);
+            buffer.asDoubleBuffer().put(prices);
+            buffer.position(TICKERS_OFFSET);
+            buffer.asIntBuffer().put(tickerIds);
+            buffer.position(TYPES_OFFSET);
+            buffer.put(types);
+            buffer.clear();
+            return new Chunk(buffer);
+        }
+
+        int tickerId(int i) {
+            return spilled == null ? tickerIds[i] : spilled.getInt(TICKERS_OFFSET + i * Integer.BYTES);
+        }
+
+        long timestamp(int i) {
+            return spilled == null ? timestamps[i] : spilled.getLong(TIMESTAMPS_OFFSET + i * Long.BYTES);
+        }
+
+        byte type(int i) {
+            return spilled == null ? types[i] : spilled.get(TYPES_OFFSET + i);
+        }
+
+        double quantity(int i) {
+            return spilled == null ? quantities[i] : spilled.getDouble(QUANTITIES_OFFSET + i * Double.BYTES);
+        }
+
+        double price(int i) {
+            return spilled == null ? prices[i] : spilled.getDouble(PRICES_OFFSET + i * Double.BYTES);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.backtest;
+
+/**
+ * Kinds of event recorded in an {@link EventLog}.
+ */
+public enum EventType {
+    // Executed buy; quantity and price are the fill
+    BUY,
+    // Executed sell, including positions closed at the end of a run
+    SELL,
+    // Buy signal that could not be acted on; price is the bar's close
+    MISSED_BUY,
+    // Sell signal with nothing to sell; price is the bar's close
+    MISSED_SELL,
+    // Sell that realized a loss; quantity is the shares sold and price holds the (negative) profit
+    LOSS;
+
+    private static final EventType[] VALUES = values();
+
+    static EventType fromCode(byte code) {
+        return VALUES[code];
+    }
+
+    byte code() {
+        return (byte) ordinal();
+    }
+}
@@ -0,0 +1,169 @@
+package org.example.backtest;
+
+import org.example.models.MarketDataPoint;
+import org.example.strategy.Strategy;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Backtest of one strategy that can be extended as new bars arrive.
+ * <p>
+ * The lock-step walk feeds bar {@code i} of every ticker at step {@code i}, so bars appended
+ * beyond the last walked step are walked on top of the existing state and give exactly the
+ * result of a fresh run over the longer history. Only a bar landing on a step that was already
+ * walked, because its ticker had fallen behind the others, makes the run start over.
+ * <p>
+ * Methods are safe to call from several threads; a lock rather than {@code synchronized} guards
+ * the state so that a virtual thread walking a long history does not pin its carrier thread.
+ */
+public class IncrementalBacktest {
+    private final BigDecimal initialCapital;
+    private final Supplier<Strategy> strategyFactory;
+    private final Map<String, List<MarketDataPoint>> marketData = new LinkedHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private StrategyRun run;
+    private final List<BigDecimal> marketReturns = new ArrayList<>();
+    private int nextStep;
+    private int restarts;
+
+    /**
+     * @param initialCapital  Initial capital
+     * @param strategyFactory Creates the strategy, again whenever the run has to start over
+     * @param marketData      Bars per ticker in timestamp order; copied
+     */
+    public IncrementalBacktest(BigDecimal initialCapital, Supplier<Strategy> strategyFactory,
+                               Map<String, List<MarketDataPoint>> marketData) {
+        this.initialCapital = initialCapital;
+        this.strategyFactory = strategyFactory;
+        marketData.forEach((ticker, bars) -> this.marketData.put(ticker, new ArrayList<>(bars)));
+        restart();
+    }
+
+    /**
+     * Walks every step not walked yet. If {@code onStep} throws, the exception is passed on and
+     * the run starts over on the next call.
+     *
+     * @param onStep Told the index of each step once it is walked, or null
+     * @return Number of steps walked by this call
+     */
+    public int advance(IntConsumer onStep) {
+        lock.lock();
+        try {
+            int fromStep = nextStep;
+            try {
+                nextStep = MultiStrategyBacktester.runLockstep(marketData, List.of(run), marketReturns, fromStep, onStep);
+            } catch (RuntimeException e) {
+                restart();
+                throw e;
+            }
+            return nextStep - fromStep;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends bars to a ticker; they are walked by the next {@link #advance} call
+     *
+     * @param ticker Ticker of the bars, added to the universe if new
+     * @param bars   Bars after the ticker's last bar, in timestamp order
+     * @return False if the bars fell on already walked steps and the run was reset to start over
+     */
+    public boolean append(String ticker, List<MarketDataPoint> bars) {
+        if (bars.isEmpty()) {
+            return true;
+        }
+        lock.lock();
+        try {
+            List<MarketDataPoint> series = marketData.computeIfAbsent(ticker, key -> new ArrayList<>());
+            boolean resumable = series.size() >= nextStep;
+            series.addAll(bars);
+            if (!resumable) {
+                restart();
+            }
+            return resumable;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Performance up to the last walked step, or null before the first step is walked
+     */
+    public BacktestResult result() {
+        lock.lock();
+        try {
+            return marketReturns.isEmpty() ? null : run.snapshotPerformance(marketReturns);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Timestamp of the ticker's last bar, or null if it has none
+     */
+    public LocalDateTime lastTimestamp(String ticker) {
+        lock.lock();
+        try {
+            List<MarketDataPoint> series = marketData.get(ticker);
+            return series == null || series.isEmpty() ? null : series.get(series.size() - 1).getTimestamp();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getStepsWalked() {
+        lock.lock();
+        try {
+            return nextStep - 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Steps in the data appended so far, walked or not
+     */
+    public int getTotalSteps() {
+        lock.lock();
+        try {
+            int longest = 0;
+            for (List<MarketDataPoint> series : marketData.values()) {
+                longest = Math.max(longest, series.size());
+            }
+            return Math.max(0, longest - 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Number of times appended bars made the run start over
+     */
+    public int getRestarts() {
+        lock.lock();
+        try {
+            return restarts;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void restart() {
+        if (run != null) {
+            restarts++;
+        }
+        run = new StrategyRun(strategyFactory.get(), null, initialCapital, initialCapital);
+        marketReturns.clear();
+        nextStep = 1;
+    }
+}
@@ -0,0 +1,174 @@
+package org.example.backtest;
+
+import org.example.execution.ExecutionSimulator;
+import org.example.metrics.BacktestPhaseEvent;
+import org.example.metrics.MetricsRegistry;
+import org.example.models.MarketDataPoint;
+import org.example.models.SymbolTable;
+import org.example.strategy.Strategy;
+import org.example.timeseries.SeriesNormalizer;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Evaluates several strategies in a single pass over shared market data.
+ * <p>
+ * Each bar is read once and fed to every strategy, each with its own portfolio, in
+ * lock-step. Results are identical to running {@link Backtester} once per strategy, but the
+ * data walk, market-return calculation and history views are paid for only once.
+ * <p>
+ * The market data is normalized once on construction (see {@link SeriesNormalizer}), so the walk
+ * can take every series as sorted and duplicate-free.
+ */
+public class MultiStrategyBacktester {
+    private final BigDecimal initialCapital;
+    private final List<Strategy> strategies;
+    private final Map<String, List<MarketDataPoint>> marketData;
+    private final Supplier<ExecutionSimulator> simulatorFactory;
+
+    public MultiStrategyBacktester(BigDecimal initialCapital, List<Strategy> strategies,
+                                   Map<String, List<MarketDataPoint>> marketData) {
+        this(initialCapital, strategies, marketData, null);
+    }
+
+    /**
+     * @param simulatorFactory Creates one execution simulator per strategy, or null to fill at the bar's close
+     */
+    public MultiStrategyBacktester(BigDecimal initialCapital, List<Strategy> strategies,
+                                   Map<String, List<MarketDataPoint>> marketData,
+                                   Supplier<ExecutionSimulator> simulatorFactory) {
+        this.initialCapital = initialCapital;
+        this.strategies = List.copyOf(strategies);
+        this.marketData = SeriesNormalizer.normalizeAll(marketData);
+        this.simulatorFactory = simulatorFactory;
+    }
+
+    /**
+     * Runs every strategy over all available data
+     *
+     * @return One BacktestResult per strategy, in the order the strategies were given
+     */
+    public List<BacktestResult> runBacktests() {
+        List<StrategyRun> runs = new ArrayList<>(strategies.size());
+        for (Strategy strategy : strategies) {
+            ExecutionSimulator simulator = simulatorFactory != null ? simulatorFactory.get() : null;
+            runs.add(new StrategyRun(strategy, simulator, initialCapital, initialCapital));
+        }
+
+        List<BigDecimal> marketReturns = new ArrayList<>();
+        runLockstep(marketData, runs, marketReturns);
+
+        List<BacktestResult> results = new ArrayList<>(runs.size());
+        for (StrategyRun run : runs) {
+            results.add(run.calculatePerformance(marketReturns));
+        }
+        return results;
+    }
+
+    /**
+     * Walks the market data once, feeding every bar to each run
+     *
+     * @param marketDataSubset Market data to walk
+     * @param runs             Strategy runs to feed
+     * @param marketReturns    Receives the equal-weighted market return of each step
+     */
+    static void runLockstep(Map<String, List<MarketDataPoint>> marketDataSubset, List<StrategyRun> runs,
+                            List<BigDecimal> marketReturns) {
+        runLockstep(marketDataSubset, runs, marketReturns, 1, null);
+    }
+
+    /**
+     * Walks the market data from a given step to its end. Step {@code i} feeds bar {@code i} of
+     * every ticker long enough to have one, so a walk can be resumed where an earlier one
+     * stopped once more bars have been appended.
+     *
+     * @param marketDataSubset Market data to walk
+     * @param runs             Strategy runs to feed
+     * @param marketReturns    Receives the equal-weighted market return of each step
+     * @param fromStep         First step to walk, at least 1
+     * @param onStep           Told the index of each step once it is walked, or null
+     * @return Index of the first step not walked
+     */
+    static int runLockstep(Map<String, List<MarketDataPoint>> marketDataSubset, List<StrategyRun> runs,
+                           List<BigDecimal> marketReturns, int fromStep, IntConsumer onStep) {
+        // Resolve tickers to ids once so the per-bar loop works on arrays only
+        int tickerCount = marketDataSubset.size();
+        int[] tickerIds = new int[tickerCount];
+        List<List<MarketDataPoint>> series = new ArrayList<>(tickerCount);
+        int maxTimePeriods = 0;
+        for (Map.Entry<String, List<MarketDataPoint>> entry : marketDataSubset.entrySet()) {
+            tickerIds[series.size()] = SymbolTable.global().idOf(entry.getKey());
+            series.add(entry.getValue());
+            maxTimePeriods = Math.max(maxTimePeriods, entry.getValue().size());
+        }
+
+        BacktestPhaseEvent phaseEvent = new BacktestPhaseEvent(BacktestPhaseEvent.DATA_WALK,
+                tickerCount + " tickers, " + runs.size() + " strategies");
+        phaseEvent.begin();
+        long walkStart = System.nanoTime();
+
+        for (int timeIndex = fromStep; timeIndex < maxTimePeriods; timeIndex++) {
+            BigDecimal marketReturn = BigDecimal.ZERO;
+            int validTickers = 0;
+
+            for (StrategyRun run : runs) {
+                run.beginStep();
+            }
+
+            for (int t = 0; t < tickerCount; t++) {
+                List<MarketDataPoint> tickerData = series.get(t);
+                if (timeIndex >= tickerData.size()) {
+                    continue;
+                }
+
+                // Market return calculation
+                MarketDataPoint currentData = tickerData.get(timeIndex);
+                MarketDataPoint previousData = tickerData.get(timeIndex - 1);
+
+                BigDecimal currentPrice = currentData.getClose();
+                BigDecimal previousPrice = previousData.getClose();
+
+                if (previousPrice.compareTo(BigDecimal.ZERO) > 0) {
+                    marketReturn = marketReturn.add(
+                            currentPrice.subtract(previousPrice)
+                                    .divide(previousPrice, MathContext.DECIMAL128)
+                    );
+                    validTickers++;
+                }
+
+                // One history view shared by every strategy
+                List<MarketDataPoint> historicalData = tickerData.subList(0, timeIndex);
+                for (StrategyRun run : runs) {
+                    run.onBar(tickerIds[t], currentData, historicalData);
+                }
+            }
+
+            // Normalize market return
+            if (validTickers > 0) {
+                marketReturn = marketReturn.divide(BigDecimal.valueOf(validTickers), MathContext.DECIMAL128);
+            }
+            marketReturns.add(marketReturn);
+
+            for (StrategyRun run : runs) {
+                run.endStep();
+            }
+            if (onStep != null) {
+                onStep.accept(timeIndex);
+            }
+        }
+
+        // The walk is shared, so each run is charged the whole of it
+        long walkNanos = System.nanoTime() - walkStart;
+        phaseEvent.commit();
+        for (StrategyRun run : runs) {
+            run.getMetrics().histogram(MetricsRegistry.DATA_WALK_NANOS).record(walkNanos);
+        }
+        return Math.max(fromStep, maxTimePeriods);
+    }
+}
@@ -0,0 +1,186 @@
+package org.example.backtest;
+
+import org.example.execution.ExecutionSimulator;
+import org.example.metrics.Histogram;
+import org.example.metrics.MetricsRegistry;
+import org.example.models.MarketDataPoint;
+import org.example.models.PriceSeries;
+import org.example.strategy.Strategy;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Strategies fed one bar at a time as the bars arrive, for paper trading.
+ * <p>
+ * Bars sharing a timestamp make up one step, so a feed that delivers every ticker's bar for
+ * each period in timestamp order gives the same results as {@link MultiStrategyBacktester} over
+ * the same bars. A ticker's first bar only seeds its history, as in the backtest walk. Bars
+ * older than the current step, or repeating a ticker's last timestamp, are dropped and counted.
+ * <p>
+ * Each ticker's history is trimmed to the largest {@link Strategy#historyBars()} of the
+ * strategies, so memory stays bounded over a long session when every strategy declares its
+ * lookback.
+ * <p>
+ * Not thread-safe: a single thread feeds the run and reads its results.
+ */
+public class PaperTradingRun {
+    private final List<StrategyRun> runs;
+    private final int historyBars;
+    private final Map<Integer, List<MarketDataPoint>> histories = new HashMap<>();
+    private final List<BigDecimal> marketReturns = new ArrayList<>();
+
+    private long stepTimestamp = Long.MIN_VALUE;
+    private boolean stepOpen;
+    private BigDecimal marketReturn;
+    private int validTickers;
+
+    private final Histogram signalNanos;
+    private final Histogram orderNanos;
+    private final LongAdder staleBars;
+
+    /**
+     * @param initialCapital   Initial capital of each strategy
+     * @param strategies       Strategies to trade, each with its own portfolio
+     * @param simulatorFactory Creates one execution simulator per strategy, or null to fill at the bar's close
+     * @param metrics          Receives the latency from bar arrival to signal and to order, and stale bar counts
+     */
+    public PaperTradingRun(BigDecimal initialCapital, List<Strategy> strategies,
+                           Supplier<ExecutionSimulator> simulatorFactory, MetricsRegistry metrics) {
+        this.runs = new ArrayList<>(strategies.size());
+        int bars = 1; // The previous close is always needed for the market return
+        for (Strategy strategy : strategies) {
+            ExecutionSimulator simulator = simulatorFactory != null ? simulatorFactory.get() : null;
+            runs.add(new StrategyRun(strategy, simulator, initialCapital, initialCapital));
+            bars = Math.max(bars, strategy.historyBars());
+        }
+        this.historyBars = bars;
+        this.signalNanos = metrics.histogram(MetricsRegistry.LIVE_SIGNAL_NANOS);
+        this.orderNanos = metrics.histogram(MetricsRegistry.LIVE_ORDER_NANOS);
+        this.staleBars = metrics.counter(MetricsRegistry.LIVE_STALE_BARS);
+    }
+
+    /**
+     * Feeds a bar to every strategy, closing the current step first if the bar starts a new one
+     *
+     * @param tickerId     Symbol table id of the bar's ticker
+     * @param bar          The bar
+     * @param arrivalNanos System.nanoTime() reading taken when the bar arrived from the feed
+     * @return False if the bar was dropped as out of order
+     */
+    public boolean onBar(int tickerId, MarketDataPoint bar, long arrivalNanos) {
+        long timestamp = PriceSeries.toEpochSeconds(bar.getTimestamp());
+        List<MarketDataPoint> history = histories.computeIfAbsent(tickerId, id -> new ArrayList<>());
+        if (timestamp < stepTimestamp
+                || (!history.isEmpty() && !history.get(history.size() - 1).getTimestamp().isBefore(bar.getTimestamp()))) {
+            staleBars.increment();
+            return false;
+        }
+        if (timestamp > stepTimestamp) {
+            endStep();
+            stepTimestamp = timestamp;
+        }
+        if (history.isEmpty()) {
+            history.add(bar);
+            return true;
+        }
+
+        if (!stepOpen) {
+            for (StrategyRun run : runs) {
+                run.beginStep();
+            }
+            marketReturn = BigDecimal.ZERO;
+            validTickers = 0;
+            stepOpen = true;
+        }
+
+        BigDecimal previousPrice = history.get(history.size() - 1).getClose();
+        if (previousPrice.compareTo(BigDecimal.ZERO) > 0) {
+            marketReturn = marketReturn.add(
+                    bar.getClose().subtract(previousPrice).divide(previousPrice, MathContext.DECIMAL128));
+            validTickers++;
+        }
+
+        // The history excludes the new bar until every strategy has seen it, as in the backtest walk
+        for (StrategyRun run : runs) {
+            run.onBar(tickerId, bar, history);
+            signalNanos.record(run.getLastSignalNanos() - arrivalNanos);
+            if (run.isLastBarTraded()) {
+                orderNanos.recordSince(arrivalNanos);
+            }
+        }
+        history.add(bar);
+        // Trimmed in batches once twice the needed bars are held, so each bar is moved about once
+        if (history.size() - historyBars >= historyBars) {
+            history.subList(0, history.size() - historyBars).clear();
+        }
+        return true;
+    }
+
+    /**
+     * @return Bars currently held for a ticker
+     */
+    int historySize(int tickerId) {
+        List<MarketDataPoint> history = histories.get(tickerId);
+        return history != null ? history.size() : 0;
+    }
+
+    /**
+     * @return Performance of each strategy up to the last completed step, in the order the
+     * strategies were given, or null before a step has completed
+     */
+    public List<BacktestResult> results() {
+        if (marketReturns.isEmpty()) {
+            return null;
+        }
+        List<BacktestResult> results = new ArrayList<>(runs.size());
+        for (StrategyRun run : runs) {
+            results.add(run.snapshotPerformance(marketReturns));
+        }
+        return results;
+    }
+
+    /**
+     * Closes the current step and ends the run; no bars may be fed afterwards
+     *
+     * @return Final performance of each strategy, or null if no step was completed
+     */
+    public List<BacktestResult> finish() {
+        endStep();
+        if (marketReturns.isEmpty()) {
+            return null;
+        }
+        List<BacktestResult> results = new ArrayList<>(runs.size());
+        for (StrategyRun run : runs) {
+            results.add(run.calculatePerformance(marketReturns));
+        }
+        return results;
+    }
+
+    /**
+     * @return Number of completed steps
+     */
+    public int getSteps() {
+        return marketReturns.size();
+    }
+
+    private void endStep() {
+        if (!stepOpen) {
+            return;
+        }
+        if (validTickers > 0) {
+            marketReturn = marketReturn.divide(BigDecimal.valueOf(validTickers), MathContext.DECIMAL128);
+        }
+        marketReturns.add(marketReturn);
+        for (StrategyRun run : runs) {
+            run.endStep();
+        }
+        stepOpen = false;
+    }
+}
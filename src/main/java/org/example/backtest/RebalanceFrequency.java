@@ -0,0 +1,27 @@
+package org.example.backtest;
+
+import java.time.LocalDate;
+
+/**
+ * How often a rotating universe is screened again
+ */
+public enum RebalanceFrequency {
+    MONTHLY(1),
+    QUARTERLY(3);
+
+    private final int months;
+
+    RebalanceFrequency(int months) {
+        this.months = months;
+    }
+
+    /**
+     * @param date Any date
+     * @return First day of the period following the one containing {@code date}
+     */
+    public LocalDate nextPeriodStart(LocalDate date) {
+        int monthIndex = date.getMonthValue() - 1;
+        LocalDate periodStart = date.withDayOfMonth(1).withMonth(monthIndex - monthIndex % months + 1);
+        return periodStart.plusMonths(months);
+    }
+}
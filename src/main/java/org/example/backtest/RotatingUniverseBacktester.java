@@ -0,0 +1,220 @@
+package org.example.backtest;
+
+import org.example.models.MarketDataPoint;
+import org.example.models.PriceSeries;
+import org.example.models.SymbolTable;
+import org.example.screening.FundamentalsTimeline;
+import org.example.screening.IncrementalScreen;
+import org.example.screening.ScreeningEngine;
+import org.example.strategy.Strategy;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Backtester whose universe is re-screened on a schedule during the simulation.
+ * <p>
+ * At every rebalance date the screen is run against the fundamentals known on that date.
+ * Tickers that stop passing leave the universe: their positions are sold at the last price on
+ * the first step after the rebalance, freeing the cash for the strategy's next buys. Tickers
+ * that start passing join it: only then are their bars loaded, and the strategy sees their
+ * full history before the join, so indicators are warm on the first bar traded. Candidates
+ * that never pass the screen are never loaded.
+ */
+public class RotatingUniverseBacktester {
+    private final BigDecimal initialCapital;
+    private final Strategy strategy;
+    private final ScreeningEngine screeningEngine;
+    private final FundamentalsTimeline fundamentals;
+    private final Function<String, List<MarketDataPoint>> barLoader;
+    private final RebalanceFrequency frequency;
+    private final List<UniverseChange> universeChanges;
+
+    /**
+     * @param initialCapital  Starting cash
+     * @param strategy        Strategy traded on every ticker in the universe
+     * @param screeningEngine Screen deciding the universe
+     * @param fundamentals    Point-in-time fundamentals the screen is run on
+     * @param barLoader       Loads a ticker's bars in timestamp order, e.g. {@code DatabaseMarketDataFetcher::fetchMarketData}
+     * @param frequency       How often the universe is screened again
+     */
+    public RotatingUniverseBacktester(BigDecimal initialCapital, Strategy strategy, ScreeningEngine screeningEngine,
+                                      FundamentalsTimeline fundamentals,
+                                      Function<String, List<MarketDataPoint>> barLoader,
+                                      RebalanceFrequency frequency) {
+        this.initialCapital = initialCapital;
+        this.strategy = strategy;
+        this.screeningEngine = screeningEngine;
+        this.fundamentals = fundamentals;
+        this.barLoader = barLoader;
+        this.frequency = frequency;
+        this.universeChanges = new ArrayList<>();
+    }
+
+    /**
+     * Runs the backtest between two dates
+     *
+     * @param start First date simulated; the first screen is run on it
+     * @param end   Date the simulation stops before
+     * @return BacktestResult containing performance metrics
+     */
+    public BacktestResult runBacktest(LocalDate start, LocalDate end) {
+        universeChanges.clear();
+        IncrementalScreen screen = new IncrementalScreen(screeningEngine, fundamentals);
+        StrategyRun run = new StrategyRun(strategy, null, initialCapital, initialCapital);
+        List<BigDecimal> marketReturns = new ArrayList<>();
+
+        Map<Integer, Member> members = new HashMap<>();
+        List<Member> active = new ArrayList<>();
+        List<Integer> pendingCloses = new ArrayList<>();
+
+        LocalDate rebalanceDate = start;
+        while (rebalanceDate.isBefore(end)) {
+            LocalDate nextRebalance = frequency.nextPeriodStart(rebalanceDate);
+            if (nextRebalance.isAfter(end)) {
+                nextRebalance = end;
+            }
+            rebalance(screen.screenAsOf(rebalanceDate), rebalanceDate, members, active, pendingCloses);
+
+            long segmentEnd = PriceSeries.toEpochSeconds(nextRebalance.atStartOfDay());
+            walkSegment(run, active, pendingCloses, segmentEnd, marketReturns);
+            rebalanceDate = nextRebalance;
+        }
+
+        return run.calculatePerformance(marketReturns);
+    }
+
+    /**
+     * @return Universe changes of the last run, one per rebalance that changed anything
+     */
+    public List<UniverseChange> getUniverseChanges() {
+        return universeChanges;
+    }
+
+    private void rebalance(int[] selected, LocalDate date, Map<Integer, Member> members, List<Member> active,
+                           List<Integer> pendingCloses) {
+        SymbolTable symbols = SymbolTable.global();
+        Map<Integer, Member> remaining = new HashMap<>(members);
+        List<String> joined = new ArrayList<>();
+        long segmentStart = PriceSeries.toEpochSeconds(date.atStartOfDay());
+
+        for (int tickerId : selected) {
+            if (remaining.remove(tickerId) != null) {
+                continue;
+            }
+            String ticker = symbols.symbol(tickerId);
+            List<MarketDataPoint> bars = barLoader.apply(ticker);
+            if (bars == null || bars.isEmpty()) {
+                continue;
+            }
+            Member member = new Member(tickerId, bars);
+            member.cursor = firstAtOrAfter(member.timestamps, segmentStart);
+            members.put(tickerId, member);
+            active.add(member);
+            joined.add(ticker);
+        }
+
+        // Whatever was not selected again leaves, and its bars are released
+        List<String> left = new ArrayList<>();
+        for (Member member : remaining.values()) {
+            members.remove(member.tickerId);
+            active.remove(member);
+            pendingCloses.add(member.tickerId);
+            left.add(symbols.symbol(member.tickerId));
+        }
+
+        if (!joined.isEmpty() || !left.isEmpty()) {
+            universeChanges.add(new UniverseChange(date, joined, left));
+        }
+    }
+
+    /**
+     * Walks the active tickers' bars up to the end of the segment in timestamp order
+     */
+    private static void walkSegment(StrategyRun run, List<Member> active, List<Integer> pendingCloses,
+                                    long segmentEnd, List<BigDecimal> marketReturns) {
+        while (true) {
+            long timestamp = Long.MAX_VALUE;
+            for (Member member : active) {
+                if (member.cursor < member.bars.size()) {
+                    timestamp = Math.min(timestamp, member.timestampAt(member.cursor));
+                }
+            }
+            if (timestamp >= segmentEnd) {
+                return;
+            }
+
+            run.beginStep();
+            for (int tickerId : pendingCloses) {
+                run.closePosition(tickerId, timestamp);
+            }
+            pendingCloses.clear();
+
+            double returnSum = 0.0;
+            int returnCount = 0;
+            for (Member member : active) {
+                int index = member.cursor;
+                if (index >= member.bars.size() || member.timestampAt(index) != timestamp) {
+                    continue;
+                }
+                member.cursor++;
+                if (index == 0) {
+                    continue; // No history yet, as in the lock-step walk
+                }
+
+                MarketDataPoint currentData = member.bars.get(index);
+                double previousClose = member.bars.get(index - 1).getClose().doubleValue();
+                if (previousClose > 0) {
+                    returnSum += currentData.getClose().doubleValue() / previousClose - 1.0;
+                    returnCount++;
+                }
+                run.onBar(member.tickerId, currentData, member.bars.subList(0, index));
+            }
+            marketReturns.add(BigDecimal.valueOf(returnCount > 0 ? returnSum / returnCount : 0.0));
+            run.endStep();
+        }
+    }
+
+    // Index of the first timestamp at or after the time, by binary search
+    private static int firstAtOrAfter(long[] timestamps, long epochSeconds) {
+        int low = 0;
+        int high = timestamps.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[mid] < epochSeconds) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * A ticker in the universe: its bars and the next bar to walk
+     */
+    private static final class Member {
+        final int tickerId;
+        final List<MarketDataPoint> bars;
+        final long[] timestamps;
+        int cursor;
+
+        Member(int tickerId, List<MarketDataPoint> bars) {
+            this.tickerId = tickerId;
+            this.bars = bars;
+            this.timestamps = new long[bars.size()];
+            for (int i = 0; i < timestamps.length; i++) {
+                timestamps[i] = PriceSeries.toEpochSeconds(bars.get(i).getTimestamp());
+            }
+        }
+
+        long timestampAt(int index) {
+            return timestamps[index];
+        }
+    }
+}
@@ -0,0 +1,473 @@
+package org.example.backtest;
+
+import org.example.execution.ExecutionSimulator;
+import org.example.execution.Fill;
+import org.example.execution.FillListener;
+import org.example.execution.Order;
+import org.example.metrics.BacktestPhaseEvent;
+import org.example.metrics.BacktestRunEvent;
+import org.example.metrics.Histogram;
+import org.example.metrics.MetricsRegistry;
+import org.example.models.MarketDataPoint;
+import org.example.models.Portfolio;
+import org.example.models.PriceSeries;
+import org.example.strategy.Strategy;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * State of one strategy while the market data is walked: its portfolio, trade log and
+ * return series. Several runs can be fed the same bars in lock-step.
+ */
+final class StrategyRun {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Strategy strategy;
+    private final ExecutionSimulator executionSimulator;
+    private final BigDecimal initialCapital;
+    private final Portfolio portfolio;
+    private final EventLog events;
+    private final List<Fill> fills;
+    private final FillListener fillCollector;
+    private final List<BigDecimal> strategyReturns;
+
+    // Price each ticker's pending BUY was sized at, indexed by ticker id (0 for none), to tell
+    // how much cash it has committed; the ids holding a reservation are kept densely alongside
+    private double[] reservedPrices = new double[INITIAL_CAPACITY];
+    private int[] reservedIds = new int[INITIAL_CAPACITY];
+    private int reservedCount;
+
+    // Track daily equity (cash plus marked positions) for drawdown calculation
+    private final List<BigDecimal> dailyCapital;
+    private long lastTimestamp;
+
+    // Per-step accumulators
+    private BigDecimal dailyReturn;
+    private int squareOff;
+
+    // Instrumentation, looked up once so the per-bar cost is a few adds
+    private final MetricsRegistry metrics;
+    private final LongAdder barCount;
+    private final LongAdder signalCount;
+    private final LongAdder orderCount;
+    private final LongAdder fillCount;
+    private final Histogram signalNanos;
+    private final Histogram executionNanos;
+    private final BacktestRunEvent runEvent;
+    private final long runStartNanos;
+
+    // Outcome of the last bar, for callers timing the signal path
+    private Strategy.TradeSignal lastSignal;
+    private long lastSignalNanos;
+    private boolean lastBarTraded;
+
+    /**
+     * @param strategy           Strategy generating signals
+     * @param executionSimulator Simulator for pending orders, or null to fill at the bar's close
+     * @param initialCapital     Capital total return is measured against
+     * @param startingCapital    Cash the portfolio starts with
+     */
+    StrategyRun(Strategy strategy, ExecutionSimulator executionSimulator, BigDecimal initialCapital, BigDecimal startingCapital) {
+        this.strategy = strategy;
+        this.executionSimulator = executionSimulator;
+        this.initialCapital = initialCapital;
+        this.portfolio = new Portfolio(startingCapital);
+        this.events = new EventLog();
+        this.fills = new ArrayList<>();
+        this.fillCollector = fills::add;
+        this.strategyReturns = new ArrayList<>();
+        this.dailyCapital = new ArrayList<>();
+
+        if (executionSimulator != null) {
+            executionSimulator.reset();
+        }
+
+        this.metrics = new MetricsRegistry();
+        this.barCount = metrics.counter(MetricsRegistry.BARS);
+        this.signalCount = metrics.counter(MetricsRegistry.SIGNALS);
+        this.orderCount = metrics.counter(MetricsRegistry.ORDERS);
+        this.fillCount = metrics.counter(MetricsRegistry.FILLS);
+        this.signalNanos = metrics.histogram(MetricsRegistry.SIGNAL_NANOS);
+        this.executionNanos = metrics.histogram(MetricsRegistry.EXECUTION_NANOS);
+        this.runEvent = new BacktestRunEvent();
+        this.runEvent.begin();
+        this.runStartNanos = System.nanoTime();
+    }
+
+    // Per-run metrics, for phases timed outside the run
+    MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    List<BigDecimal> getStrategyReturns() {
+        return strategyReturns;
+    }
+
+    Strategy.TradeSignal getLastSignal() {
+        return lastSignal;
+    }
+
+    // System.nanoTime() reading taken when the last signal had been determined
+    long getLastSignalNanos() {
+        return lastSignalNanos;
+    }
+
+    // Whether the last bar placed an order or changed a position
+    boolean isLastBarTraded() {
+        return lastBarTraded;
+    }
+
+    void beginStep() {
+        dailyReturn = BigDecimal.ZERO;
+        squareOff = 0;
+    }
+
+    /**
+     * Processes one ticker's bar: matches the orders placed on earlier bars against it, then
+     * evaluates the signal and trades, or places an order that is matched from the next bar on
+     *
+     * @param tickerId       Symbol table id of the ticker the bar belongs to
+     * @param currentData    Current bar
+     * @param historicalData Bars strictly before the current one
+     */
+    void onBar(int tickerId, MarketDataPoint currentData, List<MarketDataPoint> historicalData) {
+        BigDecimal currentPrice = currentData.getClose();
+        long timestamp = PriceSeries.toEpochSeconds(currentData.getTimestamp());
+        lastTimestamp = timestamp;
+        lastBarTraded = false;
+        barCount.increment();
+
+        // Only this ticker's price changed, so only its position is revalued
+        portfolio.markPrice(tickerId, currentPrice.doubleValue());
+
+        // Orders go to the simulator after their signal bar has closed, so they cannot fill on it
+        long matchStart = System.nanoTime();
+        if (executionSimulator != null) {
+            matchOrders(tickerId, currentData, currentPrice, timestamp);
+        }
+
+        // Strategy signal and trade processing
+        long signalStart = System.nanoTime();
+        Strategy.TradeSignal signal = strategy.determineTradeSignal(historicalData);
+        long tradeStart = System.nanoTime();
+        signalNanos.record(tradeStart - signalStart);
+        lastSignal = signal;
+        lastSignalNanos = tradeStart;
+        if (signal != Strategy.TradeSignal.HOLD) {
+            signalCount.increment();
+        }
+
+        try {
+            processSignal(tickerId, signal, currentData, currentPrice, timestamp);
+        } finally {
+            executionNanos.record((signalStart - matchStart) + (System.nanoTime() - tradeStart));
+        }
+    }
+
+    private void matchOrders(int tickerId, MarketDataPoint currentData, BigDecimal currentPrice, long timestamp) {
+        fills.clear();
+        executionSimulator.onBar(tickerId, currentData, fillCollector);
+        for (Fill fill : fills) {
+            applyFill(fill, timestamp);
+        }
+        if (!fills.isEmpty()) {
+            // Fills mark the position to their own price; the bar still closes at its close
+            portfolio.markPrice(tickerId, currentPrice.doubleValue());
+        }
+    }
+
+    private void processSignal(int tickerId, Strategy.TradeSignal signal, MarketDataPoint currentData,
+                               BigDecimal currentPrice, long timestamp) {
+        if (executionSimulator != null) {
+            submitOrder(tickerId, signal, currentData, timestamp);
+            return;
+        }
+
+        switch (signal) {
+            case BUY:
+                int sharesToBuy = strategy.calculatePositionSize(portfolio.getTotalCapital(), currentPrice);
+                if (sharesToBuy > 0) {
+                    portfolio.addPosition(tickerId, sharesToBuy, currentPrice.doubleValue());
+                    events.append(tickerId, timestamp, EventType.BUY, sharesToBuy, currentPrice.doubleValue());
+                    lastBarTraded = true;
+                } else {
+                    events.append(tickerId, timestamp, EventType.MISSED_BUY, 0, currentPrice.doubleValue());
+                }
+                break;
+
+            case SELL:
+                double held = portfolio.getQuantity(tickerId);
+                if (held > 0) {
+                    squareOff++;
+                    double averagePrice = portfolio.getAveragePrice(tickerId);
+                    int sharesToSell = (int) held;
+
+                    portfolio.removePosition(tickerId, held, currentPrice.doubleValue());
+                    events.append(tickerId, timestamp, EventType.SELL, sharesToSell, currentPrice.doubleValue());
+                    lastBarTraded = true;
+
+                    double profit = (currentPrice.doubleValue() - averagePrice) * sharesToSell;
+                    dailyReturn = dailyReturn.add(BigDecimal.valueOf(profit / averagePrice));
+
+                    if (profit < 0) {
+                        events.append(tickerId, timestamp, EventType.LOSS, sharesToSell, profit);
+                    }
+                } else {
+                    events.append(tickerId, timestamp, EventType.MISSED_SELL, 0, currentPrice.doubleValue());
+                }
+                break;
+
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Sells a whole position at its last marked price, e.g. when the ticker leaves a rotating
+     * universe. Must be called between {@link #beginStep()} and {@link #endStep()}.
+     *
+     * @param tickerId  Symbol table id of the ticker to close
+     * @param timestamp Time of the current step in local epoch seconds
+     */
+    void closePosition(int tickerId, long timestamp) {
+        double held = portfolio.getQuantity(tickerId);
+        if (held <= 0) {
+            return;
+        }
+        double price = portfolio.getLastPrice(tickerId);
+        double averagePrice = portfolio.getAveragePrice(tickerId);
+        int sharesToSell = (int) held;
+
+        squareOff++;
+        portfolio.removePosition(tickerId, held, price);
+        events.append(tickerId, timestamp, EventType.SELL, sharesToSell, price);
+
+        double profit = (price - averagePrice) * sharesToSell;
+        dailyReturn = dailyReturn.add(BigDecimal.valueOf(profit / averagePrice));
+        if (profit < 0) {
+            events.append(tickerId, timestamp, EventType.LOSS, sharesToSell, profit);
+        }
+    }
+
+    void endStep() {
+        if (squareOff > 0) {
+            strategyReturns.add(dailyReturn.divide(BigDecimal.valueOf(squareOff), MathContext.DECIMAL128));
+        } else {
+            strategyReturns.add(BigDecimal.ZERO);
+        }
+        dailyCapital.add(BigDecimal.valueOf(portfolio.getEquity()));
+    }
+
+    /**
+     * Turns a signal into an order on the execution simulator. BUY sizes the order with the
+     * strategy on the cash not already committed to pending BUYs; SELL offers whatever part of
+     * the position is not already being sold.
+     *
+     * @param tickerId    Symbol table id of the ticker the signal is for
+     * @param signal      Strategy signal
+     * @param currentData Bar the signal was generated on
+     * @param timestamp   Bar time in local epoch seconds
+     */
+    private void submitOrder(int tickerId, Strategy.TradeSignal signal, MarketDataPoint currentData, long timestamp) {
+        switch (signal) {
+            case BUY:
+                double available = Math.max(0.0, portfolio.getCash() - committedCash());
+                int sharesToBuy = strategy.calculatePositionSize(BigDecimal.valueOf(available), currentData.getClose());
+                if (sharesToBuy > 0 && executionSimulator.getPendingQuantity(tickerId, Trade.TradeType.BUY) == 0) {
+                    Order order = strategy.createOrder(currentData.getTicker(), signal, sharesToBuy, currentData);
+                    executionSimulator.submit(order);
+                    reserve(tickerId, Double.isNaN(order.getLimitPrice())
+                            ? currentData.getClose().doubleValue() : order.getLimitPrice());
+                    orderCount.increment();
+                    lastBarTraded = true;
+                } else {
+                    events.append(tickerId, timestamp, EventType.MISSED_BUY, 0, currentData.getClose().doubleValue());
+                }
+                break;
+
+            case SELL:
+                long held = (long) portfolio.getQuantity(tickerId);
+                long sharesToSell = held - executionSimulator.getPendingQuantity(tickerId, Trade.TradeType.SELL);
+                if (sharesToSell > 0) {
+                    executionSimulator.submit(strategy.createOrder(currentData.getTicker(), signal, (int) sharesToSell, currentData));
+                    orderCount.increment();
+                    lastBarTraded = true;
+                } else {
+                    events.append(tickerId, timestamp, EventType.MISSED_SELL, 0, currentData.getClose().doubleValue());
+                }
+                break;
+
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Cash the pending BUY orders are expected to spend, at the prices they were sized at.
+     * Tickers whose BUY is no longer pending (filled, cancelled or expired) are dropped.
+     */
+    private double committedCash() {
+        double committed = 0.0;
+        for (int i = 0; i < reservedCount; i++) {
+            int tickerId = reservedIds[i];
+            long pending = executionSimulator.getPendingQuantity(tickerId, Trade.TradeType.BUY);
+            if (pending == 0) {
+                reservedPrices[tickerId] = 0.0;
+                reservedIds[i--] = reservedIds[--reservedCount];
+            } else {
+                committed += pending * reservedPrices[tickerId];
+            }
+        }
+        return committed;
+    }
+
+    private void reserve(int tickerId, double price) {
+        if (tickerId >= reservedPrices.length) {
+            int capacity = Math.max(tickerId + 1, reservedPrices.length * 2);
+            reservedPrices = Arrays.copyOf(reservedPrices, capacity);
+            reservedIds = Arrays.copyOf(reservedIds, capacity);
+        }
+        if (reservedPrices[tickerId] == 0.0) {
+            reservedIds[reservedCount++] = tickerId;
+        }
+        reservedPrices[tickerId] = price;
+    }
+
+    /**
+     * Applies a simulated fill to the portfolio and event log
+     *
+     * @param fill      Fill reported by the simulator
+     * @param timestamp Time of the bar the fill happened on, in local epoch seconds
+     */
+    private void applyFill(Fill fill, long timestamp) {
+        int tickerId = fill.tickerId();
+        double price = fill.price();
+        fillCount.increment();
+
+        if (fill.side() == Trade.TradeType.BUY) {
+            int quantity = fill.quantity();
+            if (quantity * price + fill.commission() > portfolio.getCash()) {
+                // Filled above the price the cash was reserved at: buy only what the cash still covers
+                quantity = (int) Math.max(0.0, Math.floor((portfolio.getCash() - fill.commission()) / price));
+                events.append(tickerId, timestamp, EventType.MISSED_BUY, fill.quantity() - quantity, price);
+            }
+            if (quantity == 0) {
+                return;
+            }
+            portfolio.addPosition(tickerId, quantity, price);
+            portfolio.chargeFees(fill.commission());
+            events.append(tickerId, timestamp, EventType.BUY, quantity, price);
+            lastBarTraded = true;
+            return;
+        }
+
+        double held = portfolio.getQuantity(tickerId);
+        if (held <= 0) {
+            events.append(tickerId, timestamp, EventType.MISSED_SELL, 0, price);
+            return;
+        }
+
+        double averagePrice = portfolio.getAveragePrice(tickerId);
+        int sharesSold = (int) Math.min(fill.quantity(), held);
+        portfolio.removePosition(tickerId, sharesSold, price);
+        portfolio.chargeFees(fill.commission());
+        events.append(tickerId, timestamp, EventType.SELL, sharesSold, price);
+        lastBarTraded = true;
+
+        double profit = (price - averagePrice) * sharesSold - fill.commission();
+        if (profit < 0) {
+            events.append(tickerId, timestamp, EventType.LOSS, sharesSold, profit);
+        }
+        dailyReturn = dailyReturn.add(BigDecimal.valueOf(profit / averagePrice));
+        squareOff++;
+    }
+
+    /**
+     * Calculates final performance metrics. Open positions are valued at the last price
+     * each ticker was marked to.
+     *
+     * @param marketReturns Equal-weighted market return per step
+     * @return BacktestResult containing performance metrics
+     */
+    BacktestResult calculatePerformance(List<BigDecimal> marketReturns) {
+        BacktestPhaseEvent phaseEvent = new BacktestPhaseEvent(BacktestPhaseEvent.PERFORMANCE, strategy.getClass().getSimpleName());
+        phaseEvent.begin();
+        long performanceStart = System.nanoTime();
+
+        // Full revaluation once at the end clears any drift from the incremental updates
+        BigDecimal finalValue = BigDecimal.valueOf(portfolio.revalue());
+
+        // Log a closing trade for every open position
+        for (int i = 0; i < portfolio.getOpenPositionCount(); i++) {
+            int tickerId = portfolio.getOpenPositionId(i);
+            events.append(tickerId, lastTimestamp, EventType.SELL, (int) portfolio.getQuantity(tickerId),
+                    portfolio.getLastPrice(tickerId));
+        }
+
+        long trades = events.count(EventType.BUY) + events.count(EventType.SELL);
+        metrics.histogram(MetricsRegistry.PERFORMANCE_NANOS).recordSince(performanceStart);
+        phaseEvent.commit();
+        metrics.counter(MetricsRegistry.TRADES).add(trades);
+        metrics.counter(MetricsRegistry.RUNS).increment();
+        metrics.histogram(MetricsRegistry.RUN_NANOS).recordSince(runStartNanos);
+        runEvent.strategy = strategy.getClass().getSimpleName();
+        runEvent.bars = barCount.sum();
+        runEvent.trades = trades;
+        runEvent.commit();
+        MetricsRegistry.global().merge(metrics);
+
+        return toResult(finalValue, events, strategyReturns, dailyCapital, marketReturns);
+    }
+
+    /**
+     * Performance of the run so far, without ending it. Open positions are valued at their
+     * last prices and logged as closing trades in a copy of the event log, so the run can be
+     * fed more bars afterwards and nothing is recorded in the global metrics.
+     *
+     * @param marketReturns Equal-weighted market return per step walked so far
+     * @return BacktestResult as if the data ended at the last step walked
+     */
+    BacktestResult snapshotPerformance(List<BigDecimal> marketReturns) {
+        // Same sum as Portfolio.revalue(), without resetting the incrementally tracked value
+        double marketValue = 0.0;
+        for (int i = 0; i < portfolio.getOpenPositionCount(); i++) {
+            int tickerId = portfolio.getOpenPositionId(i);
+            marketValue += portfolio.getQuantity(tickerId) * portfolio.getLastPrice(tickerId);
+        }
+        BigDecimal finalValue = BigDecimal.valueOf(portfolio.getCash() + marketValue);
+
+        EventLog eventsSoFar = new EventLog();
+        events.forEach(eventsSoFar::append);
+        for (int i = 0; i < portfolio.getOpenPositionCount(); i++) {
+            int tickerId = portfolio.getOpenPositionId(i);
+            eventsSoFar.append(tickerId, lastTimestamp, EventType.SELL, (int) portfolio.getQuantity(tickerId),
+                    portfolio.getLastPrice(tickerId));
+        }
+
+        return toResult(finalValue, eventsSoFar, new ArrayList<>(strategyReturns), new ArrayList<>(dailyCapital),
+                marketReturns);
+    }
+
+    private BacktestResult toResult(BigDecimal finalValue, EventLog eventLog, List<BigDecimal> returns,
+                                    List<BigDecimal> capital, List<BigDecimal> marketReturns) {
+        BigDecimal totalReturn = finalValue.subtract(initialCapital)
+                .divide(initialCapital, 4, RoundingMode.HALF_UP)
+                .multiply(BigDecimal.valueOf(100));
+        double[] benchmarkReturns = new double[marketReturns.size()];
+        for (int i = 0; i < benchmarkReturns.length; i++) {
+            benchmarkReturns[i] = marketReturns.get(i).doubleValue();
+        }
+        double risk = marketReturns.stream()
+                .reduce(BigDecimal.ZERO, BigDecimal::add)
+                .divide(BigDecimal.valueOf(marketReturns.size()), 4, RoundingMode.HALF_UP).doubleValue();
+
+        return new BacktestResult(initialCapital, finalValue, totalReturn.doubleValue(), eventLog, returns, risk,
+                capital, benchmarkReturns, metrics.snapshot());
+    }
+}
@@ -1,12 +1,17 @@
 package org.example.backtest;
 
+import org.example.models.SymbolTable;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
-public record Trade(String ticker, org.example.backtest.Trade.TradeType type, int quantity, BigDecimal price,
+public record Trade(int tickerId, org.example.backtest.Trade.TradeType type, int quantity, BigDecimal price,
                     LocalDateTime timestamp) {
     public enum TradeType {
         BUY, SELL
     }
 
+    public String ticker() {
+        return SymbolTable.global().symbol(tickerId);
+    }
 }
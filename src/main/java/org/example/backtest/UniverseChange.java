@@ -0,0 +1,14 @@
+package org.example.backtest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Tickers that joined and left a rotating universe at one rebalance
+ *
+ * @param date   Rebalance date
+ * @param joined Tickers that passed the screen and were not in the universe before
+ * @param left   Tickers that no longer passed; their positions were closed
+ */
+public record UniverseChange(LocalDate date, List<String> joined, List<String> left) {
+}
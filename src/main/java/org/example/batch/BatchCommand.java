@@ -0,0 +1,149 @@
+package org.example.batch;
+
+import org.example.models.MarketDataPoint;
+import org.example.repository.CorporateActionRepository;
+import org.example.repository.LocalBarCache;
+import org.example.repository.MarketDataRepository;
+import org.example.results.RunCache;
+import org.example.utils.AppLogger;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Headless command line entry point for batch backtests.
+ * <pre>
+ * BatchCommand [--threads N] [--output FILE] [--cache DIR] [--adjusted] [--run-cache DIR] JOBFILE...
+ * </pre>
+ * Job files are run one after another in the same JVM and on the same {@link BatchRunner}, so
+ * bars loaded for one file are reused by the next. Bars are read from the local bar cache when
+ * {@code --cache} is given, otherwise from the database, and adjusted for recorded splits and
+ * dividends with {@code --adjusted}. {@code --threads} and {@code --output}
+ * override the values in the job files; results go to standard output when neither sets a file.
+ * With {@code --run-cache}, results are kept in a {@link RunCache} in that directory and jobs
+ * whose strategy, parameters, capital and bars match an earlier run are not run again.
+ * Hibernate echoes SQL to standard output, so an output file is required when bars come from
+ * the database.
+ * <p>
+ * The exit status is 0 when every job succeeded, 1 when a job or the batch failed and 2 for
+ * bad arguments.
+ */
+public class BatchCommand {
+    private static final AppLogger logger = new AppLogger(BatchCommand.class);
+
+    static final int EXIT_OK = 0;
+    static final int EXIT_FAILED = 1;
+    static final int EXIT_USAGE = 2;
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        int status = run(args);
+        if (status != EXIT_OK) {
+            System.exit(status);
+        }
+    }
+
+    /**
+     * Runs the command
+     *
+     * @param args Command line arguments
+     * @return Exit status
+     */
+    static int run(String[] args) {
+
+        Integer threads = null;
+        Path output = null;
+        Path cacheDirectory = null;
+        boolean adjusted = false;
+        Path runCacheDirectory = null;
+        List<Path> jobFiles = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--threads" -> threads = Integer.parseInt(args[++i]);
+                    case "--output" -> output = Path.of(args[++i]);
+                    case "--cache" -> cacheDirectory = Path.of(args[++i]);
+                    case "--adjusted" -> adjusted = true;
+                    case "--run-cache" -> runCacheDirectory = Path.of(args[++i]);
+                    default -> jobFiles.add(Path.of(args[i]));
+                }
+            }
+            if (jobFiles.isEmpty()) {
+                System.out.println("Usage: BatchCommand [--threads N] [--output FILE] [--cache DIR] [--adjusted] [--run-cache DIR] JOBFILE...");
+                return EXIT_USAGE;
+            }
+
+            List<JobFile> batches = new ArrayList<>(jobFiles.size());
+            for (Path jobFile : jobFiles) {
+                JobFile batch = JobFile.read(jobFile);
+                if (cacheDirectory == null && output == null && batch.output() == null) {
+                    logger.warn("Results of " + jobFile + " would go to standard output, where the database's SQL "
+                            + "logging also goes: give --output or an output in the job file, or use --cache");
+                    return EXIT_USAGE;
+                }
+                batches.add(batch);
+            }
+            int poolSize = threads != null ? threads : batches.get(0).threads();
+            boolean anyFailed = false;
+
+            MarketDataRepository repository = cacheDirectory == null ? new MarketDataRepository() : null;
+            CorporateActionRepository actionRepository = repository != null && adjusted ? new CorporateActionRepository() : null;
+            RunCache runCache = runCacheDirectory != null ? new RunCache(RunCache.DEFAULT_MAX_BYTES, runCacheDirectory) : null;
+            try (BatchRunner runner = new BatchRunner(barLoader(cacheDirectory, adjusted, repository, actionRepository),
+                    poolSize, BatchRunner.UNBOUNDED, runCache)) {
+                for (int b = 0; b < batches.size(); b++) {
+                    JobFile batch = batches.get(b);
+                    long start = System.nanoTime();
+                    List<JobOutcome> outcomes = new ArrayList<>(batch.invalid());
+                    outcomes.addAll(runner.run(batch.jobs()));
+                    Path target = output != null ? output : batch.output();
+                    if (target != null) {
+                        BatchRunner.writeResults(outcomes, target);
+                    } else {
+                        Writer stdout = new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+                        BatchRunner.writeResults(outcomes, stdout);
+                    }
+                    long failed = outcomes.stream().filter(outcome -> !outcome.succeeded()).count();
+                    anyFailed |= failed > 0;
+                    logger.info(String.format("%s: %d jobs, %d failed, %d ms", jobFiles.get(b), outcomes.size(), failed,
+                            (System.nanoTime() - start) / 1_000_000));
+                }
+            } finally {
+                if (repository != null) {
+                    repository.close();
+                }
+                if (actionRepository != null) {
+                    actionRepository.close();
+                }
+            }
+            return anyFailed ? EXIT_FAILED : EXIT_OK;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Batch interrupted", e);
+            return EXIT_FAILED;
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            logger.error("Bad arguments", e);
+            return EXIT_USAGE;
+        } catch (IOException | RuntimeException e) {
+            logger.error("Batch failed", e);
+            return EXIT_FAILED;
+        }
+    }
+
+    private static Function<String, List<MarketDataPoint>> barLoader(Path cacheDirectory, boolean adjusted,
+                                                                     MarketDataRepository repository,
+                                                                     CorporateActionRepository actionRepository)
+            throws IOException {
+        if (cacheDirectory == null) {
+            return BatchRunner.repositoryLoader(repository, actionRepository);
+        }
+        return BatchRunner.cacheLoader(new LocalBarCache(cacheDirectory), adjusted);
+    }
+}
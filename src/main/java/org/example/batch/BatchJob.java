@@ -0,0 +1,63 @@
+package org.example.batch;
+
+import org.example.strategy.StrategyFactory;
+import org.json.JSONObject;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One backtest of a batch
+ *
+ * @param id         Name the job's result is reported under
+ * @param strategy   Strategy to run
+ * @param parameters Strategy parameters overriding the defaults
+ * @param capital    Initial capital
+ * @param tickers    Universe, sorted
+ * @param start      First date included, or null for all history
+ * @param end        Last date included, or null for all history
+ */
+public record BatchJob(String id, StrategyFactory.StrategyType strategy, Map<String, String> parameters,
+                       BigDecimal capital, List<String> tickers, LocalDate start, LocalDate end) {
+
+    public BatchJob {
+        if (id == null || strategy == null || capital == null || tickers == null) {
+            throw new IllegalArgumentException("Job needs an id, a strategy, capital and tickers");
+        }
+        if (tickers.isEmpty()) {
+            throw new IllegalArgumentException("Job " + id + " has no tickers");
+        }
+        if (start != null && end != null && end.isBefore(start)) {
+            throw new IllegalArgumentException("Job " + id + " ends before it starts");
+        }
+        parameters = Map.copyOf(parameters);
+        tickers = tickers.stream().distinct().sorted().toList();
+    }
+
+    /**
+     * @return The job in the format of a job file entry, readable by {@link JobFile#parseJob}
+     */
+    public JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        json.put("id", id);
+        json.put("strategy", strategy.name());
+        json.put("parameters", new JSONObject(parameters));
+        json.put("capital", capital);
+        json.put("tickers", tickers);
+        json.put("start", start != null ? start.toString() : JSONObject.NULL);
+        json.put("end", end != null ? end.toString() : JSONObject.NULL);
+        return json;
+    }
+
+    /**
+     * Jobs with equal data keys walk exactly the same bars and can share one pass
+     */
+    DataKey dataKey() {
+        return new DataKey(capital, tickers, start, end);
+    }
+
+    record DataKey(BigDecimal capital, List<String> tickers, LocalDate start, LocalDate end) {
+    }
+}
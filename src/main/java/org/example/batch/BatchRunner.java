@@ -0,0 +1,315 @@
+package org.example.batch;
+
+import org.example.backtest.BacktestResult;
+import org.example.backtest.MultiStrategyBacktester;
+import org.example.models.AdjustmentFactors;
+import org.example.models.MarketDataPoint;
+import org.example.repository.CorporateActionRepository;
+import org.example.repository.LocalBarCache;
+import org.example.repository.MarketDataRepository;
+import org.example.results.RunCache;
+import org.example.results.RunKey;
+import org.example.strategy.Strategy;
+import org.example.strategy.StrategyFactory;
+import org.example.timeseries.NormalizedSeries;
+import org.example.timeseries.SeriesNormalizer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Runs batches of backtests in one long-lived JVM.
+ * <p>
+ * Bars are loaded once per ticker and kept across batches, so later batches start warm. A
+ * runner may be given a bound on the tickers it keeps: before a batch loads its bars, the
+ * tickers used least recently are dropped, though never those of the batch itself. Jobs over
+ * the same universe, date range and capital are evaluated together in a single
+ * {@link MultiStrategyBacktester} pass; the passes are spread over a fixed pool. A failing job
+ * is reported in its outcome and does not stop the batch.
+ * <p>
+ * With a {@link RunCache}, each job is looked up by its {@link RunKey} first and only the misses
+ * are run; their results are added to the cache.
+ */
+public class BatchRunner implements AutoCloseable {
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    private final Function<String, List<MarketDataPoint>> barLoader;
+    private final ExecutorService pool;
+    private final int maxCachedTickers;
+    private final RunCache runCache;
+    private final Map<String, NormalizedSeries> bars = new ConcurrentHashMap<>();
+    // Cached tickers, least recently used first; only touched by run, under the runner's lock
+    private final LinkedHashMap<String, Boolean> recency = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * @param barLoader Loads a ticker's bars; they are normalized once loaded
+     * @param threads   Size of the worker pool
+     */
+    public BatchRunner(Function<String, List<MarketDataPoint>> barLoader, int threads) {
+        this(barLoader, threads, UNBOUNDED);
+    }
+
+    /**
+     * @param barLoader        Loads a ticker's bars; they are normalized once loaded
+     * @param threads          Size of the worker pool
+     * @param maxCachedTickers Tickers whose bars are kept between batches, or {@link #UNBOUNDED}
+     */
+    public BatchRunner(Function<String, List<MarketDataPoint>> barLoader, int threads, int maxCachedTickers) {
+        this(barLoader, threads, maxCachedTickers, null);
+    }
+
+    /**
+     * @param barLoader        Loads a ticker's bars; they are normalized once loaded
+     * @param threads          Size of the worker pool
+     * @param maxCachedTickers Tickers whose bars are kept between batches, or {@link #UNBOUNDED}
+     * @param runCache         Cache of earlier results, or null to run every job
+     */
+    public BatchRunner(Function<String, List<MarketDataPoint>> barLoader, int threads, int maxCachedTickers,
+                       RunCache runCache) {
+        if (maxCachedTickers < 0) {
+            throw new IllegalArgumentException("Ticker cache bound must not be negative: " + maxCachedTickers);
+        }
+        this.barLoader = barLoader;
+        this.pool = Executors.newFixedThreadPool(threads);
+        this.maxCachedTickers = maxCachedTickers;
+        this.runCache = runCache;
+    }
+
+    /**
+     * Runs every job. Batches run one at a time on a runner.
+     *
+     * @param jobs Jobs to run
+     * @return One outcome per job, in the order given
+     */
+    public synchronized List<JobOutcome> run(List<BatchJob> jobs) throws InterruptedException {
+        evictFor(jobs);
+        loadBars(jobs);
+
+        Map<BatchJob.DataKey, List<BatchJob>> groups = new LinkedHashMap<>();
+        for (BatchJob job : jobs) {
+            groups.computeIfAbsent(job.dataKey(), key -> new ArrayList<>()).add(job);
+        }
+
+        List<Future<List<JobOutcome>>> futures = new ArrayList<>(groups.size());
+        for (List<BatchJob> group : groups.values()) {
+            futures.add(pool.submit(() -> runGroup(group)));
+        }
+
+        // Identity, so that two identical jobs each get their own outcome
+        Map<BatchJob, JobOutcome> outcomes = new IdentityHashMap<>();
+        for (Future<List<JobOutcome>> future : futures) {
+            try {
+                for (JobOutcome outcome : future.get()) {
+                    outcomes.put(outcome.job(), outcome);
+                }
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Batch pass failed unexpectedly", e.getCause());
+            }
+        }
+
+        List<JobOutcome> ordered = new ArrayList<>(jobs.size());
+        for (BatchJob job : jobs) {
+            ordered.add(outcomes.get(job));
+        }
+        return ordered;
+    }
+
+    /**
+     * Writes outcomes as JSON Lines, one object per job
+     */
+    public static void writeResults(List<JobOutcome> outcomes, Writer writer) throws IOException {
+        for (JobOutcome outcome : outcomes) {
+            writer.write(outcome.toJson().toString());
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    public static void writeResults(List<JobOutcome> outcomes, Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            writeResults(outcomes, writer);
+        }
+    }
+
+    /**
+     * @return Bar loader reading a local bar cache; tickers missing from the cache have no bars
+     */
+    public static Function<String, List<MarketDataPoint>> cacheLoader(LocalBarCache cache) {
+        return cacheLoader(cache, false);
+    }
+
+    /**
+     * @param adjusted Whether bars are adjusted for the splits and dividends recorded in the cache
+     * @return Bar loader reading a local bar cache; tickers missing from the cache have no bars
+     */
+    public static Function<String, List<MarketDataPoint>> cacheLoader(LocalBarCache cache, boolean adjusted) {
+        return ticker -> {
+            try {
+                if (!cache.contains(ticker)) {
+                    return List.of();
+                }
+                return (adjusted ? cache.readAdjusted(ticker) : cache.read(ticker)).toDataPoints();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    /**
+     * @param actions Corporate actions the bars are adjusted for, or null for the bars as stored
+     * @return Bar loader reading the database
+     */
+    public static Function<String, List<MarketDataPoint>> repositoryLoader(MarketDataRepository repository,
+                                                                           CorporateActionRepository actions) {
+        if (actions == null) {
+            return repository::getByTicker;
+        }
+        return ticker -> repository.getSeries(ticker, AdjustmentFactors.of(ticker, actions.findByTicker(ticker)))
+                .toDataPoints();
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * @return Number of tickers whose bars are currently held
+     */
+    int cachedTickers() {
+        return bars.size();
+    }
+
+    // Marks the batch's tickers as most recent, then drops the oldest others beyond the bound
+    private void evictFor(List<BatchJob> jobs) {
+        Set<String> needed = new HashSet<>();
+        for (BatchJob job : jobs) {
+            needed.addAll(job.tickers());
+        }
+        for (String ticker : needed) {
+            recency.put(ticker, Boolean.TRUE);
+        }
+        Iterator<String> oldest = recency.keySet().iterator();
+        while (recency.size() > maxCachedTickers && oldest.hasNext()) {
+            String ticker = oldest.next();
+            if (needed.contains(ticker)) {
+                break; // Only this batch's tickers are left
+            }
+            oldest.remove();
+            bars.remove(ticker);
+        }
+    }
+
+    // Tickers not seen by an earlier batch are loaded in parallel on the pool
+    private void loadBars(List<BatchJob> jobs) throws InterruptedException {
+        List<Future<?>> loads = new ArrayList<>();
+        jobs.stream().flatMap(job -> job.tickers().stream()).distinct()
+                .filter(ticker -> !bars.containsKey(ticker))
+                .forEach(ticker -> loads.add(pool.submit(() -> {
+                    List<MarketDataPoint> loaded = barLoader.apply(ticker);
+                    bars.put(ticker, SeriesNormalizer.normalize(ticker, loaded != null ? loaded : List.of()));
+                })));
+        for (Future<?> load : loads) {
+            try {
+                load.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Loading bars failed", e.getCause());
+            }
+        }
+    }
+
+    private List<JobOutcome> runGroup(List<BatchJob> group) {
+        long start = System.nanoTime();
+        List<JobOutcome> outcomes = new ArrayList<>(group.size());
+        List<BatchJob> runnable = new ArrayList<>(group.size());
+        List<Strategy> strategies = new ArrayList<>(group.size());
+        for (BatchJob job : group) {
+            try {
+                strategies.add(StrategyFactory.createStrategy(job.strategy(), job.parameters()));
+                runnable.add(job);
+            } catch (IllegalArgumentException e) {
+                outcomes.add(new JobOutcome(job, null, 0, e.getMessage()));
+            }
+        }
+        if (runnable.isEmpty()) {
+            return outcomes;
+        }
+
+        BatchJob first = runnable.get(0);
+        try {
+            Map<String, List<MarketDataPoint>> data = slice(first.tickers(), first.start(), first.end());
+            List<RunKey> keys = new ArrayList<>(runnable.size());
+            if (runCache != null) {
+                // Jobs already in the cache are answered from it and left out of the pass
+                for (int i = runnable.size() - 1; i >= 0; i--) {
+                    BatchJob job = runnable.get(i);
+                    RunKey key = RunKey.of(job.strategy(), strategies.get(i), job.capital(), data, "");
+                    BacktestResult cached = runCache.get(key);
+                    if (cached != null) {
+                        outcomes.add(new JobOutcome(job, cached, 0, null));
+                        runnable.remove(i);
+                        strategies.remove(i);
+                    } else {
+                        keys.add(0, key);
+                    }
+                }
+                if (runnable.isEmpty()) {
+                    return outcomes;
+                }
+            }
+
+            List<BacktestResult> results = new MultiStrategyBacktester(first.capital(), strategies, data).runBacktests();
+            long elapsed = (System.nanoTime() - start) / 1_000_000;
+            for (int i = 0; i < runnable.size(); i++) {
+                outcomes.add(new JobOutcome(runnable.get(i), results.get(i), elapsed, null));
+                if (runCache != null) {
+                    runCache.put(keys.get(i), results.get(i));
+                }
+            }
+        } catch (RuntimeException e) {
+            long elapsed = (System.nanoTime() - start) / 1_000_000;
+            for (BatchJob job : runnable) {
+                outcomes.add(new JobOutcome(job, null, elapsed, String.valueOf(e)));
+            }
+        }
+        return outcomes;
+    }
+
+    /**
+     * Views of the loaded bars restricted to a date range, found by binary search
+     */
+    private Map<String, List<MarketDataPoint>> slice(List<String> tickers, LocalDate start, LocalDate end) {
+        Map<String, List<MarketDataPoint>> subset = new LinkedHashMap<>();
+        for (String ticker : tickers) {
+            NormalizedSeries series = bars.get(ticker);
+            int from = start != null ? series.firstAtOrAfter(start.atStartOfDay()) : 0;
+            int to = end != null ? series.firstAtOrAfter(end.plusDays(1).atStartOfDay()) : series.size();
+            if (from < to) {
+                subset.put(ticker, series.subList(from, to));
+            }
+        }
+        return subset;
+    }
+}
@@ -0,0 +1,140 @@
+package org.example.batch;
+
+import org.example.strategy.StrategyFactory;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A batch of backtests read from a JSON job file:
+ * <pre>
+ * {
+ *   "threads": 8,
+ *   "output": "results/batch.jsonl",
+ *   "capital": 100000,
+ *   "tickers": ["AAPL", "MSFT"],
+ *   "jobs": [
+ *     {"id": "rsi-default", "strategy": "RSI"},
+ *     {"id": "rsi-wide", "strategy": "RSI", "parameters": {"overbought": 80, "oversold": 20},
+ *      "start": "2022-01-01", "end": "2023-12-31"},
+ *     {"id": "ma-fast", "strategy": "MOVING_AVERAGE", "parameters": {"shortPeriod": 20}, "tickers": ["A"]}
+ *   ]
+ * }
+ * </pre>
+ * Top-level {@code capital}, {@code tickers}, {@code start} and {@code end} are defaults that
+ * each job may override. A job that cannot be read (unknown strategy, no tickers, a bad date)
+ * is reported as a failed outcome and the others still run.
+ *
+ * @param threads Size of the worker pool
+ * @param output  File the results are written to, or null for standard output
+ * @param jobs    Valid jobs in file order
+ * @param invalid Failed outcomes of the jobs that could not be read, in file order
+ */
+public record JobFile(int threads, Path output, List<BatchJob> jobs, List<JobOutcome> invalid) {
+    private static final BigDecimal DEFAULT_CAPITAL = new BigDecimal("100000");
+
+    public static JobFile read(Path path) throws IOException {
+        try {
+            return parse(new JSONObject(Files.readString(path)), path.toAbsolutePath().getParent());
+        } catch (JSONException e) {
+            throw new IOException("Malformed job file " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @param root      Parsed job file
+     * @param directory Directory relative output paths are resolved against
+     */
+    static JobFile parse(JSONObject root, Path directory) {
+        int threads = root.optInt("threads", Runtime.getRuntime().availableProcessors());
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        String output = root.optString("output", null);
+
+        JSONArray jobArray = root.getJSONArray("jobs");
+        List<BatchJob> jobs = new ArrayList<>(jobArray.length());
+        List<JobOutcome> invalid = new ArrayList<>();
+        for (int i = 0; i < jobArray.length(); i++) {
+            String defaultId = "job-" + (i + 1);
+            JSONObject job = jobArray.optJSONObject(i);
+            try {
+                if (job == null) {
+                    throw new IllegalArgumentException("Job " + defaultId + " is not an object");
+                }
+                jobs.add(parseJob(job, root, defaultId));
+            } catch (JSONException | IllegalArgumentException | DateTimeParseException e) {
+                invalid.add(JobOutcome.invalid(job != null ? job.optString("id", defaultId) : defaultId,
+                        e.getMessage()));
+            }
+        }
+        return new JobFile(threads, output != null ? directory.resolve(output) : null, List.copyOf(jobs),
+                List.copyOf(invalid));
+    }
+
+    /**
+     * Parses one job object, in the format of the entries of a job file's {@code jobs} array
+     *
+     * @param job       Job object
+     * @param defaults  Object holding default {@code capital}, {@code tickers}, {@code start} and {@code end}
+     * @param defaultId Id used when the job has none
+     * @return The job
+     * @throws JSONException            If a field has the wrong type or the strategy is missing
+     * @throws IllegalArgumentException If the strategy is unknown or a value is out of range
+     * @throws DateTimeParseException   If a date is malformed
+     */
+    public static BatchJob parseJob(JSONObject job, JSONObject defaults, String defaultId) {
+        String id = job.optString("id", defaultId);
+        return new BatchJob(
+                id,
+                StrategyFactory.StrategyType.valueOf(job.getString("strategy").toUpperCase()),
+                parameters(job.optJSONObject("parameters")),
+                new BigDecimal(setting(job, defaults, "capital", DEFAULT_CAPITAL.toPlainString())),
+                tickers(job.has("tickers") ? job.getJSONArray("tickers") : defaults.optJSONArray("tickers"), id),
+                date(setting(job, defaults, "start", null)),
+                date(setting(job, defaults, "end", null)));
+    }
+
+    private static String setting(JSONObject job, JSONObject defaults, String key, String defaultValue) {
+        if (job.has(key)) {
+            return job.isNull(key) ? defaultValue : job.get(key).toString();
+        }
+        return defaults.has(key) && !defaults.isNull(key) ? defaults.get(key).toString() : defaultValue;
+    }
+
+    private static Map<String, String> parameters(JSONObject parameters) {
+        Map<String, String> values = new LinkedHashMap<>();
+        if (parameters != null) {
+            for (String key : parameters.keySet()) {
+                values.put(key, parameters.get(key).toString());
+            }
+        }
+        return values;
+    }
+
+    private static List<String> tickers(JSONArray tickers, String id) {
+        if (tickers == null) {
+            throw new IllegalArgumentException("Job " + id + " has no tickers and the file has no default");
+        }
+        List<String> values = new ArrayList<>(tickers.length());
+        for (int i = 0; i < tickers.length(); i++) {
+            values.add(tickers.getString(i));
+        }
+        return values;
+    }
+
+    private static LocalDate date(String value) {
+        return value != null ? LocalDate.parse(value) : null;
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.batch;
+
+import org.example.backtest.BacktestResult;
+import org.json.JSONObject;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Result of one batch job
+ *
+ * @param id          Name the job is reported under
+ * @param job         The job, or null if its definition was invalid
+ * @param result      Backtest result, or null if the job failed
+ * @param elapsedMillis Wall time of the pass the job ran in, shared with jobs over the same data
+ * @param error       Failure message, or null if the job succeeded
+ */
+public record JobOutcome(String id, BatchJob job, BacktestResult result, long elapsedMillis, String error) {
+
+    public JobOutcome(BatchJob job, BacktestResult result, long elapsedMillis, String error) {
+        this(job.id(), job, result, elapsedMillis, error);
+    }
+
+    /**
+     * @param id    Id of the job, or its default id if the definition has none
+     * @param error Why the definition was rejected
+     * @return Outcome of a job that could not be read, so the rest of its batch can still run
+     */
+    public static JobOutcome invalid(String id, String error) {
+        return new JobOutcome(id, null, null, 0, error);
+    }
+
+    public boolean succeeded() {
+        return error == null;
+    }
+
+    /**
+     * @return One JSON object per job, as written to the results file
+     */
+    public JSONObject toJson() {
+        JSONObject json = job != null ? job.toJson() : new JSONObject().put("id", id);
+        json.put("elapsedMillis", elapsedMillis);
+        if (result == null) {
+            json.put("error", error);
+            return json;
+        }
+        json.put("finalCapital", result.finalCapital());
+        json.put("totalReturn", result.totalReturn());
+        json.put("sharpeRatio", ratio(result::calculateSharpeRatio));
+        json.put("sortinoRatio", ratio(result::calculateSortinoRatio));
+        json.put("maxDrawdown", ratio(result::calculateMaxDrawdown));
+        json.put("trades", result.trades().size());
+        json.put("days", result.dailyCapital().size());
+        return json;
+    }
+
+    // Null when undefined: JSON has no NaN or infinity, and the BigDecimal ratios divide by a
+    // deviation that rounds to zero on flat equity curves
+    private static Object ratio(DoubleSupplier calculation) {
+        try {
+            double value = calculation.getAsDouble();
+            return Double.isFinite(value) ? value : JSONObject.NULL;
+        } catch (ArithmeticException e) {
+            return JSONObject.NULL;
+        }
+    }
+}
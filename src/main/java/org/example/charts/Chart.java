@@ -0,0 +1,62 @@
+package org.example.charts;
+
+import org.example.backtest.BacktestResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * A line chart of one or more series sharing their axes
+ *
+ * @param title  Chart title
+ * @param xLabel X axis label
+ * @param yLabel Y axis label
+ * @param series Lines to draw, in legend order
+ */
+public record Chart(String title, String xLabel, String yLabel, List<ChartSeries> series) {
+
+    public Chart {
+        series = List.copyOf(series);
+    }
+
+    /**
+     * Equity curves of several backtests, one line per entry
+     */
+    public static Chart equity(Map<String, BacktestResult> results) {
+        return new Chart("Equity", "Time (Days)", "Equity", lines(results, ChartSeries::equity));
+    }
+
+    /**
+     * Drawdowns of several backtests in percent, one line per entry
+     */
+    public static Chart drawdown(Map<String, BacktestResult> results) {
+        return new Chart("Drawdown", "Time (Days)", "Drawdown (%)", lines(results, ChartSeries::drawdown));
+    }
+
+    /**
+     * Daily returns of several backtests, one line per entry
+     */
+    public static Chart dailyReturns(Map<String, BacktestResult> results) {
+        return new Chart("Daily Returns Over Time", "Time (Days)", "Daily Return", lines(results, ChartSeries::dailyReturns));
+    }
+
+    /**
+     * @return This chart with every series reduced to about {@code points} points
+     */
+    public Chart downsample(Downsampler.Method method, int points) {
+        List<ChartSeries> reduced = new ArrayList<>(series.size());
+        for (ChartSeries line : series) {
+            reduced.add(line.downsample(method, points));
+        }
+        return new Chart(title, xLabel, yLabel, reduced);
+    }
+
+    private static List<ChartSeries> lines(Map<String, BacktestResult> results,
+                                           BiFunction<String, BacktestResult, ChartSeries> line) {
+        List<ChartSeries> lines = new ArrayList<>(results.size());
+        results.forEach((name, result) -> lines.add(line.apply(name, result)));
+        return lines;
+    }
+}
@@ -0,0 +1,140 @@
+package org.example.charts;
+
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.ChartPanel;
+import org.jfree.chart.ChartUtils;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.plot.PlotOrientation;
+import org.jfree.data.xy.DefaultXYDataset;
+
+import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
+import java.awt.Dimension;
+import java.awt.GraphicsEnvironment;
+import java.awt.HeadlessException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Renders charts of long series at a fixed pixel size.
+ * <p>
+ * Every series is first downsampled to about one point per pixel column - two with
+ * {@link Downsampler.Method#MIN_MAX}, the lowest and the highest - so drawing costs the same for
+ * a thousand points as for millions. Charts are written to PNG through JFreeChart or to SVG, both
+ * of which work on headless machines, and are only shown in a window on request. Downsampling
+ * and chart construction never run on the Swing event dispatch thread.
+ */
+public class ChartRenderer {
+    public static final int DEFAULT_WIDTH = 1200;
+    public static final int DEFAULT_HEIGHT = 600;
+
+    private final int width;
+    private final int height;
+    private final Downsampler.Method method;
+
+    public ChartRenderer() {
+        this(DEFAULT_WIDTH, DEFAULT_HEIGHT, Downsampler.Method.LTTB);
+    }
+
+    /**
+     * @param width  Image width in pixels
+     * @param height Image height in pixels
+     * @param method How series are downsampled to the width
+     */
+    public ChartRenderer(int width, int height, Downsampler.Method method) {
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException("Chart size must be positive: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.method = method;
+    }
+
+    /**
+     * @return The chart with every series reduced to what the image width can show
+     */
+    public Chart downsample(Chart chart) {
+        return chart.downsample(method, method == Downsampler.Method.MIN_MAX ? 2 * width : width);
+    }
+
+    /**
+     * Builds a JFreeChart of the downsampled series
+     */
+    public JFreeChart toJFreeChart(Chart chart) {
+        DefaultXYDataset dataset = new DefaultXYDataset();
+        for (ChartSeries line : downsample(chart).series()) {
+            dataset.addSeries(line.name(), new double[][]{line.x(), line.y()});
+        }
+        return ChartFactory.createXYLineChart(
+                chart.title(),
+                chart.xLabel(),
+                chart.yLabel(),
+                dataset,
+                PlotOrientation.VERTICAL,
+                true,   // Legend
+                false,  // Tooltips
+                false   // URLs
+        );
+    }
+
+    /**
+     * Writes the chart as a PNG or SVG image, chosen by the file's extension
+     *
+     * @throws IllegalArgumentException If the extension is neither .png nor .svg
+     */
+    public void write(Chart chart, Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase();
+        if (name.endsWith(".png")) {
+            ChartUtils.saveChartAsPNG(file.toFile(), toJFreeChart(chart), width, height);
+        } else if (name.endsWith(".svg")) {
+            Files.writeString(file, SvgChartWriter.render(downsample(chart), width, height), StandardCharsets.UTF_8);
+        } else {
+            throw new IllegalArgumentException("Unsupported chart format, expected .png or .svg: " + file);
+        }
+    }
+
+    /**
+     * Writes the chart on a background thread
+     *
+     * @return Completes with the file once written
+     */
+    public CompletableFuture<Path> writeAsync(Chart chart, Path file) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                write(chart, file);
+                return file;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Shows the chart in a window. The chart is built on a background thread and only the window
+     * is created on the event dispatch thread.
+     *
+     * @return Completes with the window once it is visible
+     * @throws HeadlessException If there is no display
+     */
+    public CompletableFuture<JFrame> show(Chart chart, String windowTitle) {
+        if (GraphicsEnvironment.isHeadless()) {
+            throw new HeadlessException("No display to show \"" + chart.title() + "\"; write it to a file instead");
+        }
+        return CompletableFuture.supplyAsync(() -> toJFreeChart(chart))
+                .thenApplyAsync(jfreeChart -> {
+                    ChartPanel chartPanel = new ChartPanel(jfreeChart);
+                    chartPanel.setPreferredSize(new Dimension(width, height));
+
+                    JFrame frame = new JFrame(windowTitle);
+                    frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+                    frame.getContentPane().add(chartPanel);
+                    frame.pack();
+                    frame.setVisible(true);
+                    return frame;
+                }, SwingUtilities::invokeLater);
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.charts;
+
+import org.example.backtest.BacktestResult;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * One named line of a chart
+ *
+ * @param name Legend label
+ * @param x    X values in ascending order
+ * @param y    Y values, as many as there are x values
+ */
+public record ChartSeries(String name, double[] x, double[] y) {
+
+    public ChartSeries {
+        if (x.length != y.length) {
+            throw new IllegalArgumentException("Series " + name + " has " + x.length + " x values and " + y.length + " y values");
+        }
+    }
+
+    /**
+     * Series over the periods 1, 2, ..., as the backtests record their daily values
+     */
+    public static ChartSeries of(String name, List<BigDecimal> values) {
+        double[] x = new double[values.size()];
+        double[] y = new double[values.size()];
+        for (int i = 0; i < y.length; i++) {
+            x[i] = i + 1;
+            y[i] = values.get(i).doubleValue();
+        }
+        return new ChartSeries(name, x, y);
+    }
+
+    public static ChartSeries equity(String name, BacktestResult result) {
+        return of(name, result.dailyCapital());
+    }
+
+    public static ChartSeries dailyReturns(String name, BacktestResult result) {
+        return of(name, result.dailyReturns());
+    }
+
+    /**
+     * Percentage below the running peak of the equity curve, as negative values
+     */
+    public static ChartSeries drawdown(String name, BacktestResult result) {
+        ChartSeries equity = equity(name, result);
+        double[] drawdown = new double[equity.y.length];
+        double peak = result.initialCapital().doubleValue();
+        for (int i = 0; i < drawdown.length; i++) {
+            peak = Math.max(peak, equity.y[i]);
+            drawdown[i] = peak > 0.0 ? (equity.y[i] / peak - 1.0) * 100.0 : 0.0;
+        }
+        return new ChartSeries(name, equity.x, drawdown);
+    }
+
+    public int size() {
+        return y.length;
+    }
+
+    /**
+     * @param method Downsampling method
+     * @param points Target number of points
+     * @return This series reduced to about {@code points} points, or itself if already that short
+     */
+    public ChartSeries downsample(Downsampler.Method method, int points) {
+        if (y.length <= points) {
+            return this;
+        }
+        int[] kept = Downsampler.select(method, x, y, points);
+        double[] keptX = new double[kept.length];
+        double[] keptY = new double[kept.length];
+        for (int i = 0; i < kept.length; i++) {
+            keptX[i] = x[kept[i]];
+            keptY[i] = y[kept[i]];
+        }
+        return new ChartSeries(name, keptX, keptY);
+    }
+}
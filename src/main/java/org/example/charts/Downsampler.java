@@ -0,0 +1,132 @@
+package org.example.charts;
+
+import java.util.Arrays;
+
+/**
+ * Shape-preserving downsampling of long series to about one point per pixel column.
+ * <p>
+ * Both methods keep the first and last points and make one linear pass, so a series of a few
+ * million points is reduced in milliseconds. They return the indices of the points kept, in
+ * ascending order, so several arrays sharing an index can be reduced alike.
+ */
+public final class Downsampler {
+
+    public enum Method {
+        LTTB,     // Largest-Triangle-Three-Buckets: keeps the visual shape of smooth curves such as equity
+        MIN_MAX   // Lowest and highest point of each bucket: keeps every spike, e.g. of returns
+    }
+
+    private Downsampler() {
+    }
+
+    /**
+     * @param method Downsampling method
+     * @param x      X values in ascending order
+     * @param y      Y values
+     * @param points Target number of points
+     * @return Indices of the points kept, all of them if there are no more than {@code points}
+     */
+    public static int[] select(Method method, double[] x, double[] y, int points) {
+        return switch (method) {
+            case LTTB -> lttb(x, y, points);
+            case MIN_MAX -> minMax(y, points);
+        };
+    }
+
+    /**
+     * Largest-Triangle-Three-Buckets (Steinarsson, 2013). The interior points are split into
+     * {@code points - 2} buckets; from each bucket the point forming the largest triangle with the
+     * point kept from the previous bucket and the average of the next bucket is kept.
+     */
+    public static int[] lttb(double[] x, double[] y, int points) {
+        int n = y.length;
+        if (points >= n || points < 3) {
+            return all(n);
+        }
+
+        int[] kept = new int[points];
+        double bucketSize = (double) (n - 2) / (points - 2);
+        int a = 0;
+        kept[0] = 0;
+        for (int bucket = 0; bucket < points - 2; bucket++) {
+            // Average of the next bucket, or the last point for the final bucket
+            int averageFrom = (int) ((bucket + 1) * bucketSize) + 1;
+            int averageTo = Math.min(n, (int) ((bucket + 2) * bucketSize) + 1);
+            double averageX = 0.0;
+            double averageY = 0.0;
+            for (int i = averageFrom; i < averageTo; i++) {
+                averageX += x[i];
+                averageY += y[i];
+            }
+            int averageCount = averageTo - averageFrom;
+            averageX /= averageCount;
+            averageY /= averageCount;
+
+            int from = (int) (bucket * bucketSize) + 1;
+            int to = (int) ((bucket + 1) * bucketSize) + 1;
+            double ax = x[a];
+            double ay = y[a];
+            double largestArea = -1.0;
+            int chosen = from;
+            for (int i = from; i < to; i++) {
+                // Twice the triangle's area; the factor does not change the comparison
+                double area = Math.abs((ax - averageX) * (y[i] - ay) - (ax - x[i]) * (averageY - ay));
+                if (area > largestArea) {
+                    largestArea = area;
+                    chosen = i;
+                }
+            }
+            kept[bucket + 1] = chosen;
+            a = chosen;
+        }
+        kept[points - 1] = n - 1;
+        return kept;
+    }
+
+    /**
+     * Keeps the lowest and highest point of each of {@code (points - 2) / 2} buckets, in index
+     * order, so no extreme is lost however far the series is reduced
+     */
+    public static int[] minMax(double[] y, int points) {
+        int n = y.length;
+        int buckets = (points - 2) / 2;
+        if (points >= n || buckets < 1) {
+            return all(n);
+        }
+
+        int[] kept = new int[2 * buckets + 2];
+        int count = 0;
+        kept[count++] = 0;
+        double bucketSize = (double) (n - 2) / buckets;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            int from = (int) (bucket * bucketSize) + 1;
+            int to = Math.min(n - 1, (int) ((bucket + 1) * bucketSize) + 1);
+            if (from >= to) {
+                continue;
+            }
+            int min = from;
+            int max = from;
+            for (int i = from + 1; i < to; i++) {
+                if (y[i] < y[min]) {
+                    min = i;
+                } else if (y[i] > y[max]) {
+                    max = i;
+                }
+            }
+            kept[count++] = Math.min(min, max);
+            if (min != max) {
+                kept[count++] = Math.max(min, max);
+            }
+        }
+        kept[count++] = n - 1;
+        return count == kept.length ? kept : Arrays.copyOf(kept, count);
+    }
+
+    private static int[] all(int n) {
+        int[] indices = new int[n];
+        for (int i = 0; i < n; i++) {
+            indices[i] = i;
+        }
+        return indices;
+    }
+}
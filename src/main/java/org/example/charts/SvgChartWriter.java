@@ -0,0 +1,150 @@
+package org.example.charts;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Renders a {@link Chart} as a standalone SVG document: a framed plot area with gridlines and
+ * tick labels, one polyline per series and a legend below. Non-finite values break a line.
+ */
+final class SvgChartWriter {
+    private static final int LEFT = 80;
+    private static final int RIGHT = 20;
+    private static final int TOP = 40;
+    private static final int BOTTOM = 70;
+    private static final int TICKS = 6;
+    private static final String[] PALETTE = {
+            "#ff5555", "#5555ff", "#55bb55", "#ddaa00", "#ff55ff", "#00aaaa", "#ffaaaa", "#808080"
+    };
+
+    private SvgChartWriter() {
+    }
+
+    static String render(Chart chart, int width, int height) {
+        double minX = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (ChartSeries line : chart.series()) {
+            for (int i = 0; i < line.size(); i++) {
+                if (Double.isFinite(line.x()[i]) && Double.isFinite(line.y()[i])) {
+                    minX = Math.min(minX, line.x()[i]);
+                    maxX = Math.max(maxX, line.x()[i]);
+                    minY = Math.min(minY, line.y()[i]);
+                    maxY = Math.max(maxY, line.y()[i]);
+                }
+            }
+        }
+        if (minX > maxX) {
+            minX = 0.0;
+            maxX = 1.0;
+            minY = 0.0;
+            maxY = 1.0;
+        }
+        if (minX == maxX) {
+            maxX = minX + 1.0;
+        }
+        if (minY == maxY) {
+            minY -= 0.5;
+            maxY += 0.5;
+        }
+
+        int plotWidth = Math.max(1, width - LEFT - RIGHT);
+        int plotHeight = Math.max(1, height - TOP - BOTTOM);
+        Scale xScale = new Scale(minX, maxX, LEFT, LEFT + plotWidth);
+        Scale yScale = new Scale(minY, maxY, TOP + plotHeight, TOP);
+
+        StringBuilder svg = new StringBuilder(16_384);
+        svg.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append(String.format(Locale.ROOT, "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"%d\" height=\"%d\" "
+                        + "viewBox=\"0 0 %d %d\" font-family=\"sans-serif\" font-size=\"11\">%n", width, height, width, height))
+                .append(String.format(Locale.ROOT, "<rect width=\"%d\" height=\"%d\" fill=\"white\"/>%n", width, height))
+                .append(String.format(Locale.ROOT, "<text x=\"%d\" y=\"%d\" text-anchor=\"middle\" font-size=\"15\" font-weight=\"bold\">%s</text>%n",
+                        width / 2, TOP - 15, escape(chart.title())));
+
+        // Gridlines and tick labels
+        for (double tick : ticks(minY, maxY)) {
+            double y = yScale.map(tick);
+            svg.append(String.format(Locale.ROOT, "<line x1=\"%d\" y1=\"%.1f\" x2=\"%d\" y2=\"%.1f\" stroke=\"#dddddd\"/>%n",
+                    LEFT, y, LEFT + plotWidth, y));
+            svg.append(String.format(Locale.ROOT, "<text x=\"%d\" y=\"%.1f\" text-anchor=\"end\">%s</text>%n",
+                    LEFT - 6, y + 4, label(tick, maxY - minY)));
+        }
+        for (double tick : ticks(minX, maxX)) {
+            double x = xScale.map(tick);
+            svg.append(String.format(Locale.ROOT, "<line x1=\"%.1f\" y1=\"%d\" x2=\"%.1f\" y2=\"%d\" stroke=\"#dddddd\"/>%n",
+                    x, TOP, x, TOP + plotHeight));
+            svg.append(String.format(Locale.ROOT, "<text x=\"%.1f\" y=\"%d\" text-anchor=\"middle\">%s</text>%n",
+                    x, TOP + plotHeight + 15, label(tick, maxX - minX)));
+        }
+        svg.append(String.format(Locale.ROOT, "<rect x=\"%d\" y=\"%d\" width=\"%d\" height=\"%d\" fill=\"none\" stroke=\"#888888\"/>%n",
+                LEFT, TOP, plotWidth, plotHeight));
+        svg.append(String.format(Locale.ROOT, "<text x=\"%d\" y=\"%d\" text-anchor=\"middle\">%s</text>%n",
+                LEFT + plotWidth / 2, TOP + plotHeight + 32, escape(chart.xLabel())));
+        svg.append(String.format(Locale.ROOT, "<text transform=\"translate(14 %d) rotate(-90)\" text-anchor=\"middle\">%s</text>%n",
+                TOP + plotHeight / 2, escape(chart.yLabel())));
+
+        // Lines, clipped to the plot area
+        svg.append(String.format(Locale.ROOT, "<clipPath id=\"plot\"><rect x=\"%d\" y=\"%d\" width=\"%d\" height=\"%d\"/></clipPath>%n",
+                LEFT, TOP, plotWidth, plotHeight));
+        svg.append("<g clip-path=\"url(#plot)\" fill=\"none\" stroke-width=\"1\" stroke-linejoin=\"round\">\n");
+        for (int s = 0; s < chart.series().size(); s++) {
+            ChartSeries line = chart.series().get(s);
+            String color = PALETTE[s % PALETTE.length];
+            StringBuilder points = new StringBuilder();
+            for (int i = 0; i <= line.size(); i++) {
+                boolean valid = i < line.size() && Double.isFinite(line.x()[i]) && Double.isFinite(line.y()[i]);
+                if (valid) {
+                    points.append(String.format(Locale.ROOT, "%.1f,%.1f ", xScale.map(line.x()[i]), yScale.map(line.y()[i])));
+                } else if (!points.isEmpty()) {
+                    svg.append("<polyline stroke=\"").append(color).append("\" points=\"")
+                            .append(points, 0, points.length() - 1).append("\"/>\n");
+                    points.setLength(0);
+                }
+            }
+        }
+        svg.append("</g>\n");
+
+        // Legend, left to right under the axis label
+        int legendX = LEFT;
+        int legendY = TOP + plotHeight + 52;
+        for (int s = 0; s < chart.series().size(); s++) {
+            String name = chart.series().get(s).name();
+            svg.append(String.format(Locale.ROOT, "<line x1=\"%d\" y1=\"%d\" x2=\"%d\" y2=\"%d\" stroke=\"%s\" stroke-width=\"2\"/>%n",
+                    legendX, legendY - 4, legendX + 20, legendY - 4, PALETTE[s % PALETTE.length]));
+            svg.append(String.format(Locale.ROOT, "<text x=\"%d\" y=\"%d\">%s</text>%n", legendX + 25, legendY, escape(name)));
+            legendX += 40 + 7 * name.length();
+        }
+        return svg.append("</svg>\n").toString();
+    }
+
+    // Round tick values about a sixth of the range apart
+    private static List<Double> ticks(double min, double max) {
+        double rough = (max - min) / TICKS;
+        double magnitude = Math.pow(10, Math.floor(Math.log10(rough)));
+        double fraction = rough / magnitude;
+        double step = (fraction < 1.5 ? 1 : fraction < 3 ? 2 : fraction < 7 ? 5 : 10) * magnitude;
+
+        List<Double> ticks = new ArrayList<>();
+        for (double tick = Math.ceil(min / step) * step; tick <= max + step * 1e-9; tick += step) {
+            ticks.add(Math.abs(tick) < step * 1e-9 ? 0.0 : tick);
+        }
+        return ticks;
+    }
+
+    private static String label(double value, double range) {
+        int decimals = Math.max(0, 2 - (int) Math.floor(Math.log10(range)));
+        return String.format(Locale.ROOT, "%,." + Math.min(decimals, 8) + "f", value);
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private record Scale(double min, double max, double from, double to) {
+        double map(double value) {
+            return from + (value - min) / (max - min) * (to - from);
+        }
+    }
+}
@@ -5,7 +5,9 @@ import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.core5.http.HttpEntity;
+import org.example.metrics.MetricsRegistry;
 import org.example.models.MarketDataPoint;
+import org.example.timeseries.SeriesNormalizer;
 import org.json.JSONObject;
 import org.json.JSONException;
 
@@ -16,6 +18,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Logger;
@@ -46,6 +49,9 @@ public class ApiMarketDataFetcher {
         String url = String.format("%s?function=%s&symbol=%s&interval=%s&outputsize=full&apikey=%s",
                 API_URL, function, symbol, interval, apiKey);
 
+        MetricsRegistry metrics = MetricsRegistry.global();
+        metrics.counter(MetricsRegistry.API_CALLS).increment();
+        long start = System.nanoTime();
         try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
             HttpGet request = new HttpGet(url);
 
@@ -68,8 +74,14 @@ public class ApiMarketDataFetcher {
                 }
             }
         } catch (JSONException e) {
+            metrics.counter(MetricsRegistry.API_ERRORS).increment();
             LOGGER.log(Level.SEVERE, "Error parsing market data", e);
             throw new IOException("Error parsing market data", e);
+        } catch (IOException e) {
+            metrics.counter(MetricsRegistry.API_ERRORS).increment();
+            throw e;
+        } finally {
+            metrics.histogram(MetricsRegistry.API_CALL_NANOS).recordSince(start);
         }
     }
 
@@ -94,7 +106,7 @@ public class ApiMarketDataFetcher {
      * @param symbol    The stock symbol
      * @param jsonResponse The JSON response from the API
      * @param interval  The time interval
-     * @return List of MarketDataPoint objects
+     * @return Normalized bars in ascending timestamp order; the API's keys come in no particular order
      */
     private static List<MarketDataPoint> parseMarketData(
             String symbol,
@@ -111,7 +123,6 @@ public class ApiMarketDataFetcher {
             JSONObject dataPoint = timeSeries.getJSONObject(timestamp);
 
             try {
-                // First try to parse with the full format "yyyy-MM-dd HH:mm:ss"
                 LocalDateTime parsedTimestamp = parseTimestamp(timestamp);
 
                 // Filter by start and end timestamps
@@ -131,7 +142,7 @@ public class ApiMarketDataFetcher {
             }
         }
 
-        return dataPoints;
+        return SeriesNormalizer.normalize(symbol, dataPoints);
     }
 
     /**
@@ -141,16 +152,14 @@ public class ApiMarketDataFetcher {
      *
      * @param timestamp The timestamp to parse
      * @return The parsed LocalDateTime object
+     * @throws DateTimeParseException If the timestamp matches neither format
      */
     private static LocalDateTime parseTimestamp(String timestamp) {
-        try {
-            // Try parsing with full format (with time component)
-            return LocalDateTime.parse(timestamp + " 00:00:00", DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-        } catch (Exception e) {
-            // If parsing fails, handle the error and return null
-            LOGGER.log(Level.WARNING, "Error parsing timestamp: " + timestamp, e);
-            return null;  // Return null if parsing fails
+        // Intraday series carry a time component, daily and longer ones only the date
+        if (timestamp.length() > 10) {
+            return LocalDateTime.parse(timestamp, TIMESTAMP_FORMATTER);
         }
+        return LocalDate.parse(timestamp).atStartOfDay();
     }
 
 
@@ -180,11 +189,14 @@ public class ApiMarketDataFetcher {
      * @param milliseconds Delay between API calls
      */
     public static void apiCallDelay(long milliseconds) {
+        long start = System.nanoTime();
         try {
             Thread.sleep(milliseconds);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             LOGGER.warning("API call delay interrupted");
+        } finally {
+            MetricsRegistry.global().histogram(MetricsRegistry.API_THROTTLE_NANOS).recordSince(start);
         }
     }
 }
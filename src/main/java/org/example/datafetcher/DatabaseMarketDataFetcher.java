@@ -2,6 +2,7 @@ package org.example.datafetcher;
 
 import org.example.models.MarketDataPoint;
 import org.example.repository.MarketDataRepository;
+import org.example.timeseries.SeriesNormalizer;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -18,11 +19,11 @@ public class DatabaseMarketDataFetcher {
      *
      * @param symbol         The symbol for the market data (e.g., "AAPL").
 
-     * @return A list of MarketDataPoint objects.
+     * @return Normalized bars in ascending timestamp order.
      */
     public List<MarketDataPoint> fetchMarketData(String symbol) {
         // Currently fetches all by ticker. Enhance filtering by timestamp range if needed.
-        return repository.getByTicker(symbol);
+        return SeriesNormalizer.normalize(symbol, repository.getByTicker(symbol));
     }
 
     /**
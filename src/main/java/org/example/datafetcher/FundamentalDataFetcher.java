@@ -5,13 +5,17 @@ import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.core5.http.HttpEntity;
+import org.example.metrics.MetricsRegistry;
+import org.example.models.FundamentalsSnapshot;
 import org.example.models.StockFundamentals;
 import org.example.repository.StockFundamentalsRepository;
+import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.time.LocalDate;
 import java.util.List;
 
 public class FundamentalDataFetcher {
@@ -27,12 +31,16 @@ public class FundamentalDataFetcher {
      *
      * @param symbol  The stock symbol (e.g., "AAPL").
      * @param apiKey  The Alpha Vantage API key.
-     * @throws IOException If an error occurs during the HTTP request.
+     * @throws IOException If an error occurs during the HTTP request, or the response holds no
+     *                     fundamentals; nothing is saved then.
      */
     public void fetchAndSaveFundamentalData(String symbol, String apiKey) throws IOException {
         String overviewUrl = String.format("%s?function=OVERVIEW&symbol=%s&apikey=%s",
                 API_URL, symbol, apiKey);
 
+        MetricsRegistry metrics = MetricsRegistry.global();
+        metrics.counter(MetricsRegistry.API_CALLS).increment();
+        long start = System.nanoTime();
         try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
             HttpGet request = new HttpGet(overviewUrl);
 
@@ -51,15 +59,23 @@ public class FundamentalDataFetcher {
                         // Parse JSON and create StockFundamentals object
                         StockFundamentals fundamentals = parseFundamentalData(symbol, responseBody.toString());
 
-
-                        // Save to database
+                        // Save to database, as the latest values and as a version known from today
                         repository.saveOrUpdate(fundamentals);
+                        repository.saveSnapshot(new FundamentalsSnapshot(fundamentals, LocalDate.now()));
                         System.out.println("Data fetched from API and saved to database for symbol: " + symbol);
                     }
                 } else {
                     throw new IOException("No response received from the API");
                 }
             }
+        } catch (JSONException e) {
+            metrics.counter(MetricsRegistry.API_ERRORS).increment();
+            throw new IOException("Error parsing fundamental data for symbol: " + symbol, e);
+        } catch (IOException e) {
+            metrics.counter(MetricsRegistry.API_ERRORS).increment();
+            throw e;
+        } finally {
+            metrics.histogram(MetricsRegistry.API_CALL_NANOS).recordSince(start);
         }
     }
 
@@ -96,39 +112,37 @@ public class FundamentalDataFetcher {
      *
      * @param symbol       The stock symbol.
      * @param jsonResponse The JSON response from the API.
-     * @return StockFundamentals object.
+     * @return StockFundamentals object, with null for ratios the API did not report.
+     * @throws JSONException If the response is not JSON or is not an overview, such as an error
+     *                       or rate-limit message.
      */
-    private StockFundamentals parseFundamentalData(String symbol, String jsonResponse) {
-        try {
-            JSONObject jsonObject = new JSONObject(jsonResponse);
-
-            return new StockFundamentals(
-                    symbol,
-                    parseDoubleOrDefault(jsonObject, "PERatio"),
-                    parseDoubleOrDefault(jsonObject, "PriceToBookRatio"),
-                    parseDoubleOrDefault(jsonObject, "ReturnOnEquityTTM"),
-                    parseDoubleOrDefault(jsonObject, "DividendYield")
-            );
-        } catch (Exception e) {
-            // Return a default object if parsing fails
-            return new StockFundamentals(symbol);
+    static StockFundamentals parseFundamentalData(String symbol, String jsonResponse) {
+        JSONObject jsonObject = new JSONObject(jsonResponse);
+        if (!jsonObject.has("Symbol")) {
+            throw new JSONException("No company overview in the API response: " + jsonResponse);
         }
+
+        return new StockFundamentals(
+                symbol,
+                parseDoubleOrNull(jsonObject, "PERatio"),
+                parseDoubleOrNull(jsonObject, "PriceToBookRatio"),
+                parseDoubleOrNull(jsonObject, "ReturnOnEquityTTM"),
+                parseDoubleOrNull(jsonObject, "DividendYield")
+        );
     }
 
     /**
      * Helper method to parse double values safely from JSON.
      *
      * @param jsonObject The JSON object.
-     * @return Parsed double value or 0.0 if parsing fails.
+     * @return Parsed double value, or null if it is missing or not a number (the API reports "None").
      */
-
-
-    private double parseDoubleOrDefault(JSONObject jsonObject, String key) {
+    private static Double parseDoubleOrNull(JSONObject jsonObject, String key) {
         try {
-            String value = jsonObject.optString(key, "0.0");
-            return Double.parseDouble(value);
+            double value = Double.parseDouble(jsonObject.optString(key, ""));
+            return Double.isFinite(value) ? value : null;
         } catch (NumberFormatException e) {
-            return 0.0;
+            return null;
         }
     }
 }
@@ -0,0 +1,12 @@
+package org.example.execution;
+
+public interface CommissionModel {
+    CommissionModel NONE = (quantity, price) -> 0.0;
+
+    /**
+     * @param quantity Filled quantity
+     * @param price    Fill price
+     * @return Commission charged for the fill
+     */
+    double commission(int quantity, double price);
+}
@@ -0,0 +1,109 @@
+package org.example.execution;
+
+import org.example.backtest.Trade;
+import org.example.models.MarketDataPoint;
+import org.example.models.PriceSeries;
+
+import java.util.Arrays;
+
+/**
+ * Simulates order execution against OHLCV bars.
+ * <p>
+ * Orders submitted after a bar are matched from the next bar onwards: market orders at the
+ * open, limits and stops against the bar's high/low. Slippage and commission are pluggable,
+ * and an optional participation cap limits each bar's fills to a fraction of its volume.
+ */
+public class ExecutionSimulator {
+    private final SlippageModel slippageModel;
+    private final CommissionModel commissionModel;
+    private final double maxParticipation;
+    private OrderBook[] books;
+    private long nextOrderId;
+
+    public ExecutionSimulator() {
+        this(SlippageModel.NONE, CommissionModel.NONE, 0.0);
+    }
+
+    /**
+     * @param slippageModel    Slippage applied to market and stop fills
+     * @param commissionModel  Commission charged per fill
+     * @param maxParticipation Maximum fraction of a bar's volume that may be filled, or 0 for no cap
+     */
+    public ExecutionSimulator(SlippageModel slippageModel, CommissionModel commissionModel, double maxParticipation) {
+        this.slippageModel = slippageModel;
+        this.commissionModel = commissionModel;
+        this.maxParticipation = maxParticipation;
+        this.books = new OrderBook[64];
+        this.nextOrderId = 1;
+    }
+
+    /**
+     * Queues an order for matching from the next bar of its ticker
+     *
+     * @param order Order to submit
+     * @return Assigned order id
+     */
+    public long submit(Order order) {
+        order.setId(nextOrderId++);
+        int tickerId = order.getTickerId();
+        if (tickerId >= books.length) {
+            books = Arrays.copyOf(books, Math.max(tickerId + 1, books.length * 2));
+        }
+        if (books[tickerId] == null) {
+            books[tickerId] = new OrderBook();
+        }
+        books[tickerId].add(order);
+        return order.getId();
+    }
+
+    /**
+     * Cancels an order if it is still pending
+     *
+     * @param order Order to cancel
+     */
+    public void cancel(Order order) {
+        OrderBook book = bookFor(order.getTickerId());
+        if (book != null) {
+            book.cancel(order, Order.Status.CANCELLED);
+        }
+    }
+
+    /**
+     * Matches a ticker's pending orders against a bar
+     *
+     * @param tickerId  Symbol table id of the ticker the bar belongs to
+     * @param timestamp Bar time in local epoch seconds
+     * @param listener  Receives each fill as it happens
+     */
+    public void onBar(int tickerId, long timestamp, double open, double high, double low, long volume,
+                      FillListener listener) {
+        OrderBook book = bookFor(tickerId);
+        if (book != null) {
+            book.onBar(timestamp, open, high, low, volume, maxParticipation, slippageModel, commissionModel, listener);
+        }
+    }
+
+    public void onBar(int tickerId, MarketDataPoint bar, FillListener listener) {
+        onBar(tickerId, PriceSeries.toEpochSeconds(bar.getTimestamp()), bar.getOpen().doubleValue(),
+                bar.getHigh().doubleValue(), bar.getLow().doubleValue(), bar.getVolume(), listener);
+    }
+
+    /**
+     * @param tickerId Symbol table id of the ticker to inspect
+     * @param side     Order side
+     * @return Unfilled quantity of the ticker's pending orders on that side
+     */
+    public long getPendingQuantity(int tickerId, Trade.TradeType side) {
+        OrderBook book = bookFor(tickerId);
+        return book != null ? book.getPendingQuantity(side) : 0L;
+    }
+
+    // Drop all pending orders, e.g. between independent backtest runs
+    public void reset() {
+        Arrays.fill(books, null);
+    }
+
+    private OrderBook bookFor(int tickerId) {
+        return tickerId < books.length ? books[tickerId] : null;
+    }
+}
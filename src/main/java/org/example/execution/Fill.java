@@ -0,0 +1,17 @@
+package org.example.execution;
+
+import org.example.backtest.Trade;
+import org.example.models.SymbolTable;
+
+/**
+ * A (possibly partial) execution of an order.
+ *
+ * @param timestamp Bar time in local epoch seconds
+ */
+public record Fill(long orderId, int tickerId, Trade.TradeType side, int quantity, double price,
+                   double commission, long timestamp) {
+
+    public String ticker() {
+        return SymbolTable.global().symbol(tickerId);
+    }
+}
@@ -0,0 +1,6 @@
+package org.example.execution;
+
+@FunctionalInterface
+public interface FillListener {
+    void onFill(Fill fill);
+}
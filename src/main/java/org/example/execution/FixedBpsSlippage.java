@@ -0,0 +1,19 @@
+package org.example.execution;
+
+import org.example.backtest.Trade;
+
+/**
+ * Constant adverse slippage expressed in basis points of the fill price.
+ */
+public class FixedBpsSlippage implements SlippageModel {
+    private final double fraction;
+
+    public FixedBpsSlippage(double basisPoints) {
+        this.fraction = basisPoints / 10_000.0;
+    }
+
+    @Override
+    public double apply(Trade.TradeType side, double price, int quantity, long barVolume) {
+        return side == Trade.TradeType.BUY ? price * (1 + fraction) : price * (1 - fraction);
+    }
+}
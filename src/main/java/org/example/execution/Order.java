@@ -0,0 +1,111 @@
+package org.example.execution;
+
+import org.example.backtest.Trade;
+import org.example.models.SymbolTable;
+
+/**
+ * Order held by the {@link ExecutionSimulator}. Prices that do not apply to the order type
+ * are NaN. Status and filled quantity are updated by the simulator.
+ */
+public class Order {
+    public enum Status {
+        PENDING, FILLED, CANCELLED, EXPIRED
+    }
+
+    private long id;
+    private final int tickerId;
+    private final Trade.TradeType side;
+    private final OrderType type;
+    private final int quantity;
+    private final double limitPrice;
+    private final double stopPrice;
+    private final TimeInForce timeInForce;
+    private long expiry;
+    private boolean triggered;
+    private int filledQuantity;
+    private Status status = Status.PENDING;
+
+    public Order(String ticker, Trade.TradeType side, OrderType type, int quantity,
+                 double limitPrice, double stopPrice, TimeInForce timeInForce, long expiry) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Order quantity must be positive: " + quantity);
+        }
+        if ((type == OrderType.LIMIT || type == OrderType.STOP_LIMIT) && !(limitPrice > 0)) {
+            throw new IllegalArgumentException(type + " order requires a positive limit price");
+        }
+        if ((type == OrderType.STOP || type == OrderType.STOP_LIMIT) && !(stopPrice > 0)) {
+            throw new IllegalArgumentException(type + " order requires a positive stop price");
+        }
+        this.tickerId = SymbolTable.global().idOf(ticker);
+        this.side = side;
+        this.type = type;
+        this.quantity = quantity;
+        this.limitPrice = limitPrice;
+        this.stopPrice = stopPrice;
+        this.timeInForce = timeInForce;
+        this.expiry = timeInForce == TimeInForce.GTD ? expiry : Long.MAX_VALUE;
+    }
+
+    public static Order market(String ticker, Trade.TradeType side, int quantity, TimeInForce timeInForce) {
+        return new Order(ticker, side, OrderType.MARKET, quantity, Double.NaN, Double.NaN, timeInForce, Long.MAX_VALUE);
+    }
+
+    public static Order limit(String ticker, Trade.TradeType side, int quantity, double limitPrice, TimeInForce timeInForce) {
+        return new Order(ticker, side, OrderType.LIMIT, quantity, limitPrice, Double.NaN, timeInForce, Long.MAX_VALUE);
+    }
+
+    public static Order stop(String ticker, Trade.TradeType side, int quantity, double stopPrice, TimeInForce timeInForce) {
+        return new Order(ticker, side, OrderType.STOP, quantity, Double.NaN, stopPrice, timeInForce, Long.MAX_VALUE);
+    }
+
+    public static Order stopLimit(String ticker, Trade.TradeType side, int quantity, double stopPrice,
+                                  double limitPrice, TimeInForce timeInForce) {
+        return new Order(ticker, side, OrderType.STOP_LIMIT, quantity, limitPrice, stopPrice, timeInForce, Long.MAX_VALUE);
+    }
+
+    public long getId() { return id; }
+    public int getTickerId() { return tickerId; }
+    public String getTicker() { return SymbolTable.global().symbol(tickerId); }
+    public Trade.TradeType getSide() { return side; }
+    public OrderType getType() { return type; }
+    public int getQuantity() { return quantity; }
+    public double getLimitPrice() { return limitPrice; }
+    public double getStopPrice() { return stopPrice; }
+    public TimeInForce getTimeInForce() { return timeInForce; }
+    public long getExpiry() { return expiry; }
+    public int getFilledQuantity() { return filledQuantity; }
+    public int getRemainingQuantity() { return quantity - filledQuantity; }
+    public Status getStatus() { return status; }
+    public boolean isActive() { return status == Status.PENDING; }
+
+    // Simulator-side state changes
+
+    void setId(long id) { this.id = id; }
+    void setExpiry(long expiry) { this.expiry = expiry; }
+    boolean isTriggered() { return triggered; }
+    void trigger() { this.triggered = true; }
+    void setStatus(Status status) { this.status = status; }
+
+    void addFill(int filled) {
+        filledQuantity += filled;
+        if (filledQuantity >= quantity) {
+            status = Status.FILLED;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Order{" +
+                "id=" + id +
+                ", ticker='" + getTicker() + '\'' +
+                ", side=" + side +
+                ", type=" + type +
+                ", quantity=" + quantity +
+                ", filled=" + filledQuantity +
+                ", limit=" + limitPrice +
+                ", stop=" + stopPrice +
+                ", tif=" + timeInForce +
+                ", status=" + status +
+                '}';
+    }
+}
@@ -0,0 +1,268 @@
+package org.example.execution;
+
+import org.example.backtest.Trade;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Pending orders for one ticker, indexed by price so that matching a bar only touches the
+ * price levels inside the bar's range: O(log n + levels hit + fills) rather than a scan of
+ * every open order.
+ * <p>
+ * Cancelled and expired orders are taken out of their price level at once, so the levels only
+ * ever hold live orders.
+ */
+class OrderBook {
+    private static final long SECONDS_PER_DAY = 86_400L;
+
+    private final NavigableMap<Double, ArrayDeque<Order>> buyLimits = new TreeMap<>();
+    private final NavigableMap<Double, ArrayDeque<Order>> sellLimits = new TreeMap<>();
+    private final NavigableMap<Double, ArrayDeque<Order>> buyStops = new TreeMap<>();
+    private final NavigableMap<Double, ArrayDeque<Order>> sellStops = new TreeMap<>();
+    private final ArrayDeque<Order> marketOrders = new ArrayDeque<>();
+    private final List<Order> newOrders = new ArrayList<>();
+    private final List<Order> immediateOrCancel = new ArrayList<>();
+    private final PriorityQueue<Order> expiries = new PriorityQueue<>(Comparator.comparingLong(Order::getExpiry));
+
+    private long pendingBuyQuantity;
+    private long pendingSellQuantity;
+
+    // Per-bar matching context
+    private long barTimestamp;
+    private long barVolume;
+    private long volumeBudget;
+    private SlippageModel slippage;
+    private CommissionModel commission;
+    private FillListener listener;
+
+    void add(Order order) {
+        route(order);
+        newOrders.add(order);
+        adjustPending(order.getSide(), order.getRemainingQuantity());
+    }
+
+    void cancel(Order order, Order.Status status) {
+        if (order.isActive()) {
+            order.setStatus(status);
+            adjustPending(order.getSide(), -order.getRemainingQuantity());
+            unroute(order);
+            newOrders.remove(order);
+            expiries.remove(order);
+        }
+    }
+
+    long getPendingQuantity(Trade.TradeType side) {
+        return side == Trade.TradeType.BUY ? pendingBuyQuantity : pendingSellQuantity;
+    }
+
+    /**
+     * Matches the pending orders against one bar. Market orders fill at the open, resting
+     * limits are checked against the bar's range, then stops are triggered; a stop-limit
+     * whose limit is not marketable at its trigger price rests for the next bar.
+     */
+    void onBar(long timestamp, double open, double high, double low, long volume, double maxParticipation,
+               SlippageModel slippage, CommissionModel commission, FillListener listener) {
+        this.barTimestamp = timestamp;
+        this.barVolume = volume;
+        this.volumeBudget = maxParticipation > 0 ? (long) Math.floor(volume * maxParticipation) : Long.MAX_VALUE;
+        this.slippage = slippage;
+        this.commission = commission;
+        this.listener = listener;
+
+        activateNewOrders(timestamp);
+        expireOrders(timestamp);
+
+        matchMarketOrders(open);
+        matchLimits(buyLimits.tailMap(low, true).descendingMap(), open, true);
+        matchLimits(sellLimits.headMap(high, true), open, false);
+        triggerStops(buyStops.headMap(high, true), open, true);
+        triggerStops(sellStops.tailMap(low, true).descendingMap(), open, false);
+
+        for (Order order : immediateOrCancel) {
+            cancel(order, Order.Status.CANCELLED);
+        }
+        immediateOrCancel.clear();
+        this.listener = null;
+    }
+
+    private void route(Order order) {
+        boolean buy = order.getSide() == Trade.TradeType.BUY;
+        switch (order.getType()) {
+            case MARKET -> marketOrders.add(order);
+            case LIMIT -> enqueue(buy ? buyLimits : sellLimits, order.getLimitPrice(), order);
+            default -> {
+                if (order.isTriggered()) {
+                    if (order.getType() == OrderType.STOP) {
+                        marketOrders.add(order);
+                    } else {
+                        enqueue(buy ? buyLimits : sellLimits, order.getLimitPrice(), order);
+                    }
+                } else {
+                    enqueue(buy ? buyStops : sellStops, order.getStopPrice(), order);
+                }
+            }
+        }
+    }
+
+    // Takes an order out of wherever route put it
+    private void unroute(Order order) {
+        boolean buy = order.getSide() == Trade.TradeType.BUY;
+        switch (order.getType()) {
+            case MARKET -> marketOrders.remove(order);
+            case LIMIT -> dequeue(buy ? buyLimits : sellLimits, order.getLimitPrice(), order);
+            default -> {
+                if (order.isTriggered()) {
+                    if (order.getType() == OrderType.STOP) {
+                        marketOrders.remove(order);
+                    } else {
+                        dequeue(buy ? buyLimits : sellLimits, order.getLimitPrice(), order);
+                    }
+                } else {
+                    dequeue(buy ? buyStops : sellStops, order.getStopPrice(), order);
+                }
+            }
+        }
+    }
+
+    private static void enqueue(NavigableMap<Double, ArrayDeque<Order>> book, double price, Order order) {
+        book.computeIfAbsent(price, p -> new ArrayDeque<>()).add(order);
+    }
+
+    private static void dequeue(NavigableMap<Double, ArrayDeque<Order>> book, double price, Order order) {
+        ArrayDeque<Order> queue = book.get(price);
+        if (queue != null && queue.remove(order) && queue.isEmpty()) {
+            book.remove(price);
+        }
+    }
+
+    // Orders become live on the first bar after submission; DAY orders expire with that session
+    private void activateNewOrders(long timestamp) {
+        for (Order order : newOrders) {
+            if (!order.isActive()) {
+                continue;
+            }
+            switch (order.getTimeInForce()) {
+                case DAY -> {
+                    order.setExpiry((Math.floorDiv(timestamp, SECONDS_PER_DAY) + 1) * SECONDS_PER_DAY - 1);
+                    expiries.add(order);
+                }
+                case GTD -> expiries.add(order);
+                case IOC -> immediateOrCancel.add(order);
+                default -> {
+                }
+            }
+        }
+        newOrders.clear();
+    }
+
+    private void expireOrders(long timestamp) {
+        while (!expiries.isEmpty() && expiries.peek().getExpiry() < timestamp) {
+            cancel(expiries.poll(), Order.Status.EXPIRED);
+        }
+    }
+
+    private void matchMarketOrders(double open) {
+        while (!marketOrders.isEmpty() && volumeBudget > 0) {
+            Order order = marketOrders.peek();
+            if (order.isActive()) {
+                fill(order, slippage.apply(order.getSide(), open, fillableQuantity(order), barVolume));
+            }
+            if (order.isActive()) {
+                break; // Partially filled: volume budget exhausted for this bar
+            }
+            marketOrders.poll();
+        }
+    }
+
+    private void matchLimits(NavigableMap<Double, ArrayDeque<Order>> levels, double open, boolean buy) {
+        Iterator<Map.Entry<Double, ArrayDeque<Order>>> it = levels.entrySet().iterator();
+        while (it.hasNext() && volumeBudget > 0) {
+            Map.Entry<Double, ArrayDeque<Order>> level = it.next();
+            double limit = level.getKey();
+            // Gapping through the limit fills at the better opening price
+            double price = buy ? Math.min(open, limit) : Math.max(open, limit);
+
+            ArrayDeque<Order> queue = level.getValue();
+            while (!queue.isEmpty() && volumeBudget > 0) {
+                Order order = queue.peek();
+                if (order.isActive()) {
+                    fill(order, price);
+                }
+                if (order.isActive()) {
+                    break; // Partially filled: volume budget exhausted for this bar
+                }
+                queue.poll();
+            }
+            if (queue.isEmpty()) {
+                it.remove();
+            }
+        }
+    }
+
+    private void triggerStops(NavigableMap<Double, ArrayDeque<Order>> levels, double open, boolean buy) {
+        Iterator<Map.Entry<Double, ArrayDeque<Order>>> it = levels.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Double, ArrayDeque<Order>> level = it.next();
+            double stop = level.getKey();
+            double triggerPrice = buy ? Math.max(open, stop) : Math.min(open, stop);
+
+            ArrayDeque<Order> queue = level.getValue();
+            Iterator<Order> orders = queue.iterator();
+            while (orders.hasNext()) {
+                Order order = orders.next();
+                orders.remove();
+                if (!order.isActive()) {
+                    continue;
+                }
+
+                order.trigger();
+                if (volumeBudget > 0) {
+                    if (order.getType() == OrderType.STOP) {
+                        fill(order, slippage.apply(order.getSide(), triggerPrice, fillableQuantity(order), barVolume));
+                    } else if (buy ? order.getLimitPrice() >= triggerPrice : order.getLimitPrice() <= triggerPrice) {
+                        double slipped = slippage.apply(order.getSide(), triggerPrice, fillableQuantity(order), barVolume);
+                        fill(order, buy ? Math.min(slipped, order.getLimitPrice()) : Math.max(slipped, order.getLimitPrice()));
+                    }
+                }
+                if (order.isActive()) {
+                    route(order); // Remainder rests as a market or limit order
+                }
+            }
+            if (queue.isEmpty()) {
+                it.remove();
+            }
+        }
+    }
+
+    private int fillableQuantity(Order order) {
+        return (int) Math.min(order.getRemainingQuantity(), volumeBudget);
+    }
+
+    private void fill(Order order, double price) {
+        int quantity = fillableQuantity(order);
+        if (quantity <= 0) {
+            return;
+        }
+        volumeBudget -= quantity;
+        order.addFill(quantity);
+        adjustPending(order.getSide(), -quantity);
+        listener.onFill(new Fill(order.getId(), order.getTickerId(), order.getSide(), quantity, price,
+                commission.commission(quantity, price), barTimestamp));
+    }
+
+    private void adjustPending(Trade.TradeType side, long delta) {
+        if (side == Trade.TradeType.BUY) {
+            pendingBuyQuantity += delta;
+        } else {
+            pendingSellQuantity += delta;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.execution;
+
+public enum OrderType {
+    MARKET,     // Fill at the next available price
+    LIMIT,      // Fill at the limit price or better
+    STOP,       // Becomes a market order once the stop price trades
+    STOP_LIMIT  // Becomes a limit order once the stop price trades
+}
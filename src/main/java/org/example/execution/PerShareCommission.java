@@ -0,0 +1,23 @@
+package org.example.execution;
+
+/**
+ * Broker-style per-share commission with a minimum per fill and a cap as a fraction of
+ * the traded value.
+ */
+public class PerShareCommission implements CommissionModel {
+    private final double perShare;
+    private final double minimum;
+    private final double maxFractionOfValue;
+
+    public PerShareCommission(double perShare, double minimum, double maxFractionOfValue) {
+        this.perShare = perShare;
+        this.minimum = minimum;
+        this.maxFractionOfValue = maxFractionOfValue;
+    }
+
+    @Override
+    public double commission(int quantity, double price) {
+        double fee = Math.max(minimum, perShare * quantity);
+        return Math.min(fee, maxFractionOfValue * quantity * price);
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.execution;
+
+public class PercentageCommission implements CommissionModel {
+    private final double rate;
+
+    public PercentageCommission(double rate) {
+        this.rate = rate;
+    }
+
+    @Override
+    public double commission(int quantity, double price) {
+        return rate * quantity * price;
+    }
+}
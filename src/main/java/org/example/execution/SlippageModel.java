@@ -0,0 +1,20 @@
+package org.example.execution;
+
+import org.example.backtest.Trade;
+
+/**
+ * Adjusts the theoretical fill price of market and stop orders. Limit fills are never
+ * slipped past their limit.
+ */
+public interface SlippageModel {
+    SlippageModel NONE = (side, price, quantity, barVolume) -> price;
+
+    /**
+     * @param side      Order side
+     * @param price     Theoretical fill price
+     * @param quantity  Quantity being filled
+     * @param barVolume Volume of the bar the fill happens on
+     * @return Price actually paid or received
+     */
+    double apply(Trade.TradeType side, double price, int quantity, long barVolume);
+}
@@ -0,0 +1,8 @@
+package org.example.execution;
+
+public enum TimeInForce {
+    DAY,    // Cancelled at the end of the first session the order is live in
+    GTC,    // Good till cancelled
+    IOC,    // Immediate or cancel: whatever does not fill on the first bar is cancelled
+    GTD     // Good till the order's expiry timestamp
+}
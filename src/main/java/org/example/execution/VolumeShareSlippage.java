@@ -0,0 +1,25 @@
+package org.example.execution;
+
+import org.example.backtest.Trade;
+
+/**
+ * Square-root market impact: slippage grows with the share of the bar's volume traded.
+ * impact = coefficient * sqrt(quantity / barVolume), capped at {@code maxImpact}.
+ */
+public class VolumeShareSlippage implements SlippageModel {
+    private final double coefficient;
+    private final double maxImpact;
+
+    public VolumeShareSlippage(double coefficient, double maxImpact) {
+        this.coefficient = coefficient;
+        this.maxImpact = maxImpact;
+    }
+
+    @Override
+    public double apply(Trade.TradeType side, double price, int quantity, long barVolume) {
+        double impact = barVolume > 0
+                ? Math.min(maxImpact, coefficient * Math.sqrt((double) quantity / barVolume))
+                : maxImpact;
+        return side == Trade.TradeType.BUY ? price * (1 + impact) : price * (1 - impact);
+    }
+}
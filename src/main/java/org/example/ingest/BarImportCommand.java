@@ -0,0 +1,81 @@
+package org.example.ingest;
+
+import org.example.repository.LocalBarCache;
+import org.example.repository.MarketDataRepository;
+import org.example.utils.AppLogger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Command line entry point for bulk bar imports.
+ * <pre>
+ * BarImportCommand [--layout export|ticker-first] [--cache DIR] [--no-db] [--range-mb N] FILE|DIR...
+ * </pre>
+ * Directories are expanded to the {@code .csv} files they contain, in name order.
+ */
+public class BarImportCommand {
+    private static final AppLogger logger = new AppLogger(BarImportCommand.class);
+    private static final int MAX_RANGE_MB = Integer.MAX_VALUE >> 20; // A range is mapped as one buffer, indexed by int
+
+    public static void main(String[] args) {
+        CsvLayout layout = CsvLayout.TICKER_FIRST;
+        Path cacheDirectory = null;
+        boolean writeDatabase = true;
+        int rangeBytes = BarImporter.DEFAULT_RANGE_BYTES;
+        List<Path> files = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--layout" -> layout = CsvLayout.parse(args[++i]);
+                    case "--cache" -> cacheDirectory = Path.of(args[++i]);
+                    case "--no-db" -> writeDatabase = false;
+                    case "--range-mb" -> rangeBytes = rangeBytes(args[++i]);
+                    default -> files.addAll(expand(Path.of(args[i])));
+                }
+            }
+            if (files.isEmpty()) {
+                System.out.println("Usage: BarImportCommand [--layout export|ticker-first] [--cache DIR] [--no-db] "
+                        + "[--range-mb N] FILE|DIR...");
+                return;
+            }
+
+            LocalBarCache cache = cacheDirectory != null ? new LocalBarCache(cacheDirectory) : null;
+            MarketDataRepository repository = writeDatabase ? new MarketDataRepository() : null;
+            try {
+                ImportReport report = new BarImporter(layout, rangeBytes).importFiles(files, cache, repository);
+                System.out.println(report);
+            } finally {
+                if (repository != null) {
+                    repository.close();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Bar import failed", e);
+        }
+    }
+
+    private static int rangeBytes(String megabytes) {
+        int value = Integer.parseInt(megabytes);
+        if (value < 1 || value > MAX_RANGE_MB) {
+            throw new IllegalArgumentException("--range-mb must be between 1 and " + MAX_RANGE_MB + ": " + megabytes);
+        }
+        return Math.multiplyExact(value, 1 << 20);
+    }
+
+    private static List<Path> expand(Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            return List.of(path);
+        }
+        try (Stream<Path> entries = Files.list(path)) {
+            return entries.filter(p -> p.getFileName().toString().toLowerCase().endsWith(".csv"))
+                    .sorted()
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package org.example.ingest;
+
+import org.example.metrics.MetricsRegistry;
+import org.example.models.PriceSeries;
+import org.example.repository.LocalBarCache;
+import org.example.repository.MarketDataRepository;
+import org.example.utils.AppLogger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Bulk loader for bar CSV files.
+ * <p>
+ * Every file is cut into byte ranges that are memory-mapped and parsed in parallel; a range
+ * owns the lines that start inside it. Fields are located and parsed directly in the mapped
+ * bytes, so a row allocates nothing unless its ticker differs from the previous row's.
+ * Rows failing validation are counted and skipped. Each ticker's rows are then merged in file
+ * order, sorted by time and de-duplicated (the last row for a time wins) before being written
+ * to the local bar cache and, in JDBC batches, to the database.
+ */
+public class BarImporter {
+    private static final AppLogger logger = new AppLogger(BarImporter.class);
+
+    public static final int DEFAULT_RANGE_BYTES = 64 << 20;
+    private static final int MAX_LINE_BYTES = 1 << 16;
+    private static final int MAX_LOGGED_REJECTS = 20;
+
+    private final CsvLayout layout;
+    private final int rangeBytes;
+    private final AtomicInteger loggedRejects = new AtomicInteger();
+
+    public BarImporter(CsvLayout layout) {
+        this(layout, DEFAULT_RANGE_BYTES);
+    }
+
+    /**
+     * @param layout     Column layout of the files
+     * @param rangeBytes Size of the byte ranges parsed in parallel
+     */
+    public BarImporter(CsvLayout layout, int rangeBytes) {
+        if (rangeBytes < MAX_LINE_BYTES) {
+            throw new IllegalArgumentException("Range size must be at least " + MAX_LINE_BYTES + " bytes: " + rangeBytes);
+        }
+        this.layout = layout;
+        this.rangeBytes = rangeBytes;
+    }
+
+    /**
+     * Parses files and writes the result
+     *
+     * @param files      CSV files, in the order later rows should override earlier ones
+     * @param cache      Local bar cache to merge the bars into, or null
+     * @param repository Database to replace the imported time ranges in, or null
+     * @return Import counts and timings
+     * @throws IOException If a file cannot be read or a cache file written
+     */
+    public ImportReport importFiles(List<Path> files, LocalBarCache cache, MarketDataRepository repository)
+            throws IOException {
+        long parseStart = System.nanoTime();
+        ParsedBars parsed = parse(files);
+        long writeStart = System.nanoTime();
+
+        List<PriceSeries> series = new ArrayList<>(parsed.series().values());
+        try {
+            if (cache != null) {
+                series.parallelStream().forEach(imported -> {
+                    try {
+                        PriceSeries existing = cache.read(imported.getTicker());
+                        cache.write(existing != null ? merge(List.of(existing, imported)).series : imported);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (repository != null) {
+            for (PriceSeries imported : series) {
+                repository.replaceSeries(imported);
+            }
+        }
+        long end = System.nanoTime();
+
+        return new ImportReport(files.size(), parsed.bytes(), parsed.rows(), parsed.rejected(), parsed.duplicates(),
+                series.size(), (writeStart - parseStart) / 1_000_000, (end - writeStart) / 1_000_000);
+    }
+
+    /**
+     * Parses files into one sorted, de-duplicated series per ticker
+     *
+     * @param files CSV files, in the order later rows should override earlier ones
+     * @return Parsed bars and counts
+     * @throws IOException If a file cannot be read
+     */
+    public ParsedBars parse(List<Path> files) throws IOException {
+        List<Range> ranges = new ArrayList<>();
+        long bytes = 0;
+        for (Path file : files) {
+            long size = Files.size(file);
+            bytes += size;
+            for (long start = 0; start < size; start += rangeBytes) {
+                ranges.add(new Range(file, start, Math.min(size, start + rangeBytes)));
+            }
+        }
+
+        RangeBars[] parsedRanges = new RangeBars[ranges.size()];
+        try {
+            IntStream.range(0, ranges.size()).parallel().forEach(r -> {
+                try {
+                    parsedRanges[r] = parseRange(ranges.get(r));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        // Gather each ticker's parts in file order so that later rows win on equal times
+        Map<String, List<PriceSeries>> parts = new LinkedHashMap<>();
+        long rows = 0;
+        long rejected = 0;
+        for (RangeBars range : parsedRanges) {
+            rows += range.rows;
+            rejected += range.rejected;
+            range.builders.forEach((ticker, builder) ->
+                    parts.computeIfAbsent(ticker, t -> new ArrayList<>()).add(builder.build()));
+        }
+
+        List<Map.Entry<String, List<PriceSeries>>> entries = new ArrayList<>(parts.entrySet());
+        Merged[] merged = new Merged[entries.size()];
+        IntStream.range(0, entries.size()).parallel().forEach(t -> merged[t] = merge(entries.get(t).getValue()));
+
+        Map<String, PriceSeries> series = new LinkedHashMap<>();
+        long duplicates = 0;
+        for (Merged m : merged) {
+            series.put(m.series.getTicker(), m.series);
+            duplicates += m.duplicates;
+        }
+
+        MetricsRegistry metrics = MetricsRegistry.global();
+        metrics.counter(MetricsRegistry.IMPORT_BYTES).add(bytes);
+        metrics.counter(MetricsRegistry.IMPORT_ROWS).add(rows);
+        metrics.counter(MetricsRegistry.IMPORT_REJECTED).add(rejected);
+        return new ParsedBars(series, bytes, rows, rejected, duplicates);
+    }
+
+    private RangeBars parseRange(Range range) throws IOException {
+        RangeBars result = new RangeBars();
+        try (FileChannel channel = FileChannel.open(range.file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long mapStart = range.start == 0 ? 0 : range.start - 1;
+            long mapEnd = Math.min(fileSize, range.end + MAX_LINE_BYTES);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+            int limit = (int) (range.end - mapStart); // Lines starting before here belong to this range
+            int end = buffer.limit();
+
+            int position = 0;
+            if (range.start > 0) {
+                // The byte before the range tells whether a line starts exactly at its first byte
+                position = indexOf(buffer, (byte) '\n', 0, end) + 1;
+                if (position == 0) {
+                    return result;
+                }
+            } else if (layout.header()) {
+                position = indexOf(buffer, (byte) '\n', 0, end) + 1;
+                if (position == 0) {
+                    return result;
+                }
+            }
+
+            int columns = layout.columnCount();
+            int[] fieldStart = new int[columns];
+            int[] fieldEnd = new int[columns];
+            LineState state = new LineState();
+            while (position < limit) {
+                int lineEnd = indexOf(buffer, (byte) '\n', position, end);
+                if (lineEnd < 0) {
+                    if (mapEnd < fileSize) {
+                        throw new IOException("Line longer than " + MAX_LINE_BYTES + " bytes in " + range.file
+                                + " at byte " + (mapStart + position));
+                    }
+                    lineEnd = end;
+                }
+                int contentEnd = lineEnd > position && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+                if (contentEnd > position) {
+                    parseLine(buffer, position, contentEnd, fieldStart, fieldEnd, state, result, range, mapStart);
+                }
+                position = lineEnd + 1;
+            }
+        }
+        return result;
+    }
+
+    private void parseLine(MappedByteBuffer buffer, int from, int to, int[] fieldStart, int[] fieldEnd,
+                           LineState state, RangeBars result, Range range, long mapStart) {
+        if (!splitFields(buffer, from, to, fieldStart, fieldEnd)) {
+            reject(result, range, mapStart + from, "expected " + fieldStart.length + " columns");
+            return;
+        }
+
+        int tickerFrom = fieldStart[layout.tickerColumn()];
+        int tickerTo = fieldEnd[layout.tickerColumn()];
+        if (tickerFrom == tickerTo) {
+            reject(result, range, mapStart + from, "empty ticker");
+            return;
+        }
+        long timestamp = ByteFields.parseTimestamp(buffer, fieldStart[layout.timestampColumn()], fieldEnd[layout.timestampColumn()]);
+        double open = ByteFields.parseDouble(buffer, fieldStart[layout.openColumn()], fieldEnd[layout.openColumn()]);
+        double high = ByteFields.parseDouble(buffer, fieldStart[layout.highColumn()], fieldEnd[layout.highColumn()]);
+        double low = ByteFields.parseDouble(buffer, fieldStart[layout.lowColumn()], fieldEnd[layout.lowColumn()]);
+        double close = ByteFields.parseDouble(buffer, fieldStart[layout.closeColumn()], fieldEnd[layout.closeColumn()]);
+        long volume = ByteFields.parseLong(buffer, fieldStart[layout.volumeColumn()], fieldEnd[layout.volumeColumn()]);
+
+        if (timestamp == ByteFields.INVALID_TIMESTAMP) {
+            reject(result, range, mapStart + from, "bad timestamp");
+            return;
+        }
+        if (!(open > 0 && high > 0 && low > 0 && close > 0) || Double.isInfinite(high)) {
+            reject(result, range, mapStart + from, "prices must be positive numbers");
+            return;
+        }
+        if (high < Math.max(open, close) || low > Math.min(open, close)) {
+            reject(result, range, mapStart + from, "open and close must lie between low and high");
+            return;
+        }
+        if (volume == ByteFields.INVALID_LONG || volume < 0) {
+            reject(result, range, mapStart + from, "bad volume");
+            return;
+        }
+
+        // Dumps are usually grouped by ticker, so the symbol is only decoded when it changes
+        if (state.builder == null || !ByteFields.equalBytes(buffer, tickerFrom, tickerTo, state.ticker)) {
+            String ticker = ByteFields.string(buffer, tickerFrom, tickerTo);
+            state.ticker = ticker.getBytes(StandardCharsets.UTF_8);
+            state.builder = result.builders.computeIfAbsent(ticker, PriceSeries.Builder::new);
+        }
+        state.builder.add(timestamp, open, high, low, close, volume);
+        result.rows++;
+    }
+
+    /**
+     * Locates the first {@code fieldStart.length} fields of a line, stripping quotes
+     *
+     * @return Whether the line had enough fields
+     */
+    private boolean splitFields(MappedByteBuffer buffer, int from, int to, int[] fieldStart, int[] fieldEnd) {
+        byte delimiter = (byte) layout.delimiter();
+        int position = from;
+        for (int field = 0; field < fieldStart.length; field++) {
+            if (position > to) {
+                return false;
+            }
+            if (position < to && buffer.get(position) == '"') {
+                int closing = indexOf(buffer, (byte) '"', position + 1, to);
+                if (closing < 0) {
+                    return false;
+                }
+                fieldStart[field] = position + 1;
+                fieldEnd[field] = closing;
+                position = closing + 1;
+                if (position < to && buffer.get(position) != delimiter) {
+                    return false;
+                }
+            } else {
+                int next = indexOf(buffer, delimiter, position, to);
+                fieldStart[field] = position;
+                fieldEnd[field] = next < 0 ? to : next;
+                position = fieldEnd[field];
+            }
+            position++; // Past the delimiter; beyond the end once the line is used up
+        }
+        return true;
+    }
+
+    private void reject(RangeBars result, Range range, long offset, String reason) {
+        result.rejected++;
+        if (loggedRejects.incrementAndGet() <= MAX_LOGGED_REJECTS) {
+            logger.warn("Rejected row in " + range.file + " at byte " + offset + ": " + reason);
+        }
+    }
+
+    private static int indexOf(MappedByteBuffer buffer, byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Concatenates parts of one ticker's bars in order, sorts them by time and keeps the last
+     * bar of each time
+     */
+    static Merged merge(List<PriceSeries> parts) {
+        String ticker = parts.get(0).getTicker();
+        int size = 0;
+        for (PriceSeries part : parts) {
+            size += part.size();
+        }
+        long[] timestamps = new long[size];
+        double[] open = new double[size];
+        double[] high = new double[size];
+        double[] low = new double[size];
+        double[] close = new double[size];
+        long[] volume = new long[size];
+        int row = 0;
+        for (PriceSeries part : parts) {
+            for (int i = 0; i < part.size(); i++, row++) {
+                timestamps[row] = part.timestampAt(i);
+                open[row] = part.openAt(i);
+                high[row] = part.highAt(i);
+                low[row] = part.lowAt(i);
+                close[row] = part.closeAt(i);
+                volume[row] = part.volumeAt(i);
+            }
+        }
+
+        int[] order = sortedOrder(timestamps);
+        PriceSeries.Builder builder = new PriceSeries.Builder(ticker, size);
+        long duplicates = 0;
+        for (int k = 0; k < size; k++) {
+            int i = order[k];
+            if (k + 1 < size && timestamps[order[k + 1]] == timestamps[i]) {
+                duplicates++;
+                continue;
+            }
+            builder.add(timestamps[i], open[i], high[i], low[i], close[i], volume[i]);
+        }
+        return new Merged(builder.build(), duplicates);
+    }
+
+    /**
+     * Row order by ascending time, ties in original order. Already sorted input, the common
+     * case, is detected in one pass; otherwise time offset and row are packed into one long
+     * so a primitive sort can be used.
+     */
+    private static int[] sortedOrder(long[] timestamps) {
+        int size = timestamps.length;
+        int[] order = new int[size];
+        boolean sorted = true;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+            sorted &= i == 0 || timestamps[i - 1] <= timestamps[i];
+            min = Math.min(min, timestamps[i]);
+            max = Math.max(max, timestamps[i]);
+        }
+        if (sorted) {
+            return order;
+        }
+
+        if (max - min < (1L << 34) && size < (1 << 29)) {
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = ((timestamps[i] - min) << 29) | i;
+            }
+            Arrays.parallelSort(keys);
+            for (int i = 0; i < size; i++) {
+                order[i] = (int) (keys[i] & ((1 << 29) - 1));
+            }
+            return order;
+        }
+
+        Integer[] boxed = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            boxed[i] = i;
+        }
+        Arrays.sort(boxed, Comparator.comparingLong(i -> timestamps[i]));
+        for (int i = 0; i < size; i++) {
+            order[i] = boxed[i];
+        }
+        return order;
+    }
+
+    /**
+     * Bars parsed from a set of files
+     *
+     * @param series     One sorted series per ticker
+     * @param bytes      Bytes read
+     * @param rows       Rows accepted
+     * @param rejected   Rows rejected
+     * @param duplicates Accepted rows superseded by a later row with the same time
+     */
+    public record ParsedBars(Map<String, PriceSeries> series, long bytes, long rows, long rejected, long duplicates) {
+    }
+
+    private record Range(Path file, long start, long end) {
+    }
+
+    record Merged(PriceSeries series, long duplicates) {
+    }
+
+    private static final class RangeBars {
+        final Map<String, PriceSeries.Builder> builders = new HashMap<>();
+        long rows;
+        long rejected;
+    }
+
+    // Ticker of the previous row and the builder its bars go to
+    private static final class LineState {
+        byte[] ticker;
+        PriceSeries.Builder builder;
+    }
+}
@@ -0,0 +1,203 @@
+package org.example.ingest;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parsers for numbers and timestamps that read straight from a byte buffer, without building
+ * strings. Malformed input yields {@code NaN}, {@link #INVALID_LONG} or
+ * {@link #INVALID_TIMESTAMP} rather than an exception, so a bad row costs nothing extra.
+ */
+final class ByteFields {
+    static final long INVALID_LONG = Long.MIN_VALUE;
+    static final long INVALID_TIMESTAMP = Long.MIN_VALUE;
+
+    // Powers of ten that are exact doubles; mantissa / 10^k is then correctly rounded
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private ByteFields() {
+    }
+
+    /**
+     * Parses a plain decimal such as {@code -123.45}. Anything else (exponents, more than 18
+     * digits) goes through {@link Double#parseDouble}.
+     */
+    static double parseDouble(ByteBuffer buffer, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean point = false;
+        boolean sawDigit = false;
+        for (; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                sawDigit = true;
+                if (digits == 18) {
+                    return slowParseDouble(buffer, from, to);
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                if (mantissa != 0) {
+                    digits++;
+                }
+                if (point) {
+                    scale++;
+                }
+            } else if (b == '.' && !point) {
+                point = true;
+            } else {
+                return slowParseDouble(buffer, from, to);
+            }
+        }
+        if (!sawDigit) {
+            return Double.NaN;
+        }
+
+        if (mantissa >= MAX_EXACT_MANTISSA || scale >= POWERS_OF_TEN.length) {
+            return slowParseDouble(buffer, from, to); // Parses the sign itself
+        }
+        double value = mantissa / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses an integer, accepting a zero fraction such as {@code 1200.0}
+     */
+    static long parseLong(ByteBuffer buffer, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        int start = i;
+        long value = 0;
+        for (; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b < '0' || b > '9') {
+                break;
+            }
+            if (value > (Long.MAX_VALUE - (b - '0')) / 10) {
+                return INVALID_LONG;
+            }
+            value = value * 10 + (b - '0');
+        }
+        if (i == start) {
+            return INVALID_LONG;
+        }
+        if (i < to) {
+            if (buffer.get(i) != '.') {
+                return INVALID_LONG;
+            }
+            for (i++; i < to; i++) {
+                if (buffer.get(i) != '0') {
+                    return INVALID_LONG;
+                }
+            }
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses {@code yyyy-MM-dd[( |T)HH:mm[:ss]]} into local epoch seconds
+     */
+    static long parseTimestamp(ByteBuffer buffer, int from, int to) {
+        int length = to - from;
+        if (length != 10 && length != 16 && length != 19) {
+            return INVALID_TIMESTAMP;
+        }
+        int year = digits(buffer, from, 4);
+        int month = digits(buffer, from + 5, 2);
+        int day = digits(buffer, from + 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)
+                || buffer.get(from + 4) != '-' || buffer.get(from + 7) != '-') {
+            return INVALID_TIMESTAMP;
+        }
+
+        int hour = 0;
+        int minute = 0;
+        int second = 0;
+        if (length > 10) {
+            byte separator = buffer.get(from + 10);
+            hour = digits(buffer, from + 11, 2);
+            minute = digits(buffer, from + 14, 2);
+            if ((separator != ' ' && separator != 'T') || buffer.get(from + 13) != ':'
+                    || hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+                return INVALID_TIMESTAMP;
+            }
+            if (length == 19) {
+                second = digits(buffer, from + 17, 2);
+                if (buffer.get(from + 16) != ':' || second < 0 || second > 59) {
+                    return INVALID_TIMESTAMP;
+                }
+            }
+        }
+        return epochDay(year, month, day) * 86_400L + hour * 3_600L + minute * 60L + second;
+    }
+
+    static String string(ByteBuffer buffer, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        buffer.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static boolean equalBytes(ByteBuffer buffer, int from, int to, byte[] other) {
+        if (to - from != other.length) {
+            return false;
+        }
+        for (int i = 0; i < other.length; i++) {
+            if (buffer.get(from + i) != other[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Days since 1970-01-01 in the proleptic Gregorian calendar
+    private static long epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468L;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    private static int digits(ByteBuffer buffer, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            byte b = buffer.get(i);
+            if (b < '0' || b > '9') {
+                return -1;
+            }
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+
+    private static double slowParseDouble(ByteBuffer buffer, int from, int to) {
+        try {
+            return Double.parseDouble(string(buffer, from, to));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.ingest;
+
+/**
+ * Column positions of a bar CSV file. Fields may be quoted; the timestamp is
+ * {@code yyyy-MM-dd} optionally followed by a space or {@code T} and {@code HH:mm[:ss]}.
+ *
+ * @param tickerColumn    Column of the ticker symbol
+ * @param timestampColumn Column of the bar time
+ * @param openColumn      Column of the open price
+ * @param highColumn      Column of the high price
+ * @param lowColumn       Column of the low price
+ * @param closeColumn     Column of the close price
+ * @param volumeColumn    Column of the volume
+ * @param header          Whether the first line of each file is a header
+ * @param delimiter       Field separator
+ */
+public record CsvLayout(int tickerColumn, int timestampColumn, int openColumn, int highColumn, int lowColumn,
+                        int closeColumn, int volumeColumn, boolean header, char delimiter) {
+
+    // Rows as exported from the market_data_points table: id, ticker, timestamp, open, high, low, close, volume
+    public static final CsvLayout DATABASE_EXPORT = new CsvLayout(1, 2, 3, 4, 5, 6, 7, false, ',');
+
+    // Vendor dumps: ticker, timestamp, open, high, low, close, volume with a header line
+    public static final CsvLayout TICKER_FIRST = new CsvLayout(0, 1, 2, 3, 4, 5, 6, true, ',');
+
+    public CsvLayout {
+        if (Math.min(Math.min(Math.min(tickerColumn, timestampColumn), Math.min(openColumn, highColumn)),
+                Math.min(Math.min(lowColumn, closeColumn), volumeColumn)) < 0) {
+            throw new IllegalArgumentException("Column positions must not be negative");
+        }
+        if (delimiter > 0x7f || delimiter == '"' || delimiter == '\n' || delimiter == '\r') {
+            throw new IllegalArgumentException("Unsupported delimiter: " + delimiter);
+        }
+    }
+
+    /**
+     * @return Number of columns a row must have at least
+     */
+    public int columnCount() {
+        return 1 + Math.max(Math.max(Math.max(tickerColumn, timestampColumn), Math.max(openColumn, highColumn)),
+                Math.max(Math.max(lowColumn, closeColumn), volumeColumn));
+    }
+
+    /**
+     * Maps a layout name from the command line to a layout
+     *
+     * @param name "export" or "ticker-first"
+     * @return Corresponding layout
+     */
+    public static CsvLayout parse(String name) {
+        return switch (name.toLowerCase()) {
+            case "export" -> DATABASE_EXPORT;
+            case "ticker-first" -> TICKER_FIRST;
+            default -> throw new IllegalArgumentException("Unknown CSV layout: " + name);
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.ingest;
+
+/**
+ * Outcome of a bulk import
+ *
+ * @param files        Files read
+ * @param bytes        Bytes read
+ * @param rows         Rows accepted
+ * @param rejected     Rows rejected as malformed or inconsistent
+ * @param duplicates   Accepted rows dropped because a later row had the same ticker and time
+ * @param tickers      Tickers written
+ * @param parseMillis  Time spent reading, parsing and sorting
+ * @param writeMillis  Time spent writing to the cache and database
+ */
+public record ImportReport(int files, long bytes, long rows, long rejected, long duplicates, int tickers,
+                           long parseMillis, long writeMillis) {
+
+    public double megabytesPerSecond() {
+        long millis = parseMillis + writeMillis;
+        return millis > 0 ? bytes / 1_048_576.0 / (millis / 1000.0) : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Imported %,d rows for %,d tickers from %,d files (%,d bytes): %,d rejected, "
+                        + "%,d duplicates, parse %,d ms, write %,d ms, %.1f MB/s",
+                rows, tickers, files, bytes, rejected, duplicates, parseMillis, writeMillis, megabytesPerSecond());
+    }
+}
@@ -0,0 +1,212 @@
+package org.example.live;
+
+import org.example.metrics.Histogram;
+import org.example.metrics.MetricsRegistry;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded single-producer, single-consumer hand-off of bars from a feed thread to the event loop.
+ * <p>
+ * Bars are stored column-wise in preallocated primitive arrays, so publishing allocates nothing
+ * and takes no lock: the producer fills a slot and publishes it by advancing the tail, the
+ * consumer frees slots by advancing the head with a release write. Each side caches
+ * the other's counter and rereads it only when the ring looks full or empty. A consumer with
+ * nothing to do parks and is unparked by the next publish.
+ * <p>
+ * When the ring is full the producer either waits for the consumer or drops the bar, depending on
+ * the {@link Overflow} policy; both are counted, along with the time spent waiting and the ring
+ * depth seen by the consumer.
+ */
+public final class BarRing {
+    private static final long FULL_PARK_NANOS = 10_000;
+
+    public enum Overflow {
+        BLOCK,  // Producer waits for a free slot, so the feed is slowed down to the loop's pace
+        DROP    // Bar is discarded, so the feed is never held up
+    }
+
+    /**
+     * Receives the bars taken from the ring
+     */
+    @FunctionalInterface
+    public interface Handler {
+        /**
+         * @param timestamp    Bar time in local epoch seconds
+         * @param arrivalNanos System.nanoTime() reading taken when the bar was published
+         */
+        void onBar(int tickerId, long timestamp, double open, double high, double low, double close, long volume,
+                   long arrivalNanos);
+    }
+
+    private final int capacity;
+    private final int mask;
+    private final Overflow overflow;
+    private final int[] tickerIds;
+    private final long[] timestamps;
+    private final double[] open;
+    private final double[] high;
+    private final double[] low;
+    private final double[] close;
+    private final long[] volume;
+    private final long[] arrivalNanos;
+
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private long producerHead;  // Producer's cached view of head
+    private long consumerTail;  // Consumer's cached view of tail
+    private volatile Thread parkedConsumer;
+    private volatile boolean closed;
+
+    private final LongAdder fullCount;
+    private final LongAdder droppedCount;
+    private final Histogram blockedNanos;
+    private final Histogram depth;
+
+    /**
+     * @param capacity Number of slots, rounded up to a power of two
+     * @param overflow What the producer does when the ring is full
+     * @param metrics  Receives the backpressure statistics
+     */
+    public BarRing(int capacity, Overflow overflow, MetricsRegistry metrics) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Ring capacity must be between 1 and 2^30: " + capacity);
+        }
+        int rounded = Integer.highestOneBit(capacity);
+        this.capacity = rounded == capacity ? capacity : rounded << 1;
+        this.mask = this.capacity - 1;
+        this.overflow = overflow;
+        this.tickerIds = new int[this.capacity];
+        this.timestamps = new long[this.capacity];
+        this.open = new double[this.capacity];
+        this.high = new double[this.capacity];
+        this.low = new double[this.capacity];
+        this.close = new double[this.capacity];
+        this.volume = new long[this.capacity];
+        this.arrivalNanos = new long[this.capacity];
+        this.fullCount = metrics.counter(MetricsRegistry.LIVE_RING_FULL);
+        this.droppedCount = metrics.counter(MetricsRegistry.LIVE_RING_DROPPED);
+        this.blockedNanos = metrics.histogram(MetricsRegistry.LIVE_RING_BLOCKED_NANOS);
+        this.depth = metrics.histogram(MetricsRegistry.LIVE_RING_DEPTH);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Publishes a bar; producer thread only. The bar's arrival time is taken on entry, so time
+     * spent waiting for a free slot counts towards its latency.
+     *
+     * @param timestamp Bar time in local epoch seconds
+     * @return False if the ring was full and the bar was dropped
+     * @throws InterruptedException If interrupted while waiting for a free slot
+     */
+    public boolean publish(int tickerId, long timestamp, double open, double high, double low, double close,
+                           long volume) throws InterruptedException {
+        long arrival = System.nanoTime();
+        long t = tail.get();
+        if (t - producerHead >= capacity) {
+            producerHead = head.get();
+            if (t - producerHead >= capacity) {
+                fullCount.increment();
+                if (overflow == Overflow.DROP) {
+                    droppedCount.increment();
+                    return false;
+                }
+                awaitSlot(t);
+                blockedNanos.recordSince(arrival);
+            }
+        }
+
+        int slot = (int) t & mask;
+        tickerIds[slot] = tickerId;
+        timestamps[slot] = timestamp;
+        this.open[slot] = open;
+        this.high[slot] = high;
+        this.low[slot] = low;
+        this.close[slot] = close;
+        this.volume[slot] = volume;
+        arrivalNanos[slot] = arrival;
+        // A full volatile write, so the parked-consumer check below cannot move ahead of it
+        tail.set(t + 1);
+
+        Thread consumer = parkedConsumer;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+        return true;
+    }
+
+    /**
+     * Marks the end of the feed; producer thread only, after its last publish
+     */
+    public void close() {
+        closed = true;
+        Thread consumer = parkedConsumer;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    /**
+     * Hands up to {@code max} bars to the handler, in publish order; consumer thread only
+     *
+     * @return Number of bars handed over
+     */
+    public int drain(Handler handler, int max) {
+        long h = head.get();
+        if (h == consumerTail) {
+            consumerTail = tail.get();
+            if (h == consumerTail) {
+                return 0;
+            }
+        }
+        depth.record(consumerTail - h);
+
+        int count = (int) Math.min(max, consumerTail - h);
+        for (int i = 0; i < count; i++) {
+            int slot = (int) (h + i) & mask;
+            handler.onBar(tickerIds[slot], timestamps[slot], open[slot], high[slot], low[slot], close[slot],
+                    volume[slot], arrivalNanos[slot]);
+            // Free each slot as soon as it is read, so a blocked producer can go on
+            head.lazySet(h + i + 1);
+        }
+        return count;
+    }
+
+    /**
+     * Parks the consumer until a bar is published, the ring is closed, the timeout passes or the
+     * thread is interrupted; consumer thread only
+     */
+    public void awaitBars(long timeoutNanos) {
+        parkedConsumer = Thread.currentThread();
+        try {
+            // Recheck after announcing the park, so a publish in between is not missed
+            if (tail.get() == head.get() && !closed) {
+                LockSupport.parkNanos(this, timeoutNanos);
+            }
+        } finally {
+            parkedConsumer = null;
+        }
+    }
+
+    /**
+     * @return Whether the ring is closed and every bar has been taken
+     */
+    public boolean isDrained() {
+        return closed && tail.get() == head.get();
+    }
+
+    private void awaitSlot(long t) throws InterruptedException {
+        while (t - producerHead >= capacity) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            LockSupport.parkNanos(this, FULL_PARK_NANOS);
+            producerHead = head.get();
+        }
+    }
+}
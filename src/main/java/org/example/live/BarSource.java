@@ -0,0 +1,26 @@
+package org.example.live;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Feed of bars for paper trading, run on its own thread as the producer side of a {@link BarRing}
+ */
+public interface BarSource extends Closeable {
+    /**
+     * Publishes bars to the ring until the feed ends
+     *
+     * @param ring Ring to publish to; the caller closes it when this method returns
+     * @throws IOException          If the feed cannot be read
+     * @throws InterruptedException If the thread is interrupted to stop the feed early
+     */
+    void feed(BarRing ring) throws IOException, InterruptedException;
+
+    /**
+     * Releases the feed, unblocking a {@link #feed} call waiting on it. Called from another thread
+     * to stop the feed, and again once it has ended.
+     */
+    @Override
+    default void close() throws IOException {
+    }
+}
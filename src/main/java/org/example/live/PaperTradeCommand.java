@@ -0,0 +1,169 @@
+package org.example.live;
+
+import org.example.backtest.BacktestResult;
+import org.example.metrics.HistogramSnapshot;
+import org.example.metrics.MetricsRegistry;
+import org.example.metrics.MetricsSnapshot;
+import org.example.models.AdjustmentFactors;
+import org.example.models.PriceSeries;
+import org.example.repository.CorporateActionRepository;
+import org.example.repository.LocalBarCache;
+import org.example.repository.MarketDataRepository;
+import org.example.strategy.StrategyFactory;
+import org.example.utils.AppLogger;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command line entry point for paper trading.
+ * <pre>
+ * PaperTradeCommand --strategy TYPE [--param NAME=VALUE]... [--capital N] [--ring N] [--drop]
+ *                   [--report-seconds N] (--tickers A,B,... [--cache DIR] [--adjusted] [--speed X] | --feed HOST:PORT)
+ * </pre>
+ * {@code --tickers} replays stored bars from the local bar cache, or from the database without
+ * {@code --cache}, at {@code --speed} bar-seconds per second (0, the default, for no pacing);
+ * {@code --adjusted} replays them adjusted for recorded splits and dividends.
+ * {@code --feed} reads bars from a local socket feed instead. Latencies are reported every
+ * {@code --report-seconds} while trading, and the results once the feed ends.
+ */
+public class PaperTradeCommand {
+    private static final AppLogger logger = new AppLogger(PaperTradeCommand.class);
+    private static final String USAGE = "Usage: PaperTradeCommand --strategy TYPE [--param NAME=VALUE]... [--capital N] "
+            + "[--ring N] [--drop] [--report-seconds N] (--tickers A,B,... [--cache DIR] [--adjusted] [--speed X] | --feed HOST:PORT)";
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+
+        StrategyFactory.StrategyType strategy = null;
+        Map<String, String> parameters = new LinkedHashMap<>();
+        BigDecimal capital = BigDecimal.valueOf(100_000);
+        int ringCapacity = 4096;
+        BarRing.Overflow overflow = BarRing.Overflow.BLOCK;
+        long reportSeconds = 10;
+        List<String> tickers = new ArrayList<>();
+        Path cacheDirectory = null;
+        boolean adjusted = false;
+        double speed = 0.0;
+        String feed = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--strategy" -> strategy = StrategyFactory.StrategyType.valueOf(args[++i].toUpperCase());
+                    case "--param" -> {
+                        String[] parameter = args[++i].split("=", 2);
+                        if (parameter.length != 2) {
+                            throw new IllegalArgumentException("Expected NAME=VALUE: " + args[i]);
+                        }
+                        parameters.put(parameter[0], parameter[1]);
+                    }
+                    case "--capital" -> capital = new BigDecimal(args[++i]);
+                    case "--ring" -> ringCapacity = Integer.parseInt(args[++i]);
+                    case "--drop" -> overflow = BarRing.Overflow.DROP;
+                    case "--report-seconds" -> reportSeconds = Long.parseLong(args[++i]);
+                    case "--tickers" -> tickers.addAll(List.of(args[++i].split(",")));
+                    case "--cache" -> cacheDirectory = Path.of(args[++i]);
+                    case "--adjusted" -> adjusted = true;
+                    case "--speed" -> speed = Double.parseDouble(args[++i]);
+                    case "--feed" -> feed = args[++i];
+                    default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            if (strategy == null || (tickers.isEmpty() == (feed == null))) {
+                System.out.println(USAGE);
+                return;
+            }
+
+            BarSource source = feed != null ? socketSource(feed) : new ReplayBarSource(load(tickers, cacheDirectory, adjusted), speed);
+            PaperTradingEngine engine = new PaperTradingEngine(capital,
+                    List.of(StrategyFactory.createStrategy(strategy, parameters)), null, source, ringCapacity, overflow);
+            Runtime.getRuntime().addShutdownHook(new Thread(engine::stop));
+            engine.start();
+            while (!engine.awaitCompletion(reportSeconds, TimeUnit.SECONDS)) {
+                logger.info(describeLatency(engine.metrics()));
+            }
+
+            if (engine.getFailure() != null) {
+                logger.error("Paper trading failed", engine.getFailure());
+            }
+            logger.info(describeLatency(engine.metrics()));
+            List<BacktestResult> results = engine.getResults();
+            System.out.println(results != null ? results.get(0) : "No complete step was traded");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Paper trading interrupted", e);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Paper trading failed", e);
+        }
+    }
+
+    /**
+     * One line summary of the engine's latencies in microseconds and its backpressure counts
+     */
+    static String describeLatency(MetricsSnapshot snapshot) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(snapshot.counters().getOrDefault(MetricsRegistry.LIVE_BARS, 0L)).append(" bars");
+        appendLatency(sb, "queue", snapshot.histograms().get(MetricsRegistry.LIVE_QUEUE_NANOS));
+        appendLatency(sb, "signal", snapshot.histograms().get(MetricsRegistry.LIVE_SIGNAL_NANOS));
+        appendLatency(sb, "order", snapshot.histograms().get(MetricsRegistry.LIVE_ORDER_NANOS));
+        HistogramSnapshot depth = snapshot.histograms().get(MetricsRegistry.LIVE_RING_DEPTH);
+        sb.append(" | ring depth max ").append(depth != null ? depth.max() : 0)
+                .append(", full ").append(snapshot.counters().getOrDefault(MetricsRegistry.LIVE_RING_FULL, 0L))
+                .append(", dropped ").append(snapshot.counters().getOrDefault(MetricsRegistry.LIVE_RING_DROPPED, 0L))
+                .append(", stale ").append(snapshot.counters().getOrDefault(MetricsRegistry.LIVE_STALE_BARS, 0L));
+        appendLatency(sb, "blocked", snapshot.histograms().get(MetricsRegistry.LIVE_RING_BLOCKED_NANOS));
+        return sb.toString();
+    }
+
+    private static void appendLatency(StringBuilder sb, String name, HistogramSnapshot histogram) {
+        if (histogram == null || histogram.count() == 0) {
+            return;
+        }
+        sb.append(String.format(" | %s p50 %.1f p99 %.1f max %.1f us", name, histogram.p50() / 1e3,
+                histogram.p99() / 1e3, histogram.max() / 1e3));
+    }
+
+    private static SocketBarSource socketSource(String feed) {
+        int colon = feed.lastIndexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Expected HOST:PORT: " + feed);
+        }
+        return new SocketBarSource(feed.substring(0, colon), Integer.parseInt(feed.substring(colon + 1)));
+    }
+
+    private static List<PriceSeries> load(List<String> tickers, Path cacheDirectory, boolean adjusted) throws IOException {
+        List<PriceSeries> series = new ArrayList<>(tickers.size());
+        if (cacheDirectory != null) {
+            LocalBarCache cache = new LocalBarCache(cacheDirectory);
+            for (String ticker : tickers) {
+                PriceSeries cached = adjusted ? cache.readAdjusted(ticker) : cache.read(ticker);
+                if (cached == null) {
+                    throw new IllegalArgumentException("No cached bars for " + ticker);
+                }
+                series.add(cached);
+            }
+            return series;
+        }
+        MarketDataRepository repository = new MarketDataRepository();
+        CorporateActionRepository actionRepository = adjusted ? new CorporateActionRepository() : null;
+        try {
+            for (String ticker : tickers) {
+                series.add(repository.getSeries(ticker, actionRepository != null
+                        ? AdjustmentFactors.of(ticker, actionRepository.findByTicker(ticker)) : null));
+            }
+        } finally {
+            repository.close();
+            if (actionRepository != null) {
+                actionRepository.close();
+            }
+        }
+        return series;
+    }
+}
@@ -0,0 +1,206 @@
+package org.example.live;
+
+import org.example.backtest.BacktestResult;
+import org.example.backtest.PaperTradingRun;
+import org.example.execution.ExecutionSimulator;
+import org.example.metrics.Histogram;
+import org.example.metrics.MetricsRegistry;
+import org.example.metrics.MetricsSnapshot;
+import org.example.models.MarketDataPoint;
+import org.example.models.PriceSeries;
+import org.example.models.SymbolTable;
+import org.example.strategy.Strategy;
+import org.example.utils.AppLogger;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Paper trading: strategies traded on bars as they arrive from a {@link BarSource}.
+ * <p>
+ * The source runs on a feed thread and hands bars over through a bounded {@link BarRing}; a
+ * single event-loop thread owns the strategies and their portfolios, so the trading path takes
+ * no locks. Each bar is timed from its arrival on the feed to being taken off the ring, to its
+ * signal and, when it placed an order or traded, to its simulated order. Latencies and backpressure
+ * statistics are kept in the engine's own metrics and merged into the global registry once the
+ * engine has finished.
+ */
+public class PaperTradingEngine implements AutoCloseable {
+    private static final AppLogger logger = new AppLogger(PaperTradingEngine.class);
+    private static final int DRAIN_BATCH = 256;
+    private static final long SNAPSHOT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final BarSource source;
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private final BarRing ring;
+    private final PaperTradingRun run;
+    private final Histogram queueNanos;
+    private final LongAdder barCount;
+    private final BarRing.Handler handler = this::onBar;
+    private volatile Thread feedThread;
+    private volatile Thread loopThread;
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    private volatile List<BacktestResult> latestResults;
+    private volatile Exception failure;
+    private volatile boolean stopping;
+
+    /**
+     * @param initialCapital   Initial capital of each strategy
+     * @param strategies       Strategies to trade, each with its own portfolio
+     * @param simulatorFactory Creates one execution simulator per strategy, or null to fill at the bar's close
+     * @param source           Feed of bars
+     * @param ringCapacity     Bars the ring holds between feed and event loop
+     * @param overflow         What the feed does when the ring is full
+     */
+    public PaperTradingEngine(BigDecimal initialCapital, List<Strategy> strategies,
+                              Supplier<ExecutionSimulator> simulatorFactory, BarSource source,
+                              int ringCapacity, BarRing.Overflow overflow) {
+        this.source = source;
+        this.ring = new BarRing(ringCapacity, overflow, metrics);
+        this.run = new PaperTradingRun(initialCapital, strategies, simulatorFactory, metrics);
+        this.queueNanos = metrics.histogram(MetricsRegistry.LIVE_QUEUE_NANOS);
+        this.barCount = metrics.counter(MetricsRegistry.LIVE_BARS);
+    }
+
+    /**
+     * Starts the event loop and the feed; an engine can only be started once
+     */
+    public synchronized void start() {
+        if (loopThread != null) {
+            throw new IllegalStateException("Paper trading engine already started");
+        }
+        loopThread = new Thread(this::loop, "paper-trading-loop");
+        feedThread = new Thread(this::feed, "paper-trading-feed");
+        loopThread.start();
+        feedThread.start();
+    }
+
+    /**
+     * Stops the feed; bars already in the ring are still traded before the engine finishes
+     */
+    public void stop() {
+        stopping = true;
+        Thread feed = feedThread;
+        if (feed != null) {
+            feed.interrupt();
+        }
+        closeSource();
+    }
+
+    /**
+     * @return Whether the engine finished within the timeout
+     */
+    public boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+        return finished.await(timeout, unit);
+    }
+
+    public boolean isFinished() {
+        return finished.getCount() == 0;
+    }
+
+    /**
+     * @return Performance of each strategy, refreshed about once a second while running and
+     * final once the engine has finished; null before the first step has completed
+     */
+    public List<BacktestResult> getResults() {
+        return latestResults;
+    }
+
+    /**
+     * @return What made the feed or the event loop fail, or null
+     */
+    public Exception getFailure() {
+        return failure;
+    }
+
+    /**
+     * @return Latency, throughput and backpressure metrics of this engine
+     */
+    public MetricsSnapshot metrics() {
+        return metrics.snapshot();
+    }
+
+    /**
+     * Stops the feed and waits for the event loop to trade what is left in the ring. If the
+     * calling thread is interrupted it stops waiting and keeps its interrupt status.
+     */
+    @Override
+    public void close() {
+        stop();
+        try {
+            join(feedThread);
+            join(loopThread);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void join(Thread thread) throws InterruptedException {
+        if (thread != null) {
+            thread.join();
+        }
+    }
+
+    private void feed() {
+        try {
+            source.feed(ring);
+        } catch (InterruptedException e) {
+            // Stopped
+        } catch (IOException | RuntimeException e) {
+            if (!stopping) {
+                failure = e;
+                logger.error("Bar feed failed", e);
+            }
+        } finally {
+            ring.close();
+            closeSource();
+        }
+    }
+
+    private void loop() {
+        long nextSnapshot = System.nanoTime() + SNAPSHOT_INTERVAL_NANOS;
+        try {
+            while (!ring.isDrained()) {
+                if (ring.drain(handler, DRAIN_BATCH) == 0) {
+                    ring.awaitBars(SNAPSHOT_INTERVAL_NANOS);
+                }
+                if (System.nanoTime() - nextSnapshot >= 0) {
+                    latestResults = run.results();
+                    nextSnapshot = System.nanoTime() + SNAPSHOT_INTERVAL_NANOS;
+                }
+            }
+            latestResults = run.finish();
+        } catch (RuntimeException e) {
+            failure = e;
+            logger.error("Paper trading stopped on an error", e);
+            stop();
+        } finally {
+            MetricsRegistry.global().merge(metrics);
+            finished.countDown();
+        }
+    }
+
+    private void onBar(int tickerId, long timestamp, double open, double high, double low, double close,
+                       long volume, long arrivalNanos) {
+        queueNanos.recordSince(arrivalNanos);
+        barCount.increment();
+        MarketDataPoint bar = new MarketDataPoint(SymbolTable.global().symbol(tickerId),
+                PriceSeries.toLocalDateTime(timestamp), BigDecimal.valueOf(open), BigDecimal.valueOf(high),
+                BigDecimal.valueOf(low), BigDecimal.valueOf(close), volume);
+        run.onBar(tickerId, bar, arrivalNanos);
+    }
+
+    private void closeSource() {
+        try {
+            source.close();
+        } catch (IOException e) {
+            logger.warn("Could not close bar feed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.live;
+
+import org.example.models.PriceSeries;
+import org.example.models.SymbolTable;
+
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays stored bars in timestamp order, as if they were arriving from a live feed.
+ * <p>
+ * With a speed of 60, an hour of bar time passes in a minute of wall time; bars sharing a
+ * timestamp are published back to back. A speed of zero replays as fast as the ring accepts
+ * the bars, which measures the engine's own throughput and latency.
+ */
+public class ReplayBarSource implements BarSource {
+    private final List<PriceSeries> series;
+    private final double speed;
+
+    /**
+     * @param series Bars per ticker, each in ascending timestamp order
+     * @param speed  Bar-time seconds replayed per wall-clock second, or 0 for no pacing
+     */
+    public ReplayBarSource(List<PriceSeries> series, double speed) {
+        if (!(speed >= 0.0) || Double.isInfinite(speed)) {
+            throw new IllegalArgumentException("Replay speed must be zero or positive: " + speed);
+        }
+        this.series = List.copyOf(series);
+        this.speed = speed;
+    }
+
+    @Override
+    public void feed(BarRing ring) throws InterruptedException {
+        int count = series.size();
+        int[] tickerIds = new int[count];
+        int[] next = new int[count];
+        for (int s = 0; s < count; s++) {
+            tickerIds[s] = SymbolTable.global().idOf(series.get(s).getTicker());
+        }
+
+        long firstTimestamp = Long.MIN_VALUE;
+        long startNanos = 0;
+        while (true) {
+            // Earliest pending bar across the tickers; the universe is small, so a scan will do
+            int pick = -1;
+            long timestamp = Long.MAX_VALUE;
+            for (int s = 0; s < count; s++) {
+                PriceSeries tickerSeries = series.get(s);
+                if (next[s] < tickerSeries.size() && tickerSeries.timestampAt(next[s]) < timestamp) {
+                    timestamp = tickerSeries.timestampAt(next[s]);
+                    pick = s;
+                }
+            }
+            if (pick < 0) {
+                return;
+            }
+
+            if (speed > 0.0) {
+                if (firstTimestamp == Long.MIN_VALUE) {
+                    firstTimestamp = timestamp;
+                    startNanos = System.nanoTime();
+                }
+                awaitWallTime(startNanos + (long) ((timestamp - firstTimestamp) * 1e9 / speed));
+            } else if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+
+            PriceSeries tickerSeries = series.get(pick);
+            int i = next[pick]++;
+            ring.publish(tickerIds[pick], timestamp, tickerSeries.openAt(i), tickerSeries.highAt(i),
+                    tickerSeries.lowAt(i), tickerSeries.closeAt(i), tickerSeries.volumeAt(i));
+        }
+    }
+
+    private static void awaitWallTime(long dueNanos) throws InterruptedException {
+        long remaining;
+        while ((remaining = dueNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+}
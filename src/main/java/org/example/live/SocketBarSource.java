@@ -0,0 +1,103 @@
+package org.example.live;
+
+import org.example.models.PriceSeries;
+import org.example.models.SymbolTable;
+import org.example.utils.AppLogger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reads bars from a local socket feed, one bar per line:
+ * <pre>
+ * TICKER,TIMESTAMP,OPEN,HIGH,LOW,CLOSE,VOLUME
+ * </pre>
+ * Timestamps are ISO local date-times ({@code 2024-03-01T15:30:00}) or dates. Blank lines and
+ * lines starting with {@code #} are skipped; malformed lines, including prices that are not
+ * finite positive numbers, are logged, counted and skipped.
+ * The feed ends when the other side closes the connection.
+ */
+public class SocketBarSource implements BarSource {
+    private static final AppLogger logger = new AppLogger(SocketBarSource.class);
+
+    private final String host;
+    private final int port;
+    private final Socket socket = new Socket();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public SocketBarSource(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    @Override
+    public void feed(BarRing ring) throws IOException, InterruptedException {
+        socket.connect(new InetSocketAddress(host, port));
+        socket.setTcpNoDelay(true);
+        logger.info("Connected to bar feed " + host + ":" + port);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(",");
+            try {
+                if (fields.length != 7) {
+                    throw new IllegalArgumentException("expected 7 fields, got " + fields.length);
+                }
+                long timestamp = parseTimestamp(fields[1].strip());
+                double open = parsePrice(fields[2]);
+                double high = parsePrice(fields[3]);
+                double low = parsePrice(fields[4]);
+                double close = parsePrice(fields[5]);
+                long volume = Long.parseLong(fields[6].strip());
+                ring.publish(SymbolTable.global().idOf(fields[0].strip()), timestamp, open, high, low, close, volume);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                rejected.incrementAndGet();
+                logger.warn("Skipping malformed bar line \"" + line + "\": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return Number of malformed lines skipped
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+
+    private static double parsePrice(String text) {
+        double price = Double.parseDouble(text);
+        // Double.parseDouble accepts NaN and Infinity, which the engine cannot turn into a price
+        if (!(price > 0) || Double.isInfinite(price)) {
+            throw new IllegalArgumentException("price must be a finite positive number: " + text.strip());
+        }
+        return price;
+    }
+
+    private static long parseTimestamp(String text) {
+        LocalDateTime timestamp = text.length() <= 10
+                ? LocalDate.parse(text).atStartOfDay()
+                : LocalDateTime.parse(text);
+        return PriceSeries.toEpochSeconds(timestamp);
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event spanning one phase of the engine, e.g. loading data, walking bars or computing
+ * performance metrics.
+ */
+@Name("org.example.BacktestPhase")
+@Label("Backtest Phase")
+@Category({"Backtest"})
+@Description("A phase of data loading or backtest evaluation")
+public class BacktestPhaseEvent extends Event {
+    public static final String DATA_LOAD = "data-load";
+    public static final String DATA_WALK = "data-walk";
+    public static final String PERFORMANCE = "performance";
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("Detail")
+    public String detail;
+
+    public BacktestPhaseEvent(String phase, String detail) {
+        this.phase = phase;
+        this.detail = detail;
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event spanning one strategy's backtest run. Costs next to nothing unless a recording
+ * with this event enabled is running.
+ */
+@Name("org.example.BacktestRun")
+@Label("Backtest Run")
+@Category({"Backtest"})
+@Description("One strategy evaluated over a market data set")
+public class BacktestRunEvent extends Event {
+    @Label("Strategy")
+    public String strategy;
+
+    @Label("Bars")
+    public long bars;
+
+    @Label("Trades")
+    public long trades;
+}
@@ -0,0 +1,11 @@
+package org.example.metrics;
+
+/**
+ * Point-in-time summary of a {@link Histogram}. Percentiles are bucket upper bounds.
+ */
+public record HistogramSnapshot(long count, long sum, long max, long p50, long p90, long p99) {
+
+    public double mean() {
+        return count > 0 ? (double) sum / count : 0.0;
+    }
+}
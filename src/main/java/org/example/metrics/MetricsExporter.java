@@ -0,0 +1,81 @@
+package org.example.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Renders metric snapshots as plain text, one {@code name value} pair per line in the
+ * Prometheus exposition style, to a file or over a local HTTP endpoint.
+ */
+public final class MetricsExporter {
+
+    private MetricsExporter() {
+    }
+
+    public static String render(MetricsSnapshot snapshot) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Long> counter : snapshot.counters().entrySet()) {
+            sb.append(metricName(counter.getKey())).append(' ').append(counter.getValue()).append('\n');
+        }
+        for (Map.Entry<String, HistogramSnapshot> entry : snapshot.histograms().entrySet()) {
+            String name = metricName(entry.getKey());
+            HistogramSnapshot histogram = entry.getValue();
+            sb.append(name).append("_count ").append(histogram.count()).append('\n');
+            sb.append(name).append("_sum ").append(histogram.sum()).append('\n');
+            sb.append(name).append("_max ").append(histogram.max()).append('\n');
+            sb.append(name).append("{quantile=\"0.5\"} ").append(histogram.p50()).append('\n');
+            sb.append(name).append("{quantile=\"0.9\"} ").append(histogram.p90()).append('\n');
+            sb.append(name).append("{quantile=\"0.99\"} ").append(histogram.p99()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes a snapshot to a file, replacing it atomically so readers never see a partial file
+     */
+    public static void writeTo(Path path, MetricsSnapshot snapshot) throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.writeString(temporary, render(snapshot), StandardCharsets.UTF_8);
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Serves the registry's current values at {@code http://localhost:<port>/metrics}
+     *
+     * @param port     Local port, or 0 for any free port
+     * @param registry Registry to snapshot on every request
+     * @return The started server; stop it with {@link HttpServer#stop(int)}
+     * @throws IOException If the port cannot be bound
+     */
+    public static HttpServer startServer(int port, MetricsRegistry registry) throws IOException {
+        return startServer(port, registry::snapshot);
+    }
+
+    public static HttpServer startServer(int port, Supplier<MetricsSnapshot> snapshots) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.createContext("/metrics", exchange -> {
+            byte[] body = render(snapshots.get()).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    // Prometheus names allow letters, digits and underscores
+    private static String metricName(String name) {
+        return name.replace('.', '_').replace('-', '_');
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Named counters and histograms.
+ * <p>
+ * Counters are {@link LongAdder}s and histograms are lock-free, so recording from many threads
+ * does not contend. Hot paths should look a metric up once and keep the reference. The
+ * {@link #global()} registry collects process-wide totals; a backtest run records into its
+ * own registry, snapshots it onto its result and merges it into the global one.
+ */
+public final class MetricsRegistry {
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+
+    // Metric names used across the engine
+    public static final String BARS = "backtest.bars";
+    public static final String SIGNALS = "backtest.signals";
+    public static final String ORDERS = "backtest.orders";
+    public static final String FILLS = "backtest.fills";
+    public static final String TRADES = "backtest.trades";
+    public static final String RUNS = "backtest.runs";
+    public static final String SIGNAL_NANOS = "backtest.signal.nanos";
+    public static final String EXECUTION_NANOS = "backtest.execution.nanos";
+    public static final String DATA_WALK_NANOS = "backtest.phase.data_walk.nanos";
+    public static final String PERFORMANCE_NANOS = "backtest.phase.performance.nanos";
+    public static final String RUN_NANOS = "backtest.run.nanos";
+    public static final String DB_ROWS = "db.rows";
+    public static final String DB_QUERY_NANOS = "db.query.nanos";
+    public static final String API_CALLS = "api.calls";
+    public static final String API_ERRORS = "api.errors";
+    public static final String API_CALL_NANOS = "api.call.nanos";
+    public static final String API_THROTTLE_NANOS = "api.throttle.nanos";
+    public static final String IMPORT_BYTES = "import.bytes";
+    public static final String IMPORT_ROWS = "import.rows";
+    public static final String IMPORT_REJECTED = "import.rejected";
+    public static final String LIVE_BARS = "live.bars";
+    public static final String LIVE_QUEUE_NANOS = "live.queue.nanos";
+    public static final String LIVE_SIGNAL_NANOS = "live.signal.nanos";
+    public static final String LIVE_ORDER_NANOS = "live.order.nanos";
+    public static final String LIVE_STALE_BARS = "live.bars.stale";
+    public static final String LIVE_RING_DEPTH = "live.ring.depth";
+    public static final String LIVE_RING_FULL = "live.ring.full";
+    public static final String LIVE_RING_DROPPED = "live.ring.dropped";
+    public static final String LIVE_RING_BLOCKED_NANOS = "live.ring.blocked.nanos";
+
+    private final ConcurrentHashMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, n -> new LongAdder());
+    }
+
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, n -> new Histogram());
+    }
+
+    /**
+     * Adds every metric of another registry to this one
+     */
+    public void merge(MetricsRegistry other) {
+        other.counters.forEach((name, adder) -> counter(name).add(adder.sum()));
+        other.histograms.forEach((name, histogram) -> histogram(name).merge(histogram));
+    }
+
+    public MetricsSnapshot snapshot() {
+        Map<String, Long> counterValues = new TreeMap<>();
+        counters.forEach((name, adder) -> counterValues.put(name, adder.sum()));
+        Map<String, HistogramSnapshot> histogramValues = new TreeMap<>();
+        histograms.forEach((name, histogram) -> histogramValues.put(name, histogram.snapshot()));
+        return new MetricsSnapshot(counterValues, histogramValues);
+    }
+}
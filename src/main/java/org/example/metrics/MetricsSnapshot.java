@@ -0,0 +1,43 @@
+package org.example.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable copy of a {@link MetricsRegistry}'s values, sorted by name.
+ *
+ * @param counters   Counter values
+ * @param histograms Histogram summaries; names ending in {@code .nanos} hold durations
+ */
+public record MetricsSnapshot(Map<String, Long> counters, Map<String, HistogramSnapshot> histograms) {
+    public static final MetricsSnapshot EMPTY = new MetricsSnapshot(Map.of(), Map.of());
+
+    public MetricsSnapshot {
+        counters = Collections.unmodifiableMap(new TreeMap<>(counters));
+        histograms = Collections.unmodifiableMap(new TreeMap<>(histograms));
+    }
+
+    public long counter(String name) {
+        return counters.getOrDefault(name, 0L);
+    }
+
+    public HistogramSnapshot histogram(String name) {
+        return histograms.get(name);
+    }
+
+    /**
+     * Rate of a counter over the total time recorded in a duration histogram
+     *
+     * @param counterName   Counter to divide
+     * @param durationNanos Histogram of nanosecond durations to divide by
+     * @return Events per second, or 0 if no time was recorded
+     */
+    public double ratePerSecond(String counterName, String durationNanos) {
+        HistogramSnapshot duration = histograms.get(durationNanos);
+        if (duration == null || duration.sum() == 0) {
+            return 0.0;
+        }
+        return counter(counterName) * 1e9 / duration.sum();
+    }
+}
@@ -0,0 +1,158 @@
+package org.example.models;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Cumulative split and dividend adjustment of one ticker, kept apart from its bars.
+ * <p>
+ * The ex-dates of the actions cut the timeline into segments: segment {@code s} holds the bars
+ * with exactly {@code s} actions in effect. Every bar of a segment is multiplied by the same
+ * factor, the product of the factors of the actions still ahead of it, so the factors are held
+ * as one vector entry per segment and a series read in time order just steps through the
+ * vector. Stored bars are never rewritten; the raw bars and this vector give both views.
+ * <p>
+ * Instances are immutable. Adding an action builds a new vector in time proportional to the
+ * number of actions, never the number of bars, so readers holding the old instance keep a
+ * consistent view.
+ */
+public final class AdjustmentFactors {
+    private static final CorporateAction[] NO_ACTIONS = new CorporateAction[0];
+    private static final Comparator<CorporateAction> BY_EX_DATE = Comparator.comparing(CorporateAction::getExDate)
+            .thenComparing(CorporateAction::getType);
+
+    private final String ticker;
+    private final CorporateAction[] actions;  // Ascending ex-date
+    private final long[] boundaries;          // Start of each action's ex-date, local epoch seconds
+    private final double[] priceMultipliers;  // One per segment; the last segment is unadjusted
+    private final double[] volumeMultipliers;
+
+    private AdjustmentFactors(String ticker, CorporateAction[] actions) {
+        int count = actions.length;
+        this.ticker = ticker;
+        this.actions = actions;
+        this.boundaries = new long[count];
+        this.priceMultipliers = new double[count + 1];
+        this.volumeMultipliers = new double[count + 1];
+        priceMultipliers[count] = 1.0;
+        volumeMultipliers[count] = 1.0;
+        for (int s = count - 1; s >= 0; s--) {
+            boundaries[s] = PriceSeries.toEpochSeconds(actions[s].getExDate().atStartOfDay());
+            priceMultipliers[s] = priceMultipliers[s + 1] * actions[s].getPriceFactor();
+            volumeMultipliers[s] = volumeMultipliers[s + 1] * actions[s].getVolumeFactor();
+        }
+    }
+
+    public static AdjustmentFactors none(String ticker) {
+        return new AdjustmentFactors(ticker, NO_ACTIONS);
+    }
+
+    /**
+     * @param actions The ticker's actions, in any order
+     */
+    public static AdjustmentFactors of(String ticker, List<CorporateAction> actions) {
+        AdjustmentFactors factors = none(ticker);
+        for (CorporateAction action : actions) {
+            factors = factors.with(action);
+        }
+        return factors;
+    }
+
+    /**
+     * Returns these factors with one more action; an action with the same ex-date and type
+     * replaces the one recorded before. This instance is left unchanged.
+     *
+     * @param action Action of this ticker
+     * @return Updated factors
+     */
+    public AdjustmentFactors with(CorporateAction action) {
+        if (!ticker.equals(action.getTicker())) {
+            throw new IllegalArgumentException("Action of " + action.getTicker() + " does not apply to " + ticker);
+        }
+        int position = Arrays.binarySearch(actions, action, BY_EX_DATE);
+        CorporateAction[] updated;
+        if (position >= 0) {
+            updated = actions.clone();
+            updated[position] = action;
+        } else {
+            int insert = -position - 1;
+            updated = new CorporateAction[actions.length + 1];
+            System.arraycopy(actions, 0, updated, 0, insert);
+            updated[insert] = action;
+            System.arraycopy(actions, insert, updated, insert + 1, actions.length - insert);
+        }
+        return new AdjustmentFactors(ticker, updated);
+    }
+
+    public String getTicker() {
+        return ticker;
+    }
+
+    /**
+     * @return The actions in ex-date order
+     */
+    public List<CorporateAction> actions() {
+        return List.of(actions);
+    }
+
+    public boolean isEmpty() {
+        return actions.length == 0;
+    }
+
+    /**
+     * @param timestamp Local epoch seconds
+     * @return Segment of a bar at that time: the number of actions whose ex-date has begun
+     */
+    public int segmentOf(long timestamp) {
+        int lo = 0;
+        int hi = boundaries.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (boundaries[mid] <= timestamp) {
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * @return First local epoch second after the segment, or Long.MAX_VALUE for the last one
+     */
+    public long segmentEnd(int segment) {
+        return segment < boundaries.length ? boundaries[segment] : Long.MAX_VALUE;
+    }
+
+    public double priceMultiplier(int segment) {
+        return priceMultipliers[segment];
+    }
+
+    public double volumeMultiplier(int segment) {
+        return volumeMultipliers[segment];
+    }
+
+    /**
+     * Adjusts the first {@code size} bars of primitive columns in place, one segment at a time
+     *
+     * @param timestamps Bar times in ascending order, left unchanged
+     */
+    public void applyInPlace(long[] timestamps, double[] open, double[] high, double[] low, double[] close,
+                             long[] volume, int size) {
+        int i = 0;
+        for (int s = size > 0 ? segmentOf(timestamps[0]) : 0; s < boundaries.length && i < size; s++) {
+            double price = priceMultipliers[s];
+            double shares = volumeMultipliers[s];
+            long end = boundaries[s];
+            for (; i < size && timestamps[i] < end; i++) {
+                open[i] *= price;
+                high[i] *= price;
+                low[i] *= price;
+                close[i] *= price;
+                volume[i] = Math.round(volume[i] * shares);
+            }
+        }
+        // Bars from the last ex-date on are already current
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.LocalDate;
+
+/**
+ * A split or cash dividend of a ticker, taking effect at the open of its ex-date.
+ * <p>
+ * Stored bars stay as traded; an action only records the factor by which prices before its
+ * ex-date are multiplied to be comparable with prices after it. See {@link AdjustmentFactors}.
+ */
+@Entity
+@Table(name = "corporate_actions", indexes = {
+        @Index(name = "idx_corporate_actions_ticker_date", columnList = "ticker, ex_date")
+})
+public class CorporateAction {
+
+    public enum Type {
+        SPLIT,     // Value is the number of new shares per old share, e.g. 4 for a 4-for-1 split
+        DIVIDEND   // Value is the cash amount per share
+    }
+
+    @Id
+    private String id; // Ticker + ex-date + type, so recording an action again replaces it
+
+    @Column(name = "ticker", nullable = false)
+    private String ticker;
+
+    @Column(name = "ex_date", nullable = false)
+    private LocalDate exDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false)
+    private Type type;
+
+    @Column(name = "action_value", nullable = false)
+    private double value;
+
+    @Column(name = "price_factor", nullable = false)
+    private double priceFactor;
+
+    /**
+     * @param priceFactor Multiplier for prices before the ex-date, in (0, 1] for splits of more
+     *                    than one share and for dividends
+     */
+    public CorporateAction(String ticker, LocalDate exDate, Type type, double value, double priceFactor) {
+        if (!(priceFactor > 0.0) || Double.isInfinite(priceFactor)) {
+            throw new IllegalArgumentException("Price factor must be positive: " + priceFactor);
+        }
+        this.id = ticker + "_" + exDate + "_" + type;
+        this.ticker = ticker;
+        this.exDate = exDate;
+        this.type = type;
+        this.value = value;
+        this.priceFactor = priceFactor;
+    }
+
+    // Default constructor for Hibernate
+    public CorporateAction() {
+    }
+
+    /**
+     * @param ratio New shares per old share; below 1 for a reverse split
+     */
+    public static CorporateAction split(String ticker, LocalDate exDate, double ratio) {
+        if (!(ratio > 0.0) || Double.isInfinite(ratio)) {
+            throw new IllegalArgumentException("Split ratio must be positive: " + ratio);
+        }
+        return new CorporateAction(ticker, exDate, Type.SPLIT, ratio, 1.0 / ratio);
+    }
+
+    /**
+     * @param amount        Cash paid per share
+     * @param previousClose Unadjusted close of the last bar before the ex-date
+     */
+    public static CorporateAction dividend(String ticker, LocalDate exDate, double amount, double previousClose) {
+        if (!(amount > 0.0) || !(amount < previousClose)) {
+            throw new IllegalArgumentException("Dividend of " + amount + " must be positive and below the previous close of "
+                    + previousClose);
+        }
+        return new CorporateAction(ticker, exDate, Type.DIVIDEND, amount, 1.0 - amount / previousClose);
+    }
+
+    public String getId() { return id; }
+    public String getTicker() { return ticker; }
+    public LocalDate getExDate() { return exDate; }
+    public Type getType() { return type; }
+    public double getValue() { return value; }
+    public double getPriceFactor() { return priceFactor; }
+
+    /**
+     * @return Multiplier for volumes before the ex-date; only splits change the share count
+     */
+    public double getVolumeFactor() {
+        return type == Type.SPLIT ? value : 1.0;
+    }
+
+    @Override
+    public String toString() {
+        return ticker + " " + type + " " + value + " ex " + exDate;
+    }
+}
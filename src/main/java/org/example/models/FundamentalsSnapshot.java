@@ -0,0 +1,64 @@
+package org.example.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.LocalDate;
+
+/**
+ * Fundamentals of a ticker as they were known on a given date. Unlike {@link StockFundamentals},
+ * which holds only the latest values, every fetch adds a version, so a backtest can screen a
+ * past date with the data available at the time.
+ */
+@Entity
+@Table(name = "stock_fundamental_history", indexes = {
+        @Index(name = "idx_fundamental_history_ticker_date", columnList = "ticker, as_of_date")
+})
+public class FundamentalsSnapshot {
+
+    @Id
+    private String id; // Ticker + as-of date, so re-fetching on the same day replaces the version
+
+    @Column(name = "ticker", nullable = false)
+    private String ticker;
+
+    @Column(name = "as_of_date", nullable = false)
+    private LocalDate asOfDate;
+
+    @Column(name = "pe_ratio")
+    private Double peRatio;
+
+    @Column(name = "pb_ratio")
+    private Double pbRatio;
+
+    @Column(name = "return_on_equity")
+    private Double returnOnEquity;
+
+    @Column(name = "dividend_yield")
+    private Double dividendYield;
+
+    public FundamentalsSnapshot(StockFundamentals fundamentals, LocalDate asOfDate) {
+        this.id = fundamentals.getTicker() + "_" + asOfDate;
+        this.ticker = fundamentals.getTicker();
+        this.asOfDate = asOfDate;
+        this.peRatio = fundamentals.getPeRatioOrNull();
+        this.pbRatio = fundamentals.getPbRatioOrNull();
+        this.returnOnEquity = fundamentals.getReturnOnEquityOrNull();
+        this.dividendYield = fundamentals.getDividendYieldOrNull();
+    }
+
+    // Default constructor for Hibernate
+    public FundamentalsSnapshot() {
+    }
+
+    public String getId() { return id; }
+    public String getTicker() { return ticker; }
+    public LocalDate getAsOfDate() { return asOfDate; }
+
+    public StockFundamentals toStockFundamentals() {
+        return new StockFundamentals(ticker, peRatio, pbRatio, returnOnEquity, dividendYield);
+    }
+}
@@ -1,113 +1,181 @@
 package org.example.models;
 
 import java.math.BigDecimal;
-import java.util.HashMap;
-import java.util.Map;
-
+import java.util.Arrays;
+
+/**
+ * Cash plus positions held in parallel primitive arrays indexed by {@link SymbolTable} id.
+ * <p>
+ * Opening, adding to and closing a position only writes array slots, so the per-bar path
+ * neither hashes ticker strings nor allocates position objects.
+ * <p>
+ * The market value of all open positions is maintained incrementally: each new price only
+ * adds {@code quantity * (price - lastPrice)} for that ticker, so equity is available in
+ * O(1) after every bar instead of revaluing the whole book.
+ */
 public class Portfolio {
-    private BigDecimal totalCapital;
-    private final Map<String, PortfolioPosition> positions;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private double cash;
+    private double marketValue;
+    private double[] quantities;
+    private double[] averagePrices;
+    private double[] lastPrices;
+
+    // Dense list of ids with a non-zero quantity, for iterating open positions only
+    private int[] openIds;
+    private int[] openSlots;
+    private int openCount;
 
     public Portfolio(BigDecimal initialCapital) {
-        this.totalCapital = initialCapital;
-        this.positions = new HashMap<>();
+        this.cash = initialCapital.doubleValue();
+        this.quantities = new double[INITIAL_CAPACITY];
+        this.averagePrices = new double[INITIAL_CAPACITY];
+        this.lastPrices = new double[INITIAL_CAPACITY];
+        this.openIds = new int[INITIAL_CAPACITY];
+        this.openSlots = new int[INITIAL_CAPACITY];
+        Arrays.fill(openSlots, -1);
     }
 
     public BigDecimal getTotalCapital() {
-        return totalCapital;
+        return BigDecimal.valueOf(cash);
     }
 
-    public Map<String, PortfolioPosition> getPositions() {
-        return positions;
+    public double getCash() {
+        return cash;
     }
 
-    // Add position to portfolio
-    public void addPosition(String ticker, BigDecimal quantity, BigDecimal price) {
-        PortfolioPosition position = positions.getOrDefault(ticker, new PortfolioPosition());
+    /**
+     * @return Market value of open positions at their last marked prices
+     */
+    public double getMarketValue() {
+        return marketValue;
+    }
 
-        // Calculate the new average price based on the old position and new position
-        BigDecimal newAveragePrice = position.calculateNewAveragePrice(quantity, price);
+    /**
+     * @return Cash plus market value of open positions
+     */
+    public double getEquity() {
+        return cash + marketValue;
+    }
 
-        // Update position and total capital
-        position.addQuantity(quantity);
-        position.setAveragePrice(newAveragePrice);
-        totalCapital = totalCapital.subtract(price.multiply(quantity));
-        positions.put(ticker, position);
+    // Mark a ticker to a new price, updating the book's market value by the price delta
+    public void markPrice(int tickerId, double price) {
+        if (tickerId >= lastPrices.length) {
+            return; // Never held, nothing to revalue
+        }
+        double held = quantities[tickerId];
+        if (held != 0.0) {
+            marketValue += held * (price - lastPrices[tickerId]);
+        }
+        lastPrices[tickerId] = price;
     }
 
-    // Remove position from portfolio
-    public void removePosition(String ticker, BigDecimal quantity, BigDecimal price) {
-        PortfolioPosition position = positions.get(ticker);
-        if (position != null) {
-            BigDecimal availableQuantity = position.getQuantity();
-            if (availableQuantity.compareTo(quantity) >= 0) {
-                // Enough quantity available, remove the specified quantity
-                position.removeQuantity(quantity);
-                totalCapital = totalCapital.add(price.multiply(quantity));
-            } else {
-                // Not enough quantity, remove all available quantity
-                totalCapital = totalCapital.add(price.multiply(availableQuantity));
-                position.removeQuantity(availableQuantity); // Set quantity to zero
-            }
-
-            // If quantity becomes zero, remove the position from the portfolio
-            if (position.getQuantity().compareTo(BigDecimal.ZERO) == 0) {
-                positions.remove(ticker);
-            }
-        } else {
-            // No position found, nothing to remove
-            System.out.println("No position found for " + ticker);
+    // Recompute market value from scratch, discarding accumulated rounding drift
+    public double revalue() {
+        double value = 0.0;
+        for (int i = 0; i < openCount; i++) {
+            int id = openIds[i];
+            value += quantities[id] * lastPrices[id];
         }
+        marketValue = value;
+        return cash + marketValue;
     }
 
-    // PortfolioPosition now uses BigDecimal for quantity and price
-    public static class PortfolioPosition {
-        private BigDecimal quantity;
-        private BigDecimal averagePrice;
+    public double getQuantity(int tickerId) {
+        return tickerId < quantities.length ? quantities[tickerId] : 0.0;
+    }
 
-        public PortfolioPosition() {
-            this.quantity = BigDecimal.ZERO; // Initialize with zero quantity
-            this.averagePrice = BigDecimal.ZERO; // Initialize with zero average price
-        }
+    public double getAveragePrice(int tickerId) {
+        return tickerId < averagePrices.length ? averagePrices[tickerId] : 0.0;
+    }
 
-        public BigDecimal getQuantity() {
-            return quantity;
-        }
+    public double getLastPrice(int tickerId) {
+        return tickerId < lastPrices.length ? lastPrices[tickerId] : 0.0;
+    }
 
-        public BigDecimal getAveragePrice() {
-            return averagePrice;
-        }
+    public int getOpenPositionCount() {
+        return openCount;
+    }
+
+    /**
+     * @param index Index between 0 and {@link #getOpenPositionCount()}
+     * @return Ticker id of the open position; order changes as positions close
+     */
+    public int getOpenPositionId(int index) {
+        return openIds[index];
+    }
+
+    // Add position to portfolio
+    public void addPosition(int tickerId, double quantity, double price) {
+        ensureCapacity(tickerId);
+        double held = quantities[tickerId];
 
-        // Set average price
-        public void setAveragePrice(BigDecimal averagePrice) {
-            this.averagePrice = averagePrice;
+        // Calculate the new average price based on the old position and new position
+        averagePrices[tickerId] = held == 0.0
+                ? price
+                : (averagePrices[tickerId] * held + price * quantity) / (held + quantity);
+
+        if (held == 0.0 && quantity != 0.0) {
+            openSlots[tickerId] = openCount;
+            openIds[openCount++] = tickerId;
         }
+        markPrice(tickerId, price);
+        quantities[tickerId] = held + quantity;
+        marketValue += price * quantity;
+        cash -= price * quantity;
+    }
 
-        // Add quantity
-        public void addQuantity(BigDecimal quantity) {
-            this.quantity = this.quantity.add(quantity);
+    // Remove position from portfolio; selling more than is held only sells what is held
+    public void removePosition(int tickerId, double quantity, double price) {
+        double held = getQuantity(tickerId);
+        if (held <= 0.0) {
+            // No position found, nothing to remove
+            System.out.println("No position found for " + SymbolTable.global().symbol(tickerId));
+            return;
         }
 
-        // Remove quantity
-        public void removeQuantity(BigDecimal quantity) {
-            this.quantity = this.quantity.subtract(quantity);
-            // Ensure the quantity doesn't go negative
-            if (this.quantity.compareTo(BigDecimal.ZERO) < 0) {
-                this.quantity = BigDecimal.ZERO;
-            }
+        double sold = Math.min(held, quantity);
+        markPrice(tickerId, price);
+        cash += price * sold;
+        marketValue -= price * sold;
+        quantities[tickerId] = held - sold;
+
+        // If quantity becomes zero, drop the position from the open list
+        if (quantities[tickerId] == 0.0) {
+            averagePrices[tickerId] = 0.0;
+            int slot = openSlots[tickerId];
+            int movedId = openIds[--openCount];
+            openIds[slot] = movedId;
+            openSlots[movedId] = slot;
+            openSlots[tickerId] = -1;
         }
+    }
+
+    public void addPosition(String ticker, BigDecimal quantity, BigDecimal price) {
+        addPosition(SymbolTable.global().idOf(ticker), quantity.doubleValue(), price.doubleValue());
+    }
+
+    public void removePosition(String ticker, BigDecimal quantity, BigDecimal price) {
+        removePosition(SymbolTable.global().idOf(ticker), quantity.doubleValue(), price.doubleValue());
+    }
+
+    // Deduct commissions and other trading costs from cash
+    public void chargeFees(double fees) {
+        cash -= fees;
+    }
 
-        // Calculate new average price after adding new quantity at a given price
-        public BigDecimal calculateNewAveragePrice(BigDecimal newQuantity, BigDecimal newPrice) {
-            if (this.quantity.compareTo(BigDecimal.ZERO) == 0) {
-                // If there's no existing quantity, the new average price is just the new price
-                return newPrice;
-            }
-
-            // Calculate the weighted average price
-            BigDecimal totalCost = this.averagePrice.multiply(this.quantity).add(newPrice.multiply(newQuantity));
-            BigDecimal newTotalQuantity = this.quantity.add(newQuantity);
-            return totalCost.divide(newTotalQuantity, 4, BigDecimal.ROUND_HALF_UP);
+    private void ensureCapacity(int tickerId) {
+        if (tickerId < quantities.length) {
+            return;
         }
+        int capacity = Math.max(tickerId + 1, quantities.length * 2);
+        int oldCapacity = quantities.length;
+        quantities = Arrays.copyOf(quantities, capacity);
+        averagePrices = Arrays.copyOf(averagePrices, capacity);
+        lastPrices = Arrays.copyOf(lastPrices, capacity);
+        openIds = Arrays.copyOf(openIds, capacity);
+        openSlots = Arrays.copyOf(openSlots, capacity);
+        Arrays.fill(openSlots, oldCapacity, capacity, -1);
     }
 }
@@ -0,0 +1,226 @@
+package org.example.models;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Column-oriented, primitive copy of one ticker's bar history.
+ * <p>
+ * Timestamps are stored as "local epoch seconds": the exchange-local {@link LocalDateTime}
+ * of the bar read as if it were UTC. This keeps calendar arithmetic (session dates, month
+ * boundaries) trivial without carrying a time zone through the engine.
+ */
+public final class PriceSeries {
+    private final String ticker;
+    private final long[] timestamps;
+    private final double[] open;
+    private final double[] high;
+    private final double[] low;
+    private final double[] close;
+    private final long[] volume;
+    private final int size;
+
+    public PriceSeries(String ticker, long[] timestamps, double[] open, double[] high,
+                       double[] low, double[] close, long[] volume, int size) {
+        this.ticker = ticker;
+        this.timestamps = timestamps;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+        this.size = size;
+    }
+
+    /**
+     * Copies a list of entity bars into primitive columns.
+     *
+     * @param ticker     The ticker the bars belong to
+     * @param dataPoints Bars in ascending timestamp order
+     * @return PriceSeries holding the same bars
+     */
+    public static PriceSeries fromDataPoints(String ticker, List<MarketDataPoint> dataPoints) {
+        int n = dataPoints.size();
+        long[] timestamps = new long[n];
+        double[] open = new double[n];
+        double[] high = new double[n];
+        double[] low = new double[n];
+        double[] close = new double[n];
+        long[] volume = new long[n];
+
+        for (int i = 0; i < n; i++) {
+            MarketDataPoint point = dataPoints.get(i);
+            timestamps[i] = toEpochSeconds(point.getTimestamp());
+            open[i] = toDouble(point.getOpen());
+            high[i] = toDouble(point.getHigh());
+            low[i] = toDouble(point.getLow());
+            close[i] = toDouble(point.getClose());
+            volume[i] = point.getVolume();
+        }
+
+        return new PriceSeries(ticker, timestamps, open, high, low, close, volume, n);
+    }
+
+    /**
+     * Copies the bars back into entities, for code that still consumes {@link MarketDataPoint} lists.
+     *
+     * @return Bars in ascending timestamp order
+     */
+    public List<MarketDataPoint> toDataPoints() {
+        return toDataPoints(0, size);
+    }
+
+    /**
+     * Copies a range of the bars into entities
+     *
+     * @param from First index, inclusive
+     * @param to   Last index, exclusive
+     * @return Bars in ascending timestamp order, in a list the caller may modify
+     */
+    public List<MarketDataPoint> toDataPoints(int from, int to) {
+        return toDataPoints(from, to, null);
+    }
+
+    /**
+     * Copies a range of the bars into entities, adjusting them on the way
+     *
+     * @param from    First index, inclusive
+     * @param to      Last index, exclusive
+     * @param factors Adjustment for splits and dividends, or null for the bars as stored
+     * @return Bars in ascending timestamp order, in a list the caller may modify
+     */
+    public List<MarketDataPoint> toDataPoints(int from, int to, AdjustmentFactors factors) {
+        List<MarketDataPoint> dataPoints = new ArrayList<>(Math.max(0, to - from));
+        int segment = factors != null && from < to ? factors.segmentOf(timestamps[from]) : 0;
+        long segmentEnd = factors != null ? factors.segmentEnd(segment) : Long.MAX_VALUE;
+        double price = factors != null ? factors.priceMultiplier(segment) : 1.0;
+        double shares = factors != null ? factors.volumeMultiplier(segment) : 1.0;
+        for (int i = from; i < to; i++) {
+            while (timestamps[i] >= segmentEnd) {
+                segment++;
+                segmentEnd = factors.segmentEnd(segment);
+                price = factors.priceMultiplier(segment);
+                shares = factors.volumeMultiplier(segment);
+            }
+            dataPoints.add(new MarketDataPoint(ticker, toLocalDateTime(timestamps[i]), BigDecimal.valueOf(open[i] * price),
+                    BigDecimal.valueOf(high[i] * price), BigDecimal.valueOf(low[i] * price),
+                    BigDecimal.valueOf(close[i] * price), shares == 1.0 ? volume[i] : Math.round(volume[i] * shares)));
+        }
+        return dataPoints;
+    }
+
+    public static long toEpochSeconds(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    public static LocalDateTime toLocalDateTime(long epochSeconds) {
+        return LocalDateTime.ofEpochSecond(epochSeconds, 0, ZoneOffset.UTC);
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+
+    public String getTicker() { return ticker; }
+    public int size() { return size; }
+    public long timestampAt(int i) { return timestamps[i]; }
+    public double openAt(int i) { return open[i]; }
+    public double highAt(int i) { return high[i]; }
+    public double lowAt(int i) { return low[i]; }
+    public double closeAt(int i) { return close[i]; }
+    public long volumeAt(int i) { return volume[i]; }
+
+    /**
+     * Finds the last bar at or before the given time.
+     *
+     * @param epochSeconds Local epoch seconds to search for
+     * @return Index of the bar, or -1 if every bar is later
+     */
+    public int indexAtOrBefore(long epochSeconds) {
+        int lo = 0;
+        int hi = size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (timestamps[mid] <= epochSeconds) {
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return hi;
+    }
+
+    /**
+     * Growable builder for series produced in a streaming fashion (resampling, imports).
+     */
+    public static final class Builder {
+        private final String ticker;
+        private long[] timestamps;
+        private double[] open;
+        private double[] high;
+        private double[] low;
+        private double[] close;
+        private long[] volume;
+        private int size;
+
+        public Builder(String ticker) {
+            this(ticker, 256);
+        }
+
+        public Builder(String ticker, int initialCapacity) {
+            int capacity = Math.max(initialCapacity, 16);
+            this.ticker = ticker;
+            this.timestamps = new long[capacity];
+            this.open = new double[capacity];
+            this.high = new double[capacity];
+            this.low = new double[capacity];
+            this.close = new double[capacity];
+            this.volume = new long[capacity];
+        }
+
+        public Builder add(long timestamp, double o, double h, double l, double c, long v) {
+            if (size == timestamps.length) {
+                int capacity = size + (size >> 1);
+                timestamps = Arrays.copyOf(timestamps, capacity);
+                open = Arrays.copyOf(open, capacity);
+                high = Arrays.copyOf(high, capacity);
+                low = Arrays.copyOf(low, capacity);
+                close = Arrays.copyOf(close, capacity);
+                volume = Arrays.copyOf(volume, capacity);
+            }
+            timestamps[size] = timestamp;
+            open[size] = o;
+            high[size] = h;
+            low[size] = l;
+            close[size] = c;
+            volume[size] = v;
+            size++;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @return Series over a trimmed copy of the accumulated bars; the builder stays usable
+         */
+        public PriceSeries build() {
+            return new PriceSeries(ticker, Arrays.copyOf(timestamps, size), Arrays.copyOf(open, size),
+                    Arrays.copyOf(high, size), Arrays.copyOf(low, size), Arrays.copyOf(close, size),
+                    Arrays.copyOf(volume, size), size);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PriceSeries{" +
+                "ticker='" + ticker + '\'' +
+                ", size=" + size +
+                '}';
+    }
+}
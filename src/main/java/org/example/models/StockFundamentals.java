@@ -88,6 +88,23 @@ public class StockFundamentals {
         this.dividendYield = dividendYield;
     }
 
+    // Ratios as stored, null where the source did not report them
+    public Double getPeRatioOrNull() {
+        return peRatio;
+    }
+
+    public Double getPbRatioOrNull() {
+        return pbRatio;
+    }
+
+    public Double getReturnOnEquityOrNull() {
+        return returnOnEquity;
+    }
+
+    public Double getDividendYieldOrNull() {
+        return dividendYield;
+    }
+
     @Override
     public String toString() {
         return "StockFundamentals {" +
@@ -0,0 +1,79 @@
+package org.example.models;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide mapping from ticker strings to dense {@code int} ids.
+ * <p>
+ * Ids are assigned on first sight and never reused, so they can index primitive arrays
+ * (portfolio positions, order books, event logs) across the whole process. Strings are only
+ * looked up at the edges - when data is loaded or a result is rendered - never per bar.
+ */
+public final class SymbolTable {
+    private static final SymbolTable GLOBAL = new SymbolTable();
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] symbols = new String[1024];
+    private volatile int size;
+
+    public static SymbolTable global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Returns the id of a ticker, registering it if it has not been seen before
+     *
+     * @param ticker The ticker symbol
+     * @return Dense id of the ticker
+     */
+    public int idOf(String ticker) {
+        Integer id = ids.get(ticker);
+        return id != null ? id : register(ticker);
+    }
+
+    /**
+     * @param ticker The ticker symbol
+     * @return Id of the ticker, or -1 if it has never been registered
+     */
+    public int find(String ticker) {
+        Integer id = ids.get(ticker);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * @param id Ticker id
+     * @return Ticker symbol for the id
+     */
+    public String symbol(int id) {
+        if (id < 0 || id >= size) {
+            throw new IllegalArgumentException("Unknown ticker id: " + id);
+        }
+        return symbols[id];
+    }
+
+    /**
+     * @return Number of registered tickers; every id is below this value
+     */
+    public int size() {
+        return size;
+    }
+
+    private synchronized int register(String ticker) {
+        Integer existing = ids.get(ticker);
+        if (existing != null) {
+            return existing;
+        }
+
+        int id = size;
+        String[] current = symbols;
+        if (id == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[id] = ticker;
+        symbols = current;
+        size = id + 1;
+        ids.put(ticker, id);
+        return id;
+    }
+}
@@ -0,0 +1,164 @@
+package org.example.optimization;
+
+import org.example.analytics.ReturnMatrix;
+
+import java.util.stream.IntStream;
+
+/**
+ * Cache-blocked, parallel covariance estimation with optional Ledoit-Wolf shrinkage.
+ * <p>
+ * Returns are demeaned into a column-major copy so each asset's history is contiguous. The
+ * upper triangle of the covariance matrix is then split into square tiles of assets; tiles are
+ * computed in parallel, and within a tile the time axis is walked in chunks so both tiles'
+ * columns stay in cache. The squared cross-products Ledoit-Wolf needs are accumulated in the
+ * same pass, so shrinkage costs no extra sweep over the data.
+ */
+public final class CovarianceEstimator {
+    private static final int ASSET_BLOCK = 64;
+    private static final int TIME_BLOCK = 512;
+
+    private CovarianceEstimator() {
+    }
+
+    public static CovarianceMatrix estimate(ReturnMatrix returns, boolean shrink) {
+        return estimate(returns.rawReturns(), returns.observations(), returns.assets(), shrink);
+    }
+
+    /**
+     * Estimates the covariance matrix of row-major returns
+     *
+     * @param returns      Row-major returns, one row per period
+     * @param observations Number of rows
+     * @param assets       Number of columns
+     * @param shrink       Whether to apply Ledoit-Wolf shrinkage towards a scaled identity
+     * @return Sample covariance, or the shrunk maximum-likelihood covariance when {@code shrink}
+     */
+    public static CovarianceMatrix estimate(double[] returns, int observations, int assets, boolean shrink) {
+        if (observations < 2) {
+            throw new IllegalArgumentException("At least 2 observations are needed, got " + observations);
+        }
+
+        double[] means = new double[assets];
+        for (int t = 0; t < observations; t++) {
+            int offset = t * assets;
+            for (int a = 0; a < assets; a++) {
+                means[a] += returns[offset + a];
+            }
+        }
+        for (int a = 0; a < assets; a++) {
+            means[a] /= observations;
+        }
+
+        // Demeaned, column-major copy: asset a occupies [a * observations, (a + 1) * observations)
+        double[] columns = new double[assets * observations];
+        for (int t = 0; t < observations; t++) {
+            int offset = t * assets;
+            for (int a = 0; a < assets; a++) {
+                columns[a * observations + t] = returns[offset + a] - means[a];
+            }
+        }
+
+        double[] crossProducts = new double[assets * assets];
+        double[] squaredCrossProducts = shrink ? new double[assets * assets] : null;
+
+        int blocks = (assets + ASSET_BLOCK - 1) / ASSET_BLOCK;
+        int tiles = blocks * (blocks + 1) / 2;
+        IntStream.range(0, tiles).parallel().forEach(tile -> {
+            // Map the tile index onto an upper-triangle block pair (rowBlock <= columnBlock)
+            int rowBlock = 0;
+            int remaining = tile;
+            while (remaining >= blocks - rowBlock) {
+                remaining -= blocks - rowBlock;
+                rowBlock++;
+            }
+            int columnBlock = rowBlock + remaining;
+            computeTile(columns, observations, assets, rowBlock * ASSET_BLOCK, columnBlock * ASSET_BLOCK,
+                    crossProducts, squaredCrossProducts);
+        });
+
+        if (!shrink) {
+            double[] covariance = new double[assets * assets];
+            for (int i = 0; i < covariance.length; i++) {
+                covariance[i] = crossProducts[i] / (observations - 1);
+            }
+            return new CovarianceMatrix(assets, covariance, means, 0.0);
+        }
+        return ledoitWolf(crossProducts, squaredCrossProducts, observations, assets, means);
+    }
+
+    private static void computeTile(double[] columns, int observations, int assets, int rowStart, int columnStart,
+                                    double[] crossProducts, double[] squaredCrossProducts) {
+        int rowEnd = Math.min(assets, rowStart + ASSET_BLOCK);
+        int columnEnd = Math.min(assets, columnStart + ASSET_BLOCK);
+        boolean diagonal = rowStart == columnStart;
+
+        for (int timeStart = 0; timeStart < observations; timeStart += TIME_BLOCK) {
+            int timeEnd = Math.min(observations, timeStart + TIME_BLOCK);
+            for (int i = rowStart; i < rowEnd; i++) {
+                int iOffset = i * observations;
+                for (int j = diagonal ? i : columnStart; j < columnEnd; j++) {
+                    int jOffset = j * observations;
+                    double sum = 0.0;
+                    double sumSquares = 0.0;
+                    for (int t = timeStart; t < timeEnd; t++) {
+                        double product = columns[iOffset + t] * columns[jOffset + t];
+                        sum += product;
+                        sumSquares += product * product;
+                    }
+                    crossProducts[i * assets + j] += sum;
+                    if (squaredCrossProducts != null) {
+                        squaredCrossProducts[i * assets + j] += sumSquares;
+                    }
+                }
+            }
+        }
+
+        // Mirror into the lower triangle
+        for (int i = rowStart; i < rowEnd; i++) {
+            for (int j = diagonal ? i + 1 : columnStart; j < columnEnd; j++) {
+                crossProducts[j * assets + i] = crossProducts[i * assets + j];
+            }
+        }
+    }
+
+    /**
+     * Ledoit-Wolf (2004) shrinkage of the maximum-likelihood covariance towards
+     * {@code mu * I}, where mu is the average variance
+     */
+    private static CovarianceMatrix ledoitWolf(double[] crossProducts, double[] squaredCrossProducts,
+                                               int observations, int assets, double[] means) {
+        double[] sample = new double[assets * assets];
+        double trace = 0.0;
+        for (int i = 0; i < sample.length; i++) {
+            sample[i] = crossProducts[i] / observations;
+        }
+        for (int i = 0; i < assets; i++) {
+            trace += sample[i * assets + i];
+        }
+        double mu = trace / assets;
+
+        // Distance of the sample from the target, and the estimation error of the sample
+        double distance = 0.0;
+        double error = 0.0;
+        for (int i = 0; i < assets; i++) {
+            for (int j = i; j < assets; j++) {
+                double s = sample[i * assets + j];
+                double weight = i == j ? 1.0 : 2.0;
+                double deviation = i == j ? s - mu : s;
+                distance += weight * deviation * deviation;
+                error += weight * (squaredCrossProducts[i * assets + j] / observations - s * s);
+            }
+        }
+        error /= observations;
+
+        double shrinkage = distance > 0.0 ? Math.min(error, distance) / distance : 1.0;
+        double[] shrunk = new double[assets * assets];
+        for (int i = 0; i < assets; i++) {
+            for (int j = 0; j < assets; j++) {
+                double target = i == j ? mu : 0.0;
+                shrunk[i * assets + j] = shrinkage * target + (1.0 - shrinkage) * sample[i * assets + j];
+            }
+        }
+        return new CovarianceMatrix(assets, shrunk, means, shrinkage);
+    }
+}
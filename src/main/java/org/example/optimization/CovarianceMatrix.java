@@ -0,0 +1,112 @@
+package org.example.optimization;
+
+/**
+ * Symmetric covariance matrix of asset returns, stored row-major in one primitive array.
+ */
+public final class CovarianceMatrix {
+    private final int size;
+    private final double[] values;
+    private final double[] means;
+    private final double shrinkage;
+
+    /**
+     * @param size      Number of assets
+     * @param values    Row-major {@code size * size} covariances
+     * @param means     Mean return per asset
+     * @param shrinkage Ledoit-Wolf shrinkage intensity that was applied, 0 for none
+     */
+    public CovarianceMatrix(int size, double[] values, double[] means, double shrinkage) {
+        if (values.length != size * size || means.length != size) {
+            throw new IllegalArgumentException("Covariance arrays do not match size " + size);
+        }
+        this.size = size;
+        this.values = values;
+        this.means = means;
+        this.shrinkage = shrinkage;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double get(int i, int j) {
+        return values[i * size + j];
+    }
+
+    public double variance(int i) {
+        return values[i * size + i];
+    }
+
+    public double mean(int i) {
+        return means[i];
+    }
+
+    // Mean return per asset; callers must not modify it
+    public double[] means() {
+        return means;
+    }
+
+    public double getShrinkage() {
+        return shrinkage;
+    }
+
+    // Backing row-major array; callers must not modify it
+    public double[] rawValues() {
+        return values;
+    }
+
+    /**
+     * Multiplies the matrix by a vector
+     *
+     * @param vector Input of length {@link #size()}
+     * @param out    Output of length {@link #size()}
+     */
+    public void multiply(double[] vector, double[] out) {
+        for (int i = 0; i < size; i++) {
+            int row = i * size;
+            double sum = 0.0;
+            for (int j = 0; j < size; j++) {
+                sum += values[row + j] * vector[j];
+            }
+            out[i] = sum;
+        }
+    }
+
+    /**
+     * @return Portfolio variance w' * Sigma * w
+     */
+    public double portfolioVariance(double[] weights) {
+        double variance = 0.0;
+        for (int i = 0; i < size; i++) {
+            if (weights[i] == 0.0) {
+                continue;
+            }
+            int row = i * size;
+            double sum = 0.0;
+            for (int j = 0; j < size; j++) {
+                sum += values[row + j] * weights[j];
+            }
+            variance += weights[i] * sum;
+        }
+        return variance;
+    }
+
+    /**
+     * @return Correlation matrix with the same layout; assets without variance get zero correlations
+     */
+    public double[] toCorrelation() {
+        double[] correlation = new double[values.length];
+        double[] inverseStd = new double[size];
+        for (int i = 0; i < size; i++) {
+            double variance = variance(i);
+            inverseStd[i] = variance > 0.0 ? 1.0 / Math.sqrt(variance) : 0.0;
+        }
+        for (int i = 0; i < size; i++) {
+            int row = i * size;
+            for (int j = 0; j < size; j++) {
+                correlation[row + j] = values[row + j] * inverseStd[i] * inverseStd[j];
+            }
+        }
+        return correlation;
+    }
+}
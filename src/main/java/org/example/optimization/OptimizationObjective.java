@@ -0,0 +1,13 @@
+package org.example.optimization;
+
+/**
+ * Portfolio construction objectives supported by {@link PortfolioOptimizer}.
+ */
+public enum OptimizationObjective {
+    // Lowest portfolio variance
+    MIN_VARIANCE,
+    // Highest expected return minus a risk-aversion penalty on variance
+    MEAN_VARIANCE,
+    // Every asset contributes equally to portfolio variance
+    RISK_PARITY
+}
@@ -0,0 +1,206 @@
+package org.example.optimization;
+
+import java.util.Arrays;
+
+/**
+ * Long-only, fully-invested weight solver over a {@link CovarianceMatrix}.
+ * <p>
+ * Minimum-variance and mean-variance use projected gradient descent onto the simplex, with
+ * the step size taken from the largest eigenvalue of the covariance. Risk parity uses cyclical
+ * coordinate descent, keeping {@code Sigma * w} up to date incrementally so a sweep is O(n^2).
+ */
+public class PortfolioOptimizer {
+    private static final int DEFAULT_MAX_ITERATIONS = 1000;
+    private static final double DEFAULT_TOLERANCE = 1e-10;
+    private static final int POWER_ITERATIONS = 50;
+
+    private final int maxIterations;
+    private final double tolerance;
+
+    public PortfolioOptimizer() {
+        this(DEFAULT_MAX_ITERATIONS, DEFAULT_TOLERANCE);
+    }
+
+    /**
+     * @param maxIterations Upper bound on solver iterations
+     * @param tolerance     Stop once no weight moves by more than this in an iteration
+     */
+    public PortfolioOptimizer(int maxIterations, double tolerance) {
+        this.maxIterations = maxIterations;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Solves for weights
+     *
+     * @param objective    Objective to optimize
+     * @param covariance   Covariance of asset returns
+     * @param riskAversion Risk aversion for {@link OptimizationObjective#MEAN_VARIANCE}; ignored otherwise
+     * @return Non-negative weights summing to 1
+     */
+    public double[] optimize(OptimizationObjective objective, CovarianceMatrix covariance, double riskAversion) {
+        return switch (objective) {
+            case MIN_VARIANCE -> minimumVariance(covariance);
+            case MEAN_VARIANCE -> meanVariance(covariance, covariance.means(), riskAversion);
+            case RISK_PARITY -> riskParity(covariance);
+        };
+    }
+
+    public double[] minimumVariance(CovarianceMatrix covariance) {
+        return projectedGradient(covariance, new double[covariance.size()], 1.0);
+    }
+
+    /**
+     * Maximizes {@code mu'w - riskAversion / 2 * w'Sigma w} over long-only, fully-invested weights
+     */
+    public double[] meanVariance(CovarianceMatrix covariance, double[] expectedReturns, double riskAversion) {
+        if (riskAversion <= 0.0) {
+            throw new IllegalArgumentException("Risk aversion must be positive: " + riskAversion);
+        }
+        return projectedGradient(covariance, expectedReturns, riskAversion);
+    }
+
+    /**
+     * Equal risk contribution weights, {@code w_i * (Sigma w)_i} equal for every asset.
+     * Assets without variance get no weight.
+     */
+    public double[] riskParity(CovarianceMatrix covariance) {
+        int n = covariance.size();
+        double[] weights = new double[n];
+        double[] sigmaW = new double[n];
+        if (n == 0) {
+            return weights;
+        }
+
+        // Start from inverse volatility
+        double budget = 1.0 / n;
+        for (int i = 0; i < n; i++) {
+            double variance = covariance.variance(i);
+            weights[i] = variance > 0.0 ? 1.0 / Math.sqrt(variance) : 0.0;
+        }
+        covariance.multiply(weights, sigmaW);
+
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            double maxChange = 0.0;
+            for (int i = 0; i < n; i++) {
+                double variance = covariance.variance(i);
+                if (variance <= 0.0) {
+                    continue;
+                }
+                // Solve variance * w^2 + c * w - budget = 0 for the positive root
+                double c = sigmaW[i] - variance * weights[i];
+                double updated = (-c + Math.sqrt(c * c + 4.0 * variance * budget)) / (2.0 * variance);
+                double delta = updated - weights[i];
+                if (delta != 0.0) {
+                    for (int j = 0; j < n; j++) {
+                        sigmaW[j] += covariance.get(j, i) * delta;
+                    }
+                    weights[i] = updated;
+                    maxChange = Math.max(maxChange, Math.abs(delta) / updated);
+                }
+            }
+            if (maxChange < tolerance) {
+                break;
+            }
+        }
+        return normalize(weights);
+    }
+
+    private double[] projectedGradient(CovarianceMatrix covariance, double[] expectedReturns, double riskAversion) {
+        int n = covariance.size();
+        double[] weights = new double[n];
+        if (n == 0) {
+            return weights;
+        }
+        Arrays.fill(weights, 1.0 / n);
+
+        double lipschitz = riskAversion * largestEigenvalue(covariance);
+        double step = lipschitz > 0.0 ? 1.0 / lipschitz : 1.0;
+        double[] sigmaW = new double[n];
+        double[] candidate = new double[n];
+        double[] sorted = new double[n];
+
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            covariance.multiply(weights, sigmaW);
+            for (int i = 0; i < n; i++) {
+                // Ascent on mu'w - riskAversion / 2 * w'Sigma w
+                candidate[i] = weights[i] + step * (expectedReturns[i] - riskAversion * sigmaW[i]);
+            }
+            projectOntoSimplex(candidate, sorted);
+
+            double maxChange = 0.0;
+            for (int i = 0; i < n; i++) {
+                maxChange = Math.max(maxChange, Math.abs(candidate[i] - weights[i]));
+            }
+            double[] swap = weights;
+            weights = candidate;
+            candidate = swap;
+            if (maxChange < tolerance) {
+                break;
+            }
+        }
+        return weights;
+    }
+
+    /**
+     * Euclidean projection onto {w : w >= 0, sum(w) = 1} (Duchi et al., 2008), in place
+     */
+    private static void projectOntoSimplex(double[] v, double[] sorted) {
+        int n = v.length;
+        System.arraycopy(v, 0, sorted, 0, n);
+        Arrays.sort(sorted);
+
+        double cumulative = 0.0;
+        double theta = 0.0;
+        for (int k = 1; k <= n; k++) {
+            double value = sorted[n - k];
+            cumulative += value;
+            double candidateTheta = (cumulative - 1.0) / k;
+            if (value - candidateTheta > 0.0) {
+                theta = candidateTheta;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            v[i] = Math.max(0.0, v[i] - theta);
+        }
+    }
+
+    private static double largestEigenvalue(CovarianceMatrix covariance) {
+        int n = covariance.size();
+        double[] vector = new double[n];
+        double[] next = new double[n];
+        Arrays.fill(vector, 1.0 / Math.sqrt(n));
+        double eigenvalue = 0.0;
+
+        for (int iteration = 0; iteration < POWER_ITERATIONS; iteration++) {
+            covariance.multiply(vector, next);
+            double norm = 0.0;
+            for (double value : next) {
+                norm += value * value;
+            }
+            norm = Math.sqrt(norm);
+            if (norm == 0.0) {
+                return 0.0;
+            }
+            for (int i = 0; i < n; i++) {
+                vector[i] = next[i] / norm;
+            }
+            eigenvalue = norm;
+        }
+        // Power iteration approaches from below; pad so the step stays stable
+        return eigenvalue * 1.05;
+    }
+
+    private static double[] normalize(double[] weights) {
+        double sum = 0.0;
+        for (double weight : weights) {
+            sum += weight;
+        }
+        if (sum > 0.0) {
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] /= sum;
+            }
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.repository;
+
+import org.example.models.AdjustmentFactors;
+import org.example.models.CorporateAction;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.Configuration;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CorporateActionRepository {
+    private final SessionFactory sessionFactory;
+
+    public CorporateActionRepository() {
+        sessionFactory = new Configuration().configure("hibernate.cfg.xml").buildSessionFactory();
+    }
+
+    // Save an action; the same ticker, ex-date and type replaces the one recorded before
+    public void save(CorporateAction action) {
+        Transaction transaction = null;
+        try (Session session = sessionFactory.openSession()) {
+            transaction = session.beginTransaction();
+            session.merge(action);
+            transaction.commit();
+        } catch (Exception e) {
+            if (transaction != null) transaction.rollback();
+            throw e;
+        }
+    }
+
+    // Fetch a ticker's actions, oldest first
+    public List<CorporateAction> findByTicker(String ticker) {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createQuery("FROM CorporateAction WHERE ticker = :ticker ORDER BY exDate", CorporateAction.class)
+                    .setParameter("ticker", ticker)
+                    .list();
+        }
+    }
+
+    // Fetch every action, oldest first per ticker
+    public List<CorporateAction> findAll() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createQuery("FROM CorporateAction ORDER BY ticker, exDate", CorporateAction.class).list();
+        }
+    }
+
+    // Build the adjustment factors of every ticker with recorded actions
+    public Map<String, AdjustmentFactors> loadFactors() {
+        Map<String, List<CorporateAction>> byTicker = new LinkedHashMap<>();
+        for (CorporateAction action : findAll()) {
+            byTicker.computeIfAbsent(action.getTicker(), ticker -> new ArrayList<>()).add(action);
+        }
+        Map<String, AdjustmentFactors> factors = new LinkedHashMap<>();
+        byTicker.forEach((ticker, actions) -> factors.put(ticker, AdjustmentFactors.of(ticker, actions)));
+        return factors;
+    }
+
+    public void close() {
+        sessionFactory.close();
+    }
+}
@@ -0,0 +1,258 @@
+package org.example.repository;
+
+import org.example.models.AdjustmentFactors;
+import org.example.models.CorporateAction;
+import org.example.models.PriceSeries;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Local directory of per-ticker bar files, so backtests can load history without a database
+ * round trip.
+ * <p>
+ * Each file holds one ticker's bars as primitive columns after a short header, and is read
+ * with bulk buffer transfers straight into the arrays of a {@link PriceSeries}. Files are
+ * written to a temporary name and moved into place, so readers never see a partial file.
+ * <p>
+ * A ticker's corporate actions are kept in a separate small text file next to its bars, so
+ * recording an action never rewrites the bars; adjustment is applied as the bars are read.
+ */
+public class LocalBarCache {
+    private static final int MAGIC = 0x42415231; // "BAR1"
+    private static final short VERSION = 1;
+    private static final String EXTENSION = ".bars";
+    private static final String ACTIONS_EXTENSION = ".actions";
+
+    private final Path directory;
+
+    public LocalBarCache(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    public boolean contains(String ticker) {
+        return Files.isRegularFile(pathOf(ticker, EXTENSION));
+    }
+
+    /**
+     * @return Tickers with a bar file in the cache, in name order
+     * @throws IOException If the directory cannot be listed
+     */
+    public List<String> tickers() throws IOException {
+        try (Stream<Path> entries = Files.list(directory)) {
+            return entries.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(EXTENSION))
+                    .map(name -> tickerOf(name.substring(0, name.length() - EXTENSION.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Reads a ticker's bars
+     *
+     * @param ticker The ticker symbol
+     * @return The cached series, or null if the ticker is not cached
+     * @throws IOException If the file cannot be read or is not a bar file
+     */
+    public PriceSeries read(String ticker) throws IOException {
+        return read(ticker, null);
+    }
+
+    /**
+     * Reads a ticker's bars, adjusting the freshly read columns in place before they are wrapped
+     *
+     * @param ticker  The ticker symbol
+     * @param factors Adjustment for splits and dividends, or null for the bars as stored
+     * @return The cached series, or null if the ticker is not cached
+     * @throws IOException If the file cannot be read or is not a bar file
+     */
+    public PriceSeries read(String ticker, AdjustmentFactors factors) throws IOException {
+        Path path = pathOf(ticker, EXTENSION);
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Read the whole file
+            }
+            buffer.flip();
+
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a bar file: " + path);
+            }
+            short version = buffer.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported bar file version " + version + ": " + path);
+            }
+            byte[] symbol = new byte[buffer.getShort()];
+            buffer.get(symbol);
+            if (!ticker.equals(new String(symbol, StandardCharsets.UTF_8))) {
+                throw new IOException("Bar file " + path + " belongs to another ticker");
+            }
+
+            int size = buffer.getInt();
+            long[] timestamps = new long[size];
+            double[] open = new double[size];
+            double[] high = new double[size];
+            double[] low = new double[size];
+            double[] close = new double[size];
+            long[] volume = new long[size];
+            readLongs(buffer, timestamps);
+            readDoubles(buffer, open);
+            readDoubles(buffer, high);
+            readDoubles(buffer, low);
+            readDoubles(buffer, close);
+            readLongs(buffer, volume);
+            if (factors != null) {
+                factors.applyInPlace(timestamps, open, high, low, close, volume, size);
+            }
+            return new PriceSeries(ticker, timestamps, open, high, low, close, volume, size);
+        }
+    }
+
+    /**
+     * Reads a ticker's bars adjusted for the splits and dividends recorded next to them
+     *
+     * @param ticker The ticker symbol
+     * @return The adjusted series, or null if the ticker is not cached
+     * @throws IOException If a file cannot be read or is malformed
+     */
+    public PriceSeries readAdjusted(String ticker) throws IOException {
+        List<CorporateAction> actions = readActions(ticker);
+        return read(ticker, actions.isEmpty() ? null : AdjustmentFactors.of(ticker, actions));
+    }
+
+    /**
+     * Writes a ticker's bars, replacing whatever was cached for it
+     *
+     * @param series Bars in ascending timestamp order
+     * @throws IOException If the file cannot be written
+     */
+    public void write(PriceSeries series) throws IOException {
+        byte[] symbol = series.getTicker().getBytes(StandardCharsets.UTF_8);
+        int size = series.size();
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 2 + 2 + symbol.length + 4 + size * 6 * 8);
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putShort((short) symbol.length);
+        buffer.put(symbol);
+        buffer.putInt(size);
+        for (int i = 0; i < size; i++) buffer.putLong(series.timestampAt(i));
+        for (int i = 0; i < size; i++) buffer.putDouble(series.openAt(i));
+        for (int i = 0; i < size; i++) buffer.putDouble(series.highAt(i));
+        for (int i = 0; i < size; i++) buffer.putDouble(series.lowAt(i));
+        for (int i = 0; i < size; i++) buffer.putDouble(series.closeAt(i));
+        for (int i = 0; i < size; i++) buffer.putLong(series.volumeAt(i));
+        buffer.flip();
+
+        replace(pathOf(series.getTicker(), EXTENSION), buffer);
+    }
+
+    /**
+     * Reads a ticker's corporate actions
+     *
+     * @param ticker The ticker symbol
+     * @return The actions in ex-date order; empty if none are recorded
+     * @throws IOException If the file cannot be read or a line is malformed
+     */
+    public List<CorporateAction> readActions(String ticker) throws IOException {
+        Path path = pathOf(ticker, ACTIONS_EXTENSION);
+        if (!Files.isRegularFile(path)) {
+            return List.of();
+        }
+        List<CorporateAction> actions = new ArrayList<>();
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            // exDate,type,value,priceFactor
+            String[] fields = line.split(",");
+            try {
+                actions.add(new CorporateAction(ticker, LocalDate.parse(fields[0]), CorporateAction.Type.valueOf(fields[1]),
+                        Double.parseDouble(fields[2]), Double.parseDouble(fields[3])));
+            } catch (RuntimeException e) {
+                throw new IOException("Malformed action line in " + path + ": " + line, e);
+            }
+        }
+        return actions;
+    }
+
+    /**
+     * Writes a ticker's corporate actions, replacing whatever was recorded for it
+     *
+     * @param factors Adjustment holding every action of the ticker
+     * @throws IOException If the file cannot be written
+     */
+    public void writeActions(AdjustmentFactors factors) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (CorporateAction action : factors.actions()) {
+            text.append(action.getExDate()).append(',').append(action.getType()).append(',')
+                    .append(action.getValue()).append(',').append(action.getPriceFactor()).append('\n');
+        }
+        replace(pathOf(factors.getTicker(), ACTIONS_EXTENSION),
+                ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void replace(Path target, ByteBuffer buffer) throws IOException {
+        Path temporary = Files.createTempFile(directory, "bars", ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Tickers only contain file-name-safe characters in practice; anything else is escaped
+    private Path pathOf(String ticker, String extension) {
+        StringBuilder name = new StringBuilder(ticker.length() + extension.length());
+        for (int i = 0; i < ticker.length(); i++) {
+            char c = ticker.charAt(i);
+            if (Character.isLetterOrDigit(c) || c == '.' || c == '-') {
+                name.append(c);
+            } else {
+                name.append('_').append(Integer.toHexString(c)).append('_');
+            }
+        }
+        return directory.resolve(name.append(extension).toString());
+    }
+
+    // Reverses the escaping of pathOf
+    private static String tickerOf(String fileName) {
+        StringBuilder ticker = new StringBuilder(fileName.length());
+        for (int i = 0; i < fileName.length(); i++) {
+            char c = fileName.charAt(i);
+            if (c == '_') {
+                int end = fileName.indexOf('_', i + 1);
+                ticker.append((char) Integer.parseInt(fileName.substring(i + 1, end), 16));
+                i = end;
+            } else {
+                ticker.append(c);
+            }
+        }
+        return ticker.toString();
+    }
+
+    private static void readLongs(ByteBuffer buffer, long[] target) {
+        buffer.asLongBuffer().get(target);
+        buffer.position(buffer.position() + target.length * 8);
+    }
+
+    private static void readDoubles(ByteBuffer buffer, double[] target) {
+        buffer.asDoubleBuffer().get(target);
+        buffer.position(buffer.position() + target.length * 8);
+    }
+}
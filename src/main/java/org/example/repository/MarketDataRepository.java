@@ -1,14 +1,25 @@
 package org.example.repository;
 
+import org.example.metrics.BacktestPhaseEvent;
+import org.example.metrics.MetricsRegistry;
+import org.example.models.AdjustmentFactors;
 import org.example.models.MarketDataPoint;
+import org.example.models.PriceSeries;
+import org.example.timeseries.BarConsumer;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
 import org.hibernate.Transaction;
 import org.hibernate.cfg.Configuration;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 public class MarketDataRepository {
+    private static final int BATCH_SIZE = 500;
+
     private final SessionFactory sessionFactory;
 
     public MarketDataRepository() {
@@ -32,23 +43,134 @@ public class MarketDataRepository {
         }
     }
 
+    /**
+     * Replaces a ticker's stored bars over the series' time range in one transaction: the
+     * existing rows in the range are deleted with a single statement and the new bars are
+     * inserted in JDBC batches, so a bulk import does no per-row lookups
+     *
+     * @param series Bars of one ticker in ascending timestamp order
+     */
+    public void replaceSeries(PriceSeries series) {
+        if (series.size() == 0) {
+            return;
+        }
+        Transaction transaction = null;
+        try (Session session = sessionFactory.openSession()) {
+            session.setJdbcBatchSize(BATCH_SIZE);
+            transaction = session.beginTransaction();
+            session.createMutationQuery("DELETE FROM MarketDataPoint WHERE ticker = :ticker AND timestamp BETWEEN :first AND :last")
+                    .setParameter("ticker", series.getTicker())
+                    .setParameter("first", PriceSeries.toLocalDateTime(series.timestampAt(0)))
+                    .setParameter("last", PriceSeries.toLocalDateTime(series.timestampAt(series.size() - 1)))
+                    .executeUpdate();
+            for (int i = 0; i < series.size(); i++) {
+                session.persist(new MarketDataPoint(series.getTicker(), PriceSeries.toLocalDateTime(series.timestampAt(i)),
+                        BigDecimal.valueOf(series.openAt(i)), BigDecimal.valueOf(series.highAt(i)),
+                        BigDecimal.valueOf(series.lowAt(i)), BigDecimal.valueOf(series.closeAt(i)), series.volumeAt(i)));
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            transaction.commit();
+        } catch (Exception e) {
+            if (transaction != null) transaction.rollback();
+            throw e;
+        }
+    }
+
     // Retrieve all MarketDataPoints
     public List<MarketDataPoint> getAll() {
+        BacktestPhaseEvent phaseEvent = beginLoad("all");
+        long start = System.nanoTime();
         Session session = sessionFactory.openSession();
-        List<MarketDataPoint> dataPoints = session.createQuery("FROM MarketDataPoint", MarketDataPoint.class).list();
+        List<MarketDataPoint> dataPoints = session.createQuery("FROM MarketDataPoint ORDER BY ticker, timestamp", MarketDataPoint.class).list();
         session.close();
+        endLoad(phaseEvent, start, dataPoints.size());
         return dataPoints;
     }
 
-    // Retrieve by ticker
+    // Retrieve by ticker, in timestamp order
     public List<MarketDataPoint> getByTicker(String ticker) {
+        BacktestPhaseEvent phaseEvent = beginLoad(ticker);
+        long start = System.nanoTime();
         Session session = sessionFactory.openSession();
-        List<MarketDataPoint> dataPoints = session.createQuery("FROM MarketDataPoint WHERE ticker = :ticker", MarketDataPoint.class)
+        List<MarketDataPoint> dataPoints = session.createQuery("FROM MarketDataPoint WHERE ticker = :ticker ORDER BY timestamp", MarketDataPoint.class)
                 .setParameter("ticker", ticker).list();
         session.close();
+        endLoad(phaseEvent, start, dataPoints.size());
         return dataPoints;
     }
 
+    // Distinct tickers with stored bars, in name order
+    public List<String> findTickers() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createQuery("SELECT DISTINCT ticker FROM MarketDataPoint ORDER BY ticker", String.class).list();
+        }
+    }
+
+    // Stream a ticker's bars in timestamp order without keeping them in a persistence context
+    public void streamByTicker(String ticker, BarConsumer consumer) {
+        streamByTicker(ticker, null, consumer);
+    }
+
+    // Stream a ticker's bars adjusted by the given factors, or as stored when they are null
+    public void streamByTicker(String ticker, AdjustmentFactors factors, BarConsumer consumer) {
+        BacktestPhaseEvent phaseEvent = beginLoad(ticker);
+        long start = System.nanoTime();
+        long rows = 0;
+        int segment = 0;
+        long segmentEnd = factors != null ? factors.segmentEnd(0) : Long.MAX_VALUE;
+        double price = factors != null ? factors.priceMultiplier(0) : 1.0;
+        double shares = factors != null ? factors.volumeMultiplier(0) : 1.0;
+        try (StatelessSession session = sessionFactory.openStatelessSession();
+             ScrollableResults<MarketDataPoint> results = session
+                     .createQuery("FROM MarketDataPoint WHERE ticker = :ticker ORDER BY timestamp", MarketDataPoint.class)
+                     .setParameter("ticker", ticker)
+                     .setFetchSize(Integer.MIN_VALUE) // MySQL Connector/J row-by-row streaming
+                     .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                MarketDataPoint point = results.get();
+                long timestamp = PriceSeries.toEpochSeconds(point.getTimestamp());
+                // Rows arrive in time order, so the adjustment only ever moves to later segments
+                while (timestamp >= segmentEnd) {
+                    segment++;
+                    segmentEnd = factors.segmentEnd(segment);
+                    price = factors.priceMultiplier(segment);
+                    shares = factors.volumeMultiplier(segment);
+                }
+                consumer.accept(timestamp,
+                        point.getOpen().doubleValue() * price, point.getHigh().doubleValue() * price,
+                        point.getLow().doubleValue() * price, point.getClose().doubleValue() * price,
+                        shares == 1.0 ? point.getVolume() : Math.round(point.getVolume() * shares));
+                rows++;
+            }
+        } finally {
+            endLoad(phaseEvent, start, rows);
+        }
+    }
+
+    // Read a ticker's bars into primitive columns, adjusted by the given factors or as stored when they are null
+    public PriceSeries getSeries(String ticker, AdjustmentFactors factors) {
+        PriceSeries.Builder builder = new PriceSeries.Builder(ticker);
+        streamByTicker(ticker, factors, builder::add);
+        return builder.build();
+    }
+
+    private static BacktestPhaseEvent beginLoad(String detail) {
+        BacktestPhaseEvent phaseEvent = new BacktestPhaseEvent(BacktestPhaseEvent.DATA_LOAD, detail);
+        phaseEvent.begin();
+        return phaseEvent;
+    }
+
+    // Query time includes streaming the rows to the consumer
+    private static void endLoad(BacktestPhaseEvent phaseEvent, long startNanos, long rows) {
+        MetricsRegistry metrics = MetricsRegistry.global();
+        metrics.histogram(MetricsRegistry.DB_QUERY_NANOS).recordSince(startNanos);
+        metrics.counter(MetricsRegistry.DB_ROWS).add(rows);
+        phaseEvent.commit();
+    }
+
     // Close SessionFactory
     public void close() {
         sessionFactory.close();
@@ -1,6 +1,8 @@
 package org.example.repository;
 
+import org.example.models.FundamentalsSnapshot;
 import org.example.models.StockFundamentals;
+import org.example.screening.FundamentalsTimeline;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
@@ -15,6 +17,7 @@ public class StockFundamentalsRepository {
         // Build SessionFactory only once for performance
         sessionFactory = new Configuration().configure("hibernate.cfg.xml")
                 .addAnnotatedClass(StockFundamentals.class)
+                .addAnnotatedClass(FundamentalsSnapshot.class)
                 .buildSessionFactory();
     }
 
@@ -47,6 +50,31 @@ public class StockFundamentalsRepository {
         }
     }
 
+    // Save a dated version of a ticker's fundamentals; the same ticker and date replaces the version
+    public void saveSnapshot(FundamentalsSnapshot snapshot) {
+        Transaction transaction = null;
+        try (Session session = sessionFactory.openSession()) {
+            transaction = session.beginTransaction();
+            session.merge(snapshot);
+            transaction.commit();
+        } catch (Exception e) {
+            if (transaction != null) transaction.rollback();
+            e.printStackTrace();
+        }
+    }
+
+    // Fetch every stored version, oldest first per ticker
+    public List<FundamentalsSnapshot> findHistory() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createQuery("FROM FundamentalsSnapshot ORDER BY ticker, asOfDate", FundamentalsSnapshot.class).list();
+        }
+    }
+
+    // Load the whole history into memory for point-in-time screening
+    public FundamentalsTimeline loadTimeline() {
+        return FundamentalsTimeline.of(findHistory());
+    }
+
     // Cleanly close the session factory when shutting down
     public void close() {
         if (sessionFactory != null) {
@@ -0,0 +1,64 @@
+package org.example.results;
+
+import org.example.models.MarketDataPoint;
+import org.example.models.PriceSeries;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * SHA-256 fingerprint of a market data set, so stored runs can be matched to the exact data
+ * they were produced from.
+ * <p>
+ * Tickers are hashed in sorted order; each bar contributes its timestamp, close and volume.
+ * Two data sets with the same fingerprint produce the same backtest results.
+ */
+public final class DataFingerprint {
+
+    private DataFingerprint() {
+    }
+
+    /**
+     * @param marketData Market data per ticker
+     * @return Lower-case hex SHA-256 of the data set
+     */
+    public static String of(Map<String, List<MarketDataPoint>> marketData) {
+        MessageDigest digest = newDigest();
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+
+        for (Map.Entry<String, List<MarketDataPoint>> entry : new TreeMap<>(marketData).entrySet()) {
+            digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+            buffer.putInt(entry.getValue().size());
+            for (MarketDataPoint point : entry.getValue()) {
+                if (buffer.remaining() < 3 * Long.BYTES) {
+                    drain(buffer, digest);
+                }
+                buffer.putLong(PriceSeries.toEpochSeconds(point.getTimestamp()));
+                buffer.putDouble(point.getClose().doubleValue());
+                buffer.putLong(point.getVolume());
+            }
+            drain(buffer, digest);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void drain(ByteBuffer buffer, MessageDigest digest) {
+        buffer.flip();
+        digest.update(buffer);
+        buffer.clear();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package org.example.results;
+
+import org.example.backtest.BacktestResult;
+import org.example.backtest.EventLog;
+import org.example.backtest.EventType;
+import org.example.models.SymbolTable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary format for one backtest run.
+ * <p>
+ * Layout: a header with the summary and parameters, then each series as a length-prefixed
+ * block of primitives, then the event log column by column. Ticker ids are process-local,
+ * so the file carries its own id-to-symbol dictionary and ids are remapped on reading.
+ * <p>
+ * Money and return series are stored as doubles. The engine computes equity in double
+ * precision, so equity reads back unchanged; daily returns lose the digits beyond double
+ * precision, and every decimal reads back at the scale {@link BigDecimal#valueOf(double)}
+ * gives it. Compare read-back values with {@code compareTo}, not {@code equals}.
+ */
+public final class ResultFile {
+    private static final int MAGIC = 0x42545231; // "BTR1"
+    private static final short VERSION = 2; // Version 1 files lack the risk-free rate and are rejected
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private ResultFile() {
+    }
+
+    /**
+     * Writes a run to a file, replacing any existing file
+     *
+     * @param path       Destination file
+     * @param summary    Summary of the run
+     * @param parameters Strategy parameters
+     * @param result     Result to store
+     * @throws IOException If the file cannot be written
+     */
+    public static void write(Path path, RunSummary summary, Map<String, String> parameters, BacktestResult result)
+            throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+
+            out.writeUTF(summary.getRunId());
+            out.writeUTF(summary.getStrategyName());
+            out.writeUTF(summary.getDataFingerprint() != null ? summary.getDataFingerprint() : "");
+            out.writeLong(summary.getCreatedAt().toEpochSecond(ZoneOffset.UTC));
+            out.writeDouble(summary.getInitialCapital());
+            out.writeDouble(summary.getFinalCapital());
+            out.writeDouble(summary.getTotalReturn());
+            out.writeDouble(result.riskFreeRate());
+            writeNullable(out, summary.getSharpeRatio());
+            writeNullable(out, summary.getSortinoRatio());
+            writeNullable(out, summary.getMaxDrawdown());
+
+            out.writeInt(parameters.size());
+            for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+                out.writeUTF(parameter.getKey());
+                out.writeUTF(parameter.getValue());
+            }
+
+            writeSeries(out, result.dailyCapital());
+            writeSeries(out, result.dailyReturns());
+            writeDoubles(out, result.benchmarkReturns());
+            writeEvents(out, result.events());
+        }
+    }
+
+    /**
+     * Reads a run back from a file
+     *
+     * @param path File written by {@link #write}
+     * @return Stored run; the summary's result path is set to {@code path}
+     * @throws IOException If the file cannot be read or is not a result file
+     */
+    public static StoredRun read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a backtest result file: " + path);
+            }
+            short version = in.readShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported result file version " + version + ": " + path);
+            }
+
+            RunSummary summary = new RunSummary();
+            summary.setRunId(in.readUTF());
+            summary.setStrategyName(in.readUTF());
+            String fingerprint = in.readUTF();
+            summary.setDataFingerprint(fingerprint.isEmpty() ? null : fingerprint);
+            summary.setCreatedAt(LocalDateTime.ofEpochSecond(in.readLong(), 0, ZoneOffset.UTC));
+            summary.setInitialCapital(in.readDouble());
+            summary.setFinalCapital(in.readDouble());
+            summary.setTotalReturn(in.readDouble());
+            double riskFreeRate = in.readDouble();
+            summary.setSharpeRatio(readNullable(in));
+            summary.setSortinoRatio(readNullable(in));
+            summary.setMaxDrawdown(readNullable(in));
+            summary.setResultPath(path.toString());
+
+            int parameterCount = in.readInt();
+            Map<String, String> parameters = new LinkedHashMap<>();
+            for (int i = 0; i < parameterCount; i++) {
+                parameters.put(in.readUTF(), in.readUTF());
+            }
+            summary.setParameters(RunSummary.renderParameters(parameters));
+
+            double[] equityCurve = readDoubles(in);
+            double[] dailyReturns = readDoubles(in);
+            double[] benchmarkReturns = readDoubles(in);
+            EventLog events = readEvents(in);
+            summary.setObservations(equityCurve.length);
+            summary.setTradeCount(events.count(EventType.BUY) + events.count(EventType.SELL));
+
+            return new StoredRun(summary, parameters, riskFreeRate, equityCurve, dailyReturns, benchmarkReturns, events);
+        }
+    }
+
+    private static void writeNullable(DataOutputStream out, Double value) throws IOException {
+        out.writeDouble(value != null ? value : Double.NaN);
+    }
+
+    private static Double readNullable(DataInputStream in) throws IOException {
+        double value = in.readDouble();
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private static void writeSeries(DataOutputStream out, List<BigDecimal> series) throws IOException {
+        out.writeInt(series.size());
+        for (BigDecimal value : series) {
+            out.writeDouble(value.doubleValue());
+        }
+    }
+
+    private static void writeDoubles(DataOutputStream out, double[] values) throws IOException {
+        out.writeInt(values.length);
+        for (double value : values) {
+            out.writeDouble(value);
+        }
+    }
+
+    private static double[] readDoubles(DataInputStream in) throws IOException {
+        double[] values = new double[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readDouble();
+        }
+        return values;
+    }
+
+    private static void writeEvents(DataOutputStream out, EventLog events) throws IOException {
+        int size = events.size();
+
+        // Dictionary of the ticker ids that occur, in first-seen order
+        Map<Integer, Integer> fileIds = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            fileIds.putIfAbsent(events.tickerIdAt(i), fileIds.size());
+        }
+        out.writeInt(fileIds.size());
+        for (int tickerId : fileIds.keySet()) {
+            out.writeUTF(SymbolTable.global().symbol(tickerId));
+        }
+
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeInt(fileIds.get(events.tickerIdAt(i)));
+        }
+        for (int i = 0; i < size; i++) {
+            out.writeLong(events.timestampAt(i));
+        }
+        for (int i = 0; i < size; i++) {
+            out.writeByte(events.typeAt(i).ordinal());
+        }
+        for (int i = 0; i < size; i++) {
+            out.writeDouble(events.quantityAt(i));
+        }
+        for (int i = 0; i < size; i++) {
+            out.writeDouble(events.priceAt(i));
+        }
+    }
+
+    private static EventLog readEvents(DataInputStream in) throws IOException {
+        int[] localIds = new int[in.readInt()];
+        for (int i = 0; i < localIds.length; i++) {
+            localIds[i] = SymbolTable.global().idOf(in.readUTF());
+        }
+
+        int size = in.readInt();
+        int[] tickerIds = new int[size];
+        long[] timestamps = new long[size];
+        byte[] types = new byte[size];
+        for (int i = 0; i < size; i++) {
+            tickerIds[i] = localIds[in.readInt()];
+        }
+        for (int i = 0; i < size; i++) {
+            timestamps[i] = in.readLong();
+        }
+        in.readFully(types);
+        double[] quantities = readDoubleColumn(in, size);
+        double[] prices = readDoubleColumn(in, size);
+
+        EventType[] eventTypes = EventType.values();
+        EventLog events = new EventLog();
+        for (int i = 0; i < size; i++) {
+            events.append(tickerIds[i], timestamps[i], eventTypes[types[i]], quantities[i], prices[i]);
+        }
+        return events;
+    }
+
+    private static double[] readDoubleColumn(DataInputStream in, int size) throws IOException {
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = in.readDouble();
+        }
+        return values;
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.results;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.query.Query;
+
+import java.util.List;
+
+/**
+ * Index table of stored backtest runs. Only summaries live in the database; curves and
+ * trades stay in the result files.
+ */
+public class ResultRepository {
+    private static final int BATCH_SIZE = 500;
+
+    private final SessionFactory sessionFactory;
+
+    public ResultRepository() {
+        // Build SessionFactory only once for performance
+        sessionFactory = new Configuration().configure("hibernate.cfg.xml")
+                .addAnnotatedClass(RunSummary.class)
+                .buildSessionFactory();
+    }
+
+    /**
+     * Inserts summaries in JDBC batches, flushing and clearing the session between batches
+     * so the persistence context stays small. The batch is inserted in one transaction, so on
+     * failure nothing is inserted and the exception is passed on.
+     *
+     * @param summaries Summaries of new runs
+     */
+    public void saveAll(List<RunSummary> summaries) {
+        Transaction transaction = null;
+        try (Session session = sessionFactory.openSession()) {
+            session.setJdbcBatchSize(BATCH_SIZE);
+            transaction = session.beginTransaction();
+            for (int i = 0; i < summaries.size(); i++) {
+                session.persist(summaries.get(i));
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            transaction.commit();
+        } catch (RuntimeException e) {
+            if (transaction != null && transaction.isActive()) transaction.rollback();
+            throw e;
+        }
+    }
+
+    // Find a run's summary by its id
+    public RunSummary findById(String runId) {
+        try (Session session = sessionFactory.openSession()) {
+            return session.get(RunSummary.class, runId);
+        }
+    }
+
+    /**
+     * Loads the summaries matching a query, without touching any result file
+     *
+     * @param runQuery Filter, ordering and page
+     * @return Matching summaries
+     */
+    public List<RunSummary> findSummaries(RunQuery runQuery) {
+        try (Session session = sessionFactory.openSession()) {
+            Query<RunSummary> query = session.createQuery(runQuery.toHql(), RunSummary.class)
+                    .setReadOnly(true)
+                    .setFirstResult(runQuery.getFirstResult())
+                    .setMaxResults(runQuery.getMaxResults());
+            for (Object[] parameter : runQuery.parameterValues()) {
+                query.setParameter((String) parameter[0], parameter[1]);
+            }
+            return query.list();
+        }
+    }
+
+    // Cleanly close the session factory when shutting down
+    public void close() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.results;
+
+import org.example.backtest.BacktestResult;
+import org.example.strategy.Strategy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Persists backtest runs: the full result as a binary file in a directory, and its summary
+ * in the index table. Summaries are inserted in batches, so storing the results of a large
+ * sweep costs one database round trip per batch rather than per run.
+ */
+public class ResultStore implements AutoCloseable {
+    private static final int DEFAULT_INDEX_BATCH = 500;
+    private static final String FILE_EXTENSION = ".btr";
+
+    private final Path directory;
+    private final ResultRepository repository;
+    private final int indexBatchSize;
+    private final List<RunSummary> pendingSummaries = new ArrayList<>();
+
+    public ResultStore(Path directory, ResultRepository repository) {
+        this(directory, repository, DEFAULT_INDEX_BATCH);
+    }
+
+    /**
+     * @param directory      Directory result files are written to
+     * @param repository     Index table, or null to only write files
+     * @param indexBatchSize Number of summaries collected before they are inserted
+     */
+    public ResultStore(Path directory, ResultRepository repository, int indexBatchSize) {
+        this.directory = directory;
+        this.repository = repository;
+        this.indexBatchSize = indexBatchSize;
+    }
+
+    /**
+     * Stores a run
+     *
+     * @param result          Result of the run
+     * @param strategy        Strategy that produced it
+     * @param dataFingerprint Fingerprint of the market data, see {@link DataFingerprint}
+     * @return Summary of the stored run, including its id
+     * @throws IOException If the result file cannot be written
+     */
+    public synchronized RunSummary save(BacktestResult result, Strategy strategy, String dataFingerprint) throws IOException {
+        Files.createDirectories(directory);
+        String runId = UUID.randomUUID().toString();
+        Path path = directory.resolve(runId + FILE_EXTENSION);
+
+        RunSummary summary = RunSummary.of(runId, strategy, dataFingerprint, result);
+        summary.setResultPath(path.toString());
+        ResultFile.write(path, summary, strategy.describeParameters(), result);
+
+        pendingSummaries.add(summary);
+        if (pendingSummaries.size() >= indexBatchSize) {
+            flush();
+        }
+        return summary;
+    }
+
+    /**
+     * Loads a stored run with its curves and trades
+     *
+     * @param runId Id of the run
+     * @return The stored run
+     * @throws IOException If the result file cannot be read
+     */
+    public StoredRun load(String runId) throws IOException {
+        return ResultFile.read(directory.resolve(runId + FILE_EXTENSION));
+    }
+
+    public StoredRun load(RunSummary summary) throws IOException {
+        return ResultFile.read(Path.of(summary.getResultPath()));
+    }
+
+    /**
+     * Finds run summaries in the index; curves are only read when a run is loaded
+     */
+    public List<RunSummary> findSummaries(RunQuery query) {
+        flush();
+        return repository != null ? repository.findSummaries(query) : List.of();
+    }
+
+    // Insert any summaries still waiting for a full batch; if the insert fails they stay pending for the next flush
+    public synchronized void flush() {
+        if (pendingSummaries.isEmpty()) {
+            return;
+        }
+        if (repository != null) {
+            repository.saveAll(new ArrayList<>(pendingSummaries));
+        }
+        pendingSummaries.clear();
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+}
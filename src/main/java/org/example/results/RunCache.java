@@ -0,0 +1,248 @@
+package org.example.results;
+
+import org.example.backtest.BacktestResult;
+import org.example.backtest.EventType;
+import org.example.utils.AppLogger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Content-addressed memo of backtest results.
+ * <p>
+ * Results are kept in memory in least-recently-used order, bounded by an approximate byte
+ * budget. When a directory is given, every computed result is also written there as a
+ * {@link ResultFile} named after its key, so a restarted process can serve repeats without
+ * re-running them. Concurrent requests for the same key share one computation. Results read
+ * back from a file carry their decimals at double precision, see {@link ResultFile}.
+ * <p>
+ * Cached results are shared between callers and must be treated as read-only.
+ */
+public class RunCache {
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+
+    private static final AppLogger logger = new AppLogger(RunCache.class);
+    private static final String FILE_EXTENSION = ".btr";
+
+    // Rough heap cost per stored value, used for the byte budget
+    private static final long BYTES_PER_BIG_DECIMAL = 48;
+    private static final long BYTES_PER_EVENT = 29;
+    private static final long BYTES_PER_RESULT = 512;
+
+    private final long maxBytes;
+    private final Path directory;
+    private final LinkedHashMap<RunKey, BacktestResult> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ConcurrentHashMap<RunKey, CompletableFuture<BacktestResult>> inFlight = new ConcurrentHashMap<>();
+    private long currentBytes;
+    private long hits;
+    private long misses;
+
+    public RunCache(long maxBytes) {
+        this(maxBytes, null);
+    }
+
+    /**
+     * @param maxBytes  Approximate upper bound on the memory held by cached results
+     * @param directory Directory for persisted results, or null to cache in memory only
+     */
+    public RunCache(long maxBytes, Path directory) {
+        this.maxBytes = maxBytes;
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the cached result for a key, running and caching it on a miss
+     *
+     * @param key Content address of the run, see {@link RunKey#of}
+     * @param run Computes the result on a miss
+     * @return Cached or freshly computed result
+     */
+    public BacktestResult getOrRun(RunKey key, Supplier<BacktestResult> run) {
+        BacktestResult cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<BacktestResult> future = new CompletableFuture<>();
+        CompletableFuture<BacktestResult> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            // Another caller may have finished between the lookup and registering
+            BacktestResult result;
+            synchronized (this) {
+                result = entries.get(key);
+            }
+            if (result == null) {
+                result = run.get();
+                put(key, result);
+            }
+            future.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * @return Cached result, from memory or the cache directory, or null on a miss
+     */
+    public BacktestResult get(RunKey key) {
+        synchronized (this) {
+            BacktestResult result = entries.get(key);
+            if (result != null) {
+                hits++;
+                return result;
+            }
+        }
+
+        BacktestResult stored = readStored(key);
+        synchronized (this) {
+            if (stored != null) {
+                hits++;
+                insert(key, stored);
+            } else {
+                misses++;
+            }
+        }
+        return stored;
+    }
+
+    /**
+     * Caches a result, persisting it when the cache has a directory
+     */
+    public void put(RunKey key, BacktestResult result) {
+        synchronized (this) {
+            insert(key, result);
+        }
+        writeStored(key, result);
+    }
+
+    public synchronized void invalidate(RunKey key) {
+        BacktestResult removed = entries.remove(key);
+        if (removed != null) {
+            currentBytes -= estimateBytes(removed);
+        }
+        if (directory != null) {
+            try {
+                Files.deleteIfExists(pathOf(key));
+            } catch (IOException e) {
+                logger.warn("Could not delete cached run " + key + ": " + e.getMessage());
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    // Approximate memory held by cached results
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    private void insert(RunKey key, BacktestResult result) {
+        BacktestResult previous = entries.put(key, result);
+        if (previous != null) {
+            currentBytes -= estimateBytes(previous);
+        }
+        currentBytes += estimateBytes(result);
+
+        // Evict least recently used entries, always keeping the newest one
+        Iterator<Map.Entry<RunKey, BacktestResult>> iterator = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && entries.size() > 1 && iterator.hasNext()) {
+            Map.Entry<RunKey, BacktestResult> eldest = iterator.next();
+            if (eldest.getKey().equals(key)) {
+                continue;
+            }
+            currentBytes -= estimateBytes(eldest.getValue());
+            iterator.remove();
+        }
+    }
+
+    private static long estimateBytes(BacktestResult result) {
+        long series = result.dailyReturns().size() + result.dailyCapital().size();
+        return BYTES_PER_RESULT
+                + series * BYTES_PER_BIG_DECIMAL
+                + (long) result.benchmarkReturns().length * Double.BYTES
+                + (long) result.events().size() * BYTES_PER_EVENT;
+    }
+
+    private BacktestResult readStored(RunKey key) {
+        if (directory == null || !Files.exists(pathOf(key))) {
+            return null;
+        }
+        try {
+            return ResultFile.read(pathOf(key)).toBacktestResult();
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable cached run " + key + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeStored(RunKey key, BacktestResult result) {
+        if (directory == null) {
+            return;
+        }
+        RunSummary summary = new RunSummary();
+        summary.setRunId(key.hash());
+        summary.setStrategyName("");
+        summary.setCreatedAt(LocalDateTime.now());
+        summary.setInitialCapital(result.initialCapital().doubleValue());
+        summary.setFinalCapital(result.finalCapital().doubleValue());
+        summary.setTotalReturn(result.totalReturn());
+        summary.setTradeCount(result.events().count(EventType.BUY) + result.events().count(EventType.SELL));
+
+        // Write to a temporary file first so readers never see a partial result
+        try {
+            Files.createDirectories(directory);
+            Path temporary = directory.resolve(key.hash() + ".tmp");
+            ResultFile.write(temporary, summary, Map.of(), result);
+            Files.move(temporary, pathOf(key), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.error("Could not persist cached run " + key, e);
+        }
+    }
+
+    private Path pathOf(RunKey key) {
+        return directory.resolve(key.hash() + FILE_EXTENSION);
+    }
+
+    private static BacktestResult await(CompletableFuture<BacktestResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a cached run", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.results;
+
+import org.example.models.MarketDataPoint;
+import org.example.models.PriceSeries;
+import org.example.strategy.Strategy;
+import org.example.strategy.StrategyFactory;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32C;
+
+/**
+ * Content address of a backtest run: a SHA-256 over everything that determines its result.
+ * <p>
+ * The key covers the strategy's class, type and parameters, the starting capital, the date
+ * range and, per ticker, a watermark (bar count, first and last timestamp) plus a CRC32C
+ * checksum of the bars. Identical inputs give identical keys across processes and restarts.
+ * <p>
+ * Parameters are taken from {@link Strategy#describeParameters()}, so only strategies that
+ * describe themselves can be keyed; two instances of a class that does not would get the same
+ * key however they were configured.
+ *
+ * @param hash Lower-case hex SHA-256
+ */
+public record RunKey(String hash) {
+
+    /**
+     * @param type           Factory type the strategy was created as, or null for one built directly
+     * @param strategy       Strategy to run
+     * @param initialCapital Starting capital
+     * @param marketData     Market data the run is given
+     * @param variant        Any further setting that changes the result, e.g. the execution
+     *                       model, or an empty string
+     * @return Key of the run
+     * @throws IllegalArgumentException If the strategy does not describe its parameters
+     */
+    public static RunKey of(StrategyFactory.StrategyType type, Strategy strategy, BigDecimal initialCapital,
+                            Map<String, List<MarketDataPoint>> marketData, String variant) {
+        Map<String, String> parameters = strategy.describeParameters();
+        if (parameters.isEmpty()) {
+            throw new IllegalArgumentException("Strategy " + strategy.getClass().getName()
+                    + " does not describe its parameters, so its runs cannot be keyed");
+        }
+        MessageDigest digest = newDigest();
+        update(digest, strategy.getClass().getName());
+        update(digest, type != null ? type.name() : "");
+        for (Map.Entry<String, String> parameter : new TreeMap<>(parameters).entrySet()) {
+            update(digest, parameter.getKey());
+            update(digest, parameter.getValue());
+        }
+        update(digest, initialCapital.stripTrailingZeros().toPlainString());
+        update(digest, variant);
+
+        long rangeStart = Long.MAX_VALUE;
+        long rangeEnd = Long.MIN_VALUE;
+        ByteBuffer watermark = ByteBuffer.allocate(Integer.BYTES + 3 * Long.BYTES);
+        for (Map.Entry<String, List<MarketDataPoint>> entry : new TreeMap<>(marketData).entrySet()) {
+            List<MarketDataPoint> bars = entry.getValue();
+            long first = bars.isEmpty() ? 0 : PriceSeries.toEpochSeconds(bars.get(0).getTimestamp());
+            long last = bars.isEmpty() ? 0 : PriceSeries.toEpochSeconds(bars.get(bars.size() - 1).getTimestamp());
+            if (!bars.isEmpty()) {
+                rangeStart = Math.min(rangeStart, first);
+                rangeEnd = Math.max(rangeEnd, last);
+            }
+
+            update(digest, entry.getKey());
+            watermark.clear();
+            watermark.putInt(bars.size()).putLong(first).putLong(last).putLong(checksum(bars));
+            digest.update(watermark.array());
+        }
+        watermark.clear();
+        watermark.putInt(marketData.size()).putLong(rangeStart).putLong(rangeEnd).putLong(0L);
+        digest.update(watermark.array());
+
+        return new RunKey(HexFormat.of().formatHex(digest.digest()));
+    }
+
+    // CRC32C over each bar's timestamp, OHLC and volume
+    private static long checksum(List<MarketDataPoint> bars) {
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocate(6 * Long.BYTES);
+        for (MarketDataPoint bar : bars) {
+            buffer.clear();
+            buffer.putLong(PriceSeries.toEpochSeconds(bar.getTimestamp()))
+                    .putDouble(bar.getOpen().doubleValue())
+                    .putDouble(bar.getHigh().doubleValue())
+                    .putDouble(bar.getLow().doubleValue())
+                    .putDouble(bar.getClose().doubleValue())
+                    .putLong(bar.getVolume());
+            crc.update(buffer.array());
+        }
+        return crc.getValue();
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return hash;
+    }
+}
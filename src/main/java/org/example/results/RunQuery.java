@@ -0,0 +1,164 @@
+package org.example.results;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Filter and ordering for {@link ResultRepository#findSummaries(RunQuery)}. Every criterion
+ * is optional; unset criteria do not restrict the result.
+ */
+public class RunQuery {
+    private static final char LIKE_ESCAPE = '!';
+
+    /**
+     * Columns runs can be ordered by
+     */
+    public enum SortField {
+        CREATED_AT("createdAt"),
+        TOTAL_RETURN("totalReturn"),
+        SHARPE_RATIO("sharpeRatio"),
+        SORTINO_RATIO("sortinoRatio"),
+        MAX_DRAWDOWN("maxDrawdown");
+
+        private final String property;
+
+        SortField(String property) {
+            this.property = property;
+        }
+    }
+
+    private String strategyName;
+    private String dataFingerprint;
+    private Double minTotalReturn;
+    private Double minSharpeRatio;
+    private Double maxDrawdown;
+    private final Map<String, String> parameters = new LinkedHashMap<>();
+    private SortField sortField = SortField.CREATED_AT;
+    private boolean descending = true;
+    private int firstResult;
+    private int maxResults = 1000;
+
+    public RunQuery strategyName(String strategyName) {
+        this.strategyName = strategyName;
+        return this;
+    }
+
+    public RunQuery dataFingerprint(String dataFingerprint) {
+        this.dataFingerprint = dataFingerprint;
+        return this;
+    }
+
+    public RunQuery minTotalReturn(double minTotalReturn) {
+        this.minTotalReturn = minTotalReturn;
+        return this;
+    }
+
+    public RunQuery minSharpeRatio(double minSharpeRatio) {
+        this.minSharpeRatio = minSharpeRatio;
+        return this;
+    }
+
+    // Maximum drawdown in percent, as reported by BacktestResult
+    public RunQuery maxDrawdown(double maxDrawdown) {
+        this.maxDrawdown = maxDrawdown;
+        return this;
+    }
+
+    // Only runs whose strategy had this exact parameter value
+    public RunQuery parameter(String name, String value) {
+        parameters.put(name, value);
+        return this;
+    }
+
+    public RunQuery orderBy(SortField sortField, boolean descending) {
+        this.sortField = sortField;
+        this.descending = descending;
+        return this;
+    }
+
+    // Page through large result sets
+    public RunQuery page(int firstResult, int maxResults) {
+        this.firstResult = firstResult;
+        this.maxResults = maxResults;
+        return this;
+    }
+
+    int getFirstResult() {
+        return firstResult;
+    }
+
+    int getMaxResults() {
+        return maxResults;
+    }
+
+    /**
+     * @return HQL selecting the matching summaries; bind it with {@link #parameterValues()}
+     */
+    String toHql() {
+        StringBuilder hql = new StringBuilder("FROM RunSummary WHERE 1 = 1");
+        if (strategyName != null) {
+            hql.append(" AND strategyName = :strategyName");
+        }
+        if (dataFingerprint != null) {
+            hql.append(" AND dataFingerprint = :dataFingerprint");
+        }
+        if (minTotalReturn != null) {
+            hql.append(" AND totalReturn >= :minTotalReturn");
+        }
+        if (minSharpeRatio != null) {
+            hql.append(" AND sharpeRatio >= :minSharpeRatio");
+        }
+        if (maxDrawdown != null) {
+            hql.append(" AND maxDrawdown <= :maxDrawdown");
+        }
+        for (int i = 0; i < parameters.size(); i++) {
+            hql.append(" AND parameters LIKE :parameter").append(i).append(" ESCAPE '").append(LIKE_ESCAPE).append("'");
+        }
+        hql.append(" ORDER BY ").append(sortField.property).append(descending ? " DESC" : " ASC");
+        return hql.toString();
+    }
+
+    /**
+     * @return Named parameter values for {@link #toHql()}, as name/value pairs
+     */
+    List<Object[]> parameterValues() {
+        List<Object[]> values = new ArrayList<>();
+        if (strategyName != null) {
+            values.add(new Object[]{"strategyName", strategyName});
+        }
+        if (dataFingerprint != null) {
+            values.add(new Object[]{"dataFingerprint", dataFingerprint});
+        }
+        if (minTotalReturn != null) {
+            values.add(new Object[]{"minTotalReturn", minTotalReturn});
+        }
+        if (minSharpeRatio != null) {
+            values.add(new Object[]{"minSharpeRatio", minSharpeRatio});
+        }
+        if (maxDrawdown != null) {
+            values.add(new Object[]{"maxDrawdown", maxDrawdown});
+        }
+        int i = 0;
+        for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+            values.add(new Object[]{"parameter" + i++,
+                    "%;" + escapeLike(RunSummary.renderParameter(parameter.getKey())) + "="
+                            + escapeLike(RunSummary.renderParameter(parameter.getValue())) + ";%"});
+        }
+        return values;
+    }
+
+    // Makes % and _ in a parameter name or value match literally
+    private static String escapeLike(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == LIKE_ESCAPE || c == '%' || c == '_') {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
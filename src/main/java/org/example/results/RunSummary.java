@@ -0,0 +1,188 @@
+package org.example.results;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.example.backtest.BacktestResult;
+import org.example.backtest.EventType;
+import org.example.strategy.Strategy;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Index row for a stored backtest run: the headline metrics and where the full result file
+ * lives. Queries over runs only ever touch this table.
+ */
+@Entity
+@Table(name = "backtest_run", indexes = {
+        @Index(name = "idx_backtest_run_strategy", columnList = "strategy_name"),
+        @Index(name = "idx_backtest_run_fingerprint", columnList = "data_fingerprint"),
+        @Index(name = "idx_backtest_run_sharpe", columnList = "sharpe_ratio")
+})
+public class RunSummary {
+
+    @Id
+    @Column(name = "run_id", nullable = false, length = 36)
+    private String runId;
+
+    @Column(name = "strategy_name", nullable = false)
+    private String strategyName;
+
+    // Parameters rendered as ";key=value;key=value;" so single parameters can be matched with LIKE
+    @Column(name = "parameters", length = 1024)
+    private String parameters;
+
+    @Column(name = "data_fingerprint", length = 64)
+    private String dataFingerprint;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "initial_capital")
+    private double initialCapital;
+
+    @Column(name = "final_capital")
+    private double finalCapital;
+
+    @Column(name = "total_return")
+    private double totalReturn;
+
+    // Ratios are null when they cannot be computed, e.g. for a run without variance
+    @Column(name = "sharpe_ratio")
+    private Double sharpeRatio;
+
+    @Column(name = "sortino_ratio")
+    private Double sortinoRatio;
+
+    @Column(name = "max_drawdown")
+    private Double maxDrawdown;
+
+    @Column(name = "trade_count")
+    private int tradeCount;
+
+    @Column(name = "observations")
+    private int observations;
+
+    @Column(name = "result_path", length = 512)
+    private String resultPath;
+
+    // Default constructor for Hibernate
+    public RunSummary() {
+    }
+
+    /**
+     * Builds the summary of a finished run
+     *
+     * @param runId           Unique id of the run
+     * @param strategy        Strategy that produced the result
+     * @param dataFingerprint Fingerprint of the market data, see {@link DataFingerprint}
+     * @param result          Result of the run
+     * @return Summary with every field but the result path set
+     */
+    public static RunSummary of(String runId, Strategy strategy, String dataFingerprint, BacktestResult result) {
+        RunSummary summary = new RunSummary();
+        summary.runId = runId;
+        summary.strategyName = strategy.getClass().getSimpleName();
+        summary.parameters = renderParameters(strategy.describeParameters());
+        summary.dataFingerprint = dataFingerprint;
+        summary.createdAt = LocalDateTime.now();
+        summary.initialCapital = result.initialCapital().doubleValue();
+        summary.finalCapital = result.finalCapital().doubleValue();
+        summary.totalReturn = result.totalReturn();
+        summary.sharpeRatio = finiteOrNull(result::calculateSharpeRatio);
+        summary.sortinoRatio = finiteOrNull(result::calculateSortinoRatio);
+        summary.maxDrawdown = finiteOrNull(result::calculateMaxDrawdown);
+        summary.tradeCount = result.events().count(EventType.BUY) + result.events().count(EventType.SELL);
+        summary.observations = result.dailyCapital().size();
+        return summary;
+    }
+
+    /**
+     * @return Parameters as {@code ";key=value;key=value;"}, or {@code ";"} if there are none.
+     * Keys and values are written with {@link #renderParameter}, so they never contain the
+     * separators.
+     */
+    public static String renderParameters(Map<String, String> parameters) {
+        StringBuilder sb = new StringBuilder(";");
+        for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+            sb.append(renderParameter(parameter.getKey())).append('=')
+                    .append(renderParameter(parameter.getValue())).append(';');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Percent-encodes {@code %}, {@code ;} and {@code =} in a parameter name or value, so a
+     * rendered pair can only match where a whole parameter was written
+     */
+    static String renderParameter(String text) {
+        StringBuilder encoded = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '%' -> encoded.append("%25");
+                case ';' -> encoded.append("%3B");
+                case '=' -> encoded.append("%3D");
+                default -> encoded.append(c);
+            }
+        }
+        return encoded.toString();
+    }
+
+    // Ratios divide by a deviation that can be zero; store those as null rather than failing the run
+    private static Double finiteOrNull(DoubleSupplier metric) {
+        try {
+            double value = metric.getAsDouble();
+            return Double.isFinite(value) ? value : null;
+        } catch (ArithmeticException e) {
+            return null;
+        }
+    }
+
+    public String getRunId() { return runId; }
+    public String getStrategyName() { return strategyName; }
+    public String getParameters() { return parameters; }
+    public String getDataFingerprint() { return dataFingerprint; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public double getInitialCapital() { return initialCapital; }
+    public double getFinalCapital() { return finalCapital; }
+    public double getTotalReturn() { return totalReturn; }
+    public Double getSharpeRatio() { return sharpeRatio; }
+    public Double getSortinoRatio() { return sortinoRatio; }
+    public Double getMaxDrawdown() { return maxDrawdown; }
+    public int getTradeCount() { return tradeCount; }
+    public int getObservations() { return observations; }
+    public String getResultPath() { return resultPath; }
+
+    public void setRunId(String runId) { this.runId = runId; }
+    public void setStrategyName(String strategyName) { this.strategyName = strategyName; }
+    public void setParameters(String parameters) { this.parameters = parameters; }
+    public void setDataFingerprint(String dataFingerprint) { this.dataFingerprint = dataFingerprint; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public void setInitialCapital(double initialCapital) { this.initialCapital = initialCapital; }
+    public void setFinalCapital(double finalCapital) { this.finalCapital = finalCapital; }
+    public void setTotalReturn(double totalReturn) { this.totalReturn = totalReturn; }
+    public void setSharpeRatio(Double sharpeRatio) { this.sharpeRatio = sharpeRatio; }
+    public void setSortinoRatio(Double sortinoRatio) { this.sortinoRatio = sortinoRatio; }
+    public void setMaxDrawdown(Double maxDrawdown) { this.maxDrawdown = maxDrawdown; }
+    public void setTradeCount(int tradeCount) { this.tradeCount = tradeCount; }
+    public void setObservations(int observations) { this.observations = observations; }
+    public void setResultPath(String resultPath) { this.resultPath = resultPath; }
+
+    @Override
+    public String toString() {
+        return "RunSummary{" +
+                "runId='" + runId + '\'' +
+                ", strategy=" + strategyName +
+                ", parameters=" + parameters +
+                ", totalReturn=" + totalReturn +
+                "%, sharpeRatio=" + sharpeRatio +
+                ", maxDrawdown=" + maxDrawdown +
+                ", trades=" + tradeCount +
+                '}';
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.results;
+
+import org.example.backtest.BacktestResult;
+import org.example.backtest.EventLog;
+import org.example.metrics.MetricsSnapshot;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A backtest run as read back from its result file.
+ *
+ * @param summary          Headline metrics, as indexed
+ * @param parameters       Strategy parameters
+ * @param riskFreeRate     Risk-free rate the result's ratios were computed with
+ * @param equityCurve      Daily equity
+ * @param dailyReturns     Daily strategy returns
+ * @param benchmarkReturns Daily benchmark returns
+ * @param events           Trades and trade-related events
+ */
+public record StoredRun(
+        RunSummary summary,
+        Map<String, String> parameters,
+        double riskFreeRate,
+        double[] equityCurve,
+        double[] dailyReturns,
+        double[] benchmarkReturns,
+        EventLog events) {
+
+    /**
+     * Rebuilds the in-memory result the run was stored from, with its decimals as read from
+     * the file's doubles; see {@link ResultFile}
+     */
+    public BacktestResult toBacktestResult() {
+        return new BacktestResult(BigDecimal.valueOf(summary.getInitialCapital()), BigDecimal.valueOf(summary.getFinalCapital()),
+                summary.getTotalReturn(), events, toList(dailyReturns), riskFreeRate, toList(equityCurve), benchmarkReturns,
+                MetricsSnapshot.EMPTY);
+    }
+
+    private static List<BigDecimal> toList(double[] values) {
+        List<BigDecimal> list = new ArrayList<>(values.length);
+        for (double value : values) {
+            list.add(BigDecimal.valueOf(value));
+        }
+        return list;
+    }
+}
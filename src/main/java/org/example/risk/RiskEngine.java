@@ -0,0 +1,274 @@
+package org.example.risk;
+
+import org.example.analytics.ReturnMatrix;
+import org.example.models.Portfolio;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Historical and filtered-historical VaR / Expected Shortfall engine.
+ * <p>
+ * Each past period is a scenario: the book's P&amp;L under it is the dot product of the
+ * exposures with that period's returns. Scenario P&amp;L is computed in parallel over blocks of
+ * rows of the primitive {@link ReturnMatrix}, only over tickers the book actually holds.
+ * Multi-day horizons use overlapping windows of daily scenarios summed through a prefix-sum,
+ * so every horizon costs O(T) once the daily P&amp;L is known.
+ */
+public class RiskEngine {
+    public static final double DEFAULT_EWMA_LAMBDA = 0.94;
+    public static final double[] DEFAULT_CONFIDENCE_LEVELS = {0.95, 0.99};
+    public static final int[] DEFAULT_HORIZONS = {1, 10};
+
+    // Rows per parallel task; large enough to amortize scheduling, small enough to balance
+    private static final int ROW_BLOCK = 256;
+
+    private final double[] confidenceLevels;
+    private final int[] horizons;
+    private final double ewmaLambda;
+
+    public RiskEngine() {
+        this(DEFAULT_CONFIDENCE_LEVELS, DEFAULT_HORIZONS, DEFAULT_EWMA_LAMBDA);
+    }
+
+    public RiskEngine(double[] confidenceLevels, int[] horizons) {
+        this(confidenceLevels, horizons, DEFAULT_EWMA_LAMBDA);
+    }
+
+    /**
+     * @param confidenceLevels Confidence levels such as 0.99
+     * @param horizons         Horizons in periods (days for daily data)
+     * @param ewmaLambda       Decay of the volatility filter used by {@link VarMethod#FILTERED_HISTORICAL}
+     */
+    public RiskEngine(double[] confidenceLevels, int[] horizons, double ewmaLambda) {
+        for (double level : confidenceLevels) {
+            if (!(level > 0.0 && level < 1.0)) {
+                throw new IllegalArgumentException("Confidence level must be in (0, 1): " + level);
+            }
+        }
+        for (int horizon : horizons) {
+            if (horizon < 1) {
+                throw new IllegalArgumentException("Horizon must be at least 1: " + horizon);
+            }
+        }
+        if (!(ewmaLambda > 0.0 && ewmaLambda < 1.0)) {
+            throw new IllegalArgumentException("EWMA lambda must be in (0, 1): " + ewmaLambda);
+        }
+        this.confidenceLevels = confidenceLevels.clone();
+        this.horizons = horizons.clone();
+        this.ewmaLambda = ewmaLambda;
+    }
+
+    /**
+     * Evaluates the risk of the portfolio's open positions, valued at their last prices
+     *
+     * @param returns   Return history of the universe
+     * @param portfolio Portfolio whose positions are evaluated
+     * @param method    Scenario generation method
+     * @return Risk report
+     */
+    public RiskReport evaluate(ReturnMatrix returns, Portfolio portfolio, VarMethod method) {
+        double[] exposures = new double[returns.assets()];
+        for (int a = 0; a < exposures.length; a++) {
+            int tickerId = returns.tickerId(a);
+            exposures[a] = portfolio.getQuantity(tickerId) * portfolio.getLastPrice(tickerId);
+        }
+        return evaluate(returns, exposures, method);
+    }
+
+    /**
+     * Evaluates the risk of a book given as currency exposures
+     *
+     * @param returns   Return history of the universe
+     * @param exposures Currency exposure per column of {@code returns}
+     * @param method    Scenario generation method
+     * @return Risk report
+     */
+    public RiskReport evaluate(ReturnMatrix returns, double[] exposures, VarMethod method) {
+        int assets = returns.assets();
+        int observations = returns.observations();
+        if (exposures.length != assets) {
+            throw new IllegalArgumentException("Expected " + assets + " exposures, got " + exposures.length);
+        }
+
+        double[] scenarios = method == VarMethod.FILTERED_HISTORICAL
+                ? filterByVolatility(returns)
+                : returns.rawReturns();
+
+        // Only held tickers take part in revaluation
+        int[] held = IntStream.range(0, assets).filter(a -> exposures[a] != 0.0).toArray();
+        double[] dailyPnl = scenarioPnl(scenarios, assets, observations, exposures, held);
+
+        double[] prefix = new double[observations + 1];
+        for (int t = 0; t < observations; t++) {
+            prefix[t + 1] = prefix[t] + dailyPnl[t];
+        }
+
+        int horizonCount = horizons.length;
+        int levelCount = confidenceLevels.length;
+        double[][] valueAtRisk = new double[horizonCount][levelCount];
+        double[][] expectedShortfall = new double[horizonCount][levelCount];
+        double[][][] componentVar = new double[horizonCount][levelCount][];
+        double[][][] componentEs = new double[horizonCount][levelCount][];
+
+        for (int h = 0; h < horizonCount; h++) {
+            int horizon = horizons[h];
+            int scenarioCount = observations - horizon + 1;
+            if (scenarioCount <= 0) {
+                for (int l = 0; l < levelCount; l++) {
+                    valueAtRisk[h][l] = Double.NaN;
+                    expectedShortfall[h][l] = Double.NaN;
+                    componentVar[h][l] = new double[assets];
+                    componentEs[h][l] = new double[assets];
+                }
+                continue;
+            }
+
+            double[] pnl = new double[scenarioCount];
+            for (int t = 0; t < scenarioCount; t++) {
+                pnl[t] = prefix[t + horizon] - prefix[t];
+            }
+            double[] sorted = pnl.clone();
+            Arrays.sort(sorted);
+
+            for (int l = 0; l < levelCount; l++) {
+                int tailCount = tailCount(confidenceLevels[l], scenarioCount);
+                double threshold = sorted[tailCount - 1];
+                double tailSum = 0.0;
+                for (int i = 0; i < tailCount; i++) {
+                    tailSum += sorted[i];
+                }
+                valueAtRisk[h][l] = -threshold;
+                expectedShortfall[h][l] = -tailSum / tailCount;
+
+                int[] tail = tailScenarios(pnl, threshold, tailCount);
+                componentVar[h][l] = componentLosses(scenarios, assets, exposures, held, horizon,
+                        new int[]{tail[tail.length - 1]});
+                componentEs[h][l] = componentLosses(scenarios, assets, exposures, held, horizon, tail);
+            }
+        }
+
+        return new RiskReport(method, confidenceLevels.clone(), horizons.clone(), tickerIds(returns),
+                exposures.clone(), observations, valueAtRisk, expectedShortfall, componentVar, componentEs);
+    }
+
+    /**
+     * Number of scenarios beyond the confidence level. The product is rounded before the ceiling
+     * so that e.g. 5% of 20 is one scenario and not two, as 1 - 0.95 is slightly above 0.05.
+     */
+    static int tailCount(double confidenceLevel, int scenarioCount) {
+        double tail = Math.rint((1.0 - confidenceLevel) * scenarioCount * 1e9) / 1e9;
+        return Math.max(1, (int) Math.ceil(tail));
+    }
+
+    /**
+     * Book P&amp;L under each daily scenario, computed in parallel over row blocks
+     */
+    private static double[] scenarioPnl(double[] scenarios, int assets, int observations, double[] exposures, int[] held) {
+        double[] pnl = new double[observations];
+        int blocks = (observations + ROW_BLOCK - 1) / ROW_BLOCK;
+        IntStream.range(0, blocks).parallel().forEach(block -> {
+            int end = Math.min(observations, (block + 1) * ROW_BLOCK);
+            for (int t = block * ROW_BLOCK; t < end; t++) {
+                int offset = t * assets;
+                double sum = 0.0;
+                for (int a : held) {
+                    sum += exposures[a] * scenarios[offset + a];
+                }
+                pnl[t] = sum;
+            }
+        });
+        return pnl;
+    }
+
+    /**
+     * Start indices of the {@code tailCount} worst scenarios; the scenario at the VaR quantile
+     * is last. Ties at the threshold are taken in time order until the count is reached.
+     */
+    private static int[] tailScenarios(double[] pnl, double threshold, int tailCount) {
+        int[] tail = new int[tailCount];
+        int count = 0;
+        for (int t = 0; t < pnl.length; t++) {
+            if (pnl[t] < threshold) {
+                tail[count++] = t;
+            }
+        }
+        for (int t = 0; t < pnl.length && count < tailCount; t++) {
+            if (pnl[t] == threshold) {
+                tail[count++] = t;
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Average loss per ticker over the given scenarios, each spanning {@code horizon} rows.
+     * The per-ticker values sum to the average book loss over the scenarios.
+     */
+    private static double[] componentLosses(double[] scenarios, int assets, double[] exposures, int[] held,
+                                            int horizon, int[] scenarioStarts) {
+        double[] components = new double[assets];
+        IntStream.range(0, held.length).parallel().forEach(i -> {
+            int a = held[i];
+            double sum = 0.0;
+            for (int start : scenarioStarts) {
+                for (int t = start; t < start + horizon; t++) {
+                    sum += scenarios[t * assets + a];
+                }
+            }
+            components[a] = -exposures[a] * sum / scenarioStarts.length;
+        });
+        return components;
+    }
+
+    /**
+     * Filtered historical simulation: each ticker's returns are divided by the EWMA volatility
+     * forecast for that period and multiplied by the latest forecast, so the past shocks are
+     * replayed at today's volatility. Tickers are filtered in parallel.
+     */
+    private double[] filterByVolatility(ReturnMatrix returns) {
+        int assets = returns.assets();
+        int observations = returns.observations();
+        double[] raw = returns.rawReturns();
+        double[] filtered = new double[raw.length];
+
+        IntStream.range(0, assets).parallel().forEach(a -> {
+            if (observations == 0) {
+                return;
+            }
+
+            // Seed the recursion with the sample variance of the whole column
+            double sum = 0.0;
+            double sumSquares = 0.0;
+            for (int t = 0; t < observations; t++) {
+                double r = raw[t * assets + a];
+                sum += r;
+                sumSquares += r * r;
+            }
+            double mean = sum / observations;
+            double variance = Math.max(0.0, sumSquares / observations - mean * mean);
+
+            // Standardize each return by the variance forecast made before it was observed
+            for (int t = 0; t < observations; t++) {
+                int index = t * assets + a;
+                double r = raw[index];
+                filtered[index] = variance > 0.0 ? r / Math.sqrt(variance) : 0.0;
+                variance = ewmaLambda * variance + (1.0 - ewmaLambda) * r * r;
+            }
+
+            double currentVolatility = Math.sqrt(variance);
+            for (int t = 0; t < observations; t++) {
+                filtered[t * assets + a] *= currentVolatility;
+            }
+        });
+        return filtered;
+    }
+
+    private static int[] tickerIds(ReturnMatrix returns) {
+        int[] ids = new int[returns.assets()];
+        for (int a = 0; a < ids.length; a++) {
+            ids[a] = returns.tickerId(a);
+        }
+        return ids;
+    }
+}
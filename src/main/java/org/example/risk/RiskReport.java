@@ -0,0 +1,109 @@
+package org.example.risk;
+
+import org.example.models.SymbolTable;
+
+/**
+ * Value at Risk and Expected Shortfall of a book at several confidence levels and horizons,
+ * with per-ticker contributions.
+ * <p>
+ * Risk figures are positive loss amounts in currency. Arrays are indexed
+ * {@code [horizonIndex][levelIndex]} and, for contributions, {@code [..][..][column]} where
+ * the column matches {@link #tickerIds()}. Component contributions of a measure sum to it.
+ */
+public record RiskReport(
+        VarMethod method,
+        double[] confidenceLevels,
+        int[] horizons,
+        int[] tickerIds,
+        double[] exposures,
+        int observations,
+        double[][] valueAtRisk,
+        double[][] expectedShortfall,
+        double[][][] componentVar,
+        double[][][] componentEs) {
+
+    public double getValueAtRisk(int horizon, double confidenceLevel) {
+        return valueAtRisk[horizonIndex(horizon)][levelIndex(confidenceLevel)];
+    }
+
+    public double getExpectedShortfall(int horizon, double confidenceLevel) {
+        return expectedShortfall[horizonIndex(horizon)][levelIndex(confidenceLevel)];
+    }
+
+    // Contribution of each ticker to VaR, by column
+    public double[] getComponentVar(int horizon, double confidenceLevel) {
+        return componentVar[horizonIndex(horizon)][levelIndex(confidenceLevel)];
+    }
+
+    // Contribution of each ticker to Expected Shortfall, by column
+    public double[] getComponentEs(int horizon, double confidenceLevel) {
+        return componentEs[horizonIndex(horizon)][levelIndex(confidenceLevel)];
+    }
+
+    /**
+     * Marginal VaR per unit of exposure: component VaR divided by the exposure. Zero for
+     * tickers without exposure.
+     */
+    public double[] getMarginalVar(int horizon, double confidenceLevel) {
+        return perUnitExposure(getComponentVar(horizon, confidenceLevel));
+    }
+
+    // Marginal Expected Shortfall per unit of exposure
+    public double[] getMarginalEs(int horizon, double confidenceLevel) {
+        return perUnitExposure(getComponentEs(horizon, confidenceLevel));
+    }
+
+    private double[] perUnitExposure(double[] components) {
+        double[] marginal = new double[components.length];
+        for (int a = 0; a < components.length; a++) {
+            marginal[a] = exposures[a] != 0.0 ? components[a] / exposures[a] : 0.0;
+        }
+        return marginal;
+    }
+
+    private int horizonIndex(int horizon) {
+        for (int h = 0; h < horizons.length; h++) {
+            if (horizons[h] == horizon) {
+                return h;
+            }
+        }
+        throw new IllegalArgumentException("Horizon not in report: " + horizon);
+    }
+
+    private int levelIndex(double confidenceLevel) {
+        for (int l = 0; l < confidenceLevels.length; l++) {
+            if (confidenceLevels[l] == confidenceLevel) {
+                return l;
+            }
+        }
+        throw new IllegalArgumentException("Confidence level not in report: " + confidenceLevel);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("RiskReport{method=").append(method)
+                .append(", observations=").append(observations);
+        for (int h = 0; h < horizons.length; h++) {
+            for (int l = 0; l < confidenceLevels.length; l++) {
+                sb.append(", ").append(horizons[h]).append("d@").append(confidenceLevels[l] * 100).append("%")
+                        .append(" VaR=").append(valueAtRisk[h][l])
+                        .append(" ES=").append(expectedShortfall[h][l]);
+            }
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * @return Ticker with the largest Expected Shortfall contribution, or null for an empty book
+     */
+    public String getLargestContributor(int horizon, double confidenceLevel) {
+        double[] components = getComponentEs(horizon, confidenceLevel);
+        int largest = -1;
+        for (int a = 0; a < components.length; a++) {
+            if (exposures[a] != 0.0 && (largest < 0 || components[a] > components[largest])) {
+                largest = a;
+            }
+        }
+        return largest < 0 ? null : SymbolTable.global().symbol(tickerIds[largest]);
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.risk;
+
+/**
+ * How scenario returns are derived from the return history.
+ */
+public enum VarMethod {
+    // Past returns replayed as-is
+    HISTORICAL,
+    // Past returns standardized by their EWMA volatility and rescaled to today's volatility
+    FILTERED_HISTORICAL
+}
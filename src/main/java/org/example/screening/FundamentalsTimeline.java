@@ -0,0 +1,233 @@
+package org.example.screening;
+
+import org.example.models.FundamentalsSnapshot;
+import org.example.models.StockFundamentals;
+import org.example.models.SymbolTable;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Point-in-time fundamentals for a universe, held in memory for as-of lookups.
+ * <p>
+ * Each ticker's versions are kept in two primitive arrays indexed by ticker id: the as-of
+ * dates as sorted epoch days and the metrics row-major, one column per {@link ScreenMetric}.
+ * An as-of lookup is a binary search over one ticker's dates, so screening a past date only
+ * sees values that had been published by then. Metrics a version did not report are NaN.
+ */
+public final class FundamentalsTimeline {
+    private final int[][] epochDays; // Indexed by ticker id, null where the ticker has no history
+    private final double[][] values;
+
+    // Every version in publication order, for consumers that follow the history forward
+    private final int[] changeDays;
+    private final int[] changeTickers;
+    private final int[] changeVersions;
+
+    private FundamentalsTimeline(int[][] epochDays, double[][] values) {
+        this.epochDays = epochDays;
+        this.values = values;
+
+        int changes = 0;
+        for (int[] days : epochDays) {
+            changes += days != null ? days.length : 0;
+        }
+        // Day in the high bits sorts by date; the low bits point back to the ticker and version
+        long[] order = new long[changes];
+        int[] ownerOf = new int[changes];
+        int[] versionOf = new int[changes];
+        int next = 0;
+        for (int id = 0; id < epochDays.length; id++) {
+            int[] days = epochDays[id];
+            for (int v = 0; days != null && v < days.length; v++) {
+                order[next] = ((long) days[v] << 32) | next;
+                ownerOf[next] = id;
+                versionOf[next] = v;
+                next++;
+            }
+        }
+        Arrays.sort(order);
+        this.changeDays = new int[changes];
+        this.changeTickers = new int[changes];
+        this.changeVersions = new int[changes];
+        for (int i = 0; i < changes; i++) {
+            int source = (int) order[i];
+            changeDays[i] = (int) (order[i] >> 32);
+            changeTickers[i] = ownerOf[source];
+            changeVersions[i] = versionOf[source];
+        }
+    }
+
+    /**
+     * Builds a timeline from stored versions, in any order. Where a ticker has two versions for
+     * the same date, the later one in the list wins.
+     *
+     * @param snapshots Fundamentals versions
+     * @return Timeline over every ticker in {@code snapshots}
+     */
+    public static FundamentalsTimeline of(List<FundamentalsSnapshot> snapshots) {
+        int metricCount = ScreenMetric.count();
+        SymbolTable symbols = SymbolTable.global();
+
+        // Group by ticker id, keeping positions so ties resolve to the last version given
+        int[] tickerIds = new int[snapshots.size()];
+        int maxId = -1;
+        for (int i = 0; i < tickerIds.length; i++) {
+            tickerIds[i] = symbols.idOf(snapshots.get(i).getTicker());
+            maxId = Math.max(maxId, tickerIds[i]);
+        }
+        List<List<Integer>> byTicker = new ArrayList<>(maxId + 1);
+        for (int id = 0; id <= maxId; id++) {
+            byTicker.add(null);
+        }
+        for (int i = 0; i < tickerIds.length; i++) {
+            List<Integer> rows = byTicker.get(tickerIds[i]);
+            if (rows == null) {
+                rows = new ArrayList<>();
+                byTicker.set(tickerIds[i], rows);
+            }
+            rows.add(i);
+        }
+
+        int[][] epochDays = new int[maxId + 1][];
+        double[][] values = new double[maxId + 1][];
+        for (int id = 0; id <= maxId; id++) {
+            List<Integer> rows = byTicker.get(id);
+            if (rows == null) {
+                continue;
+            }
+            rows.sort((a, b) -> {
+                int byDate = snapshots.get(a).getAsOfDate().compareTo(snapshots.get(b).getAsOfDate());
+                return byDate != 0 ? byDate : Integer.compare(a, b);
+            });
+
+            int[] days = new int[rows.size()];
+            double[] metrics = new double[rows.size() * metricCount];
+            int count = 0;
+            for (int row : rows) {
+                FundamentalsSnapshot snapshot = snapshots.get(row);
+                int day = (int) snapshot.getAsOfDate().toEpochDay();
+                if (count > 0 && days[count - 1] == day) {
+                    count--;
+                }
+                days[count] = day;
+                StockFundamentals fundamentals = snapshot.toStockFundamentals();
+                for (int m = 0; m < metricCount; m++) {
+                    metrics[count * metricCount + m] = ScreenMetric.of(m).valueOf(fundamentals);
+                }
+                count++;
+            }
+            epochDays[id] = Arrays.copyOf(days, count);
+            values[id] = Arrays.copyOf(metrics, count * metricCount);
+        }
+        return new FundamentalsTimeline(epochDays, values);
+    }
+
+    /**
+     * @param tickerId Ticker id from {@link SymbolTable}
+     * @param date     Date of the query
+     * @return Index of the latest version on or before {@code date}, or -1 if there is none
+     */
+    public int versionAsOf(int tickerId, LocalDate date) {
+        return versionAsOf(tickerId, (int) date.toEpochDay());
+    }
+
+    private int versionAsOf(int tickerId, int epochDay) {
+        if (tickerId < 0 || tickerId >= epochDays.length || epochDays[tickerId] == null) {
+            return -1;
+        }
+        int found = Arrays.binarySearch(epochDays[tickerId], epochDay);
+        return found >= 0 ? found : -found - 2;
+    }
+
+    /**
+     * @return The metric as known on {@code date}, or NaN if nothing had been published yet
+     */
+    public double valueAsOf(int tickerId, LocalDate date, ScreenMetric metric) {
+        int version = versionAsOf(tickerId, date);
+        return version >= 0 ? values[tickerId][version * ScreenMetric.count() + metric.ordinal()] : Double.NaN;
+    }
+
+    /**
+     * Writes the as-of metrics of every ticker with history on or before {@code date}, in
+     * ticker id order, in the layout {@link ScreeningEngine#evaluate(int[], double[])} expects
+     *
+     * @param date          Date of the query
+     * @param tickerIdsOut  Receives the ticker ids; at least {@link #tickerCapacity()} long
+     * @param valuesOut     Receives the metrics row-major; at least {@code tickerCapacity() * metrics} long
+     * @return Number of rows written
+     */
+    public int asOf(LocalDate date, int[] tickerIdsOut, double[] valuesOut) {
+        int metricCount = ScreenMetric.count();
+        int epochDay = (int) date.toEpochDay();
+        int rows = 0;
+        for (int id = 0; id < epochDays.length; id++) {
+            int version = versionAsOf(id, epochDay);
+            if (version < 0) {
+                continue;
+            }
+            tickerIdsOut[rows] = id;
+            System.arraycopy(values[id], version * metricCount, valuesOut, rows * metricCount, metricCount);
+            rows++;
+        }
+        return rows;
+    }
+
+    /**
+     * @return The fundamentals of every ticker as known on {@code date}
+     */
+    public List<StockFundamentals> asOf(LocalDate date) {
+        int epochDay = (int) date.toEpochDay();
+        List<StockFundamentals> result = new ArrayList<>();
+        SymbolTable symbols = SymbolTable.global();
+        for (int id = 0; id < epochDays.length; id++) {
+            int version = versionAsOf(id, epochDay);
+            if (version < 0) {
+                continue;
+            }
+            int row = version * ScreenMetric.count();
+            double[] metrics = values[id];
+            result.add(new StockFundamentals(symbols.symbol(id),
+                    reported(metrics[row + ScreenMetric.PE_RATIO.ordinal()]),
+                    reported(metrics[row + ScreenMetric.PB_RATIO.ordinal()]),
+                    reported(metrics[row + ScreenMetric.RETURN_ON_EQUITY.ordinal()]),
+                    reported(metrics[row + ScreenMetric.DIVIDEND_YIELD.ordinal()])));
+        }
+        return result;
+    }
+
+    // Missing metrics are held as NaN and handed out as null again
+    private static Double reported(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    int changeCount() {
+        return changeDays.length;
+    }
+
+    int changeDay(int change) {
+        return changeDays[change];
+    }
+
+    int changeTicker(int change) {
+        return changeTickers[change];
+    }
+
+    int changeVersion(int change) {
+        return changeVersions[change];
+    }
+
+    // Row-major metrics of every version of a ticker
+    double[] versionValues(int tickerId) {
+        return values[tickerId];
+    }
+
+    /**
+     * @return Upper bound on the number of rows {@link #asOf(LocalDate, int[], double[])} writes
+     */
+    public int tickerCapacity() {
+        return epochDays.length;
+    }
+}
@@ -0,0 +1,133 @@
+package org.example.screening;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Screens a universe at a sequence of increasing dates, such as the rebalance dates of a
+ * backtest, without rebuilding the averages each time.
+ * <p>
+ * The per-sector and universe sums are kept between calls. Moving to a later date applies only
+ * the fundamentals versions published since the previous one: the superseded version's
+ * contribution is taken out and the new one's added. To stop rounding error from building up,
+ * the sums are rebuilt from the current versions once the number of updates since the last
+ * rebuild exceeds the number of tickers, which keeps the amortized cost per update constant.
+ */
+public class IncrementalScreen {
+    private final ScreeningEngine engine;
+    private final FundamentalsTimeline timeline;
+    private final int[] currentVersion; // Indexed by ticker id, -1 before the first version
+    private final double[] sectorSums;
+    private final long[] sectorCounts;
+    private final double[] universeSums;
+    private final long[] universeCounts;
+
+    private int cursor;
+    private int lastEpochDay = Integer.MIN_VALUE;
+    private int updatesSinceRebuild;
+
+    public IncrementalScreen(ScreeningEngine engine, FundamentalsTimeline timeline) {
+        int metricCount = ScreenMetric.count();
+        this.engine = engine;
+        this.timeline = timeline;
+        this.currentVersion = new int[timeline.tickerCapacity()];
+        Arrays.fill(currentVersion, -1);
+        this.sectorSums = new double[engine.sectors().sectorCount() * metricCount];
+        this.sectorCounts = new long[sectorSums.length];
+        this.universeSums = new double[metricCount];
+        this.universeCounts = new long[metricCount];
+    }
+
+    /**
+     * Screens the universe as known on {@code date}
+     *
+     * @param date Screening date, not earlier than the previous call's
+     * @return Ticker ids that pass, in ascending order
+     */
+    public int[] screenAsOf(LocalDate date) {
+        int epochDay = (int) date.toEpochDay();
+        if (epochDay < lastEpochDay) {
+            throw new IllegalArgumentException("Screening dates must not go backwards: " + date);
+        }
+        lastEpochDay = epochDay;
+        advanceTo(epochDay);
+
+        int metricCount = ScreenMetric.count();
+        double[] sectorAverages = averages(sectorSums, sectorCounts);
+        double[] universeAverages = averages(universeSums, universeCounts);
+        SectorIndex sectors = engine.sectors();
+
+        int[] selected = new int[currentVersion.length];
+        int count = 0;
+        for (int id = 0; id < currentVersion.length; id++) {
+            int version = currentVersion[id];
+            int sector = sectors.sectorOf(id);
+            if (version < 0 || sector == SectorIndex.UNKNOWN) {
+                continue;
+            }
+            if (engine.passes(sector, timeline.versionValues(id), version * metricCount, sectorAverages, universeAverages)) {
+                selected[count++] = id;
+            }
+        }
+        return Arrays.copyOf(selected, count);
+    }
+
+    private void advanceTo(int epochDay) {
+        int changes = timeline.changeCount();
+        while (cursor < changes && timeline.changeDay(cursor) <= epochDay) {
+            int tickerId = timeline.changeTicker(cursor);
+            if (currentVersion[tickerId] >= 0) {
+                contribute(tickerId, currentVersion[tickerId], -1);
+            }
+            currentVersion[tickerId] = timeline.changeVersion(cursor);
+            contribute(tickerId, currentVersion[tickerId], 1);
+            updatesSinceRebuild++;
+            cursor++;
+        }
+
+        if (updatesSinceRebuild > currentVersion.length) {
+            rebuild();
+        }
+    }
+
+    private void rebuild() {
+        Arrays.fill(sectorSums, 0.0);
+        Arrays.fill(sectorCounts, 0);
+        Arrays.fill(universeSums, 0.0);
+        Arrays.fill(universeCounts, 0);
+        for (int id = 0; id < currentVersion.length; id++) {
+            if (currentVersion[id] >= 0) {
+                contribute(id, currentVersion[id], 1);
+            }
+        }
+        updatesSinceRebuild = 0;
+    }
+
+    private void contribute(int tickerId, int version, int sign) {
+        int metricCount = ScreenMetric.count();
+        int sector = engine.sectors().sectorOf(tickerId);
+        double[] values = timeline.versionValues(tickerId);
+        int row = version * metricCount;
+        for (int m = 0; m < metricCount; m++) {
+            double value = values[row + m];
+            if (!ScreenMetric.of(m).counts(value)) {
+                continue;
+            }
+            universeSums[m] += sign * value;
+            universeCounts[m] += sign;
+            if (sector != SectorIndex.UNKNOWN) {
+                sectorSums[sector * metricCount + m] += sign * value;
+                sectorCounts[sector * metricCount + m] += sign;
+            }
+        }
+    }
+
+    // Groups without any value average to zero
+    private static double[] averages(double[] sums, long[] counts) {
+        double[] averages = new double[sums.length];
+        for (int i = 0; i < sums.length; i++) {
+            averages[i] = counts[i] > 0 ? sums[i] / counts[i] : 0.0;
+        }
+        return averages;
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.screening;
+
+/**
+ * One screening test: a metric compared with its sector or universe average, scaled by a
+ * threshold multiplier. {@code above(PE_RATIO, SECTOR_AVERAGE, 0.8)} passes stocks whose PE is
+ * more than 80% of their sector's average PE.
+ *
+ * @param metric     Metric to test
+ * @param comparison Direction of the comparison
+ * @param benchmark  Average the metric is compared with
+ * @param multiplier Factor applied to the average before comparing
+ */
+public record ScreenCriterion(ScreenMetric metric, Comparison comparison, Benchmark benchmark, double multiplier) {
+
+    public enum Comparison {
+        ABOVE,
+        BELOW
+    }
+
+    public enum Benchmark {
+        SECTOR_AVERAGE,
+        UNIVERSE_AVERAGE
+    }
+
+    public ScreenCriterion {
+        if (metric == null || comparison == null || benchmark == null) {
+            throw new IllegalArgumentException("Metric, comparison and benchmark are required");
+        }
+        if (!Double.isFinite(multiplier)) {
+            throw new IllegalArgumentException("Multiplier must be finite: " + multiplier);
+        }
+    }
+
+    public static ScreenCriterion above(ScreenMetric metric, Benchmark benchmark) {
+        return new ScreenCriterion(metric, Comparison.ABOVE, benchmark, 1.0);
+    }
+
+    public static ScreenCriterion below(ScreenMetric metric, Benchmark benchmark) {
+        return new ScreenCriterion(metric, Comparison.BELOW, benchmark, 1.0);
+    }
+
+    boolean passes(double value, double average) {
+        double threshold = average * multiplier;
+        return comparison == Comparison.ABOVE ? value > threshold : value < threshold;
+    }
+}
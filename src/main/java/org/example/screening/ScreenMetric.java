@@ -0,0 +1,54 @@
+package org.example.screening;
+
+import org.example.models.StockFundamentals;
+
+/**
+ * Fundamental metrics a screen can compare against their averages
+ */
+public enum ScreenMetric {
+    DIVIDEND_YIELD(false),
+    PE_RATIO(true),
+    PB_RATIO(true),
+    RETURN_ON_EQUITY(true);
+
+    private static final ScreenMetric[] VALUES = values();
+
+    // Whether zero and negative values are left out of the averages
+    private final boolean positiveOnly;
+
+    ScreenMetric(boolean positiveOnly) {
+        this.positiveOnly = positiveOnly;
+    }
+
+    public boolean positiveOnly() {
+        return positiveOnly;
+    }
+
+    /**
+     * @return The metric, or NaN if it was not reported
+     */
+    public double valueOf(StockFundamentals fundamentals) {
+        Double value = switch (this) {
+            case DIVIDEND_YIELD -> fundamentals.getDividendYieldOrNull();
+            case PE_RATIO -> fundamentals.getPeRatioOrNull();
+            case PB_RATIO -> fundamentals.getPbRatioOrNull();
+            case RETURN_ON_EQUITY -> fundamentals.getReturnOnEquityOrNull();
+        };
+        return value != null ? value : Double.NaN;
+    }
+
+    /**
+     * @return Whether a value of this metric takes part in the averages; missing (NaN) values never do
+     */
+    boolean counts(double value) {
+        return positiveOnly ? value > 0 : !Double.isNaN(value);
+    }
+
+    static int count() {
+        return VALUES.length;
+    }
+
+    static ScreenMetric of(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
@@ -0,0 +1,268 @@
+package org.example.screening;
+
+import org.example.models.StockFundamentals;
+import org.example.models.SymbolTable;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Screens a universe against sector and universe averages of its fundamentals.
+ * <p>
+ * Metrics are laid out as a primitive row-major block (one row per stock, one column per
+ * {@link ScreenMetric}). The averages are built in a single pass into flat per-sector sum and
+ * count arrays, and each stock is then tested against them with array reads only. Universes
+ * of {@link #PARALLEL_THRESHOLD} stocks or more are split into chunks: each chunk accumulates
+ * its own partial sums, which are then merged, and the test pass runs chunk-parallel too.
+ * <p>
+ * Stocks whose sector is unknown count towards universe averages but never pass the screen.
+ */
+public class ScreeningEngine {
+    public static final int PARALLEL_THRESHOLD = 10_000;
+    public static final int DEFAULT_MIN_CRITERIA_MET = 2;
+
+    // Rows per parallel task
+    private static final int CHUNK = 4096;
+
+    private final SectorIndex sectors;
+    private final ScreenCriterion[] criteria;
+    private final int minCriteriaMet;
+
+    /**
+     * @param sectors        Sector of each ticker
+     * @param criteria       Tests applied to every stock
+     * @param minCriteriaMet Number of criteria a stock must pass to be selected
+     */
+    public ScreeningEngine(SectorIndex sectors, List<ScreenCriterion> criteria, int minCriteriaMet) {
+        if (criteria.isEmpty()) {
+            throw new IllegalArgumentException("At least one criterion is required");
+        }
+        if (minCriteriaMet < 1 || minCriteriaMet > criteria.size()) {
+            throw new IllegalArgumentException("Minimum criteria met must be between 1 and " + criteria.size()
+                    + ": " + minCriteriaMet);
+        }
+        this.sectors = sectors;
+        this.criteria = criteria.toArray(new ScreenCriterion[0]);
+        this.minCriteriaMet = minCriteriaMet;
+    }
+
+    /**
+     * The value screen: higher dividend yield, lower PE and lower PB than the sector average,
+     * and higher ROE than the universe average; at least two of the four must hold.
+     */
+    public static ScreeningEngine sectorRelativeValue(SectorIndex sectors) {
+        return new ScreeningEngine(sectors, List.of(
+                ScreenCriterion.above(ScreenMetric.DIVIDEND_YIELD, ScreenCriterion.Benchmark.SECTOR_AVERAGE),
+                ScreenCriterion.below(ScreenMetric.PE_RATIO, ScreenCriterion.Benchmark.SECTOR_AVERAGE),
+                ScreenCriterion.below(ScreenMetric.PB_RATIO, ScreenCriterion.Benchmark.SECTOR_AVERAGE),
+                ScreenCriterion.above(ScreenMetric.RETURN_ON_EQUITY, ScreenCriterion.Benchmark.UNIVERSE_AVERAGE)
+        ), DEFAULT_MIN_CRITERIA_MET);
+    }
+
+    /**
+     * Screens a list of fundamentals
+     *
+     * @param universe Fundamentals of every candidate
+     * @return Candidates that pass, in their original order
+     */
+    public List<StockFundamentals> screen(List<StockFundamentals> universe) {
+        int size = universe.size();
+        int metricCount = ScreenMetric.count();
+        int[] tickerIds = new int[size];
+        double[] values = new double[size * metricCount];
+
+        SymbolTable symbols = SymbolTable.global();
+        for (int i = 0; i < size; i++) {
+            StockFundamentals stock = universe.get(i);
+            tickerIds[i] = symbols.idOf(stock.getTicker());
+            for (int m = 0; m < metricCount; m++) {
+                values[i * metricCount + m] = ScreenMetric.of(m).valueOf(stock);
+            }
+        }
+
+        boolean[] selected = evaluate(tickerIds, values);
+        List<StockFundamentals> result = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (selected[i]) {
+                result.add(universe.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Screens the universe as it was known on a past date
+     *
+     * @param timeline Point-in-time fundamentals
+     * @param date     Screening date; only versions published on or before it are used
+     * @return Ticker ids that pass, in ascending order
+     */
+    public int[] screenAsOf(FundamentalsTimeline timeline, LocalDate date) {
+        int capacity = timeline.tickerCapacity();
+        int metricCount = ScreenMetric.count();
+        int[] tickerIds = new int[capacity];
+        double[] values = new double[capacity * metricCount];
+        int rows = timeline.asOf(date, tickerIds, values);
+
+        int[] candidates = Arrays.copyOf(tickerIds, rows);
+        boolean[] selected = evaluate(candidates, Arrays.copyOf(values, rows * metricCount));
+        int count = 0;
+        for (int i = 0; i < rows; i++) {
+            if (selected[i]) {
+                candidates[count++] = candidates[i];
+            }
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+
+    /**
+     * Screens a primitive metric block
+     *
+     * @param tickerIds Ticker id of each row
+     * @param values    Row-major metrics, one column per {@link ScreenMetric} in ordinal order
+     * @return Whether each row passes the screen
+     */
+    public boolean[] evaluate(int[] tickerIds, double[] values) {
+        int size = tickerIds.length;
+        int metricCount = ScreenMetric.count();
+        if (values.length != size * metricCount) {
+            throw new IllegalArgumentException("Expected " + size * metricCount + " values, got " + values.length);
+        }
+
+        int[] sectorIds = new int[size];
+        for (int i = 0; i < size; i++) {
+            sectorIds[i] = sectors.sectorOf(tickerIds[i]);
+        }
+
+        boolean parallel = size >= PARALLEL_THRESHOLD;
+        int chunks = (size + CHUNK - 1) / CHUNK;
+        Averages totals = parallel
+                ? IntStream.range(0, chunks).parallel()
+                        .mapToObj(c -> accumulate(sectorIds, values, c * CHUNK, Math.min(size, (c + 1) * CHUNK)))
+                        .reduce(Averages::merge)
+                        .orElseGet(() -> new Averages(sectors.sectorCount(), metricCount))
+                : accumulate(sectorIds, values, 0, size);
+        double[] sectorAverages = totals.sectorAverages();
+        double[] universeAverages = totals.universeAverages();
+
+        boolean[] selected = new boolean[size];
+        if (parallel) {
+            IntStream.range(0, chunks).parallel().forEach(c -> test(sectorIds, values, sectorAverages, universeAverages,
+                    selected, c * CHUNK, Math.min(size, (c + 1) * CHUNK)));
+        } else {
+            test(sectorIds, values, sectorAverages, universeAverages, selected, 0, size);
+        }
+        return selected;
+    }
+
+    private Averages accumulate(int[] sectorIds, double[] values, int from, int to) {
+        int metricCount = ScreenMetric.count();
+        Averages averages = new Averages(sectors.sectorCount(), metricCount);
+        for (int i = from; i < to; i++) {
+            int sector = sectorIds[i];
+            int row = i * metricCount;
+            for (int m = 0; m < metricCount; m++) {
+                double value = values[row + m];
+                if (!ScreenMetric.of(m).counts(value)) {
+                    continue;
+                }
+                averages.universeSums[m] += value;
+                averages.universeCounts[m]++;
+                if (sector != SectorIndex.UNKNOWN) {
+                    averages.sectorSums[sector * metricCount + m] += value;
+                    averages.sectorCounts[sector * metricCount + m]++;
+                }
+            }
+        }
+        return averages;
+    }
+
+    private void test(int[] sectorIds, double[] values, double[] sectorAverages, double[] universeAverages,
+                      boolean[] selected, int from, int to) {
+        int metricCount = ScreenMetric.count();
+        for (int i = from; i < to; i++) {
+            int sector = sectorIds[i];
+            if (sector == SectorIndex.UNKNOWN) {
+                continue;
+            }
+            selected[i] = passes(sector, values, i * metricCount, sectorAverages, universeAverages);
+        }
+    }
+
+    /**
+     * Tests one stock against precomputed averages
+     *
+     * @param sector          Sector id of the stock, not {@link SectorIndex#UNKNOWN}
+     * @param values          Metric block holding the stock's row
+     * @param row             Offset of the stock's first metric in {@code values}
+     * @param sectorAverages  Averages flattened as {@code sector * metrics + metric}
+     * @param universeAverages Average per metric over the whole universe
+     */
+    boolean passes(int sector, double[] values, int row, double[] sectorAverages, double[] universeAverages) {
+        int metricCount = ScreenMetric.count();
+        int met = 0;
+        for (ScreenCriterion criterion : criteria) {
+            int m = criterion.metric().ordinal();
+            double average = criterion.benchmark() == ScreenCriterion.Benchmark.SECTOR_AVERAGE
+                    ? sectorAverages[sector * metricCount + m]
+                    : universeAverages[m];
+            if (criterion.passes(values[row + m], average)) {
+                met++;
+            }
+        }
+        return met >= minCriteriaMet;
+    }
+
+    SectorIndex sectors() {
+        return sectors;
+    }
+
+    /**
+     * Partial sums and counts per sector and metric, flattened as {@code sector * metrics + metric}
+     */
+    private static final class Averages {
+        final double[] sectorSums;
+        final long[] sectorCounts;
+        final double[] universeSums;
+        final long[] universeCounts;
+
+        Averages(int sectorCount, int metricCount) {
+            sectorSums = new double[sectorCount * metricCount];
+            sectorCounts = new long[sectorCount * metricCount];
+            universeSums = new double[metricCount];
+            universeCounts = new long[metricCount];
+        }
+
+        Averages merge(Averages other) {
+            for (int i = 0; i < sectorSums.length; i++) {
+                sectorSums[i] += other.sectorSums[i];
+                sectorCounts[i] += other.sectorCounts[i];
+            }
+            for (int i = 0; i < universeSums.length; i++) {
+                universeSums[i] += other.universeSums[i];
+                universeCounts[i] += other.universeCounts[i];
+            }
+            return this;
+        }
+
+        // Groups without any value average to zero
+        double[] sectorAverages() {
+            return averages(sectorSums, sectorCounts);
+        }
+
+        double[] universeAverages() {
+            return averages(universeSums, universeCounts);
+        }
+
+        private static double[] averages(double[] sums, long[] counts) {
+            double[] averages = new double[sums.length];
+            for (int i = 0; i < sums.length; i++) {
+                averages[i] = counts[i] > 0 ? sums[i] / counts[i] : 0.0;
+            }
+            return averages;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.screening;
+
+import org.example.datafetcher.SectorMapCreator;
+import org.example.models.SymbolTable;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable mapping from ticker id to a dense sector id.
+ * <p>
+ * Built once from a ticker-to-sector table and then shared; a lookup is a single array read,
+ * so screens run at every rebalance date never touch strings or the sector CSV again.
+ */
+public final class SectorIndex {
+    public static final int UNKNOWN = -1;
+
+    private final int[] sectorByTicker; // Indexed by ticker id, UNKNOWN where no sector is known
+    private final String[] sectorNames;
+
+    private SectorIndex(int[] sectorByTicker, String[] sectorNames) {
+        this.sectorByTicker = sectorByTicker;
+        this.sectorNames = sectorNames;
+    }
+
+    /**
+     * @return Index of the bundled S&amp;P 500 sector table, loaded on first use
+     */
+    public static SectorIndex standard() {
+        return StandardHolder.INSTANCE;
+    }
+
+    /**
+     * Builds an index from a ticker-to-sector table. Sector ids follow the sorted sector names,
+     * so the same table always yields the same ids.
+     *
+     * @param sectorMap Sector name per ticker
+     * @return Sector index
+     */
+    public static SectorIndex of(Map<String, String> sectorMap) {
+        Map<String, Integer> sectorIds = new TreeMap<>();
+        for (String sector : sectorMap.values()) {
+            sectorIds.put(sector, 0);
+        }
+        String[] names = sectorIds.keySet().toArray(new String[0]);
+        for (int i = 0; i < names.length; i++) {
+            sectorIds.put(names[i], i);
+        }
+
+        SymbolTable symbols = SymbolTable.global();
+        int[] ids = new int[sectorMap.size()];
+        int maxId = -1;
+        int i = 0;
+        for (String ticker : sectorMap.keySet()) {
+            ids[i] = symbols.idOf(ticker);
+            maxId = Math.max(maxId, ids[i]);
+            i++;
+        }
+
+        int[] sectorByTicker = new int[maxId + 1];
+        Arrays.fill(sectorByTicker, UNKNOWN);
+        i = 0;
+        for (String sector : sectorMap.values()) {
+            sectorByTicker[ids[i++]] = sectorIds.get(sector);
+        }
+        return new SectorIndex(sectorByTicker, names);
+    }
+
+    /**
+     * @param tickerId Ticker id from {@link SymbolTable}
+     * @return Sector id, or {@link #UNKNOWN}
+     */
+    public int sectorOf(int tickerId) {
+        return tickerId >= 0 && tickerId < sectorByTicker.length ? sectorByTicker[tickerId] : UNKNOWN;
+    }
+
+    public int sectorOf(String ticker) {
+        return sectorOf(SymbolTable.global().find(ticker));
+    }
+
+    public int sectorCount() {
+        return sectorNames.length;
+    }
+
+    public String sectorName(int sectorId) {
+        return sectorNames[sectorId];
+    }
+
+    private static final class StandardHolder {
+        private static final SectorIndex INSTANCE = of(SectorMapCreator.createSectorMap());
+    }
+}
@@ -0,0 +1,452 @@
+package org.example.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.example.batch.BatchJob;
+import org.example.batch.JobFile;
+import org.example.metrics.MetricsExporter;
+import org.example.metrics.MetricsRegistry;
+import org.example.models.AdjustmentFactors;
+import org.example.models.CorporateAction;
+import org.example.models.PriceSeries;
+import org.example.repository.CorporateActionRepository;
+import org.example.repository.LocalBarCache;
+import org.example.repository.MarketDataRepository;
+import org.example.timeseries.CompressedSeries;
+import org.example.utils.AppLogger;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * HTTP/JSON front end of a {@link BacktestService}, served on localhost:
+ * <pre>
+ * POST   /runs[?wait=true]    Submit a backtest: a job-file job plus optional "follow": true or
+ *                             "adjusted": true. 202 with the run, or 200 with the result when
+ *                             waiting; 429 when busy
+ * GET    /runs               All runs
+ * GET    /runs/{id}          One run with its latest result
+ * GET    /runs/{id}/progress Progress as JSON Lines, streamed until the run is no longer walking
+ * DELETE /runs/{id}          Cancel and forget a run
+ * POST   /bars               Append bars: {"ticker": ..., "bars": [{"timestamp", "open", "high", "low", "close", "volume"}]};
+ *                             prices must be finite and positive. Bars are persisted before runs see them
+ * POST   /actions            Record a split or dividend: {"ticker", "exDate", "split": ratio | "dividend": amount}
+ * GET    /universe           Resident tickers with their bar counts, ranges and compressed sizes
+ * GET    /metrics            Engine metrics in Prometheus text format
+ * </pre>
+ * Requests are handled on virtual threads, so a client following progress holds no platform thread.
+ * Finished runs are forgotten once more than the service's retention limit have finished.
+ */
+public class BacktestServer {
+    private static final AppLogger logger = new AppLogger(BacktestServer.class);
+    private static final long PROGRESS_INTERVAL_MILLIS = 100;
+    private static final long WAIT_TIMEOUT_SECONDS = 300;
+
+    private final BacktestService service;
+    private final Consumer<PriceSeries> barSink;
+    private final Consumer<CorporateAction> actionSink;
+    private final HttpServer server;
+    private final ExecutorService handlers = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * @param service Service to expose
+     * @param barSink Persists bars accepted by {@code POST /bars}, or null to keep them in memory only
+     * @param port    Local port, or 0 for any free port
+     * @throws IOException If the port cannot be bound
+     */
+    public BacktestServer(BacktestService service, Consumer<PriceSeries> barSink, int port) throws IOException {
+        this(service, barSink, null, port);
+    }
+
+    /**
+     * @param service    Service to expose
+     * @param barSink    Persists bars accepted by {@code POST /bars}, or null to keep them in memory only
+     * @param actionSink Persists actions recorded by {@code POST /actions}, or null to keep them in memory only
+     * @param port       Local port, or 0 for any free port
+     * @throws IOException If the port cannot be bound
+     */
+    public BacktestServer(BacktestService service, Consumer<PriceSeries> barSink, Consumer<CorporateAction> actionSink,
+                          int port) throws IOException {
+        this.service = service;
+        this.barSink = barSink;
+        this.actionSink = actionSink;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.setExecutor(handlers);
+        server.createContext("/runs", exchange -> handle(exchange, this::runs));
+        server.createContext("/bars", exchange -> handle(exchange, this::bars));
+        server.createContext("/actions", exchange -> handle(exchange, this::actions));
+        server.createContext("/universe", exchange -> handle(exchange, this::universe));
+        server.createContext("/metrics", exchange -> handle(exchange, e -> {
+            byte[] body = MetricsExporter.render(MetricsRegistry.global().snapshot()).getBytes(StandardCharsets.UTF_8);
+            e.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+            e.sendResponseHeaders(200, body.length);
+            e.getResponseBody().write(body);
+        }));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(0);
+        handlers.shutdownNow();
+    }
+
+    /**
+     * Serves the market data of a local bar cache, or of the database when no cache is given.
+     * <pre>
+     * BacktestServer [--port N] [--cache DIR] [--max-running N] [--max-queued N] [--max-retained N]
+     * </pre>
+     * Bars appended and actions recorded through the API are written back to the same source.
+     */
+    public static void main(String[] args) {
+        int port = 8080;
+        Path cacheDirectory = null;
+        int maxRunning = BacktestService.DEFAULT_MAX_RUNNING;
+        int maxQueued = BacktestService.DEFAULT_MAX_QUEUED;
+        int maxRetained = BacktestService.DEFAULT_MAX_RETAINED;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--port" -> port = Integer.parseInt(args[++i]);
+                    case "--cache" -> cacheDirectory = Path.of(args[++i]);
+                    case "--max-running" -> maxRunning = Integer.parseInt(args[++i]);
+                    case "--max-queued" -> maxQueued = Integer.parseInt(args[++i]);
+                    case "--max-retained" -> maxRetained = Integer.parseInt(args[++i]);
+                    default -> {
+                        System.out.println("Usage: BacktestServer [--port N] [--cache DIR] [--max-running N] [--max-queued N] "
+                                + "[--max-retained N]");
+                        return;
+                    }
+                }
+            }
+
+            long loadStart = System.nanoTime();
+            MarketDataStore store;
+            Consumer<PriceSeries> barSink;
+            Consumer<CorporateAction> actionSink;
+            MarketDataRepository repository = null;
+            CorporateActionRepository actionRepository = null;
+            if (cacheDirectory != null) {
+                LocalBarCache cache = new LocalBarCache(cacheDirectory);
+                store = MarketDataStore.load(cache);
+                // Runs before the store takes the bars, so the file is rewritten with them added
+                barSink = accepted -> {
+                    try {
+                        CompressedSeries current = store.get(accepted.getTicker());
+                        cache.write(current != null ? current.append(accepted).toPriceSeries() : accepted);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                };
+                actionSink = action -> {
+                    try {
+                        cache.writeActions(store.factors(action.getTicker()));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                };
+            } else {
+                repository = new MarketDataRepository();
+                actionRepository = new CorporateActionRepository();
+                store = MarketDataStore.load(repository);
+                actionRepository.loadFactors().values().forEach(store::putFactors);
+                barSink = repository::replaceSeries;
+                actionSink = actionRepository::save;
+            }
+            logger.info(String.format("Loaded %d tickers, %d bars in %d ms, %.1f MB resident", store.tickers().size(),
+                    store.barCount(), (System.nanoTime() - loadStart) / 1_000_000, store.memoryBytes() / 1e6));
+
+            BacktestService service = new BacktestService(store, maxRunning, maxQueued, maxRetained);
+            BacktestServer server = new BacktestServer(service, barSink, actionSink, port);
+            MarketDataRepository openRepository = repository;
+            CorporateActionRepository openActionRepository = actionRepository;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.stop();
+                service.close();
+                if (openRepository != null) {
+                    openRepository.close();
+                }
+                if (openActionRepository != null) {
+                    openActionRepository.close();
+                }
+            }));
+            server.start();
+            logger.info("Serving backtests on http://localhost:" + server.getPort());
+        } catch (IOException | RuntimeException e) {
+            logger.error("Backtest server failed to start", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    // Maps request errors to status codes; every exchange is closed here
+    private static void handle(HttpExchange exchange, Handler handler) {
+        try (exchange) {
+            try {
+                handler.handle(exchange);
+            } catch (IllegalArgumentException | JSONException | DateTimeParseException e) {
+                sendError(exchange, 400, e.getMessage());
+            } catch (RejectedExecutionException e) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                sendError(exchange, 429, e.getMessage());
+            } catch (RuntimeException e) {
+                logger.error("Request " + exchange.getRequestURI() + " failed", e);
+                sendError(exchange, 500, String.valueOf(e));
+            }
+        } catch (IOException e) {
+            logger.warn("Client went away: " + e.getMessage());
+        }
+    }
+
+    private void runs(HttpExchange exchange) throws IOException {
+        String[] path = exchange.getRequestURI().getPath().replaceAll("/+$", "").split("/");
+        String method = exchange.getRequestMethod();
+        if (path.length == 2) {
+            if (method.equals("POST")) {
+                submit(exchange);
+            } else if (method.equals("GET")) {
+                JSONArray runs = new JSONArray();
+                for (ServiceRun run : service.runs()) {
+                    runs.put(run.toJson());
+                }
+                send(exchange, 200, runs.toString());
+            } else {
+                sendError(exchange, 405, method + " not allowed");
+            }
+            return;
+        }
+
+        ServiceRun run = service.get(path[2]);
+        if (run == null) {
+            sendError(exchange, 404, "No run " + path[2]);
+        } else if (path.length == 3 && method.equals("GET")) {
+            send(exchange, 200, run.toJson().toString());
+        } else if (path.length == 3 && method.equals("DELETE")) {
+            service.cancel(run.getId());
+            send(exchange, 200, run.toJson().toString());
+        } else if (path.length == 4 && path[3].equals("progress") && method.equals("GET")) {
+            streamProgress(exchange, run);
+        } else {
+            sendError(exchange, 404, "No resource " + exchange.getRequestURI().getPath());
+        }
+    }
+
+    private void submit(HttpExchange exchange) throws IOException {
+        JSONObject request = new JSONObject(readBody(exchange));
+        BatchJob job = JobFile.parseJob(request, new JSONObject(), service.newRunId());
+        ServiceRun run = service.submit(job, request.optBoolean("follow", false), request.optBoolean("adjusted", false));
+
+        if ("true".equals(queryParameters(exchange.getRequestURI().getRawQuery()).get("wait"))) {
+            try {
+                run.awaitFirstPass(WAIT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            send(exchange, 200, run.toJson().toString());
+        } else {
+            exchange.getResponseHeaders().set("Location", "/runs/" + run.getId());
+            send(exchange, 202, run.toJson().toString());
+        }
+    }
+
+    // Sends a line whenever progress changes, then the full run once it stops walking
+    private static void streamProgress(HttpExchange exchange, ServiceRun run) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        String last = null;
+        while (!run.getState().isFinished()) {
+            String line = run.progressJson().toString();
+            if (!line.equals(last)) {
+                out.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                last = line;
+            }
+            try {
+                Thread.sleep(PROGRESS_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        out.write((run.toJson() + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void bars(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("POST")) {
+            sendError(exchange, 405, exchange.getRequestMethod() + " not allowed");
+            return;
+        }
+        JSONObject request = new JSONObject(readBody(exchange));
+        String ticker = request.getString("ticker");
+        JSONArray array = request.getJSONArray("bars");
+
+        // Clients may send bars in any order
+        record Row(long timestamp, JSONObject values) {
+        }
+        List<Row> rows = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject values = array.getJSONObject(i);
+            rows.add(new Row(PriceSeries.toEpochSeconds(parseTimestamp(values.getString("timestamp"))), values));
+        }
+        rows.sort(Comparator.comparingLong(Row::timestamp));
+
+        PriceSeries.Builder builder = new PriceSeries.Builder(ticker, rows.size());
+        for (Row row : rows) {
+            JSONObject values = row.values();
+            builder.add(row.timestamp(), price(values, "open"), price(values, "high"), price(values, "low"),
+                    price(values, "close"), values.optLong("volume", 0));
+        }
+
+        PriceSeries accepted = service.appendBars(builder.build(), barSink);
+        JSONObject response = new JSONObject();
+        response.put("ticker", ticker);
+        response.put("received", rows.size());
+        response.put("appended", accepted.size());
+        response.put("bars", service.getStore().get(ticker).size());
+        send(exchange, 200, response.toString());
+    }
+
+    private void actions(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("POST")) {
+            sendError(exchange, 405, exchange.getRequestMethod() + " not allowed");
+            return;
+        }
+        JSONObject request = new JSONObject(readBody(exchange));
+        String ticker = request.getString("ticker");
+        LocalDate exDate = LocalDate.parse(request.getString("exDate"));
+
+        CorporateAction action;
+        if (request.has("split")) {
+            action = CorporateAction.split(ticker, exDate, request.getDouble("split"));
+        } else if (request.has("dividend")) {
+            // The factor is fixed against the close the dividend was paid from
+            double previousClose = service.getStore().closeBefore(ticker, exDate);
+            if (Double.isNaN(previousClose)) {
+                throw new IllegalArgumentException("No bar of " + ticker + " before " + exDate);
+            }
+            action = CorporateAction.dividend(ticker, exDate, request.getDouble("dividend"), previousClose);
+        } else {
+            throw new IllegalArgumentException("Expected \"split\" or \"dividend\"");
+        }
+
+        AdjustmentFactors factors = service.recordAction(action);
+        if (actionSink != null) {
+            actionSink.accept(action);
+        }
+        JSONObject response = new JSONObject();
+        response.put("ticker", ticker);
+        response.put("exDate", exDate.toString());
+        response.put("type", action.getType().name());
+        response.put("priceFactor", action.getPriceFactor());
+        response.put("actions", factors.actions().size());
+        send(exchange, 200, response.toString());
+    }
+
+    private void universe(HttpExchange exchange) throws IOException {
+        MarketDataStore store = service.getStore();
+        JSONArray tickers = new JSONArray();
+        for (String ticker : store.tickers()) {
+            CompressedSeries series = store.get(ticker);
+            JSONObject entry = new JSONObject();
+            entry.put("ticker", ticker);
+            entry.put("bars", series.size());
+            entry.put("bytes", series.memoryBytes());
+            if (series.size() > 0) {
+                entry.put("first", PriceSeries.toLocalDateTime(series.firstTimestamp()).toString());
+                entry.put("last", PriceSeries.toLocalDateTime(series.lastTimestamp()).toString());
+            }
+            tickers.put(entry);
+        }
+        send(exchange, 200, tickers.toString());
+    }
+
+    private static double price(JSONObject bar, String field) {
+        double value = bar.getDouble(field);
+        if (!Double.isFinite(value) || value <= 0) {
+            throw new IllegalArgumentException("Bar at " + bar.optString("timestamp") + " has " + field + " " + value
+                    + "; prices must be finite and positive");
+        }
+        return value;
+    }
+
+    /**
+     * @param rawQuery Query string of a request URI, still encoded, or null
+     * @return Decoded parameter names to values; a name without a value maps to an empty string,
+     * and a repeated name keeps its first value
+     */
+    static Map<String, String> queryParameters(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : rawQuery.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int equals = pair.indexOf('=');
+            String name = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), StandardCharsets.UTF_8);
+            String value = equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+            parameters.putIfAbsent(name, value);
+        }
+        return parameters;
+    }
+
+    // Accepts dates, ISO date-times and the "yyyy-MM-dd HH:mm:ss" form used by the CSV exports
+    private static LocalDateTime parseTimestamp(String value) {
+        if (value.length() == 10) {
+            return LocalDate.parse(value).atStartOfDay();
+        }
+        return LocalDateTime.parse(value.replace(' ', 'T'));
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        JSONObject error = new JSONObject();
+        error.put("error", message != null ? message : "Request failed");
+        send(exchange, status, error.toString());
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+}
@@ -0,0 +1,360 @@
+package org.example.service;
+
+import org.example.backtest.BacktestResult;
+import org.example.backtest.IncrementalBacktest;
+import org.example.batch.BatchJob;
+import org.example.models.AdjustmentFactors;
+import org.example.models.CorporateAction;
+import org.example.models.MarketDataPoint;
+import org.example.models.PriceSeries;
+import org.example.strategy.Strategy;
+import org.example.strategy.StrategyFactory;
+import org.example.utils.AppLogger;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs backtests against a resident {@link MarketDataStore}.
+ * <p>
+ * Every run gets its own virtual thread, and a semaphore bounds how many walk bars at once.
+ * Admission is bounded as well: once the running and queued runs reach the limit, new
+ * submissions are rejected instead of queueing without end. Following runs keep their state
+ * after the first pass, and bars later appended to the store are walked on top of it.
+ * <p>
+ * Runs that do not follow are kept after they finish so their results can be fetched, up to a
+ * retention limit; beyond it the oldest finished runs are forgotten. Following runs are kept
+ * until they are cancelled.
+ */
+public class BacktestService implements AutoCloseable {
+    public static final int DEFAULT_MAX_RUNNING = Runtime.getRuntime().availableProcessors();
+    public static final int DEFAULT_MAX_QUEUED = 64;
+    public static final int DEFAULT_MAX_RETAINED = 1_000;
+
+    private static final AppLogger logger = new AppLogger(BacktestService.class);
+
+    private final MarketDataStore store;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore runningSlots;
+    private final int maxAdmitted;
+    private final AtomicInteger admitted = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong runIds = new AtomicLong();
+    private final Map<String, ServiceRun> runs = new ConcurrentHashMap<>();
+    private final int maxRetained;
+    // Finished runs that do not follow, oldest first
+    private final ArrayDeque<ServiceRun> retained = new ArrayDeque<>();
+
+    public BacktestService(MarketDataStore store) {
+        this(store, DEFAULT_MAX_RUNNING, DEFAULT_MAX_QUEUED);
+    }
+
+    /**
+     * @param store      Resident market data
+     * @param maxRunning Runs walking bars at the same time
+     * @param maxQueued  Admitted runs waiting for a slot before submissions are rejected
+     */
+    public BacktestService(MarketDataStore store, int maxRunning, int maxQueued) {
+        this(store, maxRunning, maxQueued, DEFAULT_MAX_RETAINED);
+    }
+
+    /**
+     * @param store       Resident market data
+     * @param maxRunning  Runs walking bars at the same time
+     * @param maxQueued   Admitted runs waiting for a slot before submissions are rejected
+     * @param maxRetained Finished runs kept for their results before the oldest are forgotten
+     */
+    public BacktestService(MarketDataStore store, int maxRunning, int maxQueued, int maxRetained) {
+        if (maxRunning < 1 || maxQueued < 0) {
+            throw new IllegalArgumentException("Need at least one running slot and a non-negative queue");
+        }
+        if (maxRetained < 0) {
+            throw new IllegalArgumentException("Retention limit must not be negative: " + maxRetained);
+        }
+        this.store = store;
+        this.runningSlots = new Semaphore(maxRunning, true);
+        this.maxAdmitted = maxRunning + maxQueued;
+        this.maxRetained = maxRetained;
+    }
+
+    public MarketDataStore getStore() {
+        return store;
+    }
+
+    /**
+     * @return A fresh id for a run the client did not name
+     */
+    public String newRunId() {
+        return "run-" + runIds.incrementAndGet();
+    }
+
+    /**
+     * Admits a backtest and schedules it
+     *
+     * @param job    Backtest to run; its id identifies the run
+     * @param follow Whether bars appended later are walked into the result
+     * @return The admitted run
+     * @throws IllegalArgumentException   If the strategy parameters are invalid or the id is in use
+     * @throws RejectedExecutionException If the service is at its admission limit
+     */
+    public ServiceRun submit(BatchJob job, boolean follow) {
+        return submit(job, follow, false);
+    }
+
+    /**
+     * Admits a backtest and schedules it
+     *
+     * @param job      Backtest to run; its id identifies the run
+     * @param follow   Whether bars appended later are walked into the result
+     * @param adjusted Whether the run walks bars adjusted for splits and dividends
+     * @return The admitted run
+     * @throws IllegalArgumentException   If the strategy parameters are invalid, the id is in use or
+     *                                    an adjusted run is asked to follow
+     * @throws RejectedExecutionException If the service is at its admission limit
+     */
+    public ServiceRun submit(BatchJob job, boolean follow, boolean adjusted) {
+        if (follow && adjusted) {
+            // A later action rescales the history the run has already walked
+            throw new IllegalArgumentException("Adjusted runs cannot follow appended bars");
+        }
+        // Fail fast on bad parameters rather than in the run
+        StrategyFactory.createStrategy(job.strategy(), job.parameters());
+
+        if (admitted.incrementAndGet() > maxAdmitted) {
+            admitted.decrementAndGet();
+            throw new RejectedExecutionException("Service is busy: " + maxAdmitted + " runs already admitted");
+        }
+        ServiceRun run = new ServiceRun(job, follow, adjusted, sequence.incrementAndGet());
+        if (runs.putIfAbsent(job.id(), run) != null) {
+            admitted.decrementAndGet();
+            throw new IllegalArgumentException("Run id already in use: " + job.id());
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    withSlot(() -> firstPass(run));
+                } finally {
+                    admitted.decrementAndGet();
+                    if (!run.isFollowing()) {
+                        retain(run);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            runs.remove(job.id());
+            admitted.decrementAndGet();
+            throw e;
+        }
+        return run;
+    }
+
+    public ServiceRun get(String id) {
+        return runs.get(id);
+    }
+
+    /**
+     * @return All known runs in submission order
+     */
+    public List<ServiceRun> runs() {
+        return runs.values().stream().sorted(Comparator.comparingLong(ServiceRun::getSequence)).toList();
+    }
+
+    /**
+     * Cancels a run and forgets it
+     *
+     * @return Whether the run existed
+     */
+    public boolean cancel(String id) {
+        ServiceRun run = runs.remove(id);
+        if (run == null) {
+            return false;
+        }
+        run.cancel();
+        synchronized (retained) {
+            retained.remove(run);
+        }
+        return true;
+    }
+
+    /**
+     * Appends bars to the store and schedules an update of every following run over the ticker
+     *
+     * @param bars Bars of one ticker in ascending timestamp order
+     * @return The bars that were new to the store
+     */
+    public PriceSeries appendBars(PriceSeries bars) {
+        return appendBars(bars, null);
+    }
+
+    /**
+     * Persists bars, then appends them to the store and schedules an update of every following
+     * run over the ticker. Bars that fail to persist are not appended.
+     *
+     * @param bars    Bars of one ticker in ascending timestamp order
+     * @param persist Writes the bars new to the store before they are appended, or null
+     * @return The bars that were new to the store
+     */
+    public PriceSeries appendBars(PriceSeries bars, Consumer<PriceSeries> persist) {
+        PriceSeries accepted = store.append(bars, persist);
+        if (accepted.size() == 0) {
+            return accepted;
+        }
+        for (ServiceRun run : runs.values()) {
+            if (run.isFollowing() && run.getJob().tickers().contains(bars.getTicker())) {
+                scheduleUpdate(run);
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Records a corporate action; runs submitted afterwards with adjustment see it
+     *
+     * @return The ticker's updated adjustment
+     */
+    public AdjustmentFactors recordAction(CorporateAction action) {
+        return store.addAction(action);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    // Keeps a finished run for its result, forgetting the oldest beyond the retention limit
+    private void retain(ServiceRun run) {
+        synchronized (retained) {
+            if (runs.get(run.getId()) != run) {
+                return; // Cancelled
+            }
+            retained.addLast(run);
+            while (retained.size() > maxRetained) {
+                ServiceRun oldest = retained.removeFirst();
+                runs.remove(oldest.getId(), oldest);
+            }
+        }
+    }
+
+    // Updates coalesce: a run with an update pending picks up every bar appended before it starts
+    private void scheduleUpdate(ServiceRun run) {
+        if (run.updatePending.compareAndSet(false, true)) {
+            executor.execute(() -> withSlot(() -> update(run)));
+        }
+    }
+
+    private void withSlot(Runnable task) {
+        try {
+            runningSlots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            task.run();
+        } finally {
+            runningSlots.release();
+        }
+    }
+
+    private void firstPass(ServiceRun run) {
+        run.walkLock.lock();
+        try {
+            walkFromStart(run);
+        } finally {
+            run.walkLock.unlock();
+        }
+    }
+
+    private void walkFromStart(ServiceRun run) {
+        if (run.isCancelled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        BatchJob job = run.getJob();
+        try {
+            Map<String, List<MarketDataPoint>> marketData = new LinkedHashMap<>();
+            for (String ticker : job.tickers()) {
+                marketData.put(ticker, store.bars(ticker, job.start(), job.end(), run.isAdjusted()));
+            }
+            IncrementalBacktest backtest = new IncrementalBacktest(job.capital(), strategyFactory(job), marketData);
+            run.started(backtest.getTotalSteps());
+            backtest.advance(run::onStep);
+            finish(run, backtest, start);
+        } catch (CancellationException e) {
+            // The run has already been marked and forgotten
+        } catch (RuntimeException e) {
+            logger.error("Run " + job.id() + " failed", e);
+            run.failed(String.valueOf(e));
+        }
+    }
+
+    private void update(ServiceRun run) {
+        run.walkLock.lock();
+        try {
+            run.updatePending.set(false);
+            if (run.isCancelled()) {
+                return;
+            }
+            if (run.getBacktest() == null) {
+                // Before the first pass it will read these bars itself; after one that found nothing
+                // to walk, or failed, the run starts over with the bars now in the store
+                if (run.isFirstPassDone()) {
+                    walkFromStart(run);
+                }
+                return;
+            }
+            walkAppended(run);
+        } finally {
+            run.walkLock.unlock();
+        }
+    }
+
+    private void walkAppended(ServiceRun run) {
+        IncrementalBacktest backtest = run.getBacktest();
+        long start = System.nanoTime();
+        BatchJob job = run.getJob();
+        try {
+            for (String ticker : job.tickers()) {
+                LocalDateTime last = backtest.lastTimestamp(ticker);
+                backtest.append(ticker, last != null
+                        ? store.barsAfter(ticker, last, job.end())
+                        : store.bars(ticker, job.start(), job.end()));
+            }
+            run.started(backtest.getTotalSteps());
+            backtest.advance(run::onStep);
+            finish(run, backtest, start);
+        } catch (CancellationException e) {
+            // The run has already been marked and forgotten
+        } catch (RuntimeException e) {
+            logger.error("Update of run " + job.id() + " failed", e);
+            run.failed(String.valueOf(e));
+        }
+    }
+
+    private static void finish(ServiceRun run, IncrementalBacktest backtest, long startNanos) {
+        BacktestResult result = backtest.result();
+        if (result == null) {
+            run.failed("No bars for the requested tickers and dates");
+            return;
+        }
+        run.completed(backtest, result, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    private static Supplier<Strategy> strategyFactory(BatchJob job) {
+        return () -> StrategyFactory.createStrategy(job.strategy(), job.parameters());
+    }
+}
@@ -0,0 +1,225 @@
+package org.example.service;
+
+import org.example.models.AdjustmentFactors;
+import org.example.models.CorporateAction;
+import org.example.models.MarketDataPoint;
+import org.example.models.PriceSeries;
+import org.example.repository.LocalBarCache;
+import org.example.repository.MarketDataRepository;
+import org.example.timeseries.CompressedSeries;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Universe of bars kept resident in memory as {@link CompressedSeries}, one per ticker, so
+ * intraday history of a large universe fits in the heap.
+ * <p>
+ * Series are immutable; appending bars swaps in a longer series, so readers never need a lock
+ * and always see a consistent prefix. Only the blocks covering the range a backtest actually
+ * walks are decoded, and entity bars are only materialized for that range.
+ * <p>
+ * Bars are held as traded. Split and dividend adjustment is kept per ticker as
+ * {@link AdjustmentFactors} and applied while bars are materialized, so both views come from
+ * the same resident bars and a new action only swaps in a new factor vector.
+ */
+public class MarketDataStore {
+    private final ConcurrentHashMap<String, CompressedSeries> series = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AdjustmentFactors> factors = new ConcurrentHashMap<>();
+
+    /**
+     * Loads every ticker in the database, streaming rows straight into compressed blocks
+     */
+    public static MarketDataStore load(MarketDataRepository repository) {
+        MarketDataStore store = new MarketDataStore();
+        for (String ticker : repository.findTickers()) {
+            CompressedSeries.Builder builder = new CompressedSeries.Builder(ticker);
+            repository.streamByTicker(ticker, builder::add);
+            store.put(builder.build());
+        }
+        return store;
+    }
+
+    /**
+     * Loads every ticker in a local bar cache, with its recorded corporate actions
+     */
+    public static MarketDataStore load(LocalBarCache cache) throws IOException {
+        MarketDataStore store = new MarketDataStore();
+        for (String ticker : cache.tickers()) {
+            store.put(cache.read(ticker));
+            List<CorporateAction> actions = cache.readActions(ticker);
+            if (!actions.isEmpty()) {
+                store.putFactors(AdjustmentFactors.of(ticker, actions));
+            }
+        }
+        return store;
+    }
+
+    public void put(PriceSeries bars) {
+        put(CompressedSeries.encode(bars));
+    }
+
+    public void put(CompressedSeries bars) {
+        series.put(bars.getTicker(), bars);
+    }
+
+    /**
+     * @return The ticker's bars, or null if the ticker is unknown
+     */
+    public CompressedSeries get(String ticker) {
+        return series.get(ticker);
+    }
+
+    public void putFactors(AdjustmentFactors adjustment) {
+        factors.put(adjustment.getTicker(), adjustment);
+    }
+
+    /**
+     * @return The ticker's adjustment; empty if it has no recorded actions
+     */
+    public AdjustmentFactors factors(String ticker) {
+        AdjustmentFactors adjustment = factors.get(ticker);
+        return adjustment != null ? adjustment : AdjustmentFactors.none(ticker);
+    }
+
+    /**
+     * Records a corporate action; no bars are touched
+     *
+     * @return The ticker's updated adjustment
+     */
+    public AdjustmentFactors addAction(CorporateAction action) {
+        return factors.compute(action.getTicker(),
+                (ticker, current) -> (current != null ? current : AdjustmentFactors.none(ticker)).with(action));
+    }
+
+    /**
+     * @return Unadjusted close of the ticker's last bar before the date, or NaN if there is none
+     */
+    public double closeBefore(String ticker, LocalDate date) {
+        CompressedSeries bars = series.get(ticker);
+        long before = PriceSeries.toEpochSeconds(date.atStartOfDay()) - 1;
+        int block = bars != null ? bars.blockOf(before) : -1;
+        if (block < 0) {
+            return Double.NaN;
+        }
+        // The block starts at or before the time, so its last bar at or before it is the one wanted
+        double[] close = {Double.NaN};
+        bars.decodeBlock(block, (timestamp, o, h, l, c, v) -> {
+            if (timestamp <= before) {
+                close[0] = c;
+            }
+        });
+        return close[0];
+    }
+
+    public List<String> tickers() {
+        return series.keySet().stream().sorted().toList();
+    }
+
+    public long barCount() {
+        return series.values().stream().mapToLong(CompressedSeries::size).sum();
+    }
+
+    /**
+     * @return Approximate heap footprint of the resident bars
+     */
+    public long memoryBytes() {
+        return series.values().stream().mapToLong(CompressedSeries::memoryBytes).sum();
+    }
+
+    /**
+     * Appends bars to a ticker. Bars at or before the ticker's last stored bar are dropped, so
+     * re-sending an overlapping batch is harmless.
+     *
+     * @param bars Bars in ascending timestamp order
+     * @return The bars that were appended
+     */
+    public PriceSeries append(PriceSeries bars) {
+        return append(bars, null);
+    }
+
+    /**
+     * Appends bars to a ticker, persisting them first. The new bars are handed to {@code persist}
+     * before the store takes them, while other appends to the ticker wait; if it throws, the
+     * store is left unchanged and the exception is passed on.
+     *
+     * @param bars    Bars in ascending timestamp order
+     * @param persist Writes the bars that are about to be appended, or null to keep them in memory only
+     * @return The bars that were appended
+     */
+    public PriceSeries append(PriceSeries bars, Consumer<PriceSeries> persist) {
+        PriceSeries[] accepted = new PriceSeries[1];
+        series.compute(bars.getTicker(), (ticker, current) -> {
+            long last = current != null && current.size() > 0 ? current.lastTimestamp() : Long.MIN_VALUE;
+            PriceSeries.Builder newer = new PriceSeries.Builder(ticker, bars.size());
+            for (int i = 0; i < bars.size(); i++) {
+                if (bars.timestampAt(i) > last) {
+                    last = bars.timestampAt(i);
+                    newer.add(last, bars.openAt(i), bars.highAt(i), bars.lowAt(i), bars.closeAt(i), bars.volumeAt(i));
+                }
+            }
+            accepted[0] = newer.build();
+            if (persist != null && accepted[0].size() > 0) {
+                persist.accept(accepted[0]);
+            }
+            if (current == null) {
+                return CompressedSeries.encode(accepted[0]);
+            }
+            return accepted[0].size() > 0 ? current.append(accepted[0]) : current;
+        });
+        return accepted[0];
+    }
+
+    /**
+     * Materializes a ticker's bars over a date range
+     *
+     * @param ticker The ticker
+     * @param start  First date included, or null for all history
+     * @param end    Last date included, or null for all history
+     * @return Bars in timestamp order, in a list the caller may modify; empty for unknown tickers
+     */
+    public List<MarketDataPoint> bars(String ticker, LocalDate start, LocalDate end) {
+        return bars(ticker, start, end, false);
+    }
+
+    /**
+     * Materializes a ticker's bars over a date range
+     *
+     * @param ticker   The ticker
+     * @param start    First date included, or null for all history
+     * @param end      Last date included, or null for all history
+     * @param adjusted Whether prices and volumes are adjusted for the ticker's splits and dividends
+     * @return Bars in timestamp order, in a list the caller may modify; empty for unknown tickers
+     */
+    public List<MarketDataPoint> bars(String ticker, LocalDate start, LocalDate end, boolean adjusted) {
+        long from = start != null ? PriceSeries.toEpochSeconds(start.atStartOfDay()) : Long.MIN_VALUE;
+        return slice(series.get(ticker), from, end, adjusted ? factors.get(ticker) : null);
+    }
+
+    /**
+     * Materializes a ticker's bars strictly after a timestamp
+     *
+     * @param ticker The ticker
+     * @param after  Bars at or before this time are skipped
+     * @param end    Last date included, or null for all history
+     * @return Bars in timestamp order, in a list the caller may modify; empty for unknown tickers
+     */
+    public List<MarketDataPoint> barsAfter(String ticker, LocalDateTime after, LocalDate end) {
+        return slice(series.get(ticker), PriceSeries.toEpochSeconds(after) + 1, end, null);
+    }
+
+    private static List<MarketDataPoint> slice(CompressedSeries bars, long from, LocalDate end,
+                                               AdjustmentFactors adjustment) {
+        if (bars == null) {
+            return new ArrayList<>();
+        }
+        long to = end != null ? PriceSeries.toEpochSeconds(end.plusDays(1).atStartOfDay()) - 1 : Long.MAX_VALUE;
+        PriceSeries range = bars.toPriceSeries(from, to);
+        return range.toDataPoints(0, range.size(), adjustment);
+    }
+}
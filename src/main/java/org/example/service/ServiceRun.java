@@ -0,0 +1,198 @@
+package org.example.service;
+
+import org.example.backtest.BacktestResult;
+import org.example.backtest.IncrementalBacktest;
+import org.example.batch.BatchJob;
+import org.example.batch.JobOutcome;
+import org.json.JSONObject;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A backtest submitted to the {@link BacktestService}: its request, progress and latest result.
+ * <p>
+ * Progress fields are volatile so that pollers read them without locking while the run walks.
+ */
+public class ServiceRun {
+    public enum State {
+        QUEUED,     // Admitted, waiting for a free slot
+        RUNNING,    // Walking bars, either the first pass or bars appended later
+        COMPLETED,  // Result available; following runs return here after each update
+        FAILED,
+        CANCELLED;
+
+        public boolean isFinished() {
+            return this != QUEUED && this != RUNNING;
+        }
+    }
+
+    private final BatchJob job;
+    private final boolean follow;
+    private final boolean adjusted;
+    private final long sequence;
+    private final CountDownLatch firstPass = new CountDownLatch(1);
+    final AtomicBoolean updatePending = new AtomicBoolean();
+    // Held for the whole of a pass, so an update never overlaps the first pass or another update
+    final ReentrantLock walkLock = new ReentrantLock();
+
+    private volatile State state = State.QUEUED;
+    private volatile int stepsWalked;
+    private volatile int totalSteps;
+    private final AtomicInteger updates = new AtomicInteger();
+    private volatile BacktestResult result;
+    private volatile String error;
+    private volatile long elapsedMillis;
+    private volatile boolean cancelled;
+
+    // Kept only by following runs, so that appended bars can be walked on top of it
+    private volatile IncrementalBacktest backtest;
+
+    ServiceRun(BatchJob job, boolean follow, boolean adjusted, long sequence) {
+        this.job = job;
+        this.follow = follow;
+        this.adjusted = adjusted;
+        this.sequence = sequence;
+    }
+
+    public String getId() {
+        return job.id();
+    }
+
+    public BatchJob getJob() {
+        return job;
+    }
+
+    /**
+     * @return Whether bars appended to the store after submission are walked into the result
+     */
+    public boolean isFollowing() {
+        return follow;
+    }
+
+    /**
+     * @return Whether the run walks bars adjusted for splits and dividends
+     */
+    public boolean isAdjusted() {
+        return adjusted;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public int getStepsWalked() {
+        return stepsWalked;
+    }
+
+    public int getTotalSteps() {
+        return totalSteps;
+    }
+
+    /**
+     * @return Latest result, or null before the first pass completes
+     */
+    public BacktestResult getResult() {
+        return result;
+    }
+
+    /**
+     * Waits for the first pass to finish, successfully or not
+     *
+     * @return Whether it finished within the timeout
+     */
+    public boolean awaitFirstPass(long timeout, TimeUnit unit) throws InterruptedException {
+        return firstPass.await(timeout, unit);
+    }
+
+    public JSONObject toJson() {
+        JSONObject json = new JobOutcome(job, result, elapsedMillis, error).toJson();
+        json.put("state", state.name());
+        json.put("follow", follow);
+        json.put("adjusted", adjusted);
+        json.put("stepsWalked", stepsWalked);
+        json.put("totalSteps", totalSteps);
+        json.put("updates", updates.get());
+        return json;
+    }
+
+    /**
+     * @return Progress only, cheap enough to send on every step
+     */
+    public JSONObject progressJson() {
+        JSONObject json = new JSONObject();
+        json.put("id", job.id());
+        json.put("state", state.name());
+        json.put("stepsWalked", stepsWalked);
+        json.put("totalSteps", totalSteps);
+        json.put("updates", updates.get());
+        return json;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    IncrementalBacktest getBacktest() {
+        return backtest;
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    boolean isFirstPassDone() {
+        return firstPass.getCount() == 0;
+    }
+
+    void cancel() {
+        cancelled = true;
+        backtest = null;
+        if (state != State.FAILED) {
+            state = State.CANCELLED;
+        }
+        firstPass.countDown();
+    }
+
+    void started(int steps) {
+        state = State.RUNNING;
+        totalSteps = steps;
+    }
+
+    // Called by the walk after every step
+    void onStep(int step) {
+        if (cancelled) {
+            throw new CancellationException("Run " + job.id() + " was cancelled");
+        }
+        stepsWalked = step;
+    }
+
+    void completed(IncrementalBacktest backtest, BacktestResult result, long elapsedMillis) {
+        this.result = result;
+        this.error = null;
+        this.elapsedMillis = elapsedMillis;
+        this.stepsWalked = backtest.getStepsWalked();
+        this.totalSteps = backtest.getTotalSteps();
+        this.backtest = follow && !cancelled ? backtest : null;
+        if (firstPass.getCount() == 0) {
+            updates.incrementAndGet();
+        }
+        if (!cancelled) {
+            state = State.COMPLETED;
+        }
+        firstPass.countDown();
+    }
+
+    void failed(String message) {
+        error = message;
+        backtest = null;
+        if (!cancelled) {
+            state = State.FAILED;
+        }
+        firstPass.countDown();
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.strategy;
+
+/**
+ * Strategy that ranks the whole universe at each timestamp instead of looking at one
+ * ticker's history in isolation (e.g. "hold the top 20 by momentum").
+ */
+public interface CrossSectionalStrategy {
+    /**
+     * Decides whether the portfolio should be rebalanced at the snapshot's timestamp
+     *
+     * @param snapshot Current universe view
+     * @return true if target weights should be recomputed and traded
+     */
+    boolean shouldRebalance(UniverseSnapshot snapshot);
+
+    /**
+     * Fills target portfolio weights, one per universe slot. The engine zeroes the array
+     * before each call; active slots left at zero are closed out.
+     *
+     * @param snapshot      Current universe view
+     * @param targetWeights Output weights indexed by slot, as fractions of equity
+     */
+    void computeTargetWeights(UniverseSnapshot snapshot, double[] targetWeights);
+}
@@ -0,0 +1,74 @@
+package org.example.strategy;
+
+import org.example.models.PriceSeries;
+import org.example.utils.TopKSelector;
+
+import java.time.LocalDateTime;
+
+/**
+ * Holds the top K tickers ranked by trailing momentum in equal weights and rebalances on
+ * the first bar of each calendar month. Nothing is traded until some ticker has a full
+ * lookback of history; the first rebalance comes on the bar where one does.
+ */
+public class MomentumRankStrategy implements CrossSectionalStrategy {
+    private static final int DEFAULT_LOOKBACK = 126; // ~6 months of daily bars
+    private static final int DEFAULT_TOP_K = 20;
+
+    private final int lookback;
+    private final int topK;
+    private int[] selected;
+    private int[] candidates;
+    private int lastRebalanceMonth = -1;
+
+    public MomentumRankStrategy() {
+        this(DEFAULT_LOOKBACK, DEFAULT_TOP_K);
+    }
+
+    public MomentumRankStrategy(int lookback, int topK) {
+        if (lookback <= 0 || topK <= 0) {
+            throw new IllegalArgumentException("Lookback and top K must be positive");
+        }
+        this.lookback = lookback;
+        this.topK = topK;
+    }
+
+    @Override
+    public boolean shouldRebalance(UniverseSnapshot snapshot) {
+        LocalDateTime time = PriceSeries.toLocalDateTime(snapshot.getTimestamp());
+        int month = time.getYear() * 12 + time.getMonthValue();
+        if (month == lastRebalanceMonth || !snapshot.anyActiveWithHistory(lookback + 1)) {
+            return false;
+        }
+        lastRebalanceMonth = month;
+        return true;
+    }
+
+    @Override
+    public void computeTargetWeights(UniverseSnapshot snapshot, double[] targetWeights) {
+        if (selected == null) {
+            selected = new int[topK];
+        }
+        if (candidates == null || candidates.length < snapshot.universeSize()) {
+            candidates = new int[snapshot.universeSize()];
+        }
+
+        // Momentum for every active ticker; too-short histories score NaN and are skipped
+        double[] momentum = snapshot.featureBuffer();
+        int candidateCount = snapshot.activeCount();
+        for (int i = 0; i < candidateCount; i++) {
+            int slot = snapshot.activeSlot(i);
+            candidates[i] = slot;
+            momentum[slot] = snapshot.returnOver(slot, lookback);
+        }
+
+        int count = TopKSelector.selectTop(momentum, candidates, candidateCount, topK, selected);
+        if (count == 0) {
+            return;
+        }
+
+        double weight = 1.0 / count;
+        for (int i = 0; i < count; i++) {
+            targetWeights[selected[i]] = weight;
+        }
+    }
+}
@@ -3,31 +3,74 @@ package org.example.strategy;
 import org.example.models.MarketDataPoint;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class MovingAverageStrategy implements Strategy {
-    private static final int SHORT_PERIOD = 50;
-    private static final int LONG_PERIOD = 200;
-    private static final double RISK_PER_TRADE = 0.015; // 1.5% risk
-    private static final double BUFFER_PERCENT = 0.005; // 0.5% buffer to filter minor crossovers
-    private static final double MIN_VOLUME_THRESHOLD = 1_000_000; // Minimum volume for valid signal
+    public static final int DEFAULT_SHORT_PERIOD = 50;
+    public static final int DEFAULT_LONG_PERIOD = 200;
+    public static final double DEFAULT_RISK_PER_TRADE = 0.015; // 1.5% risk
+    public static final double DEFAULT_BUFFER_PERCENT = 0.005; // 0.5% buffer to filter minor crossovers
+    public static final double DEFAULT_MIN_VOLUME_THRESHOLD = 1_000_000; // Minimum volume for valid signal
+
+    private final int shortPeriod;
+    private final int longPeriod;
+    private final double riskPerTrade;
+    private final double bufferPercent;
+    private final double minVolumeThreshold;
+
+    public MovingAverageStrategy() {
+        this(DEFAULT_SHORT_PERIOD, DEFAULT_LONG_PERIOD, DEFAULT_RISK_PER_TRADE, DEFAULT_BUFFER_PERCENT,
+                DEFAULT_MIN_VOLUME_THRESHOLD);
+    }
+
+    /**
+     * @param shortPeriod        Period of the fast EMA
+     * @param longPeriod         Period of the slow EMA
+     * @param riskPerTrade       Fraction of capital risked per trade
+     * @param bufferPercent      Fraction of the slow EMA a crossover must exceed
+     * @param minVolumeThreshold Minimum bar volume for a signal
+     */
+    public MovingAverageStrategy(int shortPeriod, int longPeriod, double riskPerTrade, double bufferPercent,
+                                 double minVolumeThreshold) {
+        if (shortPeriod < 1 || longPeriod <= shortPeriod) {
+            throw new IllegalArgumentException("Periods must satisfy 0 < short < long: " + shortPeriod + ", " + longPeriod);
+        }
+        this.shortPeriod = shortPeriod;
+        this.longPeriod = longPeriod;
+        this.riskPerTrade = riskPerTrade;
+        this.bufferPercent = bufferPercent;
+        this.minVolumeThreshold = minVolumeThreshold;
+    }
+
+    @Override
+    public Map<String, String> describeParameters() {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("shortPeriod", String.valueOf(shortPeriod));
+        parameters.put("longPeriod", String.valueOf(longPeriod));
+        parameters.put("riskPerTrade", String.valueOf(riskPerTrade));
+        parameters.put("bufferPercent", String.valueOf(bufferPercent));
+        parameters.put("minVolume", String.valueOf(minVolumeThreshold));
+        return parameters;
+    }
 
     @Override
     public TradeSignal determineTradeSignal(List<MarketDataPoint> marketDataPoints) {
-        if (marketDataPoints == null || marketDataPoints.size() < LONG_PERIOD) {
+        if (marketDataPoints == null || marketDataPoints.size() < longPeriod) {
             return TradeSignal.HOLD;
         }
 
         // Calculate short and long-term exponential moving averages
-        double shortTermEMA = calculateExponentialMovingAverage(marketDataPoints, SHORT_PERIOD);
-        double longTermEMA = calculateExponentialMovingAverage(marketDataPoints, LONG_PERIOD);
+        double shortTermEMA = calculateExponentialMovingAverage(marketDataPoints, shortPeriod);
+        double longTermEMA = calculateExponentialMovingAverage(marketDataPoints, longPeriod);
 
         // Apply a buffer to avoid whipsaws
-        double buffer = longTermEMA * BUFFER_PERCENT;
+        double buffer = longTermEMA * bufferPercent;
 
         // Validate volume levels
         double currentVolume = marketDataPoints.get(marketDataPoints.size() - 1).getVolume();
-        if (currentVolume < MIN_VOLUME_THRESHOLD) {
+        if (currentVolume < minVolumeThreshold) {
             return TradeSignal.HOLD; // Ignore signal if volume is too low
         }
 
@@ -45,7 +88,7 @@ public class MovingAverageStrategy implements Strategy {
 
     @Override
     public int calculatePositionSize(BigDecimal totalCapital, BigDecimal currentPrice) {
-        BigDecimal riskAmount = BigDecimal.valueOf(RISK_PER_TRADE).multiply(totalCapital);
+        BigDecimal riskAmount = BigDecimal.valueOf(riskPerTrade).multiply(totalCapital);
         BigDecimal stopLossDistance = currentPrice.multiply(BigDecimal.valueOf(0.04)); // 4% stop loss
         return riskAmount.divide(stopLossDistance, BigDecimal.ROUND_DOWN).intValue();
     }
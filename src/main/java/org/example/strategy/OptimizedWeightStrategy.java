@@ -0,0 +1,101 @@
+package org.example.strategy;
+
+import org.example.models.PriceSeries;
+import org.example.optimization.CovarianceEstimator;
+import org.example.optimization.CovarianceMatrix;
+import org.example.optimization.OptimizationObjective;
+import org.example.optimization.PortfolioOptimizer;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sizes the whole universe from its covariance instead of per-ticker fixed fractions.
+ * <p>
+ * On the first bar of each calendar month, daily returns over the lookback are gathered for
+ * every active ticker with enough history, a (optionally shrunk) covariance is estimated and
+ * the optimizer's weights become the target weights. Nothing is traded until some ticker has
+ * a full lookback of history; the first rebalance comes on the bar where one does.
+ */
+public class OptimizedWeightStrategy implements CrossSectionalStrategy {
+    private static final int DEFAULT_LOOKBACK = 252; // ~1 year of daily bars
+    private static final double DEFAULT_RISK_AVERSION = 5.0;
+
+    private final OptimizationObjective objective;
+    private final int lookback;
+    private final boolean shrink;
+    private final double riskAversion;
+    private final PortfolioOptimizer optimizer;
+    private int[] eligible;
+    private double[] returns;
+    private int lastRebalanceMonth = -1;
+
+    public OptimizedWeightStrategy(OptimizationObjective objective) {
+        this(objective, DEFAULT_LOOKBACK, true, DEFAULT_RISK_AVERSION);
+    }
+
+    /**
+     * @param objective    Weighting objective
+     * @param lookback     Number of daily returns the covariance is estimated from
+     * @param shrink       Whether to apply Ledoit-Wolf shrinkage
+     * @param riskAversion Risk aversion for {@link OptimizationObjective#MEAN_VARIANCE}
+     */
+    public OptimizedWeightStrategy(OptimizationObjective objective, int lookback, boolean shrink, double riskAversion) {
+        if (lookback < 2) {
+            throw new IllegalArgumentException("Lookback must be at least 2");
+        }
+        this.objective = objective;
+        this.lookback = lookback;
+        this.shrink = shrink;
+        this.riskAversion = riskAversion;
+        this.optimizer = new PortfolioOptimizer();
+    }
+
+    @Override
+    public boolean shouldRebalance(UniverseSnapshot snapshot) {
+        LocalDateTime time = PriceSeries.toLocalDateTime(snapshot.getTimestamp());
+        int month = time.getYear() * 12 + time.getMonthValue();
+        if (month == lastRebalanceMonth || !snapshot.anyActiveWithHistory(lookback + 1)) {
+            return false;
+        }
+        lastRebalanceMonth = month;
+        return true;
+    }
+
+    @Override
+    public void computeTargetWeights(UniverseSnapshot snapshot, double[] targetWeights) {
+        if (eligible == null || eligible.length < snapshot.universeSize()) {
+            eligible = new int[snapshot.universeSize()];
+        }
+
+        // Only tickers with a full lookback of history take part
+        int assets = 0;
+        for (int i = 0; i < snapshot.activeCount(); i++) {
+            int slot = snapshot.activeSlot(i);
+            if (snapshot.barsAvailable(slot) > lookback) {
+                eligible[assets++] = slot;
+            }
+        }
+        if (assets == 0) {
+            return;
+        }
+
+        int size = lookback * assets;
+        if (returns == null || returns.length < size) {
+            returns = new double[size];
+        }
+        for (int a = 0; a < assets; a++) {
+            int slot = eligible[a];
+            for (int t = 0; t < lookback; t++) {
+                int lag = lookback - 1 - t;
+                double previous = snapshot.closeAgo(slot, lag + 1);
+                returns[t * assets + a] = previous > 0 ? snapshot.closeAgo(slot, lag) / previous - 1.0 : 0.0;
+            }
+        }
+
+        CovarianceMatrix covariance = CovarianceEstimator.estimate(returns, lookback, assets, shrink);
+        double[] weights = optimizer.optimize(objective, covariance, riskAversion);
+        for (int a = 0; a < assets; a++) {
+            targetWeights[eligible[a]] = weights[a];
+        }
+    }
+}
@@ -3,18 +3,59 @@ package org.example.strategy;
 import org.example.models.MarketDataPoint;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class RsiStrategy implements Strategy {
     // Standard RSI period and thresholds
-    private static final int RSI_PERIOD = 14;
-    private static final double OVERBOUGHT_THRESHOLD = 70;
-    private static final double OVERSOLD_THRESHOLD = 30;
+    public static final int DEFAULT_RSI_PERIOD = 14;
+    public static final double DEFAULT_OVERBOUGHT_THRESHOLD = 70;
+    public static final double DEFAULT_OVERSOLD_THRESHOLD = 30;
+
+    private final int rsiPeriod;
+    private final double overboughtThreshold;
+    private final double oversoldThreshold;
+
+    public RsiStrategy() {
+        this(DEFAULT_RSI_PERIOD, DEFAULT_OVERBOUGHT_THRESHOLD, DEFAULT_OVERSOLD_THRESHOLD);
+    }
+
+    /**
+     * @param rsiPeriod           Number of bars the RSI is computed over
+     * @param overboughtThreshold RSI above which the strategy sells
+     * @param oversoldThreshold   RSI below which the strategy buys
+     */
+    public RsiStrategy(int rsiPeriod, double overboughtThreshold, double oversoldThreshold) {
+        if (rsiPeriod < 1) {
+            throw new IllegalArgumentException("RSI period must be positive: " + rsiPeriod);
+        }
+        if (!(oversoldThreshold < overboughtThreshold)) {
+            throw new IllegalArgumentException("Oversold threshold must be below overbought threshold");
+        }
+        this.rsiPeriod = rsiPeriod;
+        this.overboughtThreshold = overboughtThreshold;
+        this.oversoldThreshold = oversoldThreshold;
+    }
+
+    @Override
+    public Map<String, String> describeParameters() {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("rsiPeriod", String.valueOf(rsiPeriod));
+        parameters.put("overbought", String.valueOf(overboughtThreshold));
+        parameters.put("oversold", String.valueOf(oversoldThreshold));
+        return parameters;
+    }
+
+    @Override
+    public int historyBars() {
+        return rsiPeriod;
+    }
 
     @Override
     public TradeSignal determineTradeSignal(List<MarketDataPoint> marketDataPoints) {
         // Ensure we have enough data points
-        if (marketDataPoints == null || marketDataPoints.size() < RSI_PERIOD) {
+        if (marketDataPoints == null || marketDataPoints.size() < rsiPeriod) {
             return TradeSignal.HOLD;
         }
 
@@ -22,9 +63,9 @@ public class RsiStrategy implements Strategy {
         double rsi = calculateRSI(marketDataPoints);
 
         // Simple binary signal generation
-        if (rsi > OVERBOUGHT_THRESHOLD) {
+        if (rsi > overboughtThreshold) {
             return TradeSignal.SELL;
-        } else if (rsi < OVERSOLD_THRESHOLD) {
+        } else if (rsi < oversoldThreshold) {
             return TradeSignal.BUY;
         }
 
@@ -48,7 +89,7 @@ public class RsiStrategy implements Strategy {
         // Take last 14 data points
         int endIndex = marketDataPoints.size() - 1;
         List<MarketDataPoint> relevantData = marketDataPoints.subList(
-                Math.max(0, endIndex - RSI_PERIOD + 1),
+                Math.max(0, endIndex - rsiPeriod + 1),
                 endIndex + 1
         );
 
@@ -68,8 +109,8 @@ public class RsiStrategy implements Strategy {
         }
 
         // Avoid division by zero
-        double avgGain = totalGain / RSI_PERIOD;
-        double avgLoss = totalLoss / RSI_PERIOD;
+        double avgGain = totalGain / rsiPeriod;
+        double avgLoss = totalLoss / rsiPeriod;
 
         // Prevent division by zero
         if (avgLoss == 0) return 100;
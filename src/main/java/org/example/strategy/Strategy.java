@@ -1,9 +1,13 @@
 package org.example.strategy;
 
+import org.example.backtest.Trade;
+import org.example.execution.Order;
+import org.example.execution.TimeInForce;
 import org.example.models.MarketDataPoint;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 public interface Strategy {
     /**
@@ -23,6 +27,41 @@ public interface Strategy {
      */
     int calculatePositionSize(BigDecimal totalCapital, BigDecimal currentPrice);
 
+    /**
+     * Builds the order used to act on a signal when the backtest runs with an execution
+     * simulator. Defaults to a DAY market order; override to work limit or stop orders.
+     *
+     * @param ticker      Ticker the signal is for
+     * @param signal      BUY or SELL signal
+     * @param quantity    Number of shares to trade
+     * @param currentData Bar the signal was generated on
+     * @return Order to submit
+     */
+    default Order createOrder(String ticker, TradeSignal signal, int quantity, MarketDataPoint currentData) {
+        Trade.TradeType side = signal == TradeSignal.BUY ? Trade.TradeType.BUY : Trade.TradeType.SELL;
+        return Order.market(ticker, side, quantity, TimeInForce.DAY);
+    }
+
+    /**
+     * Describes the parameters that determine this strategy's behaviour, so that stored
+     * results can be told apart and filtered. Keys and values are rendered as text.
+     *
+     * @return Parameter names to values, in a stable order
+     */
+    default Map<String, String> describeParameters() {
+        return Map.of();
+    }
+
+    /**
+     * Number of most recent bars {@link #determineTradeSignal} reads. Feeds that keep a history
+     * per ticker, such as paper trading, only retain this many bars; the default keeps them all.
+     *
+     * @return Bars of history the signal depends on
+     */
+    default int historyBars() {
+        return Integer.MAX_VALUE;
+    }
+
     enum TradeSignal {
         BUY,    // Strong buy signal
         SELL,   // Strong sell signal
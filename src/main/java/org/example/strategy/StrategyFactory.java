@@ -1,5 +1,8 @@
 package org.example.strategy;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import static java.util.Objects.requireNonNull;
 
 public class StrategyFactory {
@@ -16,10 +19,54 @@ public class StrategyFactory {
      * @return Corresponding Strategy implementation
      */
     public static Strategy createStrategy(StrategyType type) {
-        if (StrategyType.RSI == requireNonNull(type)) {
-            return new RsiStrategy();
+        return createStrategy(type, Map.of());
+    }
+
+    /**
+     * Creates a strategy with some of its parameters overridden. Keys are the names reported
+     * by {@link Strategy#describeParameters()}; parameters not given keep their defaults.
+     *
+     * @param type       Strategy type to create
+     * @param parameters Parameter names to values
+     * @return Corresponding Strategy implementation
+     * @throws IllegalArgumentException If a parameter is unknown or its value cannot be parsed
+     */
+    public static Strategy createStrategy(StrategyType type, Map<String, String> parameters) {
+        Map<String, String> remaining = new HashMap<>(parameters);
+        Strategy strategy = switch (requireNonNull(type)) {
+            case RSI -> new RsiStrategy(
+                    intParameter(remaining, "rsiPeriod", RsiStrategy.DEFAULT_RSI_PERIOD),
+                    doubleParameter(remaining, "overbought", RsiStrategy.DEFAULT_OVERBOUGHT_THRESHOLD),
+                    doubleParameter(remaining, "oversold", RsiStrategy.DEFAULT_OVERSOLD_THRESHOLD));
+            case MOVING_AVERAGE -> new MovingAverageStrategy(
+                    intParameter(remaining, "shortPeriod", MovingAverageStrategy.DEFAULT_SHORT_PERIOD),
+                    intParameter(remaining, "longPeriod", MovingAverageStrategy.DEFAULT_LONG_PERIOD),
+                    doubleParameter(remaining, "riskPerTrade", MovingAverageStrategy.DEFAULT_RISK_PER_TRADE),
+                    doubleParameter(remaining, "bufferPercent", MovingAverageStrategy.DEFAULT_BUFFER_PERCENT),
+                    doubleParameter(remaining, "minVolume", MovingAverageStrategy.DEFAULT_MIN_VOLUME_THRESHOLD));
             // Future strategies can be added here
+        };
+        if (!remaining.isEmpty()) {
+            throw new IllegalArgumentException("Unknown parameters for " + type + ": " + remaining.keySet());
+        }
+        return strategy;
+    }
+
+    private static int intParameter(Map<String, String> parameters, String name, int defaultValue) {
+        String value = parameters.remove(name);
+        try {
+            return value != null ? Integer.parseInt(value.trim()) : defaultValue;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter " + name + " must be an integer: " + value, e);
+        }
+    }
+
+    private static double doubleParameter(Map<String, String> parameters, String name, double defaultValue) {
+        String value = parameters.remove(name);
+        try {
+            return value != null ? Double.parseDouble(value.trim()) : defaultValue;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parameter " + name + " must be a number: " + value, e);
         }
-        throw new IllegalArgumentException("Unsupported strategy type: " + type);
     }
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+package org.example.strategy;
+
+import org.example.models.PriceSeries;
+
+import java.util.Arrays;
+
+/**
+ * Per-timestamp view of every ticker in a cross-sectional universe.
+ * <p>
+ * The engine owns a single instance and moves it forward in place, so strategies must not
+ * keep references to it between calls. Tickers are addressed by slot, their position in the
+ * universe; a slot is "active" when it has a bar at the current timestamp.
+ */
+public final class UniverseSnapshot {
+    private final String[] tickers;
+    private final PriceSeries[] series;
+    private final int[] cursors;
+    private final int[] activeSlots;
+    private final double[] feature;
+    private int activeCount;
+    private long timestamp;
+
+    public UniverseSnapshot(String[] tickers, PriceSeries[] series) {
+        this.tickers = tickers;
+        this.series = series;
+        this.cursors = new int[series.length];
+        this.activeSlots = new int[series.length];
+        this.feature = new double[series.length];
+        Arrays.fill(cursors, -1);
+    }
+
+    // Engine-side mutators, called once per timestamp before the strategy sees the snapshot
+
+    public void beginTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+        this.activeCount = 0;
+    }
+
+    public void activate(int slot, int barIndex) {
+        cursors[slot] = barIndex;
+        activeSlots[activeCount++] = slot;
+    }
+
+    // Strategy-side accessors
+
+    public long getTimestamp() { return timestamp; }
+    public int universeSize() { return series.length; }
+    public int activeCount() { return activeCount; }
+    public int activeSlot(int i) { return activeSlots[i]; }
+    public String ticker(int slot) { return tickers[slot]; }
+    public PriceSeries series(int slot) { return series[slot]; }
+
+    /**
+     * @param slot Universe slot
+     * @return Index of the latest bar seen for the slot, or -1 before its first bar
+     */
+    public int cursor(int slot) { return cursors[slot]; }
+
+    /**
+     * @param slot Universe slot
+     * @return Number of bars available up to and including the current one
+     */
+    public int barsAvailable(int slot) { return cursors[slot] + 1; }
+
+    /**
+     * @param bars Number of bars needed, including the current one
+     * @return Whether some active slot has at least that much history
+     */
+    public boolean anyActiveWithHistory(int bars) {
+        for (int i = 0; i < activeCount; i++) {
+            if (cursors[activeSlots[i]] + 1 >= bars) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public double close(int slot) {
+        int i = cursors[slot];
+        return i >= 0 ? series[slot].closeAt(i) : Double.NaN;
+    }
+
+    public long volume(int slot) {
+        int i = cursors[slot];
+        return i >= 0 ? series[slot].volumeAt(i) : 0L;
+    }
+
+    /**
+     * @param slot Universe slot
+     * @param lag  Number of bars to look back (0 is the current bar)
+     * @return Close {@code lag} bars ago, or NaN if the history is too short
+     */
+    public double closeAgo(int slot, int lag) {
+        int i = cursors[slot] - lag;
+        return i >= 0 ? series[slot].closeAt(i) : Double.NaN;
+    }
+
+    /**
+     * @param slot Universe slot
+     * @param lag  Number of bars the return spans
+     * @return Simple return over the last {@code lag} bars, or NaN if unavailable
+     */
+    public double returnOver(int slot, int lag) {
+        double past = closeAgo(slot, lag);
+        if (!(past > 0)) {
+            return Double.NaN;
+        }
+        return close(slot) / past - 1.0;
+    }
+
+    /**
+     * Scratch column, one value per slot, that strategies may fill with a feature before
+     * ranking it. Contents are not cleared between timestamps.
+     */
+    public double[] featureBuffer() { return feature; }
+}
@@ -0,0 +1,14 @@
+package org.example.sweep;
+
+import org.example.batch.BatchJob;
+
+import java.util.List;
+
+/**
+ * Unit of work handed to a sweep worker
+ *
+ * @param id   Position of the shard in the sweep
+ * @param jobs Jobs of the shard
+ */
+public record Shard(int id, List<BatchJob> jobs) {
+}
@@ -0,0 +1,320 @@
+package org.example.sweep;
+
+import org.json.JSONArray;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out the shards of one sweep to worker connections.
+ * <p>
+ * Workers pull a shard whenever they are idle, so faster workers simply take more. Once the
+ * queue is empty, an idle worker steals a second copy of the shard that has been running the
+ * longest, so one slow or stuck worker cannot hold up the end of the sweep; whichever copy
+ * finishes first counts. Failed shards go back to the front of the queue until they run out of
+ * attempts, and are never handed again to a worker that failed them, so a broken worker cannot
+ * use up the attempts of every shard. A shard every connected worker has failed is given up.
+ */
+final class ShardScheduler {
+
+    /**
+     * Receives each shard's outcome exactly once, from the thread that finished it
+     */
+    interface Sink {
+        void completed(Shard shard, JSONArray outcomes);
+
+        void failed(Shard shard, String error, int attempts);
+    }
+
+    private static final class InFlight {
+        int copies;
+        final long dispatchedNanos = System.nanoTime();
+    }
+
+    private final Shard[] shards;
+    private final Sink sink;
+    private final int maxAttempts;
+    private final long stealAfterNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Deque<Shard> pending = new ArrayDeque<>();
+    private final Map<Integer, InFlight> inFlight = new HashMap<>();
+    private final boolean[] finished;
+    private final int[] attempts;
+    private final Map<Integer, Set<String>> failedBy = new HashMap<>();
+    private final Map<String, Integer> connected = new HashMap<>();
+    private int remaining;
+    private boolean aborted;
+
+    private int retries;
+    private int steals;
+    private int duplicates;
+    private int failedShards;
+
+    /**
+     * @param shards          Shards of the sweep, with ids 0 to n - 1
+     * @param sink            Receives finished shards
+     * @param maxAttempts     Attempts per shard before it is reported as failed
+     * @param stealAfterNanos Time a shard must have been running before an idle worker duplicates it
+     */
+    ShardScheduler(List<Shard> shards, Sink sink, int maxAttempts, long stealAfterNanos) {
+        this.shards = shards.toArray(new Shard[0]);
+        this.sink = sink;
+        this.maxAttempts = maxAttempts;
+        this.stealAfterNanos = stealAfterNanos;
+        this.finished = new boolean[shards.size()];
+        this.attempts = new int[shards.size()];
+        this.remaining = shards.size();
+        pending.addAll(shards);
+    }
+
+    void register(String worker) {
+        lock.lock();
+        try {
+            connected.merge(worker, 1, Integer::sum);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void unregister(String worker) {
+        lock.lock();
+        try {
+            connected.computeIfPresent(worker, (name, count) -> count > 1 ? count - 1 : null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until there is a shard for the worker to run
+     *
+     * @param worker Name of the asking worker
+     * @return The shard, or null once the sweep is finished or aborted
+     */
+    Shard next(String worker) throws InterruptedException {
+        lock.lock();
+        try {
+            while (true) {
+                if (remaining == 0 || aborted) {
+                    return null;
+                }
+                Shard shard = firstPending(worker);
+                if (shard == null) {
+                    shard = straggler(worker);
+                    if (shard != null) {
+                        steals++;
+                    }
+                }
+                if (shard != null) {
+                    inFlight.computeIfAbsent(shard.id(), id -> new InFlight()).copies++;
+                    return shard;
+                }
+                // Wake up in time to steal a shard that becomes overdue
+                changed.await(Math.max(1, stealAfterNanos / 4), TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void completed(Shard shard, JSONArray outcomes) {
+        lock.lock();
+        try {
+            release(shard);
+            if (finished[shard.id()]) {
+                duplicates++;
+                return;
+            }
+            finished[shard.id()] = true;
+            inFlight.remove(shard.id());
+        } finally {
+            lock.unlock();
+        }
+        try {
+            sink.completed(shard, outcomes);
+        } finally {
+            countDown();
+        }
+    }
+
+    void failed(Shard shard, String worker, String error) {
+        int attempt;
+        lock.lock();
+        try {
+            failedBy.computeIfAbsent(shard.id(), id -> new HashSet<>()).add(worker);
+            InFlight copies = release(shard);
+            if (finished[shard.id()] || (copies != null && copies.copies > 0)) {
+                // Already done, or another copy may still succeed
+                return;
+            }
+            inFlight.remove(shard.id());
+            attempt = ++attempts[shard.id()];
+            if (attempt < maxAttempts) {
+                retries++;
+                pending.addFirst(shard);
+                changed.signalAll();
+                return;
+            }
+            finished[shard.id()] = true;
+            failedShards++;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            sink.failed(shard, error, attempt);
+        } finally {
+            countDown();
+        }
+    }
+
+    /**
+     * Gives up queued shards that every connected worker has already failed
+     *
+     * @param error Reported for each shard given up
+     */
+    void failUnrunnable(String error) {
+        List<Shard> unrunnable = new ArrayList<>();
+        List<Integer> attemptCounts = new ArrayList<>();
+        lock.lock();
+        try {
+            if (connected.isEmpty()) {
+                return;
+            }
+            for (Iterator<Shard> it = pending.iterator(); it.hasNext(); ) {
+                Shard shard = it.next();
+                Set<String> failed = failedBy.get(shard.id());
+                if (failed != null && failed.containsAll(connected.keySet())) {
+                    it.remove();
+                    finished[shard.id()] = true;
+                    failedShards++;
+                    unrunnable.add(shard);
+                    attemptCounts.add(attempts[shard.id()]);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (int i = 0; i < unrunnable.size(); i++) {
+            try {
+                sink.failed(unrunnable.get(i), error, attemptCounts.get(i));
+            } finally {
+                countDown();
+            }
+        }
+    }
+
+    /**
+     * @return Whether the sweep finished within the timeout
+     */
+    boolean awaitFinished(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (remaining > 0 && !aborted) {
+                long left = deadline - System.nanoTime();
+                if (left <= 0) {
+                    return false;
+                }
+                changed.await(left, TimeUnit.NANOSECONDS);
+            }
+            return remaining == 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void abort() {
+        lock.lock();
+        try {
+            aborted = true;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int remaining() {
+        lock.lock();
+        try {
+            return remaining;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    SweepReport report(int workers, long elapsedMillis) {
+        lock.lock();
+        try {
+            int jobs = 0;
+            for (Shard shard : shards) {
+                jobs += shard.jobs().size();
+            }
+            return new SweepReport(shards.length, jobs, failedShards, retries, steals, duplicates, workers, elapsedMillis);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private InFlight release(Shard shard) {
+        InFlight copies = inFlight.get(shard.id());
+        if (copies != null) {
+            copies.copies--;
+        }
+        return copies;
+    }
+
+    private boolean hasFailed(int shardId, String worker) {
+        Set<String> failed = failedBy.get(shardId);
+        return failed != null && failed.contains(worker);
+    }
+
+    private Shard firstPending(String worker) {
+        for (Iterator<Shard> it = pending.iterator(); it.hasNext(); ) {
+            Shard shard = it.next();
+            if (!hasFailed(shard.id(), worker)) {
+                it.remove();
+                return shard;
+            }
+        }
+        return null;
+    }
+
+    // Longest-running shard that has a single copy out and has been running long enough
+    private Shard straggler(String worker) {
+        long now = System.nanoTime();
+        Shard oldest = null;
+        long oldestStart = Long.MAX_VALUE;
+        for (Map.Entry<Integer, InFlight> entry : inFlight.entrySet()) {
+            InFlight copies = entry.getValue();
+            if (copies.copies == 1 && now - copies.dispatchedNanos >= stealAfterNanos
+                    && copies.dispatchedNanos < oldestStart && !hasFailed(entry.getKey(), worker)) {
+                oldest = shards[entry.getKey()];
+                oldestStart = copies.dispatchedNanos;
+            }
+        }
+        return oldest;
+    }
+
+    // Counted only after the sink has run, so the sweep never ends before its last output
+    private void countDown() {
+        lock.lock();
+        try {
+            remaining--;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
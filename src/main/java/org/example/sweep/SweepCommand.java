@@ -0,0 +1,105 @@
+package org.example.sweep;
+
+import org.example.utils.AppLogger;
+import org.json.JSONObject;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Command line entry point for sharded sweeps.
+ * <pre>
+ * SweepCommand SWEEPFILE [--workers N] [--port P] [--output FILE] [--cache DIR] [--adjusted]
+ *              [--worker-threads N] [--worker-max-tickers N] [--worker-jvm "OPTIONS"] [--max-attempts N]
+ *              [--steal-after-ms N]
+ * </pre>
+ * Starts {@code --workers} local worker JVMs (default 2) with the given JVM options, for example
+ * {@code "-Xmx2g -XX:+UseZGC"}. With {@code --workers 0} it waits on {@code --port} for workers
+ * started on other hosts with {@link SweepWorker}. Outcomes are written as JSON Lines as shards
+ * finish, to {@code --output}, the sweep file's output, or standard output. {@code --cache},
+ * {@code --adjusted} and the {@code --worker-} options are passed on to the local workers.
+ */
+public class SweepCommand {
+    private static final AppLogger logger = new AppLogger(SweepCommand.class);
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        Path sweepFile = null;
+        int workers = 2;
+        int port = 0;
+        Path output = null;
+        List<String> workerArgs = new ArrayList<>();
+        List<String> jvmOptions = new ArrayList<>();
+        int maxAttempts = SweepCoordinator.DEFAULT_MAX_ATTEMPTS;
+        long stealAfterMillis = SweepCoordinator.DEFAULT_STEAL_AFTER_MILLIS;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--workers" -> workers = Integer.parseInt(args[++i]);
+                    case "--port" -> port = Integer.parseInt(args[++i]);
+                    case "--output" -> output = Path.of(args[++i]);
+                    case "--cache" -> workerArgs.addAll(List.of("--cache", Path.of(args[++i]).toAbsolutePath().toString()));
+                    case "--adjusted" -> workerArgs.add("--adjusted");
+                    case "--worker-threads" -> workerArgs.addAll(List.of("--threads", args[++i]));
+                    case "--worker-max-tickers" -> workerArgs.addAll(List.of("--max-tickers", args[++i]));
+                    case "--worker-jvm" -> jvmOptions.addAll(Arrays.asList(args[++i].trim().split("\\s+")));
+                    case "--max-attempts" -> maxAttempts = Integer.parseInt(args[++i]);
+                    case "--steal-after-ms" -> stealAfterMillis = Long.parseLong(args[++i]);
+                    default -> sweepFile = Path.of(args[i]);
+                }
+            }
+            if (sweepFile == null) {
+                System.out.println("Usage: SweepCommand SWEEPFILE [--workers N] [--port P] [--output FILE] [--cache DIR] [--adjusted] "
+                        + "[--worker-threads N] [--worker-max-tickers N] [--worker-jvm \"OPTIONS\"] [--max-attempts N] [--steal-after-ms N]");
+                return;
+            }
+
+            SweepSpec spec = SweepSpec.read(sweepFile);
+            List<Shard> shards = spec.shards();
+            Path target = output != null ? output : spec.output();
+            if (target != null && target.getParent() != null) {
+                Files.createDirectories(target.getParent());
+            }
+
+            try (Writer writer = target != null
+                    ? Files.newBufferedWriter(target)
+                    : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+                 SweepCoordinator coordinator = new SweepCoordinator(port, maxAttempts, stealAfterMillis,
+                         SweepCoordinator.DEFAULT_SHARD_TIMEOUT_MILLIS)) {
+                for (int w = 0; w < workers; w++) {
+                    coordinator.launchWorker(jvmOptions, workerArgs);
+                }
+                if (workers == 0) {
+                    logger.info("Waiting for workers on port " + coordinator.getPort());
+                }
+                SweepReport report = coordinator.run(shards, outcome -> write(writer, outcome));
+                writer.flush();
+                logger.info(report.toString());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Sweep interrupted", e);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Sweep failed", e);
+        }
+    }
+
+    private static void write(Writer writer, JSONObject outcome) {
+        try {
+            writer.write(outcome.toString());
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package org.example.sweep;
+
+import org.example.batch.BatchJob;
+import org.example.batch.JobOutcome;
+import org.example.utils.AppLogger;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs a sharded sweep on worker processes that connect over TCP.
+ * <p>
+ * Workers are separate JVMs, started locally with {@link #launchWorker} or by hand on other
+ * hosts with {@link SweepWorker}, so the sweep's data and results are spread over several
+ * small heaps instead of one large one. Shards are scheduled by a {@link ShardScheduler};
+ * outcomes are passed on as each shard finishes rather than collected at the end. A worker that
+ * disconnects, reports an error or exceeds the shard timeout has its shard retried elsewhere.
+ * <p>
+ * A coordinator runs one sweep; its workers are told to exit when the sweep ends.
+ */
+public class SweepCoordinator implements AutoCloseable {
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+    public static final long DEFAULT_STEAL_AFTER_MILLIS = 5_000;
+    public static final long DEFAULT_SHARD_TIMEOUT_MILLIS = 30 * 60_000;
+
+    private static final AppLogger logger = new AppLogger(SweepCoordinator.class);
+
+    private final ServerSocket serverSocket;
+    private final int maxAttempts;
+    private final long stealAfterMillis;
+    private final long shardTimeoutMillis;
+    private final List<Process> localWorkers = new CopyOnWriteArrayList<>();
+    private final AtomicInteger connectedWorkers = new AtomicInteger();
+    private final AtomicInteger seenWorkers = new AtomicInteger();
+    // Acceptor and connections run on virtual threads; each mostly waits on its socket
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile ShardScheduler scheduler;
+
+    public SweepCoordinator(int port) throws IOException {
+        this(port, DEFAULT_MAX_ATTEMPTS, DEFAULT_STEAL_AFTER_MILLIS, DEFAULT_SHARD_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param port               Port workers connect to, or 0 for any free port
+     * @param maxAttempts        Attempts per shard before it is reported as failed
+     * @param stealAfterMillis   Time a shard must have been running before an idle worker duplicates it
+     * @param shardTimeoutMillis Time a worker may take for one shard before it is dropped
+     * @throws IOException If the port cannot be bound
+     */
+    public SweepCoordinator(int port, int maxAttempts, long stealAfterMillis, long shardTimeoutMillis) throws IOException {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Need at least one attempt per shard");
+        }
+        this.serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(port));
+        this.maxAttempts = maxAttempts;
+        this.stealAfterMillis = stealAfterMillis;
+        this.shardTimeoutMillis = shardTimeoutMillis;
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Starts a worker JVM on this host, with this JVM's class path, connected to this coordinator
+     *
+     * @param jvmOptions Options for the worker JVM, e.g. its heap size and collector
+     * @param workerArgs Further {@link SweepWorker} arguments, e.g. {@code --cache DIR}
+     * @return The worker process; its output goes to this process' output
+     * @throws IOException If the process cannot be started
+     */
+    public Process launchWorker(List<String> jvmOptions, List<String> workerArgs) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(SweepWorker.class.getName());
+        command.add("localhost");
+        command.add(String.valueOf(getPort()));
+        command.add("--name");
+        command.add("local-" + (localWorkers.size() + 1));
+        command.addAll(workerArgs);
+        Process process = new ProcessBuilder(command).inheritIO().start();
+        localWorkers.add(process);
+        return process;
+    }
+
+    /**
+     * Runs the sweep and returns once every shard has completed or failed for good
+     *
+     * @param shards   Shards with ids 0 to n - 1
+     * @param outcomes Receives every job outcome in the batch results format as soon as its
+     *                 shard finishes; called from several threads, one shard at a time
+     * @return Summary of the sweep
+     * @throws IllegalStateException If all local workers exit and none are connected while shards remain
+     */
+    public SweepReport run(List<Shard> shards, Consumer<JSONObject> outcomes) throws InterruptedException {
+        if (scheduler != null) {
+            throw new IllegalStateException("A coordinator runs a single sweep");
+        }
+        long start = System.nanoTime();
+        Object outputLock = new Object();
+        ShardScheduler shardScheduler = new ShardScheduler(shards, new ShardScheduler.Sink() {
+            @Override
+            public void completed(Shard shard, JSONArray results) {
+                synchronized (outputLock) {
+                    for (int i = 0; i < results.length(); i++) {
+                        outcomes.accept(results.getJSONObject(i));
+                    }
+                }
+            }
+
+            @Override
+            public void failed(Shard shard, String error, int attempts) {
+                logger.error("Shard " + shard.id() + " failed after " + attempts + " attempts: " + error);
+                synchronized (outputLock) {
+                    for (BatchJob job : shard.jobs()) {
+                        outcomes.accept(new JobOutcome(job, null, 0, "Shard failed after " + attempts
+                                + " attempts: " + error).toJson());
+                    }
+                }
+            }
+        }, maxAttempts, TimeUnit.MILLISECONDS.toNanos(stealAfterMillis));
+        scheduler = shardScheduler;
+
+        connections.execute(this::acceptWorkers);
+        try {
+            while (!shardScheduler.awaitFinished(1, TimeUnit.SECONDS)) {
+                shardScheduler.failUnrunnable("Failed on every connected worker");
+                if (!localWorkers.isEmpty() && connectedWorkers.get() == 0
+                        && localWorkers.stream().noneMatch(Process::isAlive)) {
+                    shardScheduler.abort();
+                    throw new IllegalStateException("All workers exited with " + shardScheduler.remaining()
+                            + " shards unfinished");
+                }
+            }
+        } finally {
+            shardScheduler.abort();
+        }
+        return shardScheduler.report(seenWorkers.get(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Stops accepting workers and waits briefly for local workers to exit
+     */
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            // Nothing left to release
+        }
+        connections.shutdown();
+        for (Process process : localWorkers) {
+            try {
+                if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                    process.destroy();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                process.destroy();
+            }
+        }
+    }
+
+    private void acceptWorkers() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> serve(socket));
+            } catch (SocketException e) {
+                return; // Closed
+            } catch (IOException e) {
+                logger.warn("Accepting a worker failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // One connection: hand out shards one at a time until the sweep is over
+    private void serve(Socket socket) {
+        ShardScheduler shardScheduler = scheduler;
+        SweepProtocol connection = null;
+        String worker = String.valueOf(socket.getRemoteSocketAddress());
+        boolean counted = false;
+        try {
+            socket.setSoTimeout((int) Math.min(Integer.MAX_VALUE, shardTimeoutMillis));
+            connection = new SweepProtocol(socket);
+            JSONObject hello = connection.receive();
+            if (!SweepProtocol.HELLO.equals(hello.optString("type"))) {
+                throw new IOException("Expected hello, got " + hello);
+            }
+            worker = hello.optString("worker", worker);
+            connectedWorkers.incrementAndGet();
+            seenWorkers.incrementAndGet();
+            shardScheduler.register(worker);
+            counted = true;
+
+            Shard shard;
+            while ((shard = shardScheduler.next(worker)) != null) {
+                connection.send(SweepProtocol.shard(shard));
+                JSONObject reply;
+                try {
+                    reply = connection.receive();
+                    if (reply.optInt("shard", -1) != shard.id()) {
+                        throw new IOException("Reply for shard " + reply.opt("shard") + ", expected " + shard.id());
+                    }
+                } catch (IOException | JSONException e) {
+                    shardScheduler.failed(shard, worker, worker + ": " + e.getMessage());
+                    throw e;
+                }
+                if (SweepProtocol.RESULT.equals(reply.optString("type"))) {
+                    shardScheduler.completed(shard, reply.getJSONArray("outcomes"));
+                } else {
+                    shardScheduler.failed(shard, worker, worker + ": " + reply.optString("error", "unknown error"));
+                }
+            }
+            connection.send(SweepProtocol.message(SweepProtocol.DONE));
+        } catch (IOException | JSONException e) {
+            logger.warn("Dropped worker " + worker + ": " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (counted) {
+                shardScheduler.unregister(worker);
+                connectedWorkers.decrementAndGet();
+            }
+            if (connection != null) {
+                connection.close();
+            } else {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    // Nothing left to release
+                }
+            }
+        }
+    }
+}
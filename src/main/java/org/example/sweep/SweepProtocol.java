@@ -0,0 +1,98 @@
+package org.example.sweep;
+
+import org.example.batch.BatchJob;
+import org.example.batch.JobFile;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wire format between sweep coordinator and workers: one JSON object per line, each with a
+ * {@code type}.
+ * <pre>
+ * worker      -&gt; coordinator  {"type": "hello", "worker": name}
+ * coordinator -&gt; worker       {"type": "shard", "shard": id, "jobs": [job, ...]}
+ * worker      -&gt; coordinator  {"type": "result", "shard": id, "outcomes": [outcome, ...]}
+ * worker      -&gt; coordinator  {"type": "failed", "shard": id, "error": message}
+ * coordinator -&gt; worker       {"type": "done"}
+ * </pre>
+ * Jobs use the job file format and outcomes the batch results format, so a merged sweep
+ * output reads like the output of a batch.
+ */
+final class SweepProtocol {
+    static final String HELLO = "hello";
+    static final String SHARD = "shard";
+    static final String RESULT = "result";
+    static final String FAILED = "failed";
+    static final String DONE = "done";
+
+    private final Socket socket;
+    private final BufferedReader reader;
+    private final BufferedWriter writer;
+
+    SweepProtocol(Socket socket) throws IOException {
+        this.socket = socket;
+        this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        this.writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return Next message
+     * @throws EOFException If the peer closed the connection
+     */
+    JSONObject receive() throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            throw new EOFException("Connection closed by " + socket.getRemoteSocketAddress());
+        }
+        return new JSONObject(line);
+    }
+
+    void send(JSONObject message) throws IOException {
+        writer.write(message.toString());
+        writer.write('\n');
+        writer.flush();
+    }
+
+    void close() {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Nothing left to release
+        }
+    }
+
+    static JSONObject message(String type) {
+        JSONObject message = new JSONObject();
+        message.put("type", type);
+        return message;
+    }
+
+    static JSONObject shard(Shard shard) {
+        JSONArray jobs = new JSONArray();
+        for (BatchJob job : shard.jobs()) {
+            jobs.put(job.toJson());
+        }
+        return message(SHARD).put("shard", shard.id()).put("jobs", jobs);
+    }
+
+    static Shard shardOf(JSONObject message) {
+        JSONArray array = message.getJSONArray("jobs");
+        List<BatchJob> jobs = new ArrayList<>(array.length());
+        JSONObject noDefaults = new JSONObject();
+        for (int i = 0; i < array.length(); i++) {
+            jobs.add(JobFile.parseJob(array.getJSONObject(i), noDefaults, "job-" + (i + 1)));
+        }
+        return new Shard(message.getInt("shard"), jobs);
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.sweep;
+
+/**
+ * Summary of a finished sweep
+ *
+ * @param shards        Shards in the sweep
+ * @param jobs          Jobs in the sweep
+ * @param failedShards  Shards reported as failed after running out of attempts
+ * @param retries       Shards put back in the queue after a failure
+ * @param steals        Extra copies of slow shards handed to idle workers
+ * @param duplicates    Results ignored because another copy of the shard finished first
+ * @param workers       Worker connections that took part
+ * @param elapsedMillis Wall time of the sweep
+ */
+public record SweepReport(int shards, int jobs, int failedShards, int retries, int steals, int duplicates,
+                          int workers, long elapsedMillis) {
+
+    @Override
+    public String toString() {
+        return String.format("%d jobs in %d shards on %d workers in %d ms: %d failed shards, %d retries, %d steals, "
+                + "%d duplicate results", jobs, shards, workers, elapsedMillis, failedShards, retries, steals, duplicates);
+    }
+}
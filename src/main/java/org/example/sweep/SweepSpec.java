@@ -0,0 +1,176 @@
+package org.example.sweep;
+
+import org.example.batch.BatchJob;
+import org.example.strategy.StrategyFactory;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A parameter sweep read from a JSON file:
+ * <pre>
+ * {
+ *   "strategy": "RSI",
+ *   "grid": {"rsiPeriod": [10, 14, 20], "overbought": [70, 80]},
+ *   "tickers": ["AAPL", "MSFT", "NVDA"],
+ *   "tickersPerJob": 1,
+ *   "windows": [{"start": "2021-01-01", "end": "2021-12-31"}, {"start": "2022-01-01", "end": "2022-12-31"}],
+ *   "capital": 100000,
+ *   "jobsPerShard": 32,
+ *   "output": "results/sweep.jsonl"
+ * }
+ * </pre>
+ * The sweep is the product of the parameter grid, the ticker groups and the windows. Tickers
+ * are split into groups of {@code tickersPerJob}, or kept as one universe when it is 0 or
+ * missing; without {@code windows} all history is one window.
+ *
+ * @param strategy      Strategy to sweep
+ * @param grid          Values per parameter, parameters in name order
+ * @param tickerGroups  Universe of each job
+ * @param windows       Date ranges; a null bound means all history on that side
+ * @param capital       Initial capital of every job
+ * @param jobsPerShard  Jobs handed to a worker at a time
+ * @param output        File the results are written to, or null for standard output
+ */
+public record SweepSpec(StrategyFactory.StrategyType strategy, Map<String, List<String>> grid,
+                        List<List<String>> tickerGroups, List<Window> windows, BigDecimal capital,
+                        int jobsPerShard, Path output) {
+    public static final int DEFAULT_JOBS_PER_SHARD = 32;
+    private static final BigDecimal DEFAULT_CAPITAL = new BigDecimal("100000");
+
+    public record Window(LocalDate start, LocalDate end) {
+    }
+
+    public SweepSpec {
+        if (jobsPerShard < 1) {
+            throw new IllegalArgumentException("Jobs per shard must be positive: " + jobsPerShard);
+        }
+        if (tickerGroups.isEmpty() || windows.isEmpty()) {
+            throw new IllegalArgumentException("Sweep needs tickers and at least one window");
+        }
+        grid = new TreeMap<>(grid);
+    }
+
+    public static SweepSpec read(Path path) throws IOException {
+        try {
+            return parse(new JSONObject(Files.readString(path)), path.toAbsolutePath().getParent());
+        } catch (JSONException e) {
+            throw new IOException("Malformed sweep file " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @param root      Parsed sweep file
+     * @param directory Directory a relative output path is resolved against
+     */
+    static SweepSpec parse(JSONObject root, Path directory) {
+        Map<String, List<String>> grid = new TreeMap<>();
+        JSONObject gridObject = root.optJSONObject("grid");
+        if (gridObject != null) {
+            for (String parameter : gridObject.keySet()) {
+                JSONArray values = gridObject.getJSONArray(parameter);
+                List<String> texts = new ArrayList<>(values.length());
+                for (int i = 0; i < values.length(); i++) {
+                    texts.add(values.get(i).toString());
+                }
+                grid.put(parameter, texts);
+            }
+        }
+
+        JSONArray tickerArray = root.getJSONArray("tickers");
+        List<String> tickers = new ArrayList<>(tickerArray.length());
+        for (int i = 0; i < tickerArray.length(); i++) {
+            tickers.add(tickerArray.getString(i));
+        }
+        int groupSize = root.optInt("tickersPerJob", 0);
+        List<List<String>> tickerGroups = new ArrayList<>();
+        if (groupSize <= 0) {
+            tickerGroups.add(tickers);
+        } else {
+            for (int i = 0; i < tickers.size(); i += groupSize) {
+                tickerGroups.add(tickers.subList(i, Math.min(tickers.size(), i + groupSize)));
+            }
+        }
+
+        List<Window> windows = new ArrayList<>();
+        JSONArray windowArray = root.optJSONArray("windows");
+        if (windowArray == null) {
+            windows.add(new Window(null, null));
+        } else {
+            for (int i = 0; i < windowArray.length(); i++) {
+                JSONObject window = windowArray.getJSONObject(i);
+                windows.add(new Window(date(window, "start"), date(window, "end")));
+            }
+        }
+
+        String output = root.optString("output", null);
+        return new SweepSpec(
+                StrategyFactory.StrategyType.valueOf(root.getString("strategy").toUpperCase()),
+                grid,
+                List.copyOf(tickerGroups),
+                List.copyOf(windows),
+                root.has("capital") ? new BigDecimal(root.get("capital").toString()) : DEFAULT_CAPITAL,
+                root.optInt("jobsPerShard", DEFAULT_JOBS_PER_SHARD),
+                output != null ? directory.resolve(output) : null);
+    }
+
+    /**
+     * Expands the sweep into jobs, window by window and ticker group by ticker group, so that
+     * consecutive jobs share their data and land in the same lock-step pass on a worker
+     *
+     * @return Jobs with ids {@code job-1}, {@code job-2}, ...
+     */
+    public List<BatchJob> jobs() {
+        List<Map<String, String>> combinations = new ArrayList<>();
+        combinations.add(new LinkedHashMap<>());
+        for (Map.Entry<String, List<String>> parameter : grid.entrySet()) {
+            List<Map<String, String>> extended = new ArrayList<>(combinations.size() * parameter.getValue().size());
+            for (Map<String, String> combination : combinations) {
+                for (String value : parameter.getValue()) {
+                    Map<String, String> next = new LinkedHashMap<>(combination);
+                    next.put(parameter.getKey(), value);
+                    extended.add(next);
+                }
+            }
+            combinations = extended;
+        }
+
+        List<BatchJob> jobs = new ArrayList<>(windows.size() * tickerGroups.size() * combinations.size());
+        for (Window window : windows) {
+            for (List<String> tickers : tickerGroups) {
+                for (Map<String, String> parameters : combinations) {
+                    jobs.add(new BatchJob("job-" + (jobs.size() + 1), strategy, parameters, capital, tickers,
+                            window.start(), window.end()));
+                }
+            }
+        }
+        return jobs;
+    }
+
+    /**
+     * @return The jobs cut into shards of {@link #jobsPerShard} consecutive jobs
+     */
+    public List<Shard> shards() {
+        List<BatchJob> jobs = jobs();
+        List<Shard> shards = new ArrayList<>((jobs.size() + jobsPerShard - 1) / jobsPerShard);
+        for (int i = 0; i < jobs.size(); i += jobsPerShard) {
+            shards.add(new Shard(shards.size(), List.copyOf(jobs.subList(i, Math.min(jobs.size(), i + jobsPerShard)))));
+        }
+        return shards;
+    }
+
+    private static LocalDate date(JSONObject window, String key) {
+        return window.has(key) && !window.isNull(key) ? LocalDate.parse(window.getString(key)) : null;
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.sweep;
+
+import org.example.batch.BatchRunner;
+import org.example.batch.JobOutcome;
+import org.example.models.MarketDataPoint;
+import org.example.repository.CorporateActionRepository;
+import org.example.repository.LocalBarCache;
+import org.example.repository.MarketDataRepository;
+import org.example.utils.AppLogger;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Worker process of a sharded sweep.
+ * <pre>
+ * SweepWorker HOST PORT [--cache DIR] [--adjusted] [--threads N] [--max-tickers N] [--name NAME]
+ * </pre>
+ * Connects to a {@link SweepCoordinator}, runs the shards it is given on a {@link BatchRunner}
+ * and sends back the outcomes, until the coordinator reports the sweep done. Bars stay cached
+ * in the runner across shards for at most {@code --max-tickers} tickers (default
+ * {@value #DEFAULT_MAX_CACHED_TICKERS}), the least recently used being dropped first, so a long
+ * sweep over a large universe does not grow the worker's heap toward all of it. Bars are read from the local bar cache when {@code --cache} is
+ * given, otherwise from the database, and adjusted for recorded splits and dividends with
+ * {@code --adjusted}.
+ */
+public class SweepWorker {
+    public static final int DEFAULT_MAX_CACHED_TICKERS = 500;
+
+    private static final AppLogger logger = new AppLogger(SweepWorker.class);
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        if (args.length < 2) {
+            System.out.println("Usage: SweepWorker HOST PORT [--cache DIR] [--adjusted] [--threads N] [--max-tickers N] [--name NAME]");
+            return;
+        }
+        String host = args[0];
+        int port = Integer.parseInt(args[1]);
+        Path cacheDirectory = null;
+        boolean adjusted = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int maxCachedTickers = DEFAULT_MAX_CACHED_TICKERS;
+        String name = null;
+        for (int i = 2; i < args.length; i++) {
+            switch (args[i]) {
+                case "--cache" -> cacheDirectory = Path.of(args[++i]);
+                case "--adjusted" -> adjusted = true;
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--max-tickers" -> maxCachedTickers = Integer.parseInt(args[++i]);
+                case "--name" -> name = args[++i];
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        MarketDataRepository repository = null;
+        CorporateActionRepository actionRepository = null;
+        try {
+            if (name == null) {
+                name = InetAddress.getLocalHost().getHostName() + ":" + ProcessHandle.current().pid();
+            }
+            Function<String, List<MarketDataPoint>> barLoader;
+            if (cacheDirectory != null) {
+                barLoader = BatchRunner.cacheLoader(new LocalBarCache(cacheDirectory), adjusted);
+            } else {
+                repository = new MarketDataRepository();
+                actionRepository = adjusted ? new CorporateActionRepository() : null;
+                barLoader = BatchRunner.repositoryLoader(repository, actionRepository);
+            }
+            try (BatchRunner runner = new BatchRunner(barLoader, threads, maxCachedTickers)) {
+                int shards = serve(host, port, name, runner);
+                logger.info("Worker " + name + " ran " + shards + " shards");
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Sweep worker failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (repository != null) {
+                repository.close();
+            }
+            if (actionRepository != null) {
+                actionRepository.close();
+            }
+        }
+    }
+
+    /**
+     * Runs shards for a coordinator until it reports the sweep done
+     *
+     * @param host   Coordinator host
+     * @param port   Coordinator port
+     * @param name   Name the worker reports to the coordinator
+     * @param runner Runner the shards are executed on
+     * @return Number of shards run
+     * @throws IOException If the connection fails
+     */
+    public static int serve(String host, int port, String name, BatchRunner runner) throws IOException, InterruptedException {
+        SweepProtocol connection = new SweepProtocol(new Socket(host, port));
+        try {
+            connection.send(SweepProtocol.message(SweepProtocol.HELLO).put("worker", name));
+            int shards = 0;
+            while (true) {
+                JSONObject message = connection.receive();
+                if (SweepProtocol.DONE.equals(message.optString("type"))) {
+                    return shards;
+                }
+                Shard shard = SweepProtocol.shardOf(message);
+                JSONObject reply;
+                try {
+                    JSONArray outcomes = new JSONArray();
+                    for (JobOutcome outcome : runner.run(shard.jobs())) {
+                        outcomes.put(outcome.toJson());
+                    }
+                    reply = SweepProtocol.message(SweepProtocol.RESULT).put("outcomes", outcomes);
+                } catch (RuntimeException e) {
+                    // Reported so the coordinator can retry the shard elsewhere
+                    logger.error("Shard " + shard.id() + " failed", e);
+                    reply = SweepProtocol.message(SweepProtocol.FAILED).put("error", String.valueOf(e));
+                }
+                connection.send(reply.put("shard", shard.id()));
+                shards++;
+            }
+        } finally {
+            connection.close();
+        }
+    }
+}
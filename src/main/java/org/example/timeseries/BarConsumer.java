@@ -0,0 +1,12 @@
+package org.example.timeseries;
+
+/**
+ * Receives OHLCV bars one at a time without materialising an entity per bar.
+ */
+@FunctionalInterface
+public interface BarConsumer {
+    /**
+     * @param timestamp Bar time in local epoch seconds (see {@link org.example.models.PriceSeries})
+     */
+    void accept(long timestamp, double open, double high, double low, double close, long volume);
+}
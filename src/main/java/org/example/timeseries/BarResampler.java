@@ -0,0 +1,109 @@
+package org.example.timeseries;
+
+/**
+ * Streaming OHLCV aggregator that rolls finer bars into one coarser timeframe in a single
+ * pass. Input must arrive in ascending time order.
+ * <p>
+ * Intraday buckets are anchored at the session open (so hourly bars run 09:30-10:30 and so
+ * on, with the final partial bucket ending at the close); daily bars are stamped at midnight
+ * of the session date and weekly bars at midnight of the Monday starting the week. Bars
+ * outside the session are dropped.
+ */
+public class BarResampler implements BarConsumer {
+    private static final long SECONDS_PER_DAY = 86_400L;
+
+    private final Timeframe timeframe;
+    private final int openSecond;
+    private final int closeSecond;
+    private final int lastMinuteBucket;
+    private final BarConsumer sink;
+
+    private boolean hasBar;
+    private long bucketKey;
+    private long bucketStart;
+    private double open;
+    private double high;
+    private double low;
+    private double close;
+    private long volume;
+    private long droppedBars;
+
+    public BarResampler(Timeframe timeframe, TradingSession session, BarConsumer sink) {
+        this.timeframe = timeframe;
+        this.openSecond = session.openSecond();
+        this.closeSecond = session.closeSecond();
+        this.sink = sink;
+
+        int bucketSeconds = timeframe.length() * 60;
+        this.lastMinuteBucket = Math.max(0, (closeSecond - openSecond - 1) / bucketSeconds);
+    }
+
+    @Override
+    public void accept(long timestamp, double o, double h, double l, double c, long v) {
+        long epochDay = Math.floorDiv(timestamp, SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(timestamp, SECONDS_PER_DAY);
+        if (secondOfDay < openSecond || secondOfDay > closeSecond) {
+            droppedBars++;
+            return;
+        }
+
+        long key;
+        long start;
+        switch (timeframe.unit()) {
+            case MINUTE -> {
+                int bucketSeconds = timeframe.length() * 60;
+                int bucket = Math.min((secondOfDay - openSecond) / bucketSeconds, lastMinuteBucket);
+                key = epochDay * 2048 + bucket;
+                start = epochDay * SECONDS_PER_DAY + openSecond + (long) bucket * bucketSeconds;
+            }
+            case DAY -> {
+                key = epochDay;
+                start = epochDay * SECONDS_PER_DAY;
+            }
+            default -> {
+                // 1970-01-01 was a Thursday, so shifting by 3 days makes weeks start on Monday
+                key = Math.floorDiv(epochDay + 3, 7);
+                start = (key * 7 - 3) * SECONDS_PER_DAY;
+            }
+        }
+
+        if (hasBar && key == bucketKey) {
+            high = Math.max(high, h);
+            low = Math.min(low, l);
+            close = c;
+            volume += v;
+            return;
+        }
+
+        flush();
+        hasBar = true;
+        bucketKey = key;
+        bucketStart = start;
+        open = o;
+        high = h;
+        low = l;
+        close = c;
+        volume = v;
+    }
+
+    /**
+     * Emits the bucket in progress, if any. Call once after the last input bar.
+     */
+    public void flush() {
+        if (hasBar) {
+            sink.accept(bucketStart, open, high, low, close, volume);
+            hasBar = false;
+        }
+    }
+
+    public Timeframe getTimeframe() {
+        return timeframe;
+    }
+
+    /**
+     * @return Number of input bars ignored because they fell outside the session
+     */
+    public long getDroppedBars() {
+        return droppedBars;
+    }
+}
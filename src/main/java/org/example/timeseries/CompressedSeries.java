@@ -0,0 +1,505 @@
+package org.example.timeseries;
+
+import org.example.models.PriceSeries;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Compressed, immutable copy of one ticker's bars, so a whole universe of intraday history can
+ * stay resident.
+ * <p>
+ * Bars are cut into blocks of {@link #BLOCK_BARS}, each encoded on its own into a byte array:
+ * <ul>
+ *     <li>timestamps as the first value, the first delta and then delta-of-deltas, so bars
+ *     at a regular interval take one byte each;</li>
+ *     <li>prices as integers scaled by the fewest decimal places that reproduce every price
+ *     of the block exactly: the close as a delta from the previous close, open, high and low
+ *     as deltas from the bar's own open and close. Blocks whose prices have no exact scaled
+ *     form fall back to XOR-ing each price's bits with the previous one and storing only the
+ *     bytes that differ;</li>
+ *     <li>volumes as varints.</li>
+ * </ul>
+ * All integers are zigzag varints. Decoding reproduces the stored doubles bit for bit and
+ * walks a block in one forward pass. The start time of every block is kept uncompressed, so a
+ * time range is decoded from the block holding its first bar without touching earlier ones.
+ */
+public final class CompressedSeries {
+    public static final int BLOCK_BARS = 1024;
+
+    private static final int XOR_MODE = 0xFF;
+    private static final int MAX_DECIMALS = 8;
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8};
+    private static final double MAX_SCALED = 0x1p53; // Beyond this a scaled price is no longer an exact integer
+    private static final int MAX_BAR_BYTES = 10 + 4 * 10 + 10;
+
+    private final String ticker;
+    private final byte[][] blocks;
+    private final long[] blockStarts;  // Timestamp of each block's first bar
+    private final int size;
+    private final long lastTimestamp;
+
+    private CompressedSeries(String ticker, byte[][] blocks, long[] blockStarts, int size, long lastTimestamp) {
+        this.ticker = ticker;
+        this.blocks = blocks;
+        this.blockStarts = blockStarts;
+        this.size = size;
+        this.lastTimestamp = lastTimestamp;
+    }
+
+    /**
+     * @param series Bars in ascending timestamp order
+     * @return The same bars, compressed
+     */
+    public static CompressedSeries encode(PriceSeries series) {
+        Builder builder = new Builder(series.getTicker());
+        builder.addAll(series, 0);
+        return builder.build();
+    }
+
+    public String getTicker() { return ticker; }
+    public int size() { return size; }
+    public int blockCount() { return blocks.length; }
+
+    /**
+     * @return Local epoch seconds of the first bar
+     * @throws NoSuchElementException If the series is empty
+     */
+    public long firstTimestamp() {
+        if (size == 0) {
+            throw new NoSuchElementException("No bars for " + ticker);
+        }
+        return blockStarts[0];
+    }
+
+    /**
+     * @return Local epoch seconds of the last bar
+     * @throws NoSuchElementException If the series is empty
+     */
+    public long lastTimestamp() {
+        if (size == 0) {
+            throw new NoSuchElementException("No bars for " + ticker);
+        }
+        return lastTimestamp;
+    }
+
+    /**
+     * @return Approximate heap footprint of the encoded bars, including array headers
+     */
+    public long memoryBytes() {
+        long bytes = 48 + 16 + 8L * blocks.length + 16 + 8L * blockStarts.length;
+        for (byte[] block : blocks) {
+            bytes += (16 + block.length + 7) & ~7L;
+        }
+        return bytes;
+    }
+
+    /**
+     * @param timestamp Local epoch seconds
+     * @return Index of the last block starting at or before the time, or -1 if every block is later
+     */
+    public int blockOf(long timestamp) {
+        int lo = 0;
+        int hi = blockStarts.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (blockStarts[mid] <= timestamp) {
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return hi;
+    }
+
+    /**
+     * Hands one block's bars to the consumer in timestamp order
+     *
+     * @return Number of bars in the block
+     */
+    public int decodeBlock(int block, BarConsumer consumer) {
+        return decode(blocks[block], Long.MIN_VALUE, Long.MAX_VALUE, consumer);
+    }
+
+    /**
+     * Hands every bar to the consumer in timestamp order
+     */
+    public void forEach(BarConsumer consumer) {
+        for (byte[] block : blocks) {
+            decode(block, Long.MIN_VALUE, Long.MAX_VALUE, consumer);
+        }
+    }
+
+    /**
+     * Hands the bars within a time range to the consumer in timestamp order, starting at the
+     * block that holds the first of them
+     *
+     * @param from First local epoch second included
+     * @param to   Last local epoch second included
+     */
+    public void forEach(long from, long to, BarConsumer consumer) {
+        for (int b = Math.max(0, blockOf(from)); b < blocks.length && blockStarts[b] <= to; b++) {
+            decode(blocks[b], from, to, consumer);
+        }
+    }
+
+    /**
+     * @return Every bar, decoded into primitive columns
+     */
+    public PriceSeries toPriceSeries() {
+        PriceSeries.Builder builder = new PriceSeries.Builder(ticker, size);
+        forEach(builder::add);
+        return builder.build();
+    }
+
+    /**
+     * @param from First local epoch second included
+     * @param to   Last local epoch second included
+     * @return The bars within the range, decoded into primitive columns
+     */
+    public PriceSeries toPriceSeries(long from, long to) {
+        PriceSeries.Builder builder = new PriceSeries.Builder(ticker);
+        forEach(from, to, builder::add);
+        return builder.build();
+    }
+
+    /**
+     * Returns this series followed by the bars of another. This series is left unchanged; full
+     * blocks are shared with the result and only a partly filled last block is re-encoded.
+     *
+     * @param more Bars after this series' last bar, in ascending timestamp order
+     * @return Combined series
+     */
+    public CompressedSeries append(PriceSeries more) {
+        if (more.size() == 0) {
+            return this;
+        }
+        Builder builder = new Builder(ticker);
+        int full = size % BLOCK_BARS == 0 ? blocks.length : blocks.length - 1;
+        for (int b = 0; b < full; b++) {
+            builder.addBlock(blocks[b], blockStarts[b], BLOCK_BARS);
+        }
+        if (full < blocks.length) {
+            decodeBlock(full, builder::add);
+        }
+        builder.addAll(more, 0);
+        return builder.build();
+    }
+
+    // Decodes a block, passing on only the bars within [from, to]
+    private static int decode(byte[] block, long from, long to, BarConsumer consumer) {
+        Reader in = new Reader(block);
+        int count = (int) in.varint();
+        int mode = in.bytes[in.pos++] & 0xFF;
+        double scale = mode != XOR_MODE ? POWERS_OF_TEN[mode] : 0.0;
+
+        long timestamp = 0;
+        long delta = 0;
+        long close = 0;
+        long openBits = 0;
+        long highBits = 0;
+        long lowBits = 0;
+        long closeBits = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0) {
+                timestamp = in.zigzag();
+            } else {
+                delta = i == 1 ? in.zigzag() : delta + in.zigzag();
+                timestamp += delta;
+            }
+
+            double o;
+            double h;
+            double l;
+            double c;
+            if (mode != XOR_MODE) {
+                close += in.zigzag();
+                long open = close + in.zigzag();
+                long high = Math.max(open, close) + in.zigzag();
+                long low = Math.min(open, close) - in.zigzag();
+                o = open / scale;
+                h = high / scale;
+                l = low / scale;
+                c = close / scale;
+            } else {
+                closeBits = in.xor(closeBits);
+                openBits = in.xor(openBits);
+                highBits = in.xor(highBits);
+                lowBits = in.xor(lowBits);
+                o = Double.longBitsToDouble(openBits);
+                h = Double.longBitsToDouble(highBits);
+                l = Double.longBitsToDouble(lowBits);
+                c = Double.longBitsToDouble(closeBits);
+            }
+            long volume = in.zigzag();
+
+            if (timestamp > to) {
+                break;
+            }
+            if (timestamp >= from) {
+                consumer.accept(timestamp, o, h, l, c, volume);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Encodes bars block by block as they are added, so a series never has to exist
+     * uncompressed in full.
+     */
+    public static final class Builder {
+        private final String ticker;
+        private byte[][] blocks = new byte[16][];
+        private long[] blockStarts = new long[16];
+        private int blockCount;
+        private int size;
+        private long lastTimestamp = Long.MIN_VALUE;
+
+        // The block being filled
+        private final long[] timestamps = new long[BLOCK_BARS];
+        private final double[] open = new double[BLOCK_BARS];
+        private final double[] high = new double[BLOCK_BARS];
+        private final double[] low = new double[BLOCK_BARS];
+        private final double[] close = new double[BLOCK_BARS];
+        private final long[] volume = new long[BLOCK_BARS];
+        private int pending;
+        private byte[] scratch;
+
+        public Builder(String ticker) {
+            this.ticker = ticker;
+        }
+
+        public Builder add(long timestamp, double o, double h, double l, double c, long v) {
+            timestamps[pending] = timestamp;
+            open[pending] = o;
+            high[pending] = h;
+            low[pending] = l;
+            close[pending] = c;
+            volume[pending] = v;
+            pending++;
+            size++;
+            lastTimestamp = timestamp;
+            if (pending == BLOCK_BARS) {
+                flush();
+            }
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @return Series over the bars added so far; the builder stays usable
+         */
+        public CompressedSeries build() {
+            int count = blockCount;
+            byte[][] built = Arrays.copyOf(blocks, count + (pending > 0 ? 1 : 0));
+            long[] starts = Arrays.copyOf(blockStarts, built.length);
+            if (pending > 0) {
+                built[count] = encodeBlock();
+                starts[count] = timestamps[0];
+            }
+            return new CompressedSeries(ticker, built, starts, size, lastTimestamp);
+        }
+
+        private void addAll(PriceSeries series, int from) {
+            for (int i = from; i < series.size(); i++) {
+                add(series.timestampAt(i), series.openAt(i), series.highAt(i), series.lowAt(i), series.closeAt(i),
+                        series.volumeAt(i));
+            }
+        }
+
+        // Takes over an already encoded full block; only valid while no bars are pending
+        private void addBlock(byte[] block, long start, int bars) {
+            if (blockCount == blocks.length) {
+                blocks = Arrays.copyOf(blocks, blockCount * 2);
+                blockStarts = Arrays.copyOf(blockStarts, blockCount * 2);
+            }
+            blocks[blockCount] = block;
+            blockStarts[blockCount] = start;
+            blockCount++;
+            size += bars;
+        }
+
+        private void flush() {
+            byte[] block = encodeBlock();
+            long start = timestamps[0];
+            long last = lastTimestamp;
+            int bars = pending;
+            pending = 0;
+            size -= bars;
+            addBlock(block, start, bars);
+            lastTimestamp = last;
+        }
+
+        private byte[] encodeBlock() {
+            if (scratch == null) {
+                scratch = new byte[10 + 1 + BLOCK_BARS * MAX_BAR_BYTES];
+            }
+            Writer out = new Writer(scratch);
+            out.varint(pending);
+            int decimals = decimals();
+            out.bytes[out.pos++] = (byte) decimals;
+            double scale = decimals != XOR_MODE ? POWERS_OF_TEN[decimals] : 0.0;
+
+            long previousTimestamp = 0;
+            long previousDelta = 0;
+            long previousClose = 0;
+            long openBits = 0;
+            long highBits = 0;
+            long lowBits = 0;
+            long closeBits = 0;
+            for (int i = 0; i < pending; i++) {
+                if (i == 0) {
+                    out.zigzag(timestamps[i]);
+                } else {
+                    long delta = timestamps[i] - previousTimestamp;
+                    out.zigzag(i == 1 ? delta : delta - previousDelta);
+                    previousDelta = delta;
+                }
+                previousTimestamp = timestamps[i];
+
+                if (decimals != XOR_MODE) {
+                    long c = Math.round(close[i] * scale);
+                    long o = Math.round(open[i] * scale);
+                    long h = Math.round(high[i] * scale);
+                    long l = Math.round(low[i] * scale);
+                    out.zigzag(c - previousClose);
+                    out.zigzag(o - c);
+                    out.zigzag(h - Math.max(o, c));
+                    out.zigzag(Math.min(o, c) - l);
+                    previousClose = c;
+                } else {
+                    closeBits = out.xor(Double.doubleToRawLongBits(close[i]), closeBits);
+                    openBits = out.xor(Double.doubleToRawLongBits(open[i]), openBits);
+                    highBits = out.xor(Double.doubleToRawLongBits(high[i]), highBits);
+                    lowBits = out.xor(Double.doubleToRawLongBits(low[i]), lowBits);
+                }
+                out.zigzag(volume[i]);
+            }
+            return Arrays.copyOf(scratch, out.pos);
+        }
+
+        // Fewest decimal places that reproduce every price of the block, or XOR_MODE if none do
+        private int decimals() {
+            int decimals = 0;
+            for (int i = 0; i < pending; i++) {
+                decimals = decimals(open[i], decimals);
+                decimals = decimals(high[i], decimals);
+                decimals = decimals(low[i], decimals);
+                decimals = decimals(close[i], decimals);
+                if (decimals > MAX_DECIMALS) {
+                    return XOR_MODE;
+                }
+            }
+            // A price exact at a smaller scale can overflow MAX_SCALED or round differently at the final one
+            for (int i = 0; i < pending; i++) {
+                if (!isExact(open[i], decimals) || !isExact(high[i], decimals)
+                        || !isExact(low[i], decimals) || !isExact(close[i], decimals)) {
+                    return XOR_MODE;
+                }
+            }
+            return decimals;
+        }
+
+        // Smallest scale at or above the given one that reproduces the price, or MAX_DECIMALS + 1
+        private static int decimals(double price, int decimals) {
+            while (decimals <= MAX_DECIMALS && !isExact(price, decimals)) {
+                decimals++;
+            }
+            return decimals;
+        }
+
+        private static boolean isExact(double price, int decimals) {
+            double scaled = price * POWERS_OF_TEN[decimals];
+            return Math.abs(scaled) < MAX_SCALED && Math.round(scaled) / POWERS_OF_TEN[decimals] == price;
+        }
+    }
+
+    private static final class Writer {
+        final byte[] bytes;
+        int pos;
+
+        Writer(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        void varint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                bytes[pos++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[pos++] = (byte) value;
+        }
+
+        void zigzag(long value) {
+            varint((value << 1) ^ (value >> 63));
+        }
+
+        // One header byte with the trailing zero bytes and length of the changed bytes, then those bytes
+        long xor(long bits, long previous) {
+            long x = bits ^ previous;
+            if (x == 0) {
+                bytes[pos++] = 0;
+                return bits;
+            }
+            int trailing = Long.numberOfTrailingZeros(x) >>> 3;
+            int length = 8 - trailing - (Long.numberOfLeadingZeros(x) >>> 3);
+            bytes[pos++] = (byte) (trailing << 4 | length);
+            long changed = x >>> (trailing << 3);
+            for (int i = 0; i < length; i++) {
+                bytes[pos++] = (byte) changed;
+                changed >>>= 8;
+            }
+            return bits;
+        }
+    }
+
+    private static final class Reader {
+        final byte[] bytes;
+        int pos;
+
+        Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        long varint() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[pos++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+        long zigzag() {
+            // Most values fit in one byte
+            byte b = bytes[pos];
+            long value;
+            if (b >= 0) {
+                pos++;
+                value = b;
+            } else {
+                value = varint();
+            }
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        long xor(long previous) {
+            int header = bytes[pos++] & 0xFF;
+            if (header == 0) {
+                return previous;
+            }
+            int length = header & 0x0F;
+            long changed = 0;
+            for (int i = 0; i < length; i++) {
+                changed |= (bytes[pos++] & 0xFFL) << (i << 3);
+            }
+            return previous ^ (changed << ((header >>> 4) << 3));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.timeseries;
+
+import org.example.models.PriceSeries;
+import org.example.repository.MarketDataRepository;
+
+/**
+ * Produces several coarser timeframes from one ordered read of a finer series.
+ */
+public class MultiTimeframeResampler implements BarConsumer {
+    private final Timeframe[] timeframes;
+    private final BarResampler[] resamplers;
+    private final PriceSeries.Builder[] builders;
+
+    public MultiTimeframeResampler(String ticker, TradingSession session, Timeframe... timeframes) {
+        this.timeframes = timeframes.clone();
+        this.resamplers = new BarResampler[timeframes.length];
+        this.builders = new PriceSeries.Builder[timeframes.length];
+
+        for (int i = 0; i < timeframes.length; i++) {
+            builders[i] = new PriceSeries.Builder(ticker);
+            resamplers[i] = new BarResampler(timeframes[i], session, builders[i]::add);
+        }
+    }
+
+    @Override
+    public void accept(long timestamp, double open, double high, double low, double close, long volume) {
+        for (BarResampler resampler : resamplers) {
+            resampler.accept(timestamp, open, high, low, close, volume);
+        }
+    }
+
+    /**
+     * Flushes the open buckets and returns one series per requested timeframe, in the order
+     * the timeframes were given.
+     *
+     * @return Resampled series
+     */
+    public PriceSeries[] finish() {
+        PriceSeries[] result = new PriceSeries[resamplers.length];
+        for (int i = 0; i < resamplers.length; i++) {
+            resamplers[i].flush();
+            result[i] = builders[i].build();
+        }
+        return result;
+    }
+
+    public Timeframe[] getTimeframes() {
+        return timeframes.clone();
+    }
+
+    /**
+     * Resamples an in-memory series
+     *
+     * @param source     Finer-grained series in ascending order
+     * @param session    Session used for alignment
+     * @param timeframes Target timeframes
+     * @return One series per timeframe
+     */
+    public static PriceSeries[] resample(PriceSeries source, TradingSession session, Timeframe... timeframes) {
+        MultiTimeframeResampler resampler = new MultiTimeframeResampler(source.getTicker(), session, timeframes);
+        for (int i = 0; i < source.size(); i++) {
+            resampler.accept(source.timestampAt(i), source.openAt(i), source.highAt(i),
+                    source.lowAt(i), source.closeAt(i), source.volumeAt(i));
+        }
+        return resampler.finish();
+    }
+
+    /**
+     * Resamples a ticker straight from the database cursor, without holding the fine bars
+     *
+     * @param repository Market data repository
+     * @param ticker     Ticker to read
+     * @param session    Session used for alignment
+     * @param timeframes Target timeframes
+     * @return One series per timeframe
+     */
+    public static PriceSeries[] resample(MarketDataRepository repository, String ticker,
+                                         TradingSession session, Timeframe... timeframes) {
+        MultiTimeframeResampler resampler = new MultiTimeframeResampler(ticker, session, timeframes);
+        repository.streamByTicker(ticker, resampler);
+        return resampler.finish();
+    }
+}
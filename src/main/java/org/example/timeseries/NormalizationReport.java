@@ -0,0 +1,34 @@
+package org.example.timeseries;
+
+import java.time.Duration;
+
+/**
+ * What {@link SeriesNormalizer} found in one ticker's bars
+ *
+ * @param ticker            Ticker of the bars
+ * @param inputBars         Bars received
+ * @param bars              Bars kept
+ * @param reordered         Whether the bars had to be sorted
+ * @param duplicates        Bars replaced by a later bar with the same timestamp
+ * @param dropped           Bars without a timestamp or a positive close
+ * @param suspect           Bars kept although their open, high, low or volume are inconsistent
+ * @param gaps              Missing stretches between consecutive bars
+ * @param largestGapSeconds Longest time between two bars either side of a gap
+ */
+public record NormalizationReport(String ticker, int inputBars, int bars, boolean reordered, int duplicates,
+                                  int dropped, int suspect, int gaps, long largestGapSeconds) {
+
+    /**
+     * @return Whether the bars were already sorted, unique and valid; gaps do not count
+     */
+    public boolean isClean() {
+        return !reordered && duplicates == 0 && dropped == 0 && suspect == 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d of %d bars kept%s, %d duplicates, %d dropped, %d suspect, %d gaps (largest %s)",
+                ticker, bars, inputBars, reordered ? " after sorting" : "", duplicates, dropped, suspect, gaps,
+                Duration.ofSeconds(largestGapSeconds));
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.timeseries;
+
+import org.example.models.MarketDataPoint;
+import org.example.models.PriceSeries;
+
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Bars of one ticker that went through {@link SeriesNormalizer}: strictly ascending timestamps
+ * and a positive close on every bar. The list is read-only and its sub-lists are normalized
+ * series too, so date slices keep both the guarantee and the binary searches over the
+ * primitive timestamps.
+ */
+public final class NormalizedSeries extends AbstractList<MarketDataPoint> implements RandomAccess {
+    private final MarketDataPoint[] bars;
+    private final long[] timestamps;
+    private final BitSet gapStarts;
+    private final int from;
+    private final int size;
+    private final NormalizationReport report;
+
+    NormalizedSeries(MarketDataPoint[] bars, long[] timestamps, BitSet gapStarts, int from, int size,
+                     NormalizationReport report) {
+        this.bars = bars;
+        this.timestamps = timestamps;
+        this.gapStarts = gapStarts;
+        this.from = from;
+        this.size = size;
+        this.report = report;
+    }
+
+    @Override
+    public MarketDataPoint get(int index) {
+        return bars[from + Objects.checkIndex(index, size)];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public NormalizedSeries subList(int fromIndex, int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, size);
+        return new NormalizedSeries(bars, timestamps, gapStarts, from + fromIndex, toIndex - fromIndex, report);
+    }
+
+    /**
+     * @return Bar time in local epoch seconds (see {@link PriceSeries})
+     */
+    public long timestampAt(int index) {
+        return timestamps[from + Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * @return Whether the bar is the first after a gap in the data
+     */
+    public boolean followsGap(int index) {
+        return gapStarts.get(from + Objects.checkIndex(index, size));
+    }
+
+    /**
+     * @return Index of the last bar at or before the time, or -1 if every bar is later
+     */
+    public int indexAtOrBefore(LocalDateTime time) {
+        return firstAfter(PriceSeries.toEpochSeconds(time)) - 1;
+    }
+
+    /**
+     * @return Index of the first bar at or after the time, or {@link #size()} if every bar is earlier
+     */
+    public int firstAtOrAfter(LocalDateTime time) {
+        return firstAfter(PriceSeries.toEpochSeconds(time) - 1);
+    }
+
+    /**
+     * @return What normalization found in the whole series this one was cut from
+     */
+    public NormalizationReport report() {
+        return report;
+    }
+
+    private int firstAfter(long epochSeconds) {
+        int low = from;
+        int high = from + size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[mid] <= epochSeconds) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low - from;
+    }
+}
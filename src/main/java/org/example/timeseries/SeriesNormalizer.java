@@ -0,0 +1,134 @@
+package org.example.timeseries;
+
+import org.example.models.MarketDataPoint;
+import org.example.models.PriceSeries;
+import org.example.utils.AppLogger;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Normalization stage between the fetchers and repositories and the backtest engine.
+ * <p>
+ * One pass over the bars drops those without a timestamp or a positive close, flags bars whose
+ * open, high, low or volume are inconsistent, and checks the order. Only input that turns out to
+ * be unsorted is sorted, stably; equal timestamps are then adjacent and the later bar wins.
+ * Gaps are flagged on the primitive timestamps: within a day when bars are more than three bar
+ * intervals apart, across days when more than four calendar days apart, so weekends and long
+ * weekends of daily data are not gaps. The result is a {@link NormalizedSeries}, which the
+ * engine accepts as is.
+ */
+public final class SeriesNormalizer {
+    private static final AppLogger logger = new AppLogger(SeriesNormalizer.class);
+    private static final long SECONDS_PER_DAY = 86_400;
+    private static final int INTRADAY_GAP_INTERVALS = 3;
+    private static final int MAX_CALENDAR_DAYS = 4;
+    private static final Comparator<MarketDataPoint> BY_TIMESTAMP = Comparator.comparing(MarketDataPoint::getTimestamp);
+
+    private SeriesNormalizer() {
+    }
+
+    /**
+     * Normalizes one ticker's bars; a series normalized before is returned unchanged
+     *
+     * @param ticker Ticker of the bars, for the report
+     * @param bars   Bars in any order
+     * @return Sorted, de-duplicated bars with a usable close
+     */
+    public static NormalizedSeries normalize(String ticker, List<MarketDataPoint> bars) {
+        if (bars instanceof NormalizedSeries normalized) {
+            return normalized;
+        }
+
+        MarketDataPoint[] kept = new MarketDataPoint[bars.size()];
+        int count = 0;
+        int dropped = 0;
+        int suspect = 0;
+        boolean sorted = true;
+        MarketDataPoint previous = null;
+        for (MarketDataPoint bar : bars) {
+            if (bar == null || bar.getTimestamp() == null || !isPositive(bar.getClose())) {
+                dropped++;
+                continue;
+            }
+            if (!isConsistent(bar)) {
+                suspect++;
+            }
+            if (previous != null && bar.getTimestamp().isBefore(previous.getTimestamp())) {
+                sorted = false;
+            }
+            previous = bar;
+            kept[count++] = bar;
+        }
+        if (!sorted) {
+            Arrays.sort(kept, 0, count, BY_TIMESTAMP);
+        }
+
+        long[] timestamps = new long[count];
+        int size = 0;
+        int duplicates = 0;
+        long interval = Long.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            long timestamp = PriceSeries.toEpochSeconds(kept[i].getTimestamp());
+            if (size > 0 && timestamp == timestamps[size - 1]) {
+                kept[size - 1] = kept[i];
+                duplicates++;
+                continue;
+            }
+            if (size > 0) {
+                interval = Math.min(interval, timestamp - timestamps[size - 1]);
+            }
+            kept[size] = kept[i];
+            timestamps[size] = timestamp;
+            size++;
+        }
+
+        BitSet gapStarts = new BitSet();
+        long largestGap = 0;
+        for (int i = 1; i < size; i++) {
+            long spacing = timestamps[i] - timestamps[i - 1];
+            long days = Math.floorDiv(timestamps[i], SECONDS_PER_DAY) - Math.floorDiv(timestamps[i - 1], SECONDS_PER_DAY);
+            boolean gap = days == 0 ? spacing > INTRADAY_GAP_INTERVALS * interval : days > MAX_CALENDAR_DAYS;
+            if (gap) {
+                gapStarts.set(i);
+                largestGap = Math.max(largestGap, spacing);
+            }
+        }
+
+        NormalizationReport report = new NormalizationReport(ticker, bars.size(), size, !sorted, duplicates, dropped,
+                suspect, gapStarts.cardinality(), largestGap);
+        if (!report.isClean()) {
+            logger.warn("Normalized " + report);
+        }
+        return new NormalizedSeries(kept, timestamps, gapStarts, 0, size, report);
+    }
+
+    /**
+     * Normalizes the bars of several tickers, keeping the map's order
+     */
+    public static Map<String, List<MarketDataPoint>> normalizeAll(Map<String, List<MarketDataPoint>> marketData) {
+        Map<String, List<MarketDataPoint>> normalized = new LinkedHashMap<>();
+        marketData.forEach((ticker, bars) -> normalized.put(ticker, normalize(ticker, bars)));
+        return normalized;
+    }
+
+    private static boolean isPositive(BigDecimal price) {
+        return price != null && price.signum() > 0;
+    }
+
+    private static boolean isConsistent(MarketDataPoint bar) {
+        BigDecimal open = bar.getOpen();
+        BigDecimal high = bar.getHigh();
+        BigDecimal low = bar.getLow();
+        BigDecimal close = bar.getClose();
+        return isPositive(open) && isPositive(high) && isPositive(low) && bar.getVolume() >= 0
+                && high.compareTo(low) >= 0
+                && open.compareTo(low) >= 0 && open.compareTo(high) <= 0
+                && close.compareTo(low) >= 0 && close.compareTo(high) <= 0;
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.timeseries;
+
+/**
+ * Target bar size for resampling.
+ *
+ * @param unit   Calendar unit of the bar
+ * @param length Number of units per bar (only meaningful for {@link Unit#MINUTE})
+ */
+public record Timeframe(Unit unit, int length) {
+    public static final Timeframe HOURLY = minutes(60);
+    public static final Timeframe DAILY = new Timeframe(Unit.DAY, 1);
+    public static final Timeframe WEEKLY = new Timeframe(Unit.WEEK, 1);
+
+    public enum Unit {
+        MINUTE, DAY, WEEK
+    }
+
+    public Timeframe {
+        if (length <= 0) {
+            throw new IllegalArgumentException("Timeframe length must be positive: " + length);
+        }
+    }
+
+    public static Timeframe minutes(int minutes) {
+        return new Timeframe(Unit.MINUTE, minutes);
+    }
+
+    /**
+     * Maps an Alpha Vantage style interval ("5min", "60min", "daily", "weekly") to a timeframe
+     *
+     * @param interval The interval string
+     * @return Corresponding Timeframe
+     */
+    public static Timeframe parse(String interval) {
+        String value = interval.toLowerCase();
+        return switch (value) {
+            case "daily" -> DAILY;
+            case "weekly" -> WEEKLY;
+            default -> {
+                if (!value.endsWith("min")) {
+                    throw new IllegalArgumentException("Unsupported interval: " + interval);
+                }
+                yield minutes(Integer.parseInt(value.substring(0, value.length() - 3)));
+            }
+        };
+    }
+}
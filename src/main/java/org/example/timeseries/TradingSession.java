@@ -0,0 +1,31 @@
+package org.example.timeseries;
+
+import java.time.LocalTime;
+
+/**
+ * Exchange session used to align intraday buckets and to drop extended-hours bars.
+ *
+ * @param open  Session open, inclusive
+ * @param close Session close, inclusive so that bars stamped at the close are kept
+ */
+public record TradingSession(LocalTime open, LocalTime close) {
+    /** NYSE/Nasdaq regular trading hours. */
+    public static final TradingSession US_REGULAR = new TradingSession(LocalTime.of(9, 30), LocalTime.of(16, 0));
+
+    /** Whole calendar day; use when the input is already daily or has no session concept. */
+    public static final TradingSession ALL_DAY = new TradingSession(LocalTime.MIDNIGHT, LocalTime.MAX);
+
+    public TradingSession {
+        if (close.isBefore(open)) {
+            throw new IllegalArgumentException("Session close is before open: " + open + " - " + close);
+        }
+    }
+
+    public int openSecond() {
+        return open.toSecondOfDay();
+    }
+
+    public int closeSecond() {
+        return close.toSecondOfDay();
+    }
+}
@@ -0,0 +1,103 @@
+package org.example.utils;
+
+/**
+ * Allocation-free top-K / bottom-K selection over a primitive score column.
+ * <p>
+ * Uses a bounded binary heap kept in the caller's output array, so selecting K of N
+ * candidates costs O(N log K) with no boxing.
+ */
+public final class TopKSelector {
+
+    private TopKSelector() {
+    }
+
+    /**
+     * Selects the indices of the K highest scores, best first. NaN scores are skipped.
+     *
+     * @param scores         Score per index
+     * @param candidates     Indices eligible for selection
+     * @param candidateCount Number of valid entries in {@code candidates}
+     * @param k              Number of indices to select
+     * @param out            Output buffer of length at least {@code k}
+     * @return Number of indices written to {@code out}
+     */
+    public static int selectTop(double[] scores, int[] candidates, int candidateCount, int k, int[] out) {
+        return select(scores, candidates, candidateCount, k, out, 1.0);
+    }
+
+    /**
+     * Selects the indices of the K lowest scores, lowest first. NaN scores are skipped.
+     *
+     * @see #selectTop(double[], int[], int, int, int[])
+     */
+    public static int selectBottom(double[] scores, int[] candidates, int candidateCount, int k, int[] out) {
+        return select(scores, candidates, candidateCount, k, out, -1.0);
+    }
+
+    private static int select(double[] scores, int[] candidates, int candidateCount, int k, int[] out, double sign) {
+        if (k <= 0) {
+            return 0;
+        }
+        int size = 0;
+
+        // Min-heap (by signed score) of the best K seen so far; the root is the weakest member
+        for (int c = 0; c < candidateCount; c++) {
+            int index = candidates[c];
+            double score = scores[index];
+            if (Double.isNaN(score)) {
+                continue;
+            }
+            if (size < k) {
+                out[size] = index;
+                siftUp(scores, out, size, sign);
+                size++;
+            } else if (score * sign > scores[out[0]] * sign) {
+                out[0] = index;
+                siftDown(scores, out, 0, size, sign);
+            }
+        }
+
+        // Heap-sort in place so the best element ends up first
+        for (int end = size - 1; end > 0; end--) {
+            int tmp = out[0];
+            out[0] = out[end];
+            out[end] = tmp;
+            siftDown(scores, out, 0, end, sign);
+        }
+        return size;
+    }
+
+    private static void siftUp(double[] scores, int[] heap, int pos, double sign) {
+        int item = heap[pos];
+        double key = scores[item] * sign;
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (scores[heap[parent]] * sign <= key) {
+                break;
+            }
+            heap[pos] = heap[parent];
+            pos = parent;
+        }
+        heap[pos] = item;
+    }
+
+    private static void siftDown(double[] scores, int[] heap, int pos, int size, double sign) {
+        int item = heap[pos];
+        double key = scores[item] * sign;
+        while (true) {
+            int child = 2 * pos + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && scores[heap[child + 1]] * sign < scores[heap[child]] * sign) {
+                child++;
+            }
+            if (key <= scores[heap[child]] * sign) {
+                break;
+            }
+            heap[pos] = heap[child];
+            pos = child;
+        }
+        heap[pos] = item;
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RollingAnalyticsTest {
+    private static final double TOLERANCE = 1e-9;
+
+    // Two-pass statistics of one window, as a reference for the running sums
+    private record Reference(double beta, double alpha, double correlation, double standardDeviation, double meanY) {
+        static Reference of(double[] x, double[] y, int end, int window) {
+            double meanX = 0.0;
+            double meanY = 0.0;
+            for (int i = end - window + 1; i <= end; i++) {
+                meanX += x[i];
+                meanY += y[i];
+            }
+            meanX /= window;
+            meanY /= window;
+            double varX = 0.0;
+            double varY = 0.0;
+            double cov = 0.0;
+            for (int i = end - window + 1; i <= end; i++) {
+                varX += (x[i] - meanX) * (x[i] - meanX);
+                varY += (y[i] - meanY) * (y[i] - meanY);
+                cov += (x[i] - meanX) * (y[i] - meanY);
+            }
+            double beta = cov / varX;
+            return new Reference(beta, meanY - beta * meanX, cov / Math.sqrt(varX * varY),
+                    Math.sqrt(varY / (window - 1)), meanY);
+        }
+    }
+
+    private static double[][] correlatedReturns(int length, double offset, long seed) {
+        Random random = new Random(seed);
+        double[] benchmark = new double[length];
+        double[] strategy = new double[length];
+        for (int i = 0; i < length; i++) {
+            benchmark[i] = offset + random.nextGaussian() * 0.01;
+            strategy[i] = offset + 0.0002 + 1.3 * (benchmark[i] - offset) + random.nextGaussian() * 0.005;
+        }
+        return new double[][]{benchmark, strategy};
+    }
+
+    private static void assertMatchesTwoPass(double[] benchmark, double[] strategy, int window, double riskFree,
+                                             double tolerance) {
+        RollingAnalytics analytics = RollingAnalytics.compute(strategy, benchmark, window, riskFree);
+        assertEquals(strategy.length, analytics.length());
+        for (int i = 0; i < window - 1; i++) {
+            assertTrue(Double.isNaN(analytics.getBeta()[i]));
+            assertTrue(Double.isNaN(analytics.getSharpeRatio()[i]));
+        }
+        double annualization = Math.sqrt(252.0);
+        for (int i = window - 1; i < strategy.length; i++) {
+            Reference expected = Reference.of(benchmark, strategy, i, window);
+            String at = "period " + i;
+            assertEquals(expected.beta(), analytics.getBeta()[i], tolerance, at);
+            assertEquals(expected.alpha(), analytics.getAlpha()[i], tolerance, at);
+            assertEquals(expected.correlation(), analytics.getCorrelation()[i], tolerance, at);
+            assertEquals(expected.standardDeviation() * annualization, analytics.getVolatility()[i], tolerance, at);
+            assertEquals((expected.meanY() - riskFree) / expected.standardDeviation() * annualization,
+                    analytics.getSharpeRatio()[i], tolerance * 100, at);
+        }
+    }
+
+    @Test
+    void runningSumsMatchATwoPassComputationOfEachWindow() {
+        double[][] returns = correlatedReturns(2_000, 0.0, 11);
+        assertMatchesTwoPass(returns[0], returns[1], 60, 0.0001, TOLERANCE);
+    }
+
+    @Test
+    void driftStaysBoundedOnLongSeriesFarFromZero() {
+        // Large values relative to their spread are where subtract-on-evict loses the most digits
+        double[][] returns = correlatedReturns(200_000, 5.0, 12);
+        assertMatchesTwoPass(returns[0], returns[1], 20, 0.0, 1e-6);
+    }
+
+    @Test
+    void exactLinearRelationHasItsSlopeAndIntercept() {
+        double[][] returns = correlatedReturns(100, 0.0, 13);
+        double[] strategy = new double[100];
+        for (int i = 0; i < strategy.length; i++) {
+            strategy[i] = 0.001 + 2.0 * returns[0][i];
+        }
+        RollingAnalytics analytics = RollingAnalytics.compute(strategy, returns[0], 10, 0.0);
+
+        assertEquals(10, analytics.getWindow());
+        for (int i = 9; i < strategy.length; i++) {
+            assertEquals(2.0, analytics.getBeta()[i], 1e-9);
+            assertEquals(0.001, analytics.getAlpha()[i], 1e-12);
+            assertEquals(1.0, analytics.getCorrelation()[i], 1e-9);
+        }
+    }
+
+    @Test
+    void flatSeriesHaveNoSharpeRatioOrBeta() {
+        double[] flat = new double[30];
+        double[][] returns = correlatedReturns(30, 0.0, 14);
+        RollingAnalytics flatStrategy = RollingAnalytics.compute(flat, returns[0], 5, 0.0);
+        RollingAnalytics flatBenchmark = RollingAnalytics.compute(returns[1], flat, 5, 0.0);
+
+        assertTrue(Double.isNaN(flatStrategy.getSharpeRatio()[29]));
+        assertEquals(0.0, flatStrategy.getVolatility()[29], 0.0);
+        assertTrue(Double.isNaN(flatBenchmark.getBeta()[29]));
+        assertTrue(Double.isNaN(flatBenchmark.getCorrelation()[29]));
+    }
+
+    @Test
+    void lengthIsTheOverlapOfBothSeries() {
+        double[][] returns = correlatedReturns(50, 0.0, 15);
+        double[] shorter = new double[40];
+        System.arraycopy(returns[1], 0, shorter, 0, 40);
+        assertEquals(40, RollingAnalytics.compute(shorter, returns[0], 5, 0.0).length());
+        assertThrows(IllegalArgumentException.class, () -> new RollingWindow(1));
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.backtest;
+
+import org.example.models.MarketDataPoint;
+import org.example.models.PriceSeries;
+import org.example.models.SymbolTable;
+import org.example.strategy.MomentumRankStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntToDoubleFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CrossSectionalBacktesterTest {
+    // A Monday and the first of a month, so the first bar would open a monthly rebalance
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 16, 0);
+    private static final int FEBRUARY_FIRST = 31;
+
+    private static List<MarketDataPoint> bars(String ticker, int from, int to, IntToDoubleFunction close) {
+        List<MarketDataPoint> bars = new ArrayList<>();
+        for (int day = from; day < to; day++) {
+            BigDecimal price = BigDecimal.valueOf(Math.round(close.applyAsDouble(day) * 100) / 100.0);
+            bars.add(new MarketDataPoint(ticker, START.plusDays(day), price, price, price, price, 1_000_000));
+        }
+        return bars;
+    }
+
+    private static long timestamp(int day) {
+        return PriceSeries.toEpochSeconds(START.plusDays(day));
+    }
+
+    private static int id(String ticker) {
+        return SymbolTable.global().idOf(ticker);
+    }
+
+    private record Event(int tickerId, long timestamp, EventType type, double quantity, double price) {
+    }
+
+    private static List<Event> trades(BacktestResult result) {
+        List<Event> trades = new ArrayList<>();
+        EventLog events = result.events();
+        for (int i = 0; i < events.size(); i++) {
+            EventType type = events.typeAt(i);
+            if (type == EventType.BUY || type == EventType.SELL) {
+                trades.add(new Event(events.tickerIdAt(i), events.timestampAt(i), type, events.quantityAt(i),
+                        events.priceAt(i)));
+            }
+        }
+        return trades;
+    }
+
+    private static BacktestResult run(Map<String, List<MarketDataPoint>> data) {
+        return new CrossSectionalBacktester(BigDecimal.valueOf(100_000), new MomentumRankStrategy(5, 1), data)
+                .runBacktest();
+    }
+
+    @Test
+    void strongestMomentumIsBoughtOnceTheLookbackIsAvailable() {
+        Map<String, List<MarketDataPoint>> data = new LinkedHashMap<>();
+        data.put("CS_DOWN", bars("CS_DOWN", 0, 60, day -> 100 * Math.pow(0.99, day)));
+        data.put("CS_UP", bars("CS_UP", 0, 60, day -> 100 * Math.pow(1.01, day)));
+        data.put("CS_FLAT", bars("CS_FLAT", 0, 60, day -> 100 + 0.01 * day));
+
+        List<Event> trades = trades(run(data));
+        // Day 5 is the first with six bars, enough for a five-bar return
+        Event first = trades.get(0);
+        assertEquals(id("CS_UP"), first.tickerId());
+        assertEquals(EventType.BUY, first.type());
+        assertEquals(timestamp(5), first.timestamp());
+        for (Event trade : trades) {
+            assertEquals(id("CS_UP"), trade.tickerId(), trade.toString());
+        }
+    }
+
+    @Test
+    void monthlyRebalanceRotatesIntoTheNewLeader() {
+        // A leads until day 25 and then falls; B does the opposite
+        Map<String, List<MarketDataPoint>> data = new LinkedHashMap<>();
+        data.put("CS_A", bars("CS_A", 0, 60, day -> 100 * Math.pow(day <= 25 ? 1.01 : 0.99, day <= 25 ? day : day - 25)
+                * (day <= 25 ? 1 : Math.pow(1.01, 25))));
+        data.put("CS_B", bars("CS_B", 0, 60, day -> 100 * Math.pow(day <= 25 ? 0.99 : 1.01, day <= 25 ? day : day - 25)
+                * (day <= 25 ? 1 : Math.pow(0.99, 25))));
+
+        List<Event> trades = trades(run(data));
+        assertEquals(3, trades.size(), trades.toString());
+        Event buyA = trades.get(0);
+        assertEquals(id("CS_A"), buyA.tickerId());
+        assertEquals(EventType.BUY, buyA.type());
+        assertEquals(timestamp(5), buyA.timestamp());
+
+        Event sellA = trades.get(1);
+        assertEquals(id("CS_A"), sellA.tickerId());
+        assertEquals(EventType.SELL, sellA.type());
+        assertEquals(timestamp(FEBRUARY_FIRST), sellA.timestamp());
+        assertEquals(buyA.quantity(), sellA.quantity());
+
+        Event buyB = trades.get(2);
+        assertEquals(id("CS_B"), buyB.tickerId());
+        assertEquals(EventType.BUY, buyB.type());
+        assertEquals(timestamp(FEBRUARY_FIRST), buyB.timestamp());
+    }
+
+    @Test
+    void heldTickerWithoutABarIsClosedAtItsLastCloseWhenDropped() {
+        Map<String, List<MarketDataPoint>> data = new LinkedHashMap<>();
+        // GAP leads, then stops trading on day 20 while held
+        List<MarketDataPoint> gap = bars("CS_GAP", 0, 21, day -> 100 * Math.pow(1.03, day));
+        data.put("CS_GAP", gap);
+        data.put("CS_STEADY", bars("CS_STEADY", 0, 60, day -> 100 * Math.pow(1.001, day)));
+
+        BacktestResult result = run(data);
+        List<Event> trades = trades(result);
+        assertEquals(3, trades.size(), trades.toString());
+        Event buy = trades.get(0);
+        assertEquals(id("CS_GAP"), buy.tickerId());
+        assertEquals(EventType.BUY, buy.type());
+
+        Event close = trades.get(1);
+        assertEquals(id("CS_GAP"), close.tickerId());
+        assertEquals(EventType.SELL, close.type());
+        assertEquals(timestamp(FEBRUARY_FIRST), close.timestamp());
+        assertEquals(buy.quantity(), close.quantity());
+        assertEquals(gap.get(gap.size() - 1).getClose().doubleValue(), close.price(), 1e-9);
+
+        Event rotate = trades.get(2);
+        assertEquals(id("CS_STEADY"), rotate.tickerId());
+        assertEquals(EventType.BUY, rotate.type());
+        assertTrue(result.finalCapital().compareTo(BigDecimal.valueOf(100_000)) > 0);
+    }
+}
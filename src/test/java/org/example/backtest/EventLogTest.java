@@ -0,0 +1,123 @@
+package org.example.backtest;
+
+import org.example.models.PriceSeries;
+import org.example.models.SymbolTable;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EventLogTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 16, 0);
+    private static final EventType[] TYPES = EventType.values();
+    private static final int EVENTS = 10_000; // A little under three chunks
+
+    private static final int FIRST = SymbolTable.global().idOf("EVL_A");
+    private static final int SECOND = SymbolTable.global().idOf("EVL_B");
+
+    private static int tickerOf(int i) {
+        return i % 3 == 0 ? SECOND : FIRST;
+    }
+
+    private static long timestampOf(int i) {
+        return PriceSeries.toEpochSeconds(START.plusMinutes(i));
+    }
+
+    private static EventLog filled(boolean spillOffHeap) {
+        EventLog log = new EventLog(spillOffHeap);
+        for (int i = 0; i < EVENTS; i++) {
+            log.append(tickerOf(i), timestampOf(i), TYPES[i % TYPES.length], i + 1, i * 0.25);
+        }
+        return log;
+    }
+
+    private static void assertEveryEventReadsBack(EventLog log) {
+        assertEquals(EVENTS, log.size());
+        for (int i = 0; i < EVENTS; i++) {
+            assertEquals(tickerOf(i), log.tickerIdAt(i));
+            assertEquals(timestampOf(i), log.timestampAt(i));
+            assertEquals(TYPES[i % TYPES.length], log.typeAt(i));
+            assertEquals(i + 1, log.quantityAt(i), 0.0);
+            assertEquals(i * 0.25, log.priceAt(i), 0.0);
+        }
+        assertEquals(timestampOf(EVENTS - 1), log.lastTimestamp());
+
+        int[] visited = new int[1];
+        log.forEach((tickerId, timestamp, type, quantity, price) -> {
+            int i = visited[0]++;
+            assertEquals(timestampOf(i), timestamp);
+            assertEquals(TYPES[i % TYPES.length], type);
+        });
+        assertEquals(EVENTS, visited[0]);
+    }
+
+    @Test
+    void eventsReadBackAcrossChunks() {
+        assertEveryEventReadsBack(filled(false));
+    }
+
+    @Test
+    void spilledChunksReadBackTheSame() {
+        assertEveryEventReadsBack(filled(true));
+    }
+
+    @Test
+    void aggregatesOnlyCountTheirType() {
+        EventLog log = filled(true);
+        int buys = 0;
+        double quantity = 0.0;
+        double price = 0.0;
+        double notional = 0.0;
+        int secondBuys = 0;
+        for (int i = 0; i < EVENTS; i += TYPES.length) {
+            buys++;
+            quantity += i + 1;
+            price += i * 0.25;
+            notional += (i + 1) * (i * 0.25);
+            secondBuys += tickerOf(i) == SECOND ? 1 : 0;
+        }
+
+        assertEquals(buys, log.count(EventType.BUY));
+        assertEquals(EVENTS / TYPES.length, log.count(EventType.LOSS));
+        assertEquals(quantity, log.sumQuantity(EventType.BUY), 1e-6);
+        assertEquals(price, log.sumPrice(EventType.BUY), 1e-6);
+        assertEquals(notional, log.sumNotional(EventType.BUY), 1e-3);
+        assertEquals(secondBuys, log.countByTicker(EventType.BUY)[SECOND]);
+        assertEquals(buys - secondBuys, log.countByTicker(EventType.BUY)[FIRST]);
+
+        List<Integer> lossIndices = new ArrayList<>();
+        log.forEach(EventType.LOSS, (tickerId, timestamp, type, q, p) -> lossIndices.add((int) q - 1));
+        assertEquals(4, lossIndices.get(0).intValue());
+        assertEquals(EVENTS - 1, lossIndices.get(lossIndices.size() - 1).intValue());
+    }
+
+    @Test
+    void rendersTradesAndMessages() {
+        EventLog log = new EventLog();
+        log.append(FIRST, timestampOf(0), EventType.BUY, 10, 101.5);
+        log.append(FIRST, timestampOf(1), EventType.MISSED_SELL, 0, 99.0);
+        log.append(FIRST, timestampOf(2), EventType.SELL, 10, 98.0);
+        log.append(FIRST, timestampOf(2), EventType.LOSS, 10, -35.0);
+
+        assertEquals(List.of(
+                new Trade(FIRST, Trade.TradeType.BUY, 10, BigDecimal.valueOf(101.5), START),
+                new Trade(FIRST, Trade.TradeType.SELL, 10, BigDecimal.valueOf(98.0), START.plusMinutes(2))),
+                log.toTrades());
+        assertEquals(List.of("EVL_A (Time: 2024-03-01T16:01)"), log.render(EventType.MISSED_SELL));
+        assertEquals("EVL_A (Time: 2024-03-01T16:02) - Loss: -35.0", log.render(3));
+    }
+
+    @Test
+    void readingPastTheEndFails() {
+        EventLog log = new EventLog();
+        assertEquals(Long.MIN_VALUE, log.lastTimestamp());
+        log.append(FIRST, timestampOf(0), EventType.BUY, 1, 1.0);
+        assertThrows(IndexOutOfBoundsException.class, () -> log.priceAt(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> log.tickerIdAt(-1));
+    }
+}
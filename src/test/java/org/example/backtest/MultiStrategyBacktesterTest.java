@@ -0,0 +1,109 @@
+package org.example.backtest;
+
+import org.example.execution.ExecutionSimulator;
+import org.example.models.MarketDataPoint;
+import org.example.strategy.MovingAverageStrategy;
+import org.example.strategy.RsiStrategy;
+import org.example.strategy.Strategy;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MultiStrategyBacktesterTest {
+    private static final BigDecimal CAPITAL = new BigDecimal("100000");
+    private static final LocalDateTime START = LocalDateTime.of(2023, 1, 2, 16, 0);
+
+    // Random walks on partly overlapping dates, one with a gap, so the walk has to align them
+    private static Map<String, List<MarketDataPoint>> marketData() {
+        Map<String, List<MarketDataPoint>> data = new HashMap<>();
+        data.put("MSB_A", walk("MSB_A", 0, 300, -1, 1));
+        data.put("MSB_B", walk("MSB_B", 20, 300, -1, 2));
+        data.put("MSB_C", walk("MSB_C", 0, 260, 150, 3));
+        return data;
+    }
+
+    private static List<MarketDataPoint> walk(String ticker, int firstDay, int lastDay, int skippedDay, long seed) {
+        Random random = new Random(seed);
+        List<MarketDataPoint> bars = new ArrayList<>();
+        double close = 100.0;
+        for (int day = firstDay; day < lastDay; day++) {
+            close *= 1.0 + random.nextGaussian() * 0.02;
+            if (day == skippedDay) {
+                continue;
+            }
+            BigDecimal price = BigDecimal.valueOf(Math.round(close * 100.0) / 100.0);
+            bars.add(new MarketDataPoint(ticker, START.plusDays(day), price, price, price, price,
+                    1_000_000 + random.nextInt(2_000_000)));
+        }
+        return bars;
+    }
+
+    private static List<Supplier<Strategy>> strategies() {
+        return List.of(
+                () -> new MovingAverageStrategy(5, 20, 0.015, 0.005, 1_000_000),
+                () -> new RsiStrategy(10, 65, 35),
+                () -> new RsiStrategy());
+    }
+
+    private static void assertSameResult(BacktestResult expected, BacktestResult actual, String strategy) {
+        assertEquals(expected.finalCapital(), actual.finalCapital(), strategy);
+        assertEquals(expected.totalReturn(), actual.totalReturn(), 0.0, strategy);
+        assertEquals(expected.dailyCapital(), actual.dailyCapital(), strategy);
+        assertEquals(expected.dailyReturns(), actual.dailyReturns(), strategy);
+        assertArrayEquals(expected.benchmarkReturns(), actual.benchmarkReturns(), strategy);
+        assertSameEvents(expected.events(), actual.events(), strategy);
+    }
+
+    private static void assertSameEvents(EventLog expected, EventLog actual, String strategy) {
+        assertEquals(expected.size(), actual.size(), strategy);
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.tickerIdAt(i), actual.tickerIdAt(i), strategy + " event " + i);
+            assertEquals(expected.timestampAt(i), actual.timestampAt(i), strategy + " event " + i);
+            assertEquals(expected.typeAt(i), actual.typeAt(i), strategy + " event " + i);
+            assertEquals(expected.quantityAt(i), actual.quantityAt(i), 0.0, strategy + " event " + i);
+            assertEquals(expected.priceAt(i), actual.priceAt(i), 0.0, strategy + " event " + i);
+        }
+    }
+
+    private static void assertLockstepMatchesOneRunPerStrategy(Supplier<ExecutionSimulator> simulators) {
+        List<Strategy> shared = new ArrayList<>();
+        for (Supplier<Strategy> strategy : strategies()) {
+            shared.add(strategy.get());
+        }
+        List<BacktestResult> lockstep = new MultiStrategyBacktester(CAPITAL, shared, marketData(), simulators)
+                .runBacktests();
+
+        assertEquals(shared.size(), lockstep.size());
+        int trading = 0;
+        for (int i = 0; i < shared.size(); i++) {
+            Backtester single = new Backtester(CAPITAL, strategies().get(i).get(), marketData(),
+                    simulators != null ? simulators.get() : null);
+            BacktestResult expected = single.runBacktest();
+            assertSameResult(expected, lockstep.get(i), shared.get(i).toString());
+            trading += expected.events().count(EventType.BUY) > 0 ? 1 : 0;
+        }
+        // The comparison is only worth something if the strategies trade
+        assertTrue(trading >= 2, trading + " strategies traded");
+    }
+
+    @Test
+    void lockstepMatchesOneBacktestPerStrategy() {
+        assertLockstepMatchesOneRunPerStrategy(null);
+    }
+
+    @Test
+    void lockstepMatchesOneBacktestPerStrategyThroughTheSimulator() {
+        assertLockstepMatchesOneRunPerStrategy(ExecutionSimulator::new);
+    }
+}
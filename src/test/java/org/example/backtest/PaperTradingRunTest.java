@@ -0,0 +1,105 @@
+package org.example.backtest;
+
+import org.example.metrics.MetricsRegistry;
+import org.example.models.MarketDataPoint;
+import org.example.models.SymbolTable;
+import org.example.strategy.RsiStrategy;
+import org.example.strategy.Strategy;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PaperTradingRunTest {
+    private static final BigDecimal CAPITAL = new BigDecimal("100000");
+    private static final int DAYS = 600;
+
+    private static Map<String, List<MarketDataPoint>> randomWalks() {
+        Map<String, List<MarketDataPoint>> data = new LinkedHashMap<>();
+        Random random = new Random(7);
+        for (int t = 0; t < 4; t++) {
+            List<MarketDataPoint> bars = new ArrayList<>();
+            double price = 100;
+            for (int d = 0; d < DAYS; d++) {
+                price *= 1 + random.nextGaussian() * 0.02;
+                BigDecimal close = BigDecimal.valueOf(Math.round(price * 100) / 100.0);
+                bars.add(new MarketDataPoint("PT" + t, LocalDateTime.of(2020, 1, 1, 16, 0).plusDays(d),
+                        close, close, close, close, 2_000_000 + random.nextInt(100_000)));
+            }
+            data.put("PT" + t, bars);
+        }
+        return data;
+    }
+
+    // Every ticker's bar for a day, then the next day's, as a live feed would deliver them
+    private static PaperTradingRun feed(List<Strategy> strategies, Map<String, List<MarketDataPoint>> data) {
+        PaperTradingRun run = new PaperTradingRun(CAPITAL, strategies, null, new MetricsRegistry());
+        for (int d = 0; d < DAYS; d++) {
+            for (Map.Entry<String, List<MarketDataPoint>> entry : data.entrySet()) {
+                assertTrue(run.onBar(SymbolTable.global().idOf(entry.getKey()), entry.getValue().get(d), System.nanoTime()));
+            }
+        }
+        return run;
+    }
+
+    @Test
+    void trimmedHistoriesGiveTheBacktestResults() {
+        Map<String, List<MarketDataPoint>> data = randomWalks();
+        List<Strategy> strategies = List.of(new RsiStrategy(), new RsiStrategy(5, 80, 20));
+        PaperTradingRun run = feed(strategies, data);
+
+        int id = SymbolTable.global().idOf("PT0");
+        assertTrue(run.historySize(id) >= RsiStrategy.DEFAULT_RSI_PERIOD);
+        assertTrue(run.historySize(id) < 2 * RsiStrategy.DEFAULT_RSI_PERIOD);
+
+        List<BacktestResult> live = run.finish();
+        List<BacktestResult> backtest = new MultiStrategyBacktester(CAPITAL, strategies, data).runBacktests();
+        assertEquals(backtest.size(), live.size());
+        for (int s = 0; s < live.size(); s++) {
+            assertEquals(backtest.get(s).finalCapital(), live.get(s).finalCapital());
+            assertEquals(backtest.get(s).dailyCapital(), live.get(s).dailyCapital());
+            assertEquals(backtest.get(s).trades(), live.get(s).trades());
+        }
+        assertFalse(live.get(0).trades().isEmpty());
+    }
+
+    @Test
+    void strategiesWithoutADeclaredLookbackKeepTheWholeHistory() {
+        Strategy undeclared = new Strategy() {
+            @Override
+            public TradeSignal determineTradeSignal(List<MarketDataPoint> marketDataPoints) {
+                return TradeSignal.HOLD;
+            }
+
+            @Override
+            public int calculatePositionSize(BigDecimal totalCapital, BigDecimal currentPrice) {
+                return 0;
+            }
+        };
+        PaperTradingRun run = feed(List.of(new RsiStrategy(), undeclared), randomWalks());
+        assertEquals(DAYS, run.historySize(SymbolTable.global().idOf("PT1")));
+    }
+
+    @Test
+    void staleAndRepeatedBarsAreDropped() {
+        Map<String, List<MarketDataPoint>> data = randomWalks();
+        List<MarketDataPoint> bars = data.get("PT0");
+        int id = SymbolTable.global().idOf("PT0");
+        PaperTradingRun run = new PaperTradingRun(CAPITAL, List.of(new RsiStrategy()), null, new MetricsRegistry());
+        assertTrue(run.onBar(id, bars.get(0), System.nanoTime()));
+        assertTrue(run.onBar(id, bars.get(1), System.nanoTime()));
+        assertFalse(run.onBar(id, bars.get(1), System.nanoTime()));
+        assertFalse(run.onBar(id, bars.get(0), System.nanoTime()));
+        assertTrue(run.onBar(id, bars.get(2), System.nanoTime()));
+        assertEquals(1, run.getSteps());
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.backtest;
+
+import org.example.models.FundamentalsSnapshot;
+import org.example.models.MarketDataPoint;
+import org.example.models.PriceSeries;
+import org.example.models.StockFundamentals;
+import org.example.models.SymbolTable;
+import org.example.screening.FundamentalsTimeline;
+import org.example.screening.ScreenCriterion;
+import org.example.screening.ScreenMetric;
+import org.example.screening.ScreeningEngine;
+import org.example.screening.SectorIndex;
+import org.example.strategy.Strategy;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RotatingUniverseBacktesterTest {
+    private static final LocalDate JANUARY = LocalDate.of(2024, 1, 1);
+    private static final LocalDate FEBRUARY = LocalDate.of(2024, 2, 1);
+    private static final LocalDate MARCH = LocalDate.of(2024, 3, 1);
+
+    // Buys ten shares on every bar and records how much history it was shown
+    private static final class AlwaysBuy implements Strategy {
+        final List<Integer> historySizes = new ArrayList<>();
+
+        @Override
+        public TradeSignal determineTradeSignal(List<MarketDataPoint> marketDataPoints) {
+            historySizes.add(marketDataPoints.size());
+            return TradeSignal.BUY;
+        }
+
+        @Override
+        public int calculatePositionSize(BigDecimal totalCapital, BigDecimal currentPrice) {
+            return 10;
+        }
+    }
+
+    private static FundamentalsSnapshot version(String ticker, LocalDate asOf, double pe) {
+        return new FundamentalsSnapshot(new StockFundamentals(ticker, pe, 1.0, 0.1, 0.01), asOf);
+    }
+
+    // Daily bars from December, so a joiner has history before it is first traded
+    private static List<MarketDataPoint> bars(String ticker, double firstClose) {
+        List<MarketDataPoint> bars = new ArrayList<>();
+        for (LocalDate day = LocalDate.of(2023, 12, 1); day.isBefore(MARCH); day = day.plusDays(1)) {
+            BigDecimal close = BigDecimal.valueOf(firstClose + bars.size());
+            bars.add(new MarketDataPoint(ticker, day.atTime(16, 0), close, close, close, close, 1_000_000));
+        }
+        return bars;
+    }
+
+    private static long epochSeconds(LocalDate date) {
+        return PriceSeries.toEpochSeconds(date.atTime(16, 0));
+    }
+
+    @Test
+    void leaversAreSoldAtTheirLastPriceAndJoinersAreLoadedOnJoining() {
+        // Only the cheapest of the sector by PE passes: LEAVE in January, JOIN from February
+        FundamentalsTimeline timeline = FundamentalsTimeline.of(List.of(
+                version("RU_LEAVE", JANUARY, 5), version("RU_JOIN", JANUARY, 20), version("RU_NEVER", JANUARY, 18),
+                version("RU_LEAVE", FEBRUARY, 30), version("RU_JOIN", FEBRUARY, 5)));
+        ScreeningEngine engine = new ScreeningEngine(
+                SectorIndex.of(Map.of("RU_LEAVE", "S", "RU_JOIN", "S", "RU_NEVER", "S")),
+                List.of(ScreenCriterion.below(ScreenMetric.PE_RATIO, ScreenCriterion.Benchmark.SECTOR_AVERAGE)), 1);
+        List<String> loaded = new ArrayList<>();
+        AlwaysBuy strategy = new AlwaysBuy();
+        RotatingUniverseBacktester backtester = new RotatingUniverseBacktester(BigDecimal.valueOf(1_000_000), strategy,
+                engine, timeline, ticker -> {
+                    loaded.add(ticker);
+                    return bars(ticker, ticker.equals("RU_LEAVE") ? 100 : 50);
+                }, RebalanceFrequency.MONTHLY);
+
+        BacktestResult result = backtester.runBacktest(JANUARY, MARCH);
+
+        assertEquals(List.of("RU_LEAVE", "RU_JOIN"), loaded);
+        assertEquals(List.of(
+                        new UniverseChange(JANUARY, List.of("RU_LEAVE"), List.of()),
+                        new UniverseChange(FEBRUARY, List.of("RU_JOIN"), List.of("RU_LEAVE"))),
+                backtester.getUniverseChanges());
+
+        int leave = SymbolTable.global().idOf("RU_LEAVE");
+        int join = SymbolTable.global().idOf("RU_JOIN");
+        EventLog events = result.events();
+        double leaveBought = 0;
+        int leaveSells = 0;
+        long firstJoinBuy = Long.MAX_VALUE;
+        for (int i = 0; i < events.size(); i++) {
+            if (events.tickerIdAt(i) == leave && events.typeAt(i) == EventType.BUY) {
+                assertTrue(events.timestampAt(i) < epochSeconds(FEBRUARY));
+                leaveBought += events.quantityAt(i);
+            } else if (events.tickerIdAt(i) == leave && events.typeAt(i) == EventType.SELL) {
+                // Closed on the first step of February at the last January close
+                leaveSells++;
+                assertEquals(epochSeconds(FEBRUARY), events.timestampAt(i));
+                assertEquals(100 + 61, events.priceAt(i), 1e-9);
+                assertEquals(310.0, events.quantityAt(i), 0.0);
+            } else if (events.tickerIdAt(i) == join && events.typeAt(i) == EventType.BUY) {
+                firstJoinBuy = Math.min(firstJoinBuy, events.timestampAt(i));
+            }
+        }
+        assertEquals(310.0, leaveBought, 0.0);
+        assertEquals(1, leaveSells);
+        assertEquals(epochSeconds(FEBRUARY), firstJoinBuy);
+
+        // The joiner's first signal already saw its December and January bars
+        assertEquals(62, strategy.historySizes.get(31).intValue());
+    }
+}
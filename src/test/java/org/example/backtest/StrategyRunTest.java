@@ -0,0 +1,198 @@
+package org.example.backtest;
+
+import org.example.execution.CommissionModel;
+import org.example.execution.ExecutionSimulator;
+import org.example.execution.Order;
+import org.example.execution.SlippageModel;
+import org.example.execution.TimeInForce;
+import org.example.models.MarketDataPoint;
+import org.example.models.PriceSeries;
+import org.example.models.SymbolTable;
+import org.example.strategy.Strategy;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StrategyRunTest {
+    private static final String TICKER = "SRT";
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 2, 16, 0);
+
+    // Signals BUY on one bar, sizes a fixed quantity and builds the order it is given
+    private static final class ScriptedStrategy implements Strategy {
+        private final int buyOnBar;
+        private final int quantity;
+        private final OrderFactory orders;
+
+        ScriptedStrategy(int buyOnBar, int quantity, OrderFactory orders) {
+            this.buyOnBar = buyOnBar;
+            this.quantity = quantity;
+            this.orders = orders;
+        }
+
+        @Override
+        public TradeSignal determineTradeSignal(List<MarketDataPoint> marketDataPoints) {
+            return marketDataPoints.size() == buyOnBar ? TradeSignal.BUY : TradeSignal.HOLD;
+        }
+
+        @Override
+        public int calculatePositionSize(BigDecimal totalCapital, BigDecimal currentPrice) {
+            return quantity;
+        }
+
+        @Override
+        public Order createOrder(String ticker, TradeSignal signal, int quantity, MarketDataPoint currentData) {
+            return orders.create(ticker, quantity);
+        }
+    }
+
+    @FunctionalInterface
+    private interface OrderFactory {
+        Order create(String ticker, int quantity);
+    }
+
+    private static MarketDataPoint bar(int day, double open, double high, double low, double close, long volume) {
+        return new MarketDataPoint(TICKER, START.plusDays(day), BigDecimal.valueOf(open), BigDecimal.valueOf(high),
+                BigDecimal.valueOf(low), BigDecimal.valueOf(close), volume);
+    }
+
+    private static EventLog walk(Strategy strategy, ExecutionSimulator simulator, String capital,
+                                 List<MarketDataPoint> bars) {
+        StrategyRun run = new StrategyRun(strategy, simulator, new BigDecimal(capital), new BigDecimal(capital));
+        int tickerId = SymbolTable.global().idOf(TICKER);
+        for (int i = 0; i < bars.size(); i++) {
+            run.beginStep();
+            run.onBar(tickerId, bars.get(i), bars.subList(0, i));
+            run.endStep();
+        }
+        return run.calculatePerformance(new ArrayList<>(Collections.nCopies(bars.size(), BigDecimal.ZERO))).events();
+    }
+
+    private static void assertEvent(EventLog events, int index, EventType type, int day, double quantity, double price) {
+        assertEquals(type, events.typeAt(index));
+        assertEquals(PriceSeries.toEpochSeconds(START.plusDays(day)), events.timestampAt(index));
+        assertEquals(quantity, events.quantityAt(index), 0.0);
+        assertEquals(price, events.priceAt(index), 1e-12);
+    }
+
+    @Test
+    void marketOrderFillsAtTheNextBarsOpen() {
+        List<MarketDataPoint> bars = List.of(
+                bar(0, 10, 11, 9, 10, 1_000),
+                bar(1, 10, 11, 9, 10, 1_000),    // Signal bar
+                bar(2, 10.5, 12, 10, 11, 1_000),
+                bar(3, 11, 12, 10, 11.5, 1_000));
+        EventLog events = walk(new ScriptedStrategy(1, 50, (t, q) -> Order.market(t, Trade.TradeType.BUY, q, TimeInForce.DAY)),
+                new ExecutionSimulator(), "10000", bars);
+
+        assertEquals(2, events.size());
+        assertEvent(events, 0, EventType.BUY, 2, 50, 10.5);
+        assertEvent(events, 1, EventType.SELL, 3, 50, 11.5); // Closed out at the end of the run
+    }
+
+    @Test
+    void limitOrderRestsUntilARangeCrossesIt() {
+        List<MarketDataPoint> bars = List.of(
+                bar(0, 10, 11, 9, 10, 1_000),
+                bar(1, 10, 11, 9, 10, 1_000),    // Signal bar; its own low would have filled the limit
+                bar(2, 10.5, 11, 10, 10.5, 1_000),
+                bar(3, 9.2, 10, 9, 9.8, 1_000),  // Gaps through the limit
+                bar(4, 10, 10, 9, 9.5, 1_000));
+        EventLog events = walk(new ScriptedStrategy(1, 40, (t, q) -> Order.limit(t, Trade.TradeType.BUY, q, 9.5, TimeInForce.GTC)),
+                new ExecutionSimulator(), "10000", bars);
+
+        assertEvent(events, 0, EventType.BUY, 3, 40, 9.2);
+        assertEquals(1, events.count(EventType.BUY));
+    }
+
+    @Test
+    void stopOrderTriggersOnTheFirstLaterBarReachingIt() {
+        List<MarketDataPoint> bars = List.of(
+                bar(0, 10, 11, 9, 10, 1_000),
+                bar(1, 10, 13, 9, 10, 1_000),    // Signal bar; already trades through the stop
+                bar(2, 10, 11.5, 9.5, 11, 1_000),
+                bar(3, 11.5, 13, 11, 12.5, 1_000),
+                bar(4, 12.5, 13, 12, 12.5, 1_000));
+        EventLog events = walk(new ScriptedStrategy(1, 30, (t, q) -> Order.stop(t, Trade.TradeType.BUY, q, 12, TimeInForce.GTC)),
+                new ExecutionSimulator(), "10000", bars);
+
+        assertEvent(events, 0, EventType.BUY, 3, 30, 12);
+        assertEquals(1, events.count(EventType.BUY));
+    }
+
+    @Test
+    void participationCapSpreadsTheFillOverBars() {
+        List<MarketDataPoint> bars = List.of(
+                bar(0, 10, 11, 9, 10, 1_000),
+                bar(1, 10, 11, 9, 10, 1_000),
+                bar(2, 10, 11, 9, 10, 1_000),
+                bar(3, 11, 12, 10, 11, 1_000),
+                bar(4, 12, 13, 11, 12, 1_000),
+                bar(5, 12, 13, 11, 12, 1_000));
+        ExecutionSimulator simulator = new ExecutionSimulator(SlippageModel.NONE, CommissionModel.NONE, 0.1);
+        EventLog events = walk(new ScriptedStrategy(1, 250, (t, q) -> Order.market(t, Trade.TradeType.BUY, q, TimeInForce.GTC)),
+                simulator, "10000", bars);
+
+        assertEvent(events, 0, EventType.BUY, 2, 100, 10);
+        assertEvent(events, 1, EventType.BUY, 3, 100, 11);
+        assertEvent(events, 2, EventType.BUY, 4, 50, 12);
+        assertEquals(3, events.count(EventType.BUY));
+    }
+
+    @Test
+    void unaffordablePartOfAFillIsLoggedAsMissed() {
+        List<MarketDataPoint> bars = List.of(
+                bar(0, 10, 11, 9, 10, 1_000),
+                bar(1, 10, 11, 9, 10, 1_000),    // Sized at 90 x 10 = 900 of 1000 cash
+                bar(2, 12, 13, 11, 12, 1_000),   // Opens at 12: only 83 shares are affordable
+                bar(3, 12, 13, 11, 12, 1_000));
+        EventLog events = walk(new ScriptedStrategy(1, 90, (t, q) -> Order.market(t, Trade.TradeType.BUY, q, TimeInForce.DAY)),
+                new ExecutionSimulator(), "1000", bars);
+
+        assertEvent(events, 0, EventType.MISSED_BUY, 2, 7, 12);
+        assertEvent(events, 1, EventType.BUY, 2, 83, 12);
+    }
+
+    @Test
+    void closeFillsWithoutASimulatorStayOnTheSignalBar() {
+        List<MarketDataPoint> bars = List.of(
+                bar(0, 10, 11, 9, 10, 1_000),
+                bar(1, 10, 11, 9, 10.25, 1_000),
+                bar(2, 11, 12, 10, 11, 1_000));
+        EventLog events = walk(new ScriptedStrategy(1, 20, (t, q) -> Order.market(t, Trade.TradeType.BUY, q, TimeInForce.DAY)),
+                null, "10000", bars);
+
+        assertEvent(events, 0, EventType.BUY, 1, 20, 10.25);
+    }
+
+    @Test
+    void dailyCapitalIsCashPlusPositionsMarkedAtEachClose() {
+        List<MarketDataPoint> bars = List.of(
+                bar(0, 10, 11, 9, 10, 1_000),
+                bar(1, 10, 11, 9, 10.25, 1_000), // Buys 20 at the close
+                bar(2, 11, 12, 10, 11, 1_000),
+                bar(3, 11, 12, 9, 9.5, 1_000));
+        StrategyRun run = new StrategyRun(new ScriptedStrategy(1, 20, (t, q) -> Order.market(t, Trade.TradeType.BUY, q, TimeInForce.DAY)),
+                null, new BigDecimal("10000"), new BigDecimal("10000"));
+        int tickerId = SymbolTable.global().idOf(TICKER);
+        for (int i = 0; i < bars.size(); i++) {
+            run.beginStep();
+            run.onBar(tickerId, bars.get(i), bars.subList(0, i));
+            run.endStep();
+        }
+        BacktestResult result = run.calculatePerformance(new ArrayList<>(Collections.nCopies(bars.size(), BigDecimal.ZERO)));
+
+        double cash = 10000 - 20 * 10.25;
+        double[] expected = {10000, cash + 20 * 10.25, cash + 20 * 11, cash + 20 * 9.5};
+        assertEquals(expected.length, result.dailyCapital().size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], result.dailyCapital().get(i).doubleValue(), 1e-9, "day " + i);
+        }
+        assertEquals(cash + 20 * 9.5, result.finalCapital().doubleValue(), 1e-9);
+    }
+}
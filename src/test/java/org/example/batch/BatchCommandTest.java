@@ -0,0 +1,99 @@
+package org.example.batch;
+
+import org.example.models.PriceSeries;
+import org.example.repository.LocalBarCache;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchCommandTest {
+
+    @TempDir
+    Path directory;
+
+    private Path jobFile(String jobs) throws IOException {
+        Path file = directory.resolve("jobs.json");
+        Files.writeString(file, "{\"threads\": 2, \"tickers\": [\"BCA\"], \"jobs\": [" + jobs + "]}");
+        return file;
+    }
+
+    private Path cache() throws IOException {
+        Path cacheDirectory = directory.resolve("cache");
+        LocalBarCache cache = new LocalBarCache(cacheDirectory);
+        PriceSeries.Builder builder = new PriceSeries.Builder("BCA");
+        LocalDateTime start = LocalDateTime.of(2023, 1, 2, 16, 0);
+        for (int d = 0; d < 60; d++) {
+            double close = 100 + 5 * Math.sin(d / 3.0);
+            builder.add(PriceSeries.toEpochSeconds(start.plusDays(d)), close, close, close, close, 2_000_000);
+        }
+        cache.write(builder.build());
+        return cacheDirectory;
+    }
+
+    @Test
+    void invalidJobsFailAloneInsteadOfAbortingTheFile() {
+        JSONObject root = new JSONObject("""
+                {"tickers": ["BCA"], "jobs": [
+                  {"id": "good", "strategy": "RSI"},
+                  {"id": "unknown", "strategy": "NO_SUCH_STRATEGY"},
+                  {"id": "no-strategy"},
+                  {"id": "bad-date", "strategy": "RSI", "start": "2023-13-01"},
+                  {"id": "backwards", "strategy": "RSI", "start": "2023-06-01", "end": "2023-01-01"},
+                  {"id": "empty", "strategy": "RSI", "tickers": []},
+                  "not an object",
+                  {"strategy": "RSI", "end": "2023-12-31"}
+                ]}""");
+        JobFile file = JobFile.parse(root, directory);
+
+        assertEquals(List.of("good", "job-8"), file.jobs().stream().map(BatchJob::id).toList());
+        assertEquals(List.of("unknown", "no-strategy", "bad-date", "backwards", "empty", "job-7"),
+                file.invalid().stream().map(JobOutcome::id).toList());
+        for (JobOutcome outcome : file.invalid()) {
+            assertFalse(outcome.succeeded());
+            assertNull(outcome.job());
+            JSONObject json = outcome.toJson();
+            assertEquals(outcome.id(), json.getString("id"));
+            assertTrue(json.has("error"));
+        }
+    }
+
+    @Test
+    void databaseRunsNeedAnOutputFile() throws IOException {
+        Path jobs = jobFile("{\"id\": \"a\", \"strategy\": \"RSI\"}");
+        assertEquals(BatchCommand.EXIT_USAGE, BatchCommand.run(new String[]{jobs.toString()}));
+        assertEquals(BatchCommand.EXIT_USAGE, BatchCommand.run(new String[0]));
+        assertEquals(BatchCommand.EXIT_USAGE, BatchCommand.run(new String[]{"--threads", "x", jobs.toString()}));
+    }
+
+    @Test
+    void exitStatusReportsFailedJobs() throws IOException {
+        Path cacheDirectory = cache();
+        Path output = directory.resolve("out.jsonl");
+
+        Path good = jobFile("{\"id\": \"a\", \"strategy\": \"RSI\"}, {\"id\": \"b\", \"strategy\": \"MOVING_AVERAGE\","
+                + " \"parameters\": {\"shortPeriod\": 5, \"longPeriod\": 20}}");
+        assertEquals(BatchCommand.EXIT_OK, BatchCommand.run(new String[]{"--cache", cacheDirectory.toString(),
+                "--output", output.toString(), good.toString()}));
+        assertEquals(2, Files.readAllLines(output).size());
+
+        Path mixed = jobFile("{\"id\": \"a\", \"strategy\": \"RSI\"}, {\"id\": \"bad\", \"strategy\": \"NOPE\"}");
+        assertEquals(BatchCommand.EXIT_FAILED, BatchCommand.run(new String[]{"--cache", cacheDirectory.toString(),
+                "--output", output.toString(), mixed.toString()}));
+        List<String> lines = Files.readAllLines(output);
+        assertEquals(2, lines.size());
+        assertEquals("bad", new JSONObject(lines.get(0)).getString("id"));
+        assertTrue(new JSONObject(lines.get(0)).has("error"));
+        assertTrue(new JSONObject(lines.get(1)).has("finalCapital"));
+    }
+}
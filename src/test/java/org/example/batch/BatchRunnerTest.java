@@ -0,0 +1,116 @@
+package org.example.batch;
+
+import org.example.models.MarketDataPoint;
+import org.example.results.RunCache;
+import org.example.strategy.StrategyFactory;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BatchRunnerTest {
+    private final Map<String, AtomicInteger> loads = new ConcurrentHashMap<>();
+
+    // Bars of a slow sine wave, counting how often each ticker is loaded
+    private final Function<String, List<MarketDataPoint>> loader = ticker -> {
+        loads.computeIfAbsent(ticker, t -> new AtomicInteger()).incrementAndGet();
+        List<MarketDataPoint> bars = new ArrayList<>();
+        for (int day = 0; day < 60; day++) {
+            BigDecimal close = BigDecimal.valueOf(100 + Math.round(500 * Math.sin(day / 4.0)) / 100.0);
+            bars.add(new MarketDataPoint(ticker, LocalDateTime.of(2023, 1, 2, 16, 0).plusDays(day),
+                    close, close, close, close, 1_000_000));
+        }
+        return bars;
+    };
+
+    private static BatchJob job(String id, String... tickers) {
+        return new BatchJob(id, StrategyFactory.StrategyType.RSI, Map.of(), BigDecimal.valueOf(100_000),
+                List.of(tickers), null, null);
+    }
+
+    private int loadsOf(String ticker) {
+        return loads.getOrDefault(ticker, new AtomicInteger()).get();
+    }
+
+    @Test
+    void boundedRunnerDropsTheLeastRecentlyUsedTickers() throws InterruptedException {
+        try (BatchRunner runner = new BatchRunner(loader, 2, 2)) {
+            runner.run(List.of(job("ab", "A", "B")));
+            runner.run(List.of(job("a", "A")));
+            assertEquals(2, runner.cachedTickers());
+
+            // B was used least recently, so C takes its place and A stays warm
+            runner.run(List.of(job("c", "C")));
+            assertEquals(2, runner.cachedTickers());
+            runner.run(List.of(job("a-again", "A")));
+            assertEquals(1, loadsOf("A"));
+
+            List<JobOutcome> outcomes = runner.run(List.of(job("b-again", "B")));
+            assertNull(outcomes.get(0).error());
+            assertEquals(2, loadsOf("B"));
+        }
+    }
+
+    @Test
+    void batchLargerThanTheBoundKeepsAllItsTickers() throws InterruptedException {
+        try (BatchRunner runner = new BatchRunner(loader, 2, 1)) {
+            List<JobOutcome> outcomes = runner.run(List.of(job("abc", "A", "B", "C")));
+            assertNull(outcomes.get(0).error());
+            assertEquals(3, runner.cachedTickers());
+
+            runner.run(List.of(job("d", "D")));
+            assertEquals(1, runner.cachedTickers());
+        }
+    }
+
+    @Test
+    void unboundedRunnerLoadsEachTickerOnce() throws InterruptedException {
+        try (BatchRunner runner = new BatchRunner(loader, 2)) {
+            runner.run(List.of(job("ab", "A", "B")));
+            runner.run(List.of(job("c", "C")));
+            runner.run(List.of(job("ab-again", "A", "B")));
+            assertEquals(3, runner.cachedTickers());
+            assertEquals(1, loadsOf("A"));
+            assertEquals(1, loadsOf("B"));
+        }
+    }
+
+    @Test
+    void runCacheAnswersRepeatedJobs() throws InterruptedException {
+        RunCache cache = new RunCache(RunCache.DEFAULT_MAX_BYTES);
+        BatchJob tuned = new BatchJob("tuned", StrategyFactory.StrategyType.RSI, Map.of("rsiPeriod", "7"),
+                BigDecimal.valueOf(100_000), List.of("A", "B"), null, null);
+        try (BatchRunner runner = new BatchRunner(loader, 2, BatchRunner.UNBOUNDED, cache)) {
+            List<JobOutcome> first = runner.run(List.of(job("default", "A", "B"), tuned));
+            assertEquals(0, cache.getHits());
+            assertEquals(2, cache.size());
+
+            // Spelling out the default parameters describes the same run
+            BatchJob explicit = new BatchJob("explicit", StrategyFactory.StrategyType.RSI, Map.of("rsiPeriod", "14"),
+                    BigDecimal.valueOf(100_000), List.of("A", "B"), null, null);
+            List<JobOutcome> second = runner.run(List.of(explicit, tuned, job("other-universe", "A")));
+            assertEquals(2, cache.getHits());
+            assertEquals(3, cache.size());
+            assertSame(first.get(0).result(), second.get(0).result());
+            assertSame(first.get(1).result(), second.get(1).result());
+            assertEquals("other-universe", second.get(2).id());
+            assertNull(second.get(2).error());
+        }
+    }
+
+    @Test
+    void negativeBoundIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new BatchRunner(loader, 1, -1));
+    }
+}
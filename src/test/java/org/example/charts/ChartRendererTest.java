@@ -0,0 +1,68 @@
+package org.example.charts;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChartRendererTest {
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+
+    static {
+        System.setProperty("java.awt.headless", "true");
+    }
+
+    @TempDir
+    Path directory;
+
+    private static Chart sineChart(int points) {
+        double[] x = new double[points];
+        double[] y = new double[points];
+        for (int i = 0; i < points; i++) {
+            x[i] = i;
+            y[i] = Math.sin(i / 100.0);
+        }
+        return new Chart("Sine", "Step", "Value", List.of(new ChartSeries("sin", x, y)));
+    }
+
+    @Test
+    void writesAPngWithoutADisplay() throws IOException {
+        Path file = directory.resolve("chart.png");
+        new ChartRenderer(400, 300, Downsampler.Method.LTTB).write(sineChart(50_000), file);
+
+        byte[] bytes = Files.readAllBytes(file);
+        assertTrue(bytes.length > PNG_SIGNATURE.length);
+        byte[] signature = new byte[PNG_SIGNATURE.length];
+        System.arraycopy(bytes, 0, signature, 0, signature.length);
+        assertArrayEquals(PNG_SIGNATURE, signature);
+    }
+
+    @Test
+    void writesADownsampledSvg() throws Exception {
+        Path file = directory.resolve("chart.svg");
+        Path written = new ChartRenderer(400, 300, Downsampler.Method.LTTB).writeAsync(sineChart(50_000), file).get();
+
+        assertEquals(file, written);
+        String svg = Files.readString(file, StandardCharsets.UTF_8);
+        assertTrue(svg.startsWith("<?xml"));
+        assertTrue(svg.trim().endsWith("</svg>"));
+        assertTrue(svg.contains("Sine"));
+        // One point per pixel column, not one per value
+        assertTrue(svg.length() < 50_000, "svg of " + svg.length() + " characters");
+    }
+
+    @Test
+    void rejectsOtherFormats() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ChartRenderer().write(sineChart(10), directory.resolve("chart.jpg")));
+    }
+}
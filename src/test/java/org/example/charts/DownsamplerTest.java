@@ -0,0 +1,92 @@
+package org.example.charts;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DownsamplerTest {
+    private static final int N = 100_000;
+
+    private static double[] index(int n) {
+        double[] x = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = i;
+        }
+        return x;
+    }
+
+    private static double[] randomWalk(int n, long seed) {
+        Random random = new Random(seed);
+        double[] y = new double[n];
+        for (int i = 1; i < n; i++) {
+            y[i] = y[i - 1] + random.nextGaussian();
+        }
+        return y;
+    }
+
+    private static void assertAscendingFromFirstToLast(int[] kept, int n) {
+        assertEquals(0, kept[0]);
+        assertEquals(n - 1, kept[kept.length - 1]);
+        for (int i = 1; i < kept.length; i++) {
+            assertTrue(kept[i] > kept[i - 1], "indices ascend at " + i);
+        }
+    }
+
+    @Test
+    void lttbKeepsTheEndsAndExactlyThePointsAskedFor() {
+        double[] y = randomWalk(N, 1);
+        int[] kept = Downsampler.lttb(index(N), y, 800);
+
+        assertEquals(800, kept.length);
+        assertAscendingFromFirstToLast(kept, N);
+    }
+
+    @Test
+    void lttbKeepsASpikeOfItsBucket() {
+        double[] y = new double[N];
+        y[54_321] = 1_000.0;
+        int[] kept = Downsampler.lttb(index(N), y, 100);
+
+        boolean spikeKept = false;
+        for (int index : kept) {
+            spikeKept |= index == 54_321;
+        }
+        assertTrue(spikeKept);
+    }
+
+    @Test
+    void minMaxKeepsTheEndsAndEveryBucketsExtremes() {
+        double[] y = randomWalk(N, 2);
+        int[] kept = Downsampler.minMax(y, 802);
+
+        assertEquals(802, kept.length);
+        assertAscendingFromFirstToLast(kept, N);
+
+        // The extremes of the whole series are in some bucket, so they survive
+        int lowest = 0;
+        int highest = 0;
+        for (int i = 0; i < N; i++) {
+            lowest = y[i] < y[lowest] ? i : lowest;
+            highest = y[i] > y[highest] ? i : highest;
+        }
+        boolean lowestKept = false;
+        boolean highestKept = false;
+        for (int index : kept) {
+            lowestKept |= index == lowest;
+            highestKept |= index == highest;
+        }
+        assertTrue(lowestKept);
+        assertTrue(highestKept);
+    }
+
+    @Test
+    void shortSeriesAreKeptWhole() {
+        double[] y = {3.0, 1.0, 4.0, 1.0, 5.0};
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, Downsampler.select(Downsampler.Method.LTTB, index(5), y, 5));
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, Downsampler.select(Downsampler.Method.MIN_MAX, index(5), y, 10));
+    }
+}
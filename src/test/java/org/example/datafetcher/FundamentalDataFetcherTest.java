@@ -0,0 +1,32 @@
+package org.example.datafetcher;
+
+import org.example.models.StockFundamentals;
+import org.json.JSONException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FundamentalDataFetcherTest {
+
+    @Test
+    void overviewRatiosAreParsedAndNoneIsMissing() {
+        StockFundamentals fundamentals = FundamentalDataFetcher.parseFundamentalData("IBM", """
+                {"Symbol": "IBM", "PERatio": "22.5", "PriceToBookRatio": "None",
+                 "ReturnOnEquityTTM": "0.31", "DividendYield": "-"}""");
+        assertEquals("IBM", fundamentals.getTicker());
+        assertEquals(Double.valueOf(22.5), fundamentals.getPeRatioOrNull());
+        assertNull(fundamentals.getPbRatioOrNull());
+        assertEquals(Double.valueOf(0.31), fundamentals.getReturnOnEquityOrNull());
+        assertNull(fundamentals.getDividendYieldOrNull());
+    }
+
+    @Test
+    void errorAndRateLimitResponsesAreNotFundamentals() {
+        assertThrows(JSONException.class, () -> FundamentalDataFetcher.parseFundamentalData("IBM", "{}"));
+        assertThrows(JSONException.class, () -> FundamentalDataFetcher.parseFundamentalData("IBM",
+                "{\"Note\": \"Thank you for using Alpha Vantage! Our standard API call frequency is 5 calls per minute.\"}"));
+        assertThrows(JSONException.class, () -> FundamentalDataFetcher.parseFundamentalData("IBM", "<html>Bad gateway</html>"));
+    }
+}
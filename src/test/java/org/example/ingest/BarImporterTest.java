@@ -0,0 +1,163 @@
+package org.example.ingest;
+
+import org.example.models.PriceSeries;
+import org.example.repository.LocalBarCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BarImporterTest {
+    private static final int MIN_RANGE_BYTES = 1 << 16;
+
+    @TempDir
+    Path directory;
+
+    private static String row(String ticker, LocalDate day, double close, long volume) {
+        return ticker + "," + day + "," + close + "," + (close + 1) + "," + (close - 1) + "," + close + "," + volume + "\r\n";
+    }
+
+    // Three tickers of daily bars interleaved row by row, large enough to span several minimum-size ranges
+    private Path writeDump(String name, int days) throws IOException {
+        StringBuilder csv = new StringBuilder("ticker,timestamp,open,high,low,close,volume\r\n");
+        LocalDate start = LocalDate.of(2000, 1, 3);
+        for (int d = 0; d < days; d++) {
+            for (String ticker : new String[]{"AAA", "BBB", "CCC"}) {
+                csv.append(row(ticker, start.plusDays(d), 10 + ticker.charAt(0) - 'A' + d * 0.01, 100L + d));
+            }
+        }
+        Path file = directory.resolve(name);
+        Files.writeString(file, csv);
+        return file;
+    }
+
+    private static void assertSameBars(PriceSeries expected, PriceSeries actual) {
+        assertEquals(expected.size(), actual.size(), expected.getTicker());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.timestampAt(i), actual.timestampAt(i));
+            assertEquals(expected.openAt(i), actual.openAt(i), 0.0);
+            assertEquals(expected.highAt(i), actual.highAt(i), 0.0);
+            assertEquals(expected.lowAt(i), actual.lowAt(i), 0.0);
+            assertEquals(expected.closeAt(i), actual.closeAt(i), 0.0);
+            assertEquals(expected.volumeAt(i), actual.volumeAt(i));
+        }
+    }
+
+    @Test
+    void rangeSplittingKeepsEveryLineExactlyOnce() throws IOException {
+        Path file = writeDump("dump.csv", 5_000);
+        assertTrue(Files.size(file) > 4L * MIN_RANGE_BYTES);
+
+        BarImporter.ParsedBars whole = new BarImporter(CsvLayout.TICKER_FIRST).parse(List.of(file));
+        BarImporter.ParsedBars split = new BarImporter(CsvLayout.TICKER_FIRST, MIN_RANGE_BYTES).parse(List.of(file));
+
+        assertEquals(15_000, whole.rows());
+        assertEquals(whole.rows(), split.rows());
+        assertEquals(0, split.rejected());
+        assertEquals(0, split.duplicates());
+        assertEquals(whole.series().keySet(), split.series().keySet());
+        for (Map.Entry<String, PriceSeries> entry : whole.series().entrySet()) {
+            assertEquals(5_000, entry.getValue().size());
+            assertSameBars(entry.getValue(), split.series().get(entry.getKey()));
+        }
+    }
+
+    @Test
+    void rangesStartingExactlyAtALineAreNotSkipped() throws IOException {
+        // Pad the header so the first data row starts exactly at the second range's first byte
+        String first = row("AAA", LocalDate.of(2020, 1, 2), 10.0, 1);
+        String header = "h".repeat(MIN_RANGE_BYTES - 2) + "\r\n";
+        Path file = directory.resolve("aligned.csv");
+        Files.writeString(file, header + first + row("AAA", LocalDate.of(2020, 1, 3), 11.0, 2));
+
+        BarImporter.ParsedBars parsed = new BarImporter(CsvLayout.TICKER_FIRST, MIN_RANGE_BYTES).parse(List.of(file));
+        assertEquals(2, parsed.rows());
+        assertEquals(2, parsed.series().get("AAA").size());
+    }
+
+    @Test
+    void invalidRowsAreCountedAndSkipped() throws IOException {
+        LocalDate day = LocalDate.of(2020, 1, 2);
+        String csv = "ticker,timestamp,open,high,low,close,volume\n"
+                + row("AAA", day, 10.0, 1)
+                + "AAA,2020-01-03,-10.0,11.0,9.0,10.0,1\n"     // Negative price
+                + "AAA,2020-01-06,10.0,9.0,8.0,10.0,1\n"       // High below close
+                + "AAA,2020-02-30,10.0,11.0,9.0,10.0,1\n"      // No such day
+                + "AAA,2020-01-07,NaN,11.0,9.0,10.0,1\n"
+                + "AAA,2020-01-08,10.0,Infinity,9.0,10.0,1\n"
+                + "AAA,2020-01-09,10.0,11.0,9.0,10.0,-5\n"
+                + "AAA,2020-01-10,10.0\n"
+                + ",2020-01-13,10.0,11.0,9.0,10.0,1\n"
+                + "\"AAA\",\"2020-01-14\",1.5e1,16,14,15,2\n";
+        Path file = directory.resolve("mixed.csv");
+        Files.writeString(file, csv);
+
+        BarImporter.ParsedBars parsed = new BarImporter(CsvLayout.TICKER_FIRST).parse(List.of(file));
+        assertEquals(2, parsed.rows());
+        assertEquals(8, parsed.rejected());
+        PriceSeries series = parsed.series().get("AAA");
+        assertEquals(2, series.size());
+        assertEquals(15.0, series.openAt(1), 0.0);
+    }
+
+    @Test
+    void importMergesIntoCachedBarsWithNewRowsWinning() throws IOException {
+        LocalBarCache cache = new LocalBarCache(directory.resolve("cache"));
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        PriceSeries.Builder existing = new PriceSeries.Builder("AAA");
+        for (int d = 0; d < 10; d++) {
+            long timestamp = PriceSeries.toEpochSeconds(start.plusDays(d).atStartOfDay());
+            existing.add(timestamp, 10, 11, 9, 10, 100);
+        }
+        cache.write(existing.build());
+
+        // Overlaps the last five cached days and adds five new ones, out of order
+        StringBuilder csv = new StringBuilder("ticker,timestamp,open,high,low,close,volume\n");
+        for (int d = 14; d >= 5; d--) {
+            csv.append(row("AAA", start.plusDays(d), 20.0, 200));
+        }
+        csv.append(row("BBB", start, 30.0, 300));
+        Path file = directory.resolve("update.csv");
+        Files.writeString(file, csv);
+
+        ImportReport report = new BarImporter(CsvLayout.TICKER_FIRST).importFiles(List.of(file), cache, null);
+        assertEquals(11, report.rows());
+        assertEquals(2, report.tickers());
+
+        PriceSeries merged = cache.read("AAA");
+        assertNotNull(merged);
+        assertEquals(15, merged.size());
+        for (int d = 0; d < 15; d++) {
+            assertEquals(PriceSeries.toEpochSeconds(start.plusDays(d).atStartOfDay()), merged.timestampAt(d));
+            assertEquals(d < 5 ? 10.0 : 20.0, merged.closeAt(d), 0.0);
+        }
+        assertEquals(1, cache.read("BBB").size());
+    }
+
+    @Test
+    void mergeKeepsTheLastRowOfEachTime() {
+        PriceSeries first = new PriceSeries.Builder("AAA").add(2, 1, 1, 1, 1, 1).add(1, 1, 1, 1, 1, 1).build();
+        PriceSeries second = new PriceSeries.Builder("AAA").add(2, 5, 5, 5, 5, 5).add(3, 3, 3, 3, 3, 3).build();
+        BarImporter.Merged merged = BarImporter.merge(List.of(first, second));
+        assertEquals(1, merged.duplicates());
+        assertEquals(3, merged.series().size());
+        assertEquals(1L, merged.series().timestampAt(0));
+        assertEquals(5.0, merged.series().closeAt(1), 0.0);
+        assertEquals(3L, merged.series().timestampAt(2));
+    }
+
+    @Test
+    void rangesSmallerThanALineAreRefused() {
+        assertThrows(IllegalArgumentException.class, () -> new BarImporter(CsvLayout.TICKER_FIRST, MIN_RANGE_BYTES - 1));
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.ingest;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ByteFieldsTest {
+
+    private static double parseDouble(String text) {
+        // Surrounding bytes check that parsing stays inside [from, to)
+        ByteBuffer buffer = ByteBuffer.wrap(("9" + text + "9").getBytes(StandardCharsets.UTF_8));
+        return ByteFields.parseDouble(buffer, 1, buffer.limit() - 1);
+    }
+
+    private static long parseLong(String text) {
+        ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        return ByteFields.parseLong(buffer, 0, buffer.limit());
+    }
+
+    private static long parseTimestamp(String text) {
+        ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        return ByteFields.parseTimestamp(buffer, 0, buffer.limit());
+    }
+
+    @Test
+    void plainDecimalsMatchDoubleParseDouble() {
+        String[] inputs = {"0", "1", "-1", "+1", "123.45", "-123.45", "0.1", "-0.1", ".5", "5.", "-.5",
+                "100.00", "99999.9999", "1234567890.12345", "-0.000001"};
+        for (String input : inputs) {
+            assertEquals(Double.parseDouble(input), parseDouble(input), 0.0, input);
+        }
+    }
+
+    @Test
+    void longMantissasTakeTheSlowPathWithTheirSign() {
+        String[] inputs = {"0.12345678901234567", "-0.12345678901234567", "-1234567890123456789",
+                "1234567890123456789", "-9007199254740993", "9007199254740993.5", "-0.00000000000000000000001"};
+        for (String input : inputs) {
+            assertEquals(Double.parseDouble(input), parseDouble(input), 0.0, input);
+        }
+    }
+
+    @Test
+    void exponentsTakeTheSlowPathWithTheirSign() {
+        String[] inputs = {"1e3", "-1e3", "-1.5E-2", "+2.5e+2"};
+        for (String input : inputs) {
+            assertEquals(Double.parseDouble(input), parseDouble(input), 0.0, input);
+        }
+    }
+
+    @Test
+    void malformedDecimalsAreNaN() {
+        for (String input : new String[]{"", "-", "+", ".", "abc", "1.2.3", "1,5", "--1"}) {
+            assertTrue(Double.isNaN(parseDouble(input)), input);
+        }
+    }
+
+    @Test
+    void longsAcceptAZeroFractionOnly() {
+        assertEquals(1200L, parseLong("1200"));
+        assertEquals(1200L, parseLong("1200.0"));
+        assertEquals(-42L, parseLong("-42"));
+        assertEquals(Long.MAX_VALUE, parseLong(Long.toString(Long.MAX_VALUE)));
+        assertEquals(ByteFields.INVALID_LONG, parseLong("1200.5"));
+        assertEquals(ByteFields.INVALID_LONG, parseLong("12a"));
+        assertEquals(ByteFields.INVALID_LONG, parseLong(""));
+        assertEquals(ByteFields.INVALID_LONG, parseLong("-"));
+        assertEquals(ByteFields.INVALID_LONG, parseLong("9223372036854775808"));
+    }
+
+    @Test
+    void timestampsAreLocalEpochSeconds() {
+        assertEquals(LocalDateTime.of(2024, 2, 29, 0, 0).toEpochSecond(ZoneOffset.UTC), parseTimestamp("2024-02-29"));
+        assertEquals(LocalDateTime.of(1999, 12, 31, 23, 59).toEpochSecond(ZoneOffset.UTC),
+                parseTimestamp("1999-12-31 23:59"));
+        assertEquals(LocalDateTime.of(1960, 3, 1, 9, 30, 15).toEpochSecond(ZoneOffset.UTC),
+                parseTimestamp("1960-03-01T09:30:15"));
+        for (String input : new String[]{"2023-02-29", "2024-13-01", "2024-01-01 24:00", "2024-01-01X10:00",
+                "2024/01/01", "2024-01-1", "2024-01-01 10:00:60"}) {
+            assertEquals(ByteFields.INVALID_TIMESTAMP, parseTimestamp(input), input);
+        }
+    }
+}
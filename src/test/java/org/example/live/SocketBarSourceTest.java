@@ -0,0 +1,70 @@
+package org.example.live;
+
+import org.example.metrics.MetricsRegistry;
+import org.example.models.PriceSeries;
+import org.example.models.SymbolTable;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SocketBarSourceTest {
+
+    @Test
+    void malformedAndNonFinitePricesAreCountedAndSkipped() throws Exception {
+        String feed = """
+                # comment
+                SBS,2024-03-01T15:30:00,10.0,11.0,9.0,10.5,100
+
+                SBS,2024-03-01T15:31:00,NaN,11.0,9.0,10.5,100
+                SBS,2024-03-01T15:32:00,10.0,Infinity,9.0,10.5,100
+                SBS,2024-03-01T15:33:00,10.0,11.0,-Infinity,10.5,100
+                SBS,2024-03-01T15:34:00,10.0,11.0,9.0,0,100
+                SBS,2024-03-01T15:35:00,10.0,11.0,9.0,-1.5,100
+                SBS,2024-03-01T15:36:00,ten,11.0,9.0,10.5,100
+                SBS,2024-03-01T15:37:00,10.0,11.0,9.0,10.5
+                SBS,2024-03-01 15:38,10.0,11.0,9.0,10.5,100
+                SBS,2024-03-04,12.0,13.0,11.0,12.5,200
+                """;
+
+        BarRing ring = new BarRing(64, BarRing.Overflow.BLOCK, new MetricsRegistry());
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            Thread sender = new Thread(() -> {
+                try (Socket client = server.accept(); OutputStream out = client.getOutputStream()) {
+                    out.write(feed.getBytes(StandardCharsets.UTF_8));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            sender.start();
+
+            try (SocketBarSource source = new SocketBarSource("127.0.0.1", server.getLocalPort())) {
+                source.feed(ring);
+                ring.close();
+                assertEquals(8, source.getRejected());
+            }
+            sender.join();
+        }
+
+        List<Long> timestamps = new ArrayList<>();
+        List<Double> closes = new ArrayList<>();
+        ring.drain((tickerId, timestamp, open, high, low, close, volume, arrivalNanos) -> {
+            assertEquals("SBS", SymbolTable.global().symbol(tickerId));
+            timestamps.add(timestamp);
+            closes.add(close);
+        }, 64);
+        assertEquals(List.of(PriceSeries.toEpochSeconds(LocalDateTime.of(2024, 3, 1, 15, 30)),
+                PriceSeries.toEpochSeconds(LocalDateTime.of(2024, 3, 4, 0, 0))), timestamps);
+        assertEquals(List.of(10.5, 12.5), closes);
+    }
+}
@@ -0,0 +1,103 @@
+package org.example.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistogramTest {
+
+    private static void assertBucketHolds(long value) {
+        int bucket = Histogram.bucketOf(value);
+        long upper = Histogram.upperBoundOf(bucket);
+        long lower = bucket == 0 ? 0 : Histogram.upperBoundOf(bucket - 1) + 1;
+        assertTrue(lower <= value && value <= upper, value + " in [" + lower + ", " + upper + "]");
+        // Four sub-buckets per power of two: the upper bound overshoots by at most a quarter
+        assertTrue(upper - value <= value / 4, value + " has upper bound " + upper);
+    }
+
+    @Test
+    void bucketsAreContiguousAndTight() {
+        for (long value = 0; value < 100_000; value++) {
+            assertBucketHolds(value);
+        }
+        Random random = new Random(41);
+        for (int i = 0; i < 100_000; i++) {
+            assertBucketHolds((random.nextLong() >>> 1) >>> random.nextInt(63));
+        }
+        assertBucketHolds(Long.MAX_VALUE);
+    }
+
+    @Test
+    void percentilesOfAUniformSpreadAreWithinOneBucket() {
+        Histogram histogram = new Histogram();
+        for (long value = 1; value <= 1_000; value++) {
+            histogram.record(value);
+        }
+        HistogramSnapshot snapshot = histogram.snapshot();
+
+        assertEquals(1_000, snapshot.count());
+        assertEquals(500_500, snapshot.sum());
+        assertEquals(1_000, snapshot.max());
+        assertEquals(500.5, snapshot.mean(), 0.0);
+        assertTrue(snapshot.p50() >= 500 && snapshot.p50() <= 625, "p50 " + snapshot.p50());
+        assertTrue(snapshot.p90() >= 900 && snapshot.p90() <= 1_000, "p90 " + snapshot.p90());
+        // Capped at the largest value seen rather than its bucket's upper bound
+        assertEquals(1_000, snapshot.p99());
+    }
+
+    @Test
+    void negativeValuesCountAsZero() {
+        Histogram histogram = new Histogram();
+        histogram.record(-5);
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(1, snapshot.count());
+        assertEquals(0, snapshot.sum());
+        assertEquals(0, snapshot.p99());
+        assertEquals(0.0, new Histogram().snapshot().mean(), 0.0);
+    }
+
+    @Test
+    void concurrentRecordingLosesNothing() throws InterruptedException {
+        Histogram histogram = new Histogram();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int thread = 0; thread < 8; thread++) {
+            pool.execute(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    histogram.record(i % 1_000);
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(800_000, snapshot.count());
+        assertEquals(8L * 100 * 499_500, snapshot.sum());
+        assertEquals(999, snapshot.max());
+    }
+
+    @Test
+    void mergeAddsRecordings() {
+        Histogram fast = new Histogram();
+        Histogram slow = new Histogram();
+        for (int i = 0; i < 90; i++) {
+            fast.record(10);
+        }
+        for (int i = 0; i < 10; i++) {
+            slow.record(1_000_000);
+        }
+        fast.merge(slow);
+        HistogramSnapshot snapshot = fast.snapshot();
+
+        assertEquals(100, snapshot.count());
+        assertEquals(1_000_000, snapshot.max());
+        assertEquals(Histogram.upperBoundOf(Histogram.bucketOf(10)), snapshot.p50());
+        assertEquals(1_000_000, snapshot.p99());
+    }
+}
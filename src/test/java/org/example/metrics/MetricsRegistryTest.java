@@ -0,0 +1,51 @@
+package org.example.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricsRegistryTest {
+
+    @Test
+    void runRegistriesMergeIntoATotal() {
+        MetricsRegistry total = new MetricsRegistry();
+        for (int run = 0; run < 3; run++) {
+            MetricsRegistry registry = new MetricsRegistry();
+            registry.counter(MetricsRegistry.BARS).add(250);
+            registry.histogram(MetricsRegistry.RUN_NANOS).record(2_000_000_000L);
+            total.merge(registry);
+        }
+        MetricsSnapshot snapshot = total.snapshot();
+
+        assertSame(total.counter(MetricsRegistry.BARS), total.counter(MetricsRegistry.BARS));
+        assertEquals(750, snapshot.counter(MetricsRegistry.BARS));
+        assertEquals(0, snapshot.counter(MetricsRegistry.TRADES));
+        assertEquals(3, snapshot.histogram(MetricsRegistry.RUN_NANOS).count());
+        // 750 bars over 6 seconds
+        assertEquals(125.0, snapshot.ratePerSecond(MetricsRegistry.BARS, MetricsRegistry.RUN_NANOS), 1e-9);
+        assertEquals(0.0, snapshot.ratePerSecond(MetricsRegistry.BARS, "missing.nanos"), 0.0);
+    }
+
+    @Test
+    void exportRendersPrometheusStyleLines() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter(MetricsRegistry.API_CALLS).add(7);
+        registry.histogram(MetricsRegistry.DB_QUERY_NANOS).record(3);
+
+        List<String> lines = MetricsExporter.render(registry.snapshot()).lines().toList();
+
+        assertEquals(List.of(
+                "api_calls 7",
+                "db_query_nanos_count 1",
+                "db_query_nanos_sum 3",
+                "db_query_nanos_max 3",
+                "db_query_nanos{quantile=\"0.5\"} 3",
+                "db_query_nanos{quantile=\"0.9\"} 3",
+                "db_query_nanos{quantile=\"0.99\"} 3"), lines);
+        assertTrue(MetricsExporter.render(MetricsSnapshot.EMPTY).isEmpty());
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.models;
+
+import org.example.repository.LocalBarCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdjustmentFactorsTest {
+    private static final LocalDate SPLIT_DATE = LocalDate.of(2024, 1, 10);
+    private static final LocalDate DIVIDEND_DATE = LocalDate.of(2024, 1, 20);
+
+    @TempDir
+    Path cacheDirectory;
+
+    // Daily bars from January 1st to 30th, priced so the split and dividend are visible
+    private static PriceSeries bars() {
+        PriceSeries.Builder builder = new PriceSeries.Builder("T");
+        for (int day = 1; day <= 30; day++) {
+            double price = day < 10 ? 200.0 : 100.0;
+            builder.add(PriceSeries.toEpochSeconds(LocalDateTime.of(2024, 1, day, 16, 0)),
+                    price, price + 1, price - 1, price, day < 10 ? 1_000 : 2_000);
+        }
+        return builder.build();
+    }
+
+    private static AdjustmentFactors factors() {
+        // Given out of order on purpose
+        return AdjustmentFactors.of("T", List.of(
+                CorporateAction.dividend("T", DIVIDEND_DATE, 2.0, 100.0),
+                CorporateAction.split("T", SPLIT_DATE, 2.0)));
+    }
+
+    @Test
+    void segmentsFollowExDates() {
+        AdjustmentFactors factors = factors();
+        assertEquals(SPLIT_DATE, factors.actions().get(0).getExDate());
+        assertEquals(0, factors.segmentOf(PriceSeries.toEpochSeconds(LocalDateTime.of(2024, 1, 9, 16, 0))));
+        assertEquals(1, factors.segmentOf(PriceSeries.toEpochSeconds(SPLIT_DATE.atStartOfDay())));
+        assertEquals(2, factors.segmentOf(PriceSeries.toEpochSeconds(LocalDateTime.of(2024, 1, 25, 16, 0))));
+        assertEquals(0.5 * 0.98, factors.priceMultiplier(0), 1e-15);
+        assertEquals(0.98, factors.priceMultiplier(1), 1e-15);
+        assertEquals(1.0, factors.priceMultiplier(2));
+        assertEquals(2.0, factors.volumeMultiplier(0));
+        assertEquals(1.0, factors.volumeMultiplier(1));
+        assertEquals(Long.MAX_VALUE, factors.segmentEnd(2));
+    }
+
+    @Test
+    void withReplacesActionOfSameDateAndTypeAndLeavesOriginalUnchanged() {
+        AdjustmentFactors original = factors();
+        AdjustmentFactors updated = original.with(CorporateAction.split("T", SPLIT_DATE, 4.0));
+        assertEquals(2, updated.actions().size());
+        assertEquals(0.25 * 0.98, updated.priceMultiplier(0), 1e-15);
+        assertEquals(0.5 * 0.98, original.priceMultiplier(0), 1e-15);
+        assertThrows(IllegalArgumentException.class,
+                () -> original.with(CorporateAction.split("OTHER", SPLIT_DATE, 2.0)));
+    }
+
+    @Test
+    void materializedAndInPlaceAdjustmentAgree() {
+        PriceSeries raw = bars();
+        AdjustmentFactors factors = factors();
+        List<MarketDataPoint> materialized = raw.toDataPoints(0, raw.size(), factors);
+
+        long[] timestamps = new long[raw.size()];
+        double[] open = new double[raw.size()];
+        double[] high = new double[raw.size()];
+        double[] low = new double[raw.size()];
+        double[] close = new double[raw.size()];
+        long[] volume = new long[raw.size()];
+        for (int i = 0; i < raw.size(); i++) {
+            timestamps[i] = raw.timestampAt(i);
+            open[i] = raw.openAt(i);
+            high[i] = raw.highAt(i);
+            low[i] = raw.lowAt(i);
+            close[i] = raw.closeAt(i);
+            volume[i] = raw.volumeAt(i);
+        }
+        factors.applyInPlace(timestamps, open, high, low, close, volume, raw.size());
+
+        for (int i = 0; i < raw.size(); i++) {
+            assertEquals(close[i], materialized.get(i).getClose().doubleValue());
+            assertEquals(volume[i], materialized.get(i).getVolume());
+        }
+        // After the split the series is continuous; only the dividend is left as a 2% step
+        assertEquals(98.0, close[8], 1e-9);
+        assertEquals(98.0, close[9], 1e-9);
+        assertEquals(2_000, volume[0]);
+        assertEquals(100.0, close[29]);
+    }
+
+    @Test
+    void cacheReadsAdjustedBarsFromRecordedActions() throws IOException {
+        LocalBarCache cache = new LocalBarCache(cacheDirectory);
+        cache.write(bars());
+        cache.writeActions(factors());
+
+        assertEquals(factors().actions().size(), cache.readActions("T").size());
+        PriceSeries raw = cache.read("T");
+        PriceSeries adjusted = cache.readAdjusted("T");
+        assertEquals(200.0, raw.closeAt(0));
+        assertEquals(98.0, adjusted.closeAt(0), 1e-9);
+        assertEquals(raw.closeAt(29), adjusted.closeAt(29));
+        assertNull(cache.readAdjusted("MISSING"));
+        assertTrue(cache.readActions("MISSING").isEmpty());
+    }
+}
@@ -0,0 +1,142 @@
+package org.example.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PortfolioTest {
+
+    private static Set<Integer> openIds(Portfolio portfolio) {
+        Set<Integer> ids = new HashSet<>();
+        for (int i = 0; i < portfolio.getOpenPositionCount(); i++) {
+            ids.add(portfolio.getOpenPositionId(i));
+        }
+        return ids;
+    }
+
+    @Test
+    void addingAveragesThePriceAndMovesCash() {
+        Portfolio portfolio = new Portfolio(new BigDecimal("10000"));
+        portfolio.addPosition(3, 10, 100.0);
+        portfolio.addPosition(3, 30, 120.0);
+
+        assertEquals(40.0, portfolio.getQuantity(3), 0.0);
+        assertEquals(115.0, portfolio.getAveragePrice(3), 1e-12);
+        assertEquals(10000 - 1000 - 3600, portfolio.getCash(), 1e-9);
+        // Marked at the last fill price
+        assertEquals(40 * 120.0, portfolio.getMarketValue(), 1e-9);
+        assertEquals(10000 - 1000 - 3600 + 4800, portfolio.getEquity(), 1e-9);
+    }
+
+    @Test
+    void sellingMoreThanIsHeldOnlySellsWhatIsHeld() {
+        Portfolio portfolio = new Portfolio(new BigDecimal("10000"));
+        portfolio.addPosition(1, 10, 50.0);
+        portfolio.removePosition(1, 25, 60.0);
+
+        assertEquals(0.0, portfolio.getQuantity(1), 0.0);
+        assertEquals(0.0, portfolio.getAveragePrice(1), 0.0);
+        assertEquals(10000 + 10 * 10.0, portfolio.getCash(), 1e-9);
+        assertEquals(0.0, portfolio.getMarketValue(), 1e-9);
+        assertEquals(0, portfolio.getOpenPositionCount());
+
+        // Nothing held, nothing sold
+        portfolio.removePosition(1, 5, 60.0);
+        assertEquals(10100.0, portfolio.getCash(), 1e-9);
+    }
+
+    @Test
+    void closingAPositionKeepsTheOtherOpenOnes() {
+        Portfolio portfolio = new Portfolio(new BigDecimal("1000000"));
+        for (int id = 0; id < 5; id++) {
+            portfolio.addPosition(id, 1, 10.0);
+        }
+        portfolio.removePosition(1, 1, 10.0);
+        portfolio.removePosition(4, 1, 10.0);
+        assertEquals(Set.of(0, 2, 3), openIds(portfolio));
+
+        portfolio.addPosition(1, 2, 10.0);
+        portfolio.removePosition(0, 1, 10.0);
+        assertEquals(Set.of(1, 2, 3), openIds(portfolio));
+        assertEquals(40.0, portfolio.getMarketValue(), 1e-9);
+    }
+
+    @Test
+    void idsBeyondTheInitialArraysGrowThem() {
+        Portfolio portfolio = new Portfolio(new BigDecimal("1000000"));
+        portfolio.addPosition(5_000, 3, 20.0);
+        portfolio.addPosition(70, 1, 5.0);
+
+        assertEquals(3.0, portfolio.getQuantity(5_000), 0.0);
+        assertEquals(0.0, portfolio.getQuantity(4_999), 0.0);
+        assertEquals(0.0, portfolio.getQuantity(100_000), 0.0);
+        assertEquals(Set.of(70, 5_000), openIds(portfolio));
+        portfolio.removePosition(5_000, 3, 20.0);
+        assertEquals(Set.of(70), openIds(portfolio));
+    }
+
+    @Test
+    void incrementalMarketValueMatchesAFullRevaluation() {
+        Portfolio portfolio = new Portfolio(new BigDecimal("1000000"));
+        Random random = new Random(7);
+        double[] prices = new double[200];
+        Arrays.fill(prices, 50.0);
+        int trades = 0;
+        for (int step = 0; step < 200_000; step++) {
+            int id = random.nextInt(prices.length);
+            prices[id] = Math.max(0.01, prices[id] * (1.0 + random.nextGaussian() * 0.01));
+            double roll = random.nextDouble();
+            if (roll < 0.05) {
+                portfolio.addPosition(id, 1 + random.nextInt(100), prices[id]);
+                trades++;
+            } else if (roll < 0.08 && portfolio.getQuantity(id) > 0.0) {
+                portfolio.removePosition(id, 1 + random.nextInt(100), prices[id]);
+            } else {
+                portfolio.markPrice(id, prices[id]);
+            }
+
+            if (step % 1_000 == 999) {
+                // Revalue every open position from its quantity and last price
+                double marketValue = 0.0;
+                for (int held = 0; held < prices.length; held++) {
+                    marketValue += portfolio.getQuantity(held) * portfolio.getLastPrice(held);
+                }
+                assertEquals(marketValue, portfolio.getMarketValue(), 1e-9 * Math.max(1.0, marketValue), "step " + step);
+                assertEquals(portfolio.getCash() + marketValue, portfolio.getEquity(), 1e-9 * Math.max(1.0, marketValue));
+            }
+        }
+        assertTrue(trades > 1_000 && portfolio.getOpenPositionCount() > 0);
+
+        double incremental = portfolio.getEquity();
+        assertEquals(incremental, portfolio.revalue(), 1e-9 * incremental);
+    }
+
+    @Test
+    void pricesOfTickersNeverHeldDoNotMoveTheBook() {
+        Portfolio portfolio = new Portfolio(new BigDecimal("1000"));
+        portfolio.addPosition(2, 10, 10.0);
+        portfolio.markPrice(3, 500.0);
+        portfolio.markPrice(10_000, 500.0);
+        portfolio.markPrice(2, 12.0);
+
+        assertEquals(120.0, portfolio.getMarketValue(), 1e-12);
+        assertEquals(1020.0, portfolio.getEquity(), 1e-12);
+    }
+
+    @Test
+    void tickerStringsResolveThroughTheGlobalTable() {
+        Portfolio portfolio = new Portfolio(new BigDecimal("1000"));
+        portfolio.addPosition("PFT_STR", new BigDecimal("4"), new BigDecimal("12.5"));
+
+        int id = SymbolTable.global().idOf("PFT_STR");
+        assertEquals(4.0, portfolio.getQuantity(id), 0.0);
+        assertEquals(950.0, portfolio.getCash(), 1e-9);
+    }
+}
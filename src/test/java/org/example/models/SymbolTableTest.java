@@ -0,0 +1,79 @@
+package org.example.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SymbolTableTest {
+
+    @Test
+    void idsAreDenseStableAndRoundTrip() {
+        SymbolTable table = new SymbolTable();
+        assertEquals(-1, table.find("AAPL"));
+
+        assertEquals(0, table.idOf("AAPL"));
+        assertEquals(1, table.idOf("MSFT"));
+        assertEquals(0, table.idOf("AAPL"));
+        assertEquals(1, table.find("MSFT"));
+        assertEquals("MSFT", table.symbol(1));
+        assertEquals(2, table.size());
+        assertThrows(IllegalArgumentException.class, () -> table.symbol(2));
+    }
+
+    @Test
+    void growsPastItsInitialCapacity() {
+        SymbolTable table = new SymbolTable();
+        for (int i = 0; i < 5_000; i++) {
+            assertEquals(i, table.idOf("T" + i));
+        }
+        assertEquals(5_000, table.size());
+        assertEquals("T4321", table.symbol(4_321));
+    }
+
+    @Test
+    void concurrentRegistrationGivesEachTickerOneId() throws InterruptedException {
+        SymbolTable table = new SymbolTable();
+        ConcurrentHashMap<String, Integer> seen = new ConcurrentHashMap<>();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int thread = 0; thread < 8; thread++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 2_000; i++) {
+                    String ticker = "C" + i;
+                    int id = table.idOf(ticker);
+                    Integer previous = seen.putIfAbsent(ticker, id);
+                    if (previous != null && previous != id) {
+                        seen.put("conflict " + ticker, -1);
+                    }
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(2_000, seen.size());
+        assertEquals(2_000, table.size());
+        Set<Integer> ids = new HashSet<>(seen.values());
+        assertEquals(2_000, ids.size());
+        for (String ticker : seen.keySet()) {
+            assertEquals(ticker, table.symbol(seen.get(ticker)));
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package org.example.optimization;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CovarianceEstimatorTest {
+
+    // Row-major returns driven by one common factor, so the off-diagonal entries are not zero
+    private static double[] factorReturns(int observations, int assets, long seed) {
+        Random random = new Random(seed);
+        double[] returns = new double[observations * assets];
+        for (int t = 0; t < observations; t++) {
+            double market = random.nextGaussian() * 0.01;
+            for (int a = 0; a < assets; a++) {
+                returns[t * assets + a] = 0.0003 * a + (0.5 + a % 3) * market + random.nextGaussian() * 0.02;
+            }
+        }
+        return returns;
+    }
+
+    // Plain two-pass estimate over the row-major data
+    private static double[] naiveCrossProducts(double[] returns, int observations, int assets, double[] means) {
+        for (int a = 0; a < assets; a++) {
+            for (int t = 0; t < observations; t++) {
+                means[a] += returns[t * assets + a];
+            }
+            means[a] /= observations;
+        }
+        double[] cross = new double[assets * assets];
+        for (int i = 0; i < assets; i++) {
+            for (int j = 0; j < assets; j++) {
+                for (int t = 0; t < observations; t++) {
+                    cross[i * assets + j] += (returns[t * assets + i] - means[i]) * (returns[t * assets + j] - means[j]);
+                }
+            }
+        }
+        return cross;
+    }
+
+    @Test
+    void blockedEstimateMatchesTheNaiveOneAcrossTiles() {
+        // More assets than one tile and more observations than one time chunk
+        int observations = 1_100;
+        int assets = 150;
+        double[] returns = factorReturns(observations, assets, 31);
+        double[] means = new double[assets];
+        double[] cross = naiveCrossProducts(returns, observations, assets, means);
+
+        CovarianceMatrix covariance = CovarianceEstimator.estimate(returns, observations, assets, false);
+
+        assertEquals(assets, covariance.size());
+        assertEquals(0.0, covariance.getShrinkage(), 0.0);
+        for (int i = 0; i < assets; i++) {
+            assertEquals(means[i], covariance.mean(i), 1e-15);
+            for (int j = 0; j < assets; j++) {
+                assertEquals(cross[i * assets + j] / (observations - 1), covariance.get(i, j), 1e-12, i + "," + j);
+                assertEquals(covariance.get(i, j), covariance.get(j, i), 0.0);
+            }
+        }
+    }
+
+    @Test
+    void ledoitWolfMatchesADirectComputation() {
+        int observations = 80;
+        int assets = 70;
+        double[] returns = factorReturns(observations, assets, 32);
+        double[] means = new double[assets];
+        double[] cross = naiveCrossProducts(returns, observations, assets, means);
+
+        // Ledoit-Wolf (2004) towards mu * I, from the demeaned data directly
+        double[] sample = new double[assets * assets];
+        double mu = 0.0;
+        for (int i = 0; i < sample.length; i++) {
+            sample[i] = cross[i] / observations;
+        }
+        for (int i = 0; i < assets; i++) {
+            mu += sample[i * assets + i] / assets;
+        }
+        double distance = 0.0;
+        double error = 0.0;
+        for (int i = 0; i < assets; i++) {
+            for (int j = 0; j < assets; j++) {
+                double target = i == j ? mu : 0.0;
+                distance += (sample[i * assets + j] - target) * (sample[i * assets + j] - target);
+                for (int t = 0; t < observations; t++) {
+                    double product = (returns[t * assets + i] - means[i]) * (returns[t * assets + j] - means[j]);
+                    error += (product - sample[i * assets + j]) * (product - sample[i * assets + j]);
+                }
+            }
+        }
+        error /= (double) observations * observations;
+        double shrinkage = Math.min(error, distance) / distance;
+
+        CovarianceMatrix covariance = CovarianceEstimator.estimate(returns, observations, assets, true);
+
+        assertTrue(shrinkage > 0.0 && shrinkage < 1.0, "shrinkage " + shrinkage);
+        assertEquals(shrinkage, covariance.getShrinkage(), 1e-9);
+        for (int i = 0; i < assets; i++) {
+            for (int j = 0; j < assets; j++) {
+                double expected = shrinkage * (i == j ? mu : 0.0) + (1.0 - shrinkage) * sample[i * assets + j];
+                assertEquals(expected, covariance.get(i, j), 1e-12, i + "," + j);
+            }
+        }
+    }
+
+    @Test
+    void correlationHasAUnitDiagonal() {
+        CovarianceMatrix covariance = CovarianceEstimator.estimate(factorReturns(300, 5, 33), 300, 5, false);
+        double[] correlation = covariance.toCorrelation();
+        for (int i = 0; i < 5; i++) {
+            assertEquals(1.0, correlation[i * 5 + i], 1e-12);
+            for (int j = 0; j < 5; j++) {
+                assertTrue(Math.abs(correlation[i * 5 + j]) <= 1.0 + 1e-12);
+            }
+        }
+    }
+
+    @Test
+    void needsTwoObservations() {
+        assertThrows(IllegalArgumentException.class, () -> CovarianceEstimator.estimate(new double[3], 1, 3, false));
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.optimization;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PortfolioOptimizerTest {
+    private static final double[] VOLATILITIES = {0.1, 0.2, 0.4};
+
+    private static CovarianceMatrix uncorrelated(double[] means) {
+        int n = VOLATILITIES.length;
+        double[] values = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            values[i * n + i] = VOLATILITIES[i] * VOLATILITIES[i];
+        }
+        return new CovarianceMatrix(n, values, means, 0.0);
+    }
+
+    private static void assertFullyInvested(double[] weights) {
+        double total = 0.0;
+        for (double weight : weights) {
+            assertTrue(weight >= 0.0);
+            total += weight;
+        }
+        assertEquals(1.0, total, 1e-9);
+    }
+
+    @Test
+    void minimumVarianceOfUncorrelatedAssetsWeighsByInverseVariance() {
+        double[] weights = new PortfolioOptimizer(100_000, 1e-14).minimumVariance(uncorrelated(new double[3]));
+
+        // 1 / variance is 100, 25 and 6.25
+        assertFullyInvested(weights);
+        assertEquals(100 / 131.25, weights[0], 1e-6);
+        assertEquals(25 / 131.25, weights[1], 1e-6);
+        assertEquals(6.25 / 131.25, weights[2], 1e-6);
+    }
+
+    @Test
+    void riskParityOfUncorrelatedAssetsWeighsByInverseVolatility() {
+        double[] weights = new PortfolioOptimizer().riskParity(uncorrelated(new double[3]));
+
+        // 1 / volatility is 10, 5 and 2.5
+        assertFullyInvested(weights);
+        assertEquals(10 / 17.5, weights[0], 1e-9);
+        assertEquals(5 / 17.5, weights[1], 1e-9);
+        assertEquals(2.5 / 17.5, weights[2], 1e-9);
+    }
+
+    @Test
+    void meanVarianceTiltsTowardsTheHigherMeanAndStaysLongOnly() {
+        CovarianceMatrix covariance = uncorrelated(new double[]{0.0, 0.5, -0.5});
+        double[] weights = new PortfolioOptimizer().optimize(OptimizationObjective.MEAN_VARIANCE, covariance, 5.0);
+        double[] minimum = new PortfolioOptimizer().optimize(OptimizationObjective.MIN_VARIANCE, covariance, 5.0);
+
+        assertFullyInvested(weights);
+        assertTrue(weights[1] > minimum[1]);
+        assertEquals(0.0, weights[2], 1e-12);
+        assertThrows(IllegalArgumentException.class,
+                () -> new PortfolioOptimizer().meanVariance(covariance, covariance.means(), 0.0));
+    }
+}
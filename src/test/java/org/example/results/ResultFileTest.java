@@ -0,0 +1,122 @@
+package org.example.results;
+
+import org.example.backtest.BacktestResult;
+import org.example.backtest.EventLog;
+import org.example.backtest.EventType;
+import org.example.metrics.MetricsSnapshot;
+import org.example.models.SymbolTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResultFileTest {
+    @TempDir
+    Path directory;
+
+    private static BacktestResult result() {
+        int first = SymbolTable.global().idOf("RF_AAA");
+        int second = SymbolTable.global().idOf("RF_BBB");
+        EventLog events = new EventLog();
+        events.append(first, 1_700_000_000L, EventType.BUY, 10, 101.25);
+        events.append(second, 1_700_086_400L, EventType.BUY, 5, 55.5);
+        events.append(first, 1_700_172_800L, EventType.SELL, 10, 103.75);
+        events.append(second, 1_700_172_800L, EventType.MISSED_BUY, 0, 56.0);
+        return new BacktestResult(new BigDecimal("100000"), BigDecimal.valueOf(100_012.5), 0.0125, events,
+                List.of(BigDecimal.ZERO, BigDecimal.ONE.divide(BigDecimal.valueOf(3), MathContext.DECIMAL128)),
+                0.0004, List.of(BigDecimal.valueOf(100_000.0), BigDecimal.valueOf(100_012.5)),
+                new double[]{0.001, -0.002}, MetricsSnapshot.EMPTY);
+    }
+
+    private static RunSummary summary() {
+        RunSummary summary = new RunSummary();
+        summary.setRunId("run-1");
+        summary.setStrategyName("Test");
+        summary.setCreatedAt(LocalDateTime.of(2024, 3, 1, 12, 30));
+        summary.setInitialCapital(100_000);
+        summary.setFinalCapital(100_012.5);
+        summary.setTotalReturn(0.0125);
+        summary.setSharpeRatio(1.5);
+        return summary;
+    }
+
+    @Test
+    void roundTripsSummaryCurvesAndEvents() throws IOException {
+        Path path = directory.resolve("run.btr");
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("window", "20");
+        parameters.put("threshold", "0.5");
+        BacktestResult original = result();
+        ResultFile.write(path, summary(), parameters, original);
+
+        StoredRun stored = ResultFile.read(path);
+        RunSummary summary = stored.summary();
+        assertEquals("run-1", summary.getRunId());
+        assertEquals("Test", summary.getStrategyName());
+        assertNull(summary.getDataFingerprint());
+        assertEquals(LocalDateTime.of(2024, 3, 1, 12, 30), summary.getCreatedAt());
+        assertEquals(Double.valueOf(1.5), summary.getSharpeRatio());
+        assertNull(summary.getSortinoRatio());
+        assertEquals(2, summary.getObservations());
+        assertEquals(3, summary.getTradeCount());
+        assertEquals(path.toString(), summary.getResultPath());
+        assertEquals(parameters, stored.parameters());
+        assertEquals(0.0004, stored.riskFreeRate());
+        assertArrayEquals(new double[]{100_000.0, 100_012.5}, stored.equityCurve());
+        assertArrayEquals(new double[]{0.001, -0.002}, stored.benchmarkReturns());
+
+        EventLog events = stored.events();
+        assertEquals(4, events.size());
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(original.events().tickerIdAt(i), events.tickerIdAt(i));
+            assertEquals(original.events().timestampAt(i), events.timestampAt(i));
+            assertEquals(original.events().typeAt(i), events.typeAt(i));
+            assertEquals(original.events().priceAt(i), events.priceAt(i));
+        }
+    }
+
+    @Test
+    void rebuiltResultMatchesAtDoublePrecision() throws IOException {
+        Path path = directory.resolve("run.btr");
+        BacktestResult original = result();
+        ResultFile.write(path, summary(), Map.of(), original);
+
+        BacktestResult rebuilt = ResultFile.read(path).toBacktestResult();
+        assertEquals(0, original.initialCapital().compareTo(rebuilt.initialCapital()));
+        assertEquals(original.finalCapital(), rebuilt.finalCapital());
+        // Equity is computed in double precision, so it reads back unchanged
+        assertEquals(original.dailyCapital(), rebuilt.dailyCapital());
+        assertEquals(original.dailyReturns().get(1).doubleValue(), rebuilt.dailyReturns().get(1).doubleValue());
+        assertEquals(original.riskFreeRate(), rebuilt.riskFreeRate());
+    }
+
+    @Test
+    void rejectsFilesWithoutRiskFreeRateAndForeignFiles() throws IOException {
+        Path versionOne = directory.resolve("v1.btr");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(versionOne))) {
+            out.writeInt(0x42545231);
+            out.writeShort(1);
+        }
+        IOException error = assertThrows(IOException.class, () -> ResultFile.read(versionOne));
+        assertTrue(error.getMessage().contains("version 1"));
+
+        Path foreign = directory.resolve("foreign.btr");
+        Files.writeString(foreign, "not a result file");
+        assertThrows(IOException.class, () -> ResultFile.read(foreign));
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.results;
+
+import org.example.models.MarketDataPoint;
+import org.example.strategy.Strategy;
+import org.example.strategy.StrategyFactory;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RunKeyTest {
+    private static final BigDecimal CAPITAL = BigDecimal.valueOf(100_000);
+
+    private static Map<String, List<MarketDataPoint>> data(double lastClose) {
+        BigDecimal first = BigDecimal.valueOf(100);
+        BigDecimal last = BigDecimal.valueOf(lastClose);
+        LocalDateTime start = LocalDateTime.of(2023, 1, 2, 16, 0);
+        return Map.of("RK", List.of(
+                new MarketDataPoint("RK", start, first, first, first, first, 1_000),
+                new MarketDataPoint("RK", start.plusDays(1), last, last, last, last, 1_000)));
+    }
+
+    private static RunKey key(StrategyFactory.StrategyType type, Map<String, String> parameters,
+                              Map<String, List<MarketDataPoint>> data) {
+        return RunKey.of(type, StrategyFactory.createStrategy(type, parameters), CAPITAL, data, "");
+    }
+
+    @Test
+    void keyDependsOnEveryInput() {
+        RunKey base = key(StrategyFactory.StrategyType.RSI, Map.of(), data(101));
+        assertEquals(base, key(StrategyFactory.StrategyType.RSI, Map.of("rsiPeriod", "14"), data(101)));
+        assertEquals(base, RunKey.of(StrategyFactory.StrategyType.RSI,
+                StrategyFactory.createStrategy(StrategyFactory.StrategyType.RSI), new BigDecimal("100000.00"), data(101), ""));
+
+        assertNotEquals(base, key(StrategyFactory.StrategyType.RSI, Map.of("rsiPeriod", "7"), data(101)));
+        assertNotEquals(base, key(StrategyFactory.StrategyType.MOVING_AVERAGE, Map.of(), data(101)));
+        assertNotEquals(base, key(StrategyFactory.StrategyType.RSI, Map.of(), data(102)));
+        assertNotEquals(base, RunKey.of(StrategyFactory.StrategyType.RSI,
+                StrategyFactory.createStrategy(StrategyFactory.StrategyType.RSI), CAPITAL, data(101), "next-bar"));
+        assertNotEquals(base, RunKey.of(null,
+                StrategyFactory.createStrategy(StrategyFactory.StrategyType.RSI), CAPITAL, data(101), ""));
+    }
+
+    @Test
+    void strategiesWithoutParametersCannotBeKeyed() {
+        Strategy undescribed = new Strategy() {
+            @Override
+            public TradeSignal determineTradeSignal(List<MarketDataPoint> marketDataPoints) {
+                return TradeSignal.HOLD;
+            }
+
+            @Override
+            public int calculatePositionSize(BigDecimal totalCapital, BigDecimal currentPrice) {
+                return 0;
+            }
+        };
+        assertThrows(IllegalArgumentException.class, () -> RunKey.of(null, undescribed, CAPITAL, data(101), ""));
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.results;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RunQueryTest {
+
+    // Evaluates a LIKE pattern with escape character '!' the way the database does
+    private static boolean like(String pattern, String text) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '!') {
+                regex.append(Pattern.quote(String.valueOf(pattern.charAt(++i))));
+            } else if (c == '%') {
+                regex.append(".*");
+            } else if (c == '_') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL).matcher(text).matches();
+    }
+
+    private static String pattern(String name, String value) {
+        List<Object[]> values = new RunQuery().parameter(name, value).parameterValues();
+        assertEquals(1, values.size());
+        return (String) values.get(0)[1];
+    }
+
+    private static String rendered(String... pairs) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            parameters.put(pairs[i], pairs[i + 1]);
+        }
+        return RunSummary.renderParameters(parameters);
+    }
+
+    @Test
+    void separatorsInValuesDoNotFakeAnotherParameter() {
+        String smuggled = rendered("label", "x;period=14", "period", "7");
+        String plain = rendered("label", "x", "period", "14");
+
+        assertFalse(like(pattern("period", "14"), smuggled));
+        assertTrue(like(pattern("period", "7"), smuggled));
+        assertTrue(like(pattern("period", "14"), plain));
+        assertTrue(like(pattern("label", "x;period=14"), smuggled));
+        assertFalse(like(pattern("label", "x"), smuggled));
+    }
+
+    @Test
+    void separatorsInNamesAreMatchedLiterally() {
+        String stored = rendered("a=b", "c");
+        assertTrue(like(pattern("a=b", "c"), stored));
+        assertFalse(like(pattern("a", "b=c"), stored));
+    }
+
+    @Test
+    void wildcardsAndEncodedTextMatchLiterally() {
+        String stored = rendered("name", "50%_off", "raw", "%3B");
+        assertTrue(like(pattern("name", "50%_off"), stored));
+        assertFalse(like(pattern("name", "50%"), stored));
+        assertFalse(like(pattern("name", "50x_off"), rendered("name", "50%xoff")));
+        assertTrue(like(pattern("raw", "%3B"), stored));
+        assertFalse(like(pattern("raw", ";"), stored));
+    }
+
+    @Test
+    void renderedParametersKeepTheirDelimiters() {
+        assertEquals(";", RunSummary.renderParameters(Map.of()));
+        assertEquals(";rsiPeriod=14;", rendered("rsiPeriod", "14"));
+        assertEquals(";k%3Dx=a%3Bb%25;", rendered("k=x", "a;b%"));
+    }
+}
@@ -0,0 +1,157 @@
+package org.example.risk;
+
+import org.example.analytics.ReturnMatrix;
+import org.example.models.Portfolio;
+import org.example.models.SymbolTable;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RiskEngineTest {
+
+    private static ReturnMatrix matrix(int assets, double[] returns) {
+        int[] ids = new int[assets];
+        for (int a = 0; a < assets; a++) {
+            ids[a] = SymbolTable.global().idOf("RISK_" + a);
+        }
+        long[] timestamps = new long[returns.length / assets];
+        for (int t = 0; t < timestamps.length; t++) {
+            timestamps[t] = 86_400L * t;
+        }
+        return new ReturnMatrix(ids, timestamps, returns);
+    }
+
+    private static double sum(double[] values) {
+        double total = 0.0;
+        for (double value : values) {
+            total += value;
+        }
+        return total;
+    }
+
+    @Test
+    void historicalVarAndEsOfOneAssetByHand() {
+        // Twenty daily returns: -5%, -4%, ..., +14%, shuffled in time
+        double[] returns = new double[20];
+        for (int t = 0; t < returns.length; t++) {
+            returns[(t * 7) % 20] = (t - 5) / 100.0;
+        }
+        RiskEngine engine = new RiskEngine(new double[]{0.90, 0.95}, new int[]{1});
+        RiskReport report = engine.evaluate(matrix(1, returns), new double[]{1_000.0}, VarMethod.HISTORICAL);
+
+        // 5% of 20 scenarios is the single worst; 10% are the two worst
+        assertEquals(50.0, report.getValueAtRisk(1, 0.95), 1e-9);
+        assertEquals(50.0, report.getExpectedShortfall(1, 0.95), 1e-9);
+        assertEquals(40.0, report.getValueAtRisk(1, 0.90), 1e-9);
+        assertEquals(45.0, report.getExpectedShortfall(1, 0.90), 1e-9);
+        assertEquals(20, report.observations());
+    }
+
+    @Test
+    void matchesABruteForceRevaluationAcrossRowBlocks() {
+        int assets = 6;
+        int observations = 3_000; // Several parallel row blocks
+        Random random = new Random(21);
+        double[] returns = new double[assets * observations];
+        for (int i = 0; i < returns.length; i++) {
+            returns[i] = random.nextGaussian() * 0.01 * (1 + i % assets);
+        }
+        double[] exposures = {10_000, -4_000, 0, 25_000, 7_500, 0};
+        double[] levels = {0.95, 0.99};
+        int[] horizons = {1, 5, 10};
+        RiskReport report = new RiskEngine(levels, horizons).evaluate(matrix(assets, returns), exposures, VarMethod.HISTORICAL);
+
+        for (int horizon : horizons) {
+            int scenarios = observations - horizon + 1;
+            double[] pnl = new double[scenarios];
+            for (int start = 0; start < scenarios; start++) {
+                for (int t = start; t < start + horizon; t++) {
+                    for (int a = 0; a < assets; a++) {
+                        pnl[start] += exposures[a] * returns[t * assets + a];
+                    }
+                }
+            }
+            Arrays.sort(pnl);
+            for (double level : levels) {
+                int tail = (int) Math.ceil((1.0 - level) * scenarios - 1e-9);
+                double shortfall = 0.0;
+                for (int i = 0; i < tail; i++) {
+                    shortfall -= pnl[i];
+                }
+                String at = horizon + "d " + level;
+                double var = report.getValueAtRisk(horizon, level);
+                double es = report.getExpectedShortfall(horizon, level);
+                assertEquals(-pnl[tail - 1], var, 1e-6, at);
+                assertEquals(shortfall / tail, es, 1e-6, at);
+                assertTrue(es >= var, at);
+
+                // Contributions add up to the measure; unheld tickers contribute nothing
+                assertEquals(var, sum(report.getComponentVar(horizon, level)), 1e-6, at);
+                assertEquals(es, sum(report.getComponentEs(horizon, level)), 1e-6, at);
+                assertEquals(0.0, report.getComponentEs(horizon, level)[2], 0.0, at);
+                assertEquals(0.0, report.getMarginalVar(horizon, level)[5], 0.0, at);
+            }
+        }
+    }
+
+    @Test
+    void filteredHistoricalReplaysPastShocksAtTodaysVolatility() {
+        // A turbulent first half and a calm second half
+        Random random = new Random(22);
+        double[] returns = new double[1_000];
+        for (int t = 0; t < returns.length; t++) {
+            returns[t] = random.nextGaussian() * (t < 500 ? 0.04 : 0.005);
+        }
+        RiskEngine engine = new RiskEngine(new double[]{0.99}, new int[]{1});
+        ReturnMatrix history = matrix(1, returns);
+        double historical = engine.evaluate(history, new double[]{1_000.0}, VarMethod.HISTORICAL).getValueAtRisk(1, 0.99);
+        double filtered = engine.evaluate(history, new double[]{1_000.0}, VarMethod.FILTERED_HISTORICAL).getValueAtRisk(1, 0.99);
+
+        // Calm now: about 2.33 * 0.5% of 1000, far below the turbulent history
+        assertTrue(filtered < historical / 3, filtered + " vs " + historical);
+        assertEquals(1_000 * 0.005 * 2.33, filtered, 5.0);
+    }
+
+    @Test
+    void portfolioIsValuedAtItsLastPrices() {
+        Random random = new Random(23);
+        double[] returns = new double[2 * 250];
+        for (int i = 0; i < returns.length; i++) {
+            returns[i] = random.nextGaussian() * 0.02;
+        }
+        ReturnMatrix history = matrix(2, returns);
+        Portfolio portfolio = new Portfolio(new BigDecimal("100000"));
+        portfolio.addPosition(history.tickerId(1), 100, 40.0);
+        portfolio.markPrice(history.tickerId(1), 50.0);
+        RiskEngine engine = new RiskEngine();
+
+        RiskReport fromPortfolio = engine.evaluate(history, portfolio, VarMethod.HISTORICAL);
+        RiskReport fromExposures = engine.evaluate(history, new double[]{0.0, 5_000.0}, VarMethod.HISTORICAL);
+        assertEquals(fromExposures.getValueAtRisk(10, 0.99), fromPortfolio.getValueAtRisk(10, 0.99), 0.0);
+        assertEquals(fromExposures.getExpectedShortfall(1, 0.95), fromPortfolio.getExpectedShortfall(1, 0.95), 0.0);
+    }
+
+    @Test
+    void horizonsLongerThanTheHistoryHaveNoEstimate() {
+        RiskReport report = new RiskEngine(new double[]{0.95}, new int[]{1, 30})
+                .evaluate(matrix(1, new double[]{0.01, -0.02, 0.03}), new double[]{100.0}, VarMethod.HISTORICAL);
+        assertEquals(2.0, report.getValueAtRisk(1, 0.95), 1e-12);
+        assertTrue(Double.isNaN(report.getValueAtRisk(30, 0.95)));
+        assertThrows(IllegalArgumentException.class, () -> report.getValueAtRisk(5, 0.95));
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new RiskEngine(new double[]{1.0}, new int[]{1}));
+        assertThrows(IllegalArgumentException.class, () -> new RiskEngine(new double[]{0.99}, new int[]{0}));
+        assertThrows(IllegalArgumentException.class, () -> new RiskEngine(new double[]{0.99}, new int[]{1}, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new RiskEngine()
+                .evaluate(matrix(2, new double[4]), new double[]{1.0}, VarMethod.HISTORICAL));
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.screening;
+
+import org.example.models.FundamentalsSnapshot;
+import org.example.models.StockFundamentals;
+import org.example.models.SymbolTable;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FundamentalsTimelineTest {
+    private static final LocalDate JAN = LocalDate.of(2023, 1, 15);
+    private static final LocalDate APR = LocalDate.of(2023, 4, 15);
+    private static final LocalDate JUL = LocalDate.of(2023, 7, 15);
+
+    private static FundamentalsSnapshot version(String ticker, LocalDate asOf, Double pe, Double pb, Double roe,
+                                                Double dividendYield) {
+        return new FundamentalsSnapshot(new StockFundamentals(ticker, pe, pb, roe, dividendYield), asOf);
+    }
+
+    @Test
+    void lookupsOnlySeeVersionsPublishedByTheDate() {
+        // Given out of order, with a same-day correction that must win
+        FundamentalsTimeline timeline = FundamentalsTimeline.of(List.of(
+                version("FTA", APR, 20.0, 2.0, 0.20, 0.02),
+                version("FTA", JAN, 10.0, 1.0, 0.10, 0.01),
+                version("FTA", APR, 25.0, 2.5, 0.25, 0.025)));
+        int id = SymbolTable.global().idOf("FTA");
+
+        assertEquals(-1, timeline.versionAsOf(id, JAN.minusDays(1)));
+        assertTrue(Double.isNaN(timeline.valueAsOf(id, JAN.minusDays(1), ScreenMetric.PE_RATIO)));
+        assertEquals(0, timeline.versionAsOf(id, JAN));
+        assertEquals(10.0, timeline.valueAsOf(id, APR.minusDays(1), ScreenMetric.PE_RATIO), 0.0);
+        assertEquals(1, timeline.versionAsOf(id, APR));
+        assertEquals(25.0, timeline.valueAsOf(id, JUL, ScreenMetric.PE_RATIO), 0.0);
+        assertEquals(0.025, timeline.valueAsOf(id, JUL, ScreenMetric.DIVIDEND_YIELD), 0.0);
+        assertEquals(2, timeline.changeCount());
+        assertEquals(-1, timeline.versionAsOf(SymbolTable.global().idOf("FT-NONE"), JUL));
+    }
+
+    @Test
+    void blockLookupCoversTickersWithHistoryByThen() {
+        FundamentalsTimeline timeline = FundamentalsTimeline.of(List.of(
+                version("FTB", JAN, 10.0, 1.0, 0.10, 0.01),
+                version("FTC", APR, 30.0, 3.0, 0.30, 0.03)));
+        int b = SymbolTable.global().idOf("FTB");
+        int c = SymbolTable.global().idOf("FTC");
+
+        int[] ids = new int[timeline.tickerCapacity()];
+        double[] values = new double[timeline.tickerCapacity() * ScreenMetric.count()];
+        assertEquals(1, timeline.asOf(JAN, ids, values));
+        assertEquals(b, ids[0]);
+        assertEquals(10.0, values[ScreenMetric.PE_RATIO.ordinal()], 0.0);
+
+        assertEquals(2, timeline.asOf(JUL, ids, values));
+        assertEquals(Math.min(b, c), ids[0]);
+        assertEquals(Math.max(b, c), ids[1]);
+        assertEquals(List.of("FTB", "FTC"), timeline.asOf(JUL).stream().map(StockFundamentals::getTicker).sorted().toList());
+    }
+
+    @Test
+    void missingMetricsAreNaNAndKeptOutOfTheAverages() {
+        FundamentalsTimeline timeline = FundamentalsTimeline.of(List.of(
+                version("FTD", JAN, null, 1.0, null, null),
+                version("FTE", JAN, 10.0, 3.0, 0.2, 0.04),
+                version("FTF", JAN, 20.0, 2.0, 0.1, 0.025)));
+        int d = SymbolTable.global().idOf("FTD");
+        assertTrue(Double.isNaN(timeline.valueAsOf(d, JAN, ScreenMetric.PE_RATIO)));
+        assertTrue(Double.isNaN(timeline.valueAsOf(d, JAN, ScreenMetric.DIVIDEND_YIELD)));
+        assertEquals(1.0, timeline.valueAsOf(d, JAN, ScreenMetric.PB_RATIO), 0.0);
+
+        StockFundamentals restored = timeline.asOf(JAN).stream()
+                .filter(stock -> stock.getTicker().equals("FTD")).findFirst().orElseThrow();
+        assertNull(restored.getPeRatioOrNull());
+        assertNull(restored.getDividendYieldOrNull());
+        assertEquals(Double.valueOf(1.0), restored.getPbRatioOrNull());
+
+        // Counted as zero, the missing dividend yield would pull the average below FTF's
+        SectorIndex sectors = SectorIndex.of(Map.of("FTD", "Tech", "FTE", "Tech", "FTF", "Tech"));
+        ScreeningEngine engine = new ScreeningEngine(sectors, List.of(
+                ScreenCriterion.above(ScreenMetric.DIVIDEND_YIELD, ScreenCriterion.Benchmark.SECTOR_AVERAGE)), 1);
+        int e = SymbolTable.global().idOf("FTE");
+        assertArrayEquals(new long[]{e}, toLongs(engine.screenAsOf(timeline, JAN)));
+    }
+
+    private static long[] toLongs(int[] values) {
+        long[] result = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = values[i];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.screening;
+
+import org.example.models.FundamentalsSnapshot;
+import org.example.models.StockFundamentals;
+import org.example.models.SymbolTable;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncrementalScreenTest {
+    private static final LocalDate START = LocalDate.of(2021, 1, 1);
+
+    private static FundamentalsSnapshot version(String ticker, LocalDate asOf, double pe, double pb, double roe,
+                                                double dividendYield) {
+        return new FundamentalsSnapshot(new StockFundamentals(ticker, pe, pb, roe, dividendYield), asOf);
+    }
+
+    private static int[] ids(String... tickers) {
+        int[] ids = new int[tickers.length];
+        for (int i = 0; i < tickers.length; i++) {
+            ids[i] = SymbolTable.global().idOf(tickers[i]);
+        }
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    @Test
+    void followingTheDatesMatchesAFullScreenOnEachDate() {
+        Random random = new Random(41);
+        Map<String, String> sectorMap = new HashMap<>();
+        List<FundamentalsSnapshot> versions = new ArrayList<>();
+        String[] sectors = {"Energy", "Health", "Tech"};
+        for (int t = 0; t < 30; t++) {
+            String ticker = "IS" + t;
+            sectorMap.put(ticker, sectors[t % sectors.length]);
+            // Quarterly reports on staggered days, some tickers listing late
+            for (int day = 7 * t; day < 3 * 365; day += 80 + random.nextInt(20)) {
+                versions.add(version(ticker, START.plusDays(day), 5 + 30 * random.nextDouble(),
+                        0.5 + 5 * random.nextDouble(), 0.3 * random.nextDouble(), 0.06 * random.nextDouble()));
+            }
+        }
+        FundamentalsTimeline timeline = FundamentalsTimeline.of(versions);
+        ScreeningEngine engine = ScreeningEngine.sectorRelativeValue(SectorIndex.of(sectorMap));
+        IncrementalScreen screen = new IncrementalScreen(engine, timeline);
+
+        int nonEmpty = 0;
+        for (LocalDate date = START.minusDays(1); date.isBefore(START.plusYears(3)); date = date.plusDays(10)) {
+            int[] expected = engine.screenAsOf(timeline, date);
+            assertArrayEquals(expected, screen.screenAsOf(date), date.toString());
+            nonEmpty += expected.length > 0 ? 1 : 0;
+        }
+        assertTrue(nonEmpty > 50);
+        // Asking again on the same date sees nothing new
+        LocalDate last = START.plusYears(3);
+        assertArrayEquals(screen.screenAsOf(last), screen.screenAsOf(last));
+    }
+
+    @Test
+    void rebuildClearsRoundingLeftByASupersededVersion() {
+        // A huge PE that is later corrected leaves rounding error in the running sector sum
+        int[] all = ids("ISR_A", "ISR_B", "ISR_H", "ISR_F");
+        int capacity = all[all.length - 1] + 1;
+        LocalDate first = START;
+        LocalDate corrected = START.plusDays(1);
+        List<FundamentalsSnapshot> versions = new ArrayList<>(List.of(
+                version("ISR_A", first, 10, 1, 0.1, 0.01),
+                version("ISR_B", first, 20, 1, 0.1, 0.01),
+                version("ISR_H", first, 1e17, 1, 0.1, 0.01),
+                version("ISR_H", corrected, 15.5, 1, 0.1, 0.01)));
+        // Enough updates elsewhere to pass the rebuild threshold of one per ticker slot
+        LocalDate filled = corrected;
+        for (int i = 0; i <= capacity; i++) {
+            filled = corrected.plusDays(1 + i);
+            versions.add(version("ISR_F", filled, 10 + i % 7, 1, 0.1, 0.01));
+        }
+        FundamentalsTimeline timeline = FundamentalsTimeline.of(versions);
+        assertEquals(capacity, timeline.tickerCapacity());
+
+        SectorIndex sectors = SectorIndex.of(Map.of("ISR_A", "S", "ISR_B", "S", "ISR_H", "S", "ISR_F", "T"));
+        ScreeningEngine engine = new ScreeningEngine(sectors,
+                List.of(ScreenCriterion.below(ScreenMetric.PE_RATIO, ScreenCriterion.Benchmark.SECTOR_AVERAGE)), 1);
+        IncrementalScreen screen = new IncrementalScreen(engine, timeline);
+
+        // The exact sector average is 15.17, so only A passes; the drifted sum also lets H through
+        int[] exact = ids("ISR_A");
+        assertArrayEquals(exact, sectorOnly(engine.screenAsOf(timeline, corrected)));
+        screen.screenAsOf(first);
+        assertArrayEquals(ids("ISR_A", "ISR_H"), sectorOnly(screen.screenAsOf(corrected)));
+
+        assertArrayEquals(engine.screenAsOf(timeline, filled), screen.screenAsOf(filled));
+        assertArrayEquals(exact, sectorOnly(screen.screenAsOf(filled)));
+    }
+
+    // Drops the filler ticker, which is alone in its sector
+    private static int[] sectorOnly(int[] selected) {
+        int filler = SymbolTable.global().idOf("ISR_F");
+        return Arrays.stream(selected).filter(id -> id != filler).toArray();
+    }
+
+    @Test
+    void datesMustNotGoBackwards() {
+        FundamentalsTimeline timeline = FundamentalsTimeline.of(List.of(version("ISB", START, 10, 1, 0.1, 0.01)));
+        IncrementalScreen screen = new IncrementalScreen(
+                ScreeningEngine.sectorRelativeValue(SectorIndex.of(Map.of("ISB", "S"))), timeline);
+        screen.screenAsOf(START.plusDays(5));
+        assertThrows(IllegalArgumentException.class, () -> screen.screenAsOf(START));
+    }
+}
@@ -0,0 +1,144 @@
+package org.example.screening;
+
+import org.example.models.StockFundamentals;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScreeningEngineTest {
+    private static final String[] SECTORS = {"Energy", "Health", "Tech", "Utilities", "Retail"};
+
+    private static final class Universe {
+        final List<StockFundamentals> stocks = new ArrayList<>();
+        final Map<String, String> sectorMap = new HashMap<>();
+    }
+
+    // Non-null fundamentals, some with non-positive ratios, and some tickers without a sector
+    private static Universe universe(String prefix, int size, long seed) {
+        Random random = new Random(seed);
+        Universe universe = new Universe();
+        for (int i = 0; i < size; i++) {
+            String ticker = prefix + i;
+            if (i % 17 != 0) {
+                universe.sectorMap.put(ticker, SECTORS[random.nextInt(SECTORS.length)]);
+            }
+            universe.stocks.add(new StockFundamentals(ticker,
+                    round(random.nextDouble() * 60 - 5),
+                    round(random.nextDouble() * 8 - 0.5),
+                    round(random.nextGaussian() * 0.15 + 0.08),
+                    random.nextInt(4) == 0 ? 0.0 : round(random.nextDouble() * 0.06)));
+        }
+        return universe;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10_000) / 10_000.0;
+    }
+
+    /**
+     * The stream-based selector the engine replaced, kept verbatim as the reference: dividend
+     * yield above, PE and PB below their sector averages (of positive values for the ratios),
+     * ROE above the positive universe average, at least two of four.
+     */
+    private static List<StockFundamentals> baseline(List<StockFundamentals> fundamentalsList, Map<String, String> sectorMap) {
+        Map<String, Map<String, Double>> sectorAverages = fundamentalsList.stream()
+                .collect(Collectors.groupingBy(
+                        stock -> {
+                            String sector = sectorMap.get(stock.getTicker());
+                            return sector != null ? sector : "Unknown";
+                        },
+                        Collectors.collectingAndThen(
+                                Collectors.toList(),
+                                stocks -> {
+                                    Map<String, Double> averages = new HashMap<>();
+                                    averages.put("dividend_yield", stocks.stream()
+                                            .mapToDouble(StockFundamentals::getDividendYield)
+                                            .average().orElse(0.0));
+                                    averages.put("pe_ratio", stocks.stream()
+                                            .mapToDouble(StockFundamentals::getPeRatio)
+                                            .filter(ratio -> ratio > 0)
+                                            .average().orElse(0.0));
+                                    averages.put("pb_ratio", stocks.stream()
+                                            .mapToDouble(StockFundamentals::getPbRatio)
+                                            .filter(ratio -> ratio > 0)
+                                            .average().orElse(0.0));
+                                    return averages;
+                                })));
+
+        double avgROE = fundamentalsList.stream()
+                .mapToDouble(StockFundamentals::getReturnOnEquity)
+                .filter(roe -> roe > 0)
+                .average().orElse(0.0);
+
+        return fundamentalsList.stream()
+                .filter(stock -> {
+                    String sector = sectorMap.get(stock.getTicker());
+                    if (sector == null) {
+                        return false;
+                    }
+                    Map<String, Double> sectorAvg = sectorAverages.get(sector);
+                    int criteriaMet = 0;
+                    if (stock.getDividendYield() > sectorAvg.get("dividend_yield")) criteriaMet++;
+                    if (stock.getPeRatio() < sectorAvg.get("pe_ratio")) criteriaMet++;
+                    if (stock.getPbRatio() < sectorAvg.get("pb_ratio")) criteriaMet++;
+                    if (stock.getReturnOnEquity() > avgROE) criteriaMet++;
+                    return criteriaMet >= 2;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> tickers(List<StockFundamentals> stocks) {
+        return stocks.stream().map(StockFundamentals::getTicker).toList();
+    }
+
+    private static void assertMatchesBaseline(Universe universe) {
+        List<String> expected = tickers(baseline(universe.stocks, universe.sectorMap));
+        List<String> actual = tickers(ScreeningEngine.sectorRelativeValue(SectorIndex.of(universe.sectorMap))
+                .screen(universe.stocks));
+
+        assertTrue(expected.size() > universe.stocks.size() / 10, expected.size() + " selected");
+        assertTrue(expected.size() < universe.stocks.size(), expected.size() + " selected");
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void sequentialScreenMatchesTheStreamBaseline() {
+        assertMatchesBaseline(universe("SCE_S", 2_000, 51));
+    }
+
+    @Test
+    void chunkParallelScreenMatchesTheStreamBaseline() {
+        assertMatchesBaseline(universe("SCE_P", ScreeningEngine.PARALLEL_THRESHOLD + 5_000, 52));
+    }
+
+    @Test
+    void sectorWithoutPositiveRatiosComparesThemAgainstZero() {
+        // Energy's PEs and PBs are all negative, so as in the baseline their average is 0 and both are below it
+        Universe universe = new Universe();
+        universe.sectorMap.put("SCE_E1", "Energy");
+        universe.sectorMap.put("SCE_E2", "Energy");
+        universe.stocks.add(new StockFundamentals("SCE_E1", -3.0, -1.0, 0.30, 0.02));
+        universe.stocks.add(new StockFundamentals("SCE_E2", -4.0, -2.0, 0.10, 0.01));
+
+        List<String> expected = tickers(baseline(universe.stocks, universe.sectorMap));
+        assertEquals(expected, tickers(ScreeningEngine.sectorRelativeValue(SectorIndex.of(universe.sectorMap))
+                .screen(universe.stocks)));
+    }
+
+    @Test
+    void rejectsUnreachableMinimum() {
+        SectorIndex sectors = SectorIndex.of(Map.of());
+        List<ScreenCriterion> one = List.of(ScreenCriterion.below(ScreenMetric.PE_RATIO, ScreenCriterion.Benchmark.SECTOR_AVERAGE));
+        assertThrows(IllegalArgumentException.class, () -> new ScreeningEngine(sectors, one, 2));
+        assertThrows(IllegalArgumentException.class, () -> new ScreeningEngine(sectors, List.of(), 1));
+    }
+}
@@ -0,0 +1,255 @@
+package org.example.service;
+
+import org.example.models.MarketDataPoint;
+import org.example.models.PriceSeries;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives a server on a free localhost port over HTTP.
+ */
+@Timeout(60)
+class BacktestServerTest {
+    private static final LocalDateTime START = LocalDateTime.of(2023, 1, 2, 16, 0);
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final CountDownLatch releaseSlow = new CountDownLatch(1);
+    private BacktestService service;
+    private BacktestServer server;
+
+    // Materializing the bars of SLOW waits for the test, so its runs hold their slot
+    private final MarketDataStore store = new MarketDataStore() {
+        @Override
+        public List<MarketDataPoint> bars(String ticker, LocalDate start, LocalDate end, boolean adjusted) {
+            if (ticker.equals("SLOW")) {
+                try {
+                    releaseSlow.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return super.bars(ticker, start, end, adjusted);
+        }
+    };
+
+    private static PriceSeries bars(String ticker, int from, int to) {
+        PriceSeries.Builder builder = new PriceSeries.Builder(ticker);
+        for (int day = from; day < to; day++) {
+            double close = 100 + 8 * Math.sin(day / 3.0);
+            builder.add(PriceSeries.toEpochSeconds(START.plusDays(day)), close, close, close, close, 1_000_000);
+        }
+        return builder.build();
+    }
+
+    private static JSONObject barsRequest(String ticker, int from, int to) {
+        JSONArray array = new JSONArray();
+        for (int day = from; day < to; day++) {
+            double close = 100 + 8 * Math.sin(day / 3.0);
+            array.put(new JSONObject().put("timestamp", START.plusDays(day).toString()).put("open", close)
+                    .put("high", close).put("low", close).put("close", close).put("volume", 1_000_000));
+        }
+        return new JSONObject().put("ticker", ticker).put("bars", array);
+    }
+
+    private void start(int maxRunning, int maxQueued, int maxRetained, Consumer<PriceSeries> barSink) throws IOException {
+        store.put(bars("FOL", 0, 60));
+        store.put(bars("SLOW", 0, 60));
+        service = new BacktestService(store, maxRunning, maxQueued, maxRetained);
+        server = new BacktestServer(service, barSink, 0);
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        releaseSlow.countDown();
+        if (server != null) {
+            server.stop();
+        }
+        if (service != null) {
+            service.close();
+        }
+    }
+
+    private HttpResponse<String> send(String method, String path, JSONObject body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .timeout(Duration.ofSeconds(30));
+        request.method(method, body != null
+                ? HttpRequest.BodyPublishers.ofString(body.toString())
+                : HttpRequest.BodyPublishers.noBody());
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static JSONObject run(String id, String ticker) {
+        return new JSONObject().put("id", id).put("strategy", "RSI").put("tickers", new JSONArray(List.of(ticker)))
+                .put("parameters", new JSONObject().put("rsiPeriod", 5));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not reached in time");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void submissionsBeyondTheAdmissionLimitAreRejected() throws Exception {
+        start(1, 1, BacktestService.DEFAULT_MAX_RETAINED, null);
+
+        assertEquals(202, send("POST", "/runs", run("running", "SLOW")).statusCode());
+        assertEquals(202, send("POST", "/runs", run("queued", "SLOW")).statusCode());
+        HttpResponse<String> rejected = send("POST", "/runs", run("rejected", "FOL"));
+        assertEquals(429, rejected.statusCode());
+        assertEquals("1", rejected.headers().firstValue("Retry-After").orElse(null));
+        assertNull(service.get("rejected"));
+
+        // Once the admitted runs finish there is room again
+        releaseSlow.countDown();
+        assertTrue(service.get("running").awaitFirstPass(30, TimeUnit.SECONDS));
+        assertTrue(service.get("queued").awaitFirstPass(30, TimeUnit.SECONDS));
+        await(() -> {
+            try {
+                return send("POST", "/runs?wait=true", run("admitted-" + System.nanoTime(), "FOL")).statusCode() == 200;
+            } catch (IOException | InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    @Test
+    void onlyAnExactWaitParameterWaits() throws Exception {
+        // One slot stays free for the run that is waited on
+        start(3, 4, BacktestService.DEFAULT_MAX_RETAINED, null);
+
+        assertEquals(202, send("POST", "/runs?nowait=true", run("not-waiting", "SLOW")).statusCode());
+        assertEquals(202, send("POST", "/runs?wait=truer", run("not-waiting-either", "SLOW")).statusCode());
+        assertEquals("QUEUED", service.get("not-waiting").getState().name());
+
+        HttpResponse<String> waited = send("POST", "/runs?format=json&wait=true", run("waiting", "FOL"));
+        assertEquals(200, waited.statusCode());
+        assertEquals("COMPLETED", new JSONObject(waited.body()).getString("state"));
+
+        assertEquals(Map.of("wait", "true", "a b", "c&d", "flag", ""),
+                BacktestServer.queryParameters("wait=true&a+b=c%26d&flag&wait=false"));
+        assertTrue(BacktestServer.queryParameters(null).isEmpty());
+    }
+
+    @Test
+    void followingRunWalksAppendedBarsLikeAFreshRun() throws Exception {
+        start(2, 4, BacktestService.DEFAULT_MAX_RETAINED, null);
+
+        HttpResponse<String> submitted = send("POST", "/runs?wait=true", run("follower", "FOL").put("follow", true));
+        assertEquals(200, submitted.statusCode());
+        JSONObject first = new JSONObject(submitted.body());
+        assertEquals(first.getInt("totalSteps"), first.getInt("stepsWalked"));
+        assertEquals(0, first.getInt("updates"));
+
+        HttpResponse<String> appended = send("POST", "/bars", barsRequest("FOL", 50, 90));
+        assertEquals(200, appended.statusCode());
+        JSONObject append = new JSONObject(appended.body());
+        assertEquals(40, append.getInt("received"));
+        assertEquals(30, append.getInt("appended"));
+        assertEquals(90, append.getInt("bars"));
+
+        ServiceRun follower = service.get("follower");
+        await(() -> follower.toJson().getInt("updates") == 1 && follower.getState() == ServiceRun.State.COMPLETED);
+        JSONObject updated = new JSONObject(send("GET", "/runs/follower", null).body());
+        assertEquals(first.getInt("stepsWalked") + 30, updated.getInt("stepsWalked"));
+
+        JSONObject fresh = new JSONObject(send("POST", "/runs?wait=true", run("fresh", "FOL")).body());
+        assertEquals(updated.getInt("stepsWalked"), fresh.getInt("stepsWalked"));
+        assertEquals(0, new BigDecimal(fresh.get("finalCapital").toString())
+                .compareTo(new BigDecimal(updated.get("finalCapital").toString())), updated + " vs " + fresh);
+
+        // The progress stream of a finished run is just the run
+        String[] lines = send("GET", "/runs/follower/progress", null).body().split("\n");
+        assertEquals(1, lines.length);
+        assertEquals("follower", new JSONObject(lines[0]).getString("id"));
+    }
+
+    @Test
+    void barsArePersistedBeforeTheStoreTakesThem() throws Exception {
+        int[] storedWhilePersisting = new int[1];
+        boolean[] failPersist = new boolean[1];
+        start(2, 4, BacktestService.DEFAULT_MAX_RETAINED, accepted -> {
+            storedWhilePersisting[0] = store.get(accepted.getTicker()).size();
+            if (failPersist[0]) {
+                throw new UncheckedIOException(new IOException("Disk full"));
+            }
+        });
+
+        assertEquals(200, send("POST", "/bars", barsRequest("FOL", 60, 70)).statusCode());
+        assertEquals(60, storedWhilePersisting[0]);
+        assertEquals(70, store.get("FOL").size());
+
+        failPersist[0] = true;
+        assertEquals(500, send("POST", "/bars", barsRequest("FOL", 70, 80)).statusCode());
+        assertEquals(70, store.get("FOL").size());
+    }
+
+    @Test
+    void barsWithoutPositiveFinitePricesAreRejected() throws Exception {
+        start(2, 4, BacktestService.DEFAULT_MAX_RETAINED, null);
+
+        for (String field : List.of("open", "high", "low", "close")) {
+            for (double price : new double[]{0, -1}) {
+                JSONObject request = barsRequest("FOL", 60, 62);
+                request.getJSONArray("bars").getJSONObject(1).put(field, price);
+                HttpResponse<String> response = send("POST", "/bars", request);
+                assertEquals(400, response.statusCode(), field + " " + price);
+                assertTrue(new JSONObject(response.body()).getString("error").contains(field));
+            }
+        }
+        JSONObject request = barsRequest("FOL", 60, 62);
+        request.getJSONArray("bars").getJSONObject(0).put("close", "Infinity");
+        assertEquals(400, send("POST", "/bars", request).statusCode());
+        assertEquals(60, store.get("FOL").size());
+    }
+
+    @Test
+    void oldestFinishedRunsAreForgottenBeyondTheRetentionLimit() throws Exception {
+        start(2, 4, 2, null);
+
+        assertEquals(200, send("POST", "/runs?wait=true", run("follower", "FOL").put("follow", true)).statusCode());
+        for (String id : List.of("first", "second", "third")) {
+            assertEquals(200, send("POST", "/runs?wait=true", run(id, "FOL")).statusCode());
+        }
+        await(() -> service.get("first") == null);
+        assertNotNull(service.get("second"));
+        assertNotNull(service.get("third"));
+        assertNotNull(service.get("follower"));
+        assertEquals(404, send("GET", "/runs/first", null).statusCode());
+        assertEquals(3, new JSONArray(send("GET", "/runs", null).body()).length());
+
+        // Cancelling a retained run frees its place
+        assertEquals(200, send("DELETE", "/runs/second", null).statusCode());
+        assertEquals(200, send("POST", "/runs?wait=true", run("fourth", "FOL")).statusCode());
+        await(() -> service.get("fourth") != null && service.runs().size() == 3);
+        assertNotNull(service.get("third"));
+    }
+}
@@ -0,0 +1,275 @@
+package org.example.sweep;
+
+import org.example.batch.BatchJob;
+import org.example.batch.BatchRunner;
+import org.example.batch.JobOutcome;
+import org.example.models.MarketDataPoint;
+import org.example.models.PriceSeries;
+import org.example.repository.LocalBarCache;
+import org.example.strategy.StrategyFactory;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs sweeps against workers serving in this JVM over localhost, so every scheduling path
+ * goes through the real protocol, and once against a worker JVM started by the coordinator.
+ */
+@Timeout(60)
+class SweepCoordinatorTest {
+    private static final long NO_STEALING = 60_000;
+    private static final long SHARD_TIMEOUT = 30_000;
+
+    private final List<Throwable> workerErrors = new CopyOnWriteArrayList<>();
+
+    @TempDir
+    Path directory;
+
+    // Random walk of daily bars, the same for every call with the same ticker
+    private static final Function<String, List<MarketDataPoint>> BARS = ticker -> {
+        Random random = new Random(ticker.hashCode());
+        List<MarketDataPoint> bars = new ArrayList<>();
+        double price = 100.0;
+        for (int day = 0; day < 150; day++) {
+            price *= 1 + random.nextGaussian() * 0.02;
+            BigDecimal close = BigDecimal.valueOf(Math.round(price * 100) / 100.0);
+            bars.add(new MarketDataPoint(ticker, LocalDateTime.of(2022, 1, 3, 16, 0).plusDays(day),
+                    close, close, close, close, 1_000_000));
+        }
+        return bars;
+    };
+
+    private static List<Shard> shards(int count, int jobsPerShard) {
+        List<Shard> shards = new ArrayList<>();
+        for (int s = 0; s < count; s++) {
+            List<BatchJob> jobs = new ArrayList<>();
+            for (int j = 0; j < jobsPerShard; j++) {
+                jobs.add(new BatchJob("job-" + s + "-" + j, StrategyFactory.StrategyType.RSI,
+                        Map.of("rsiPeriod", String.valueOf(10 + j)), BigDecimal.valueOf(100_000),
+                        List.of("A" + s, "B" + s), null, null));
+            }
+            shards.add(new Shard(s, jobs));
+        }
+        return shards;
+    }
+
+    // Final capital of every job when run directly, to compare the sweep against
+    private static Map<String, BigDecimal> expected(List<Shard> shards) throws InterruptedException {
+        Map<String, BigDecimal> finalCapital = new HashMap<>();
+        try (BatchRunner runner = new BatchRunner(BARS, 2)) {
+            for (Shard shard : shards) {
+                for (JobOutcome outcome : runner.run(shard.jobs())) {
+                    finalCapital.put(outcome.job().id(), outcome.result().finalCapital());
+                }
+            }
+        }
+        return finalCapital;
+    }
+
+    private Thread startWorker(int port, String name, BatchRunner runner) {
+        Thread thread = new Thread(() -> {
+            try (runner) {
+                SweepWorker.serve("localhost", port, name, runner);
+            } catch (Exception | AssertionError e) {
+                workerErrors.add(e);
+            }
+        }, "sweep-worker-" + name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private static void assertOutcomes(Map<String, BigDecimal> expected, List<JSONObject> outcomes) {
+        assertEquals(expected.size(), outcomes.size(), "one outcome per job");
+        for (JSONObject outcome : outcomes) {
+            BigDecimal finalCapital = new BigDecimal(outcome.get("finalCapital").toString());
+            assertEquals(0, expected.get(outcome.getString("id")).compareTo(finalCapital), outcome.toString());
+        }
+    }
+
+    @Test
+    void failedShardIsRetriedOnAnotherWorker() throws Exception {
+        List<Shard> shards = shards(2, 2);
+        Map<String, BigDecimal> expected = expected(shards);
+        CountDownLatch goodStarted = new CountDownLatch(1);
+        CountDownLatch failedOnce = new CountDownLatch(1);
+        List<JSONObject> outcomes = Collections.synchronizedList(new ArrayList<>());
+
+        try (SweepCoordinator coordinator = new SweepCoordinator(0, 3, NO_STEALING, SHARD_TIMEOUT)) {
+            int port = coordinator.getPort();
+            // The good worker holds the first shard until the broken one has failed the second
+            startWorker(port, "good", new BatchRunner(BARS, 2) {
+                @Override
+                public List<JobOutcome> run(List<BatchJob> jobs) throws InterruptedException {
+                    goodStarted.countDown();
+                    assertTrue(failedOnce.await(30, TimeUnit.SECONDS));
+                    return super.run(jobs);
+                }
+            });
+            startWorker(port, "broken", new BatchRunner(BARS, 1) {
+                @Override
+                public List<JobOutcome> run(List<BatchJob> jobs) {
+                    try {
+                        assertTrue(goodStarted.await(30, TimeUnit.SECONDS));
+                        throw new IllegalStateException("Worker out of memory");
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    } finally {
+                        failedOnce.countDown();
+                    }
+                }
+            });
+
+            SweepReport report = coordinator.run(shards, outcomes::add);
+            assertEquals(1, report.retries());
+            assertEquals(0, report.failedShards());
+            assertEquals(0, report.steals());
+        }
+        assertOutcomes(expected, outcomes);
+        assertTrue(workerErrors.isEmpty(), workerErrors.toString());
+    }
+
+    @Test
+    void stragglerIsStolenAndOnlyTheFirstCopyCounts() throws Exception {
+        List<Shard> shards = shards(1, 2);
+        Map<String, BigDecimal> expected = expected(shards);
+        CountDownLatch slowStarted = new CountDownLatch(1);
+        CountDownLatch releaseSlow = new CountDownLatch(1);
+        List<JSONObject> outcomes = Collections.synchronizedList(new ArrayList<>());
+
+        ExecutorService sweep = Executors.newSingleThreadExecutor();
+        try (SweepCoordinator coordinator = new SweepCoordinator(0, 3, 200, SHARD_TIMEOUT)) {
+            int port = coordinator.getPort();
+            // Workers are only accepted while the sweep runs
+            Future<SweepReport> running = sweep.submit(() -> coordinator.run(shards, outcomes::add));
+            Thread slow = startWorker(port, "slow", new BatchRunner(BARS, 1) {
+                @Override
+                public List<JobOutcome> run(List<BatchJob> jobs) throws InterruptedException {
+                    slowStarted.countDown();
+                    assertTrue(releaseSlow.await(30, TimeUnit.SECONDS));
+                    return super.run(jobs);
+                }
+            });
+            assertTrue(slowStarted.await(30, TimeUnit.SECONDS));
+            startWorker(port, "fast", new BatchRunner(BARS, 2));
+
+            SweepReport report = running.get();
+            assertEquals(1, report.steals());
+            assertEquals(0, report.retries());
+            assertOutcomes(expected, outcomes);
+
+            // The slow copy finishes after the sweep and must not add a second set of outcomes
+            releaseSlow.countDown();
+            slow.join(30_000);
+            assertFalse(slow.isAlive());
+        } finally {
+            sweep.shutdownNow();
+        }
+        assertOutcomes(expected, outcomes);
+        assertTrue(workerErrors.isEmpty(), workerErrors.toString());
+    }
+
+    @Test
+    void shardsFailedByEveryConnectedWorkerAreGivenUp() throws Exception {
+        List<Shard> shards = shards(2, 2);
+        List<JSONObject> outcomes = Collections.synchronizedList(new ArrayList<>());
+
+        // Attempts are left, but the only worker has failed both shards
+        try (SweepCoordinator coordinator = new SweepCoordinator(0, 5, NO_STEALING, SHARD_TIMEOUT)) {
+            startWorker(coordinator.getPort(), "broken", new BatchRunner(BARS, 1) {
+                @Override
+                public List<JobOutcome> run(List<BatchJob> jobs) {
+                    throw new IllegalStateException("Worker out of memory");
+                }
+            });
+
+            SweepReport report = coordinator.run(shards, outcomes::add);
+            assertEquals(2, report.failedShards());
+            assertEquals(2, report.retries());
+        }
+        assertEquals(4, outcomes.size());
+        for (JSONObject outcome : outcomes) {
+            assertTrue(outcome.getString("error").contains("Failed on every connected worker"), outcome.toString());
+        }
+    }
+
+    @Test
+    void launchedWorkerJvmRunsTheSweepWithABoundedBarCache() throws Exception {
+        List<Shard> shards = shards(3, 2);
+        Map<String, BigDecimal> expected = expected(shards);
+        LocalBarCache cache = new LocalBarCache(directory);
+        for (Shard shard : shards) {
+            for (String ticker : shard.jobs().get(0).tickers()) {
+                cache.write(PriceSeries.fromDataPoints(ticker, BARS.apply(ticker)));
+            }
+        }
+        List<JSONObject> outcomes = Collections.synchronizedList(new ArrayList<>());
+
+        try (SweepCoordinator coordinator = new SweepCoordinator(0, 3, NO_STEALING, SHARD_TIMEOUT)) {
+            // Each shard needs two tickers, so every shard after the first evicts the previous one's
+            Process worker = coordinator.launchWorker(List.of("-Xmx128m"),
+                    List.of("--cache", directory.toString(), "--threads", "1", "--max-tickers", "2"));
+            try {
+                SweepReport report = coordinator.run(shards, outcomes::add);
+                assertEquals(3, report.shards());
+                assertEquals(1, report.workers());
+                assertEquals(0, report.retries());
+            } finally {
+                if (!worker.waitFor(30, TimeUnit.SECONDS)) {
+                    worker.destroyForcibly();
+                }
+            }
+            assertEquals(0, worker.exitValue());
+        }
+        assertOutcomes(expected, outcomes);
+    }
+
+    @Test
+    void outcomesAreStreamedAsEachShardFinishes() throws Exception {
+        List<Shard> shards = shards(3, 2);
+        Map<String, BigDecimal> expected = expected(shards);
+        List<JSONObject> outcomes = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> outcomesBeforeEachShard = new CopyOnWriteArrayList<>();
+
+        try (SweepCoordinator coordinator = new SweepCoordinator(0, 3, NO_STEALING, SHARD_TIMEOUT)) {
+            startWorker(coordinator.getPort(), "only", new BatchRunner(BARS, 2) {
+                @Override
+                public List<JobOutcome> run(List<BatchJob> jobs) throws InterruptedException {
+                    outcomesBeforeEachShard.add(outcomes.size());
+                    return super.run(jobs);
+                }
+            });
+
+            SweepReport report = coordinator.run(shards, outcomes::add);
+            assertEquals(3, report.shards());
+            assertEquals(6, report.jobs());
+            assertEquals(1, report.workers());
+        }
+        // A worker runs one shard at a time, and each shard's outcomes were out before the next was sent
+        assertEquals(List.of(0, 2, 4), outcomesBeforeEachShard);
+        assertOutcomes(expected, outcomes);
+        assertTrue(workerErrors.isEmpty(), workerErrors.toString());
+    }
+}
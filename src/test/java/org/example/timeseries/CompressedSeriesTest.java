@@ -0,0 +1,114 @@
+package org.example.timeseries;
+
+import org.example.models.PriceSeries;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressedSeriesTest {
+    private static final long START = 1_700_000_000L;
+
+    // Minute bars with cent prices, and a gap every 390 bars like an overnight close
+    private static PriceSeries minuteBars(int count, long seed) {
+        Random random = new Random(seed);
+        PriceSeries.Builder builder = new PriceSeries.Builder("T");
+        double close = 100.0;
+        long timestamp = START;
+        for (int i = 0; i < count; i++) {
+            timestamp += i % 390 == 0 ? 17 * 3600 : 60;
+            double open = close;
+            close = Math.max(0.01, Math.round((open + random.nextGaussian() * 0.2) * 100) / 100.0);
+            double high = Math.max(open, close) + random.nextInt(10) / 100.0;
+            double low = Math.min(open, close) - random.nextInt(10) / 100.0;
+            builder.add(timestamp, open, Math.round(high * 100) / 100.0, Math.round(low * 100) / 100.0, close,
+                    random.nextInt(100_000));
+        }
+        return builder.build();
+    }
+
+    private static void assertSameBars(PriceSeries expected, PriceSeries actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.timestampAt(i), actual.timestampAt(i));
+            assertBits(expected.openAt(i), actual.openAt(i));
+            assertBits(expected.highAt(i), actual.highAt(i));
+            assertBits(expected.lowAt(i), actual.lowAt(i));
+            assertBits(expected.closeAt(i), actual.closeAt(i));
+            assertEquals(expected.volumeAt(i), actual.volumeAt(i));
+        }
+    }
+
+    private static void assertBits(double expected, double actual) {
+        assertEquals(Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(actual),
+                "expected " + expected + " but was " + actual);
+    }
+
+    @Test
+    void roundTripsSeveralBlocksBitForBit() {
+        PriceSeries bars = minuteBars(CompressedSeries.BLOCK_BARS * 2 + 500, 1);
+        CompressedSeries compressed = CompressedSeries.encode(bars);
+        assertEquals(bars.size(), compressed.size());
+        assertEquals(3, compressed.blockCount());
+        assertEquals(bars.timestampAt(0), compressed.firstTimestamp());
+        assertEquals(bars.timestampAt(bars.size() - 1), compressed.lastTimestamp());
+        assertSameBars(bars, compressed.toPriceSeries());
+        assertTrue(compressed.memoryBytes() < bars.size() * 48L / 2, "expected at least 2x compression");
+    }
+
+    @Test
+    void decodesTimeRangeFromTheBlockHoldingItsFirstBar() {
+        PriceSeries bars = minuteBars(CompressedSeries.BLOCK_BARS * 3, 2);
+        CompressedSeries compressed = CompressedSeries.encode(bars);
+        int first = CompressedSeries.BLOCK_BARS + 100;
+        int last = CompressedSeries.BLOCK_BARS * 2 + 50;
+        PriceSeries range = compressed.toPriceSeries(bars.timestampAt(first), bars.timestampAt(last));
+        assertEquals(last - first + 1, range.size());
+        assertEquals(bars.timestampAt(first), range.timestampAt(0));
+        assertBits(bars.closeAt(last), range.closeAt(range.size() - 1));
+        assertEquals(1, compressed.blockOf(bars.timestampAt(first)));
+        assertEquals(-1, compressed.blockOf(START));
+    }
+
+    @Test
+    void appendMatchesEncodingAllBarsAtOnce() {
+        PriceSeries bars = minuteBars(CompressedSeries.BLOCK_BARS + 300, 3);
+        int split = CompressedSeries.BLOCK_BARS + 100;
+        PriceSeries.Builder head = new PriceSeries.Builder("T");
+        PriceSeries.Builder tail = new PriceSeries.Builder("T");
+        for (int i = 0; i < bars.size(); i++) {
+            (i < split ? head : tail).add(bars.timestampAt(i), bars.openAt(i), bars.highAt(i), bars.lowAt(i),
+                    bars.closeAt(i), bars.volumeAt(i));
+        }
+        CompressedSeries original = CompressedSeries.encode(head.build());
+        CompressedSeries appended = original.append(tail.build());
+        assertEquals(split, original.size());
+        assertSameBars(bars, appended.toPriceSeries());
+    }
+
+    @Test
+    void blockMixingLargeAndFinePricesStaysExact() {
+        // 42178683.95 is exact at two decimals but not once the block needs eight
+        CompressedSeries.Builder builder = new CompressedSeries.Builder("T");
+        builder.add(START, 42_178_683.95, 42_178_683.95, 42_178_683.95, 42_178_683.95, 1);
+        builder.add(START + 60, 0.12345678, 0.12345678, 0.12345678, 0.12345678, 1);
+        PriceSeries decoded = builder.build().toPriceSeries();
+        assertBits(42_178_683.95, decoded.closeAt(0));
+        assertBits(0.12345678, decoded.closeAt(1));
+    }
+
+    @Test
+    void pricesWithoutExactDecimalFormFallBackToXor() {
+        Random random = new Random(4);
+        PriceSeries.Builder builder = new PriceSeries.Builder("T");
+        for (int i = 0; i < 200; i++) {
+            double price = 100 * random.nextDouble();
+            builder.add(START + 60L * i, price, price * 1.01, price / 1.01, Math.PI * price, i);
+        }
+        builder.add(START + 60L * 200, Double.NaN, Double.NaN, Double.NaN, Double.NaN, 0);
+        PriceSeries bars = builder.build();
+        assertSameBars(bars, CompressedSeries.encode(bars).toPriceSeries());
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.timeseries;
+
+import org.example.models.MarketDataPoint;
+import org.example.models.PriceSeries;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeriesNormalizerTest {
+
+    private static MarketDataPoint bar(LocalDateTime timestamp, double close) {
+        BigDecimal price = BigDecimal.valueOf(close);
+        return new MarketDataPoint("T", timestamp, price, price, price, price, 1_000);
+    }
+
+    // Weekday closes of January 2024, which has no holiday gaps longer than a weekend
+    private static List<MarketDataPoint> dailyBars() {
+        List<MarketDataPoint> bars = new ArrayList<>();
+        for (LocalDate day = LocalDate.of(2024, 1, 2); day.getMonthValue() == 1; day = day.plusDays(1)) {
+            if (day.getDayOfWeek().getValue() <= 5) {
+                bars.add(bar(day.atTime(16, 0), 100 + day.getDayOfMonth()));
+            }
+        }
+        return bars;
+    }
+
+    @Test
+    void cleanDailyBarsPassThroughWithoutGaps() {
+        List<MarketDataPoint> bars = dailyBars();
+        NormalizedSeries series = SeriesNormalizer.normalize("T", bars);
+        assertEquals(bars, series);
+        assertTrue(series.report().isClean());
+        assertEquals(0, series.report().gaps());
+        for (int i = 0; i < series.size(); i++) {
+            assertEquals(PriceSeries.toEpochSeconds(bars.get(i).getTimestamp()), series.timestampAt(i));
+            assertFalse(series.followsGap(i));
+        }
+        assertSame(series, SeriesNormalizer.normalize("T", series));
+    }
+
+    @Test
+    void shuffledInputIsSortedAndLaterDuplicateWins() {
+        List<MarketDataPoint> bars = dailyBars();
+        List<MarketDataPoint> input = new ArrayList<>(bars);
+        MarketDataPoint correction = bar(bars.get(5).getTimestamp(), 999.0);
+        input.add(correction);
+        Collections.shuffle(input.subList(0, bars.size()), new Random(1));
+
+        NormalizedSeries series = SeriesNormalizer.normalize("T", input);
+        assertEquals(bars.size(), series.size());
+        assertSame(correction, series.get(5));
+        for (int i = 1; i < series.size(); i++) {
+            assertTrue(series.timestampAt(i) > series.timestampAt(i - 1));
+        }
+        NormalizationReport report = series.report();
+        assertTrue(report.reordered());
+        assertEquals(1, report.duplicates());
+        assertEquals(input.size(), report.inputBars());
+    }
+
+    @Test
+    void unusableBarsAreDroppedAndInconsistentOnesFlagged() {
+        List<MarketDataPoint> input = new ArrayList<>(dailyBars());
+        input.add(bar(LocalDateTime.of(2024, 2, 1, 16, 0), 0.0));
+        MarketDataPoint undated = bar(LocalDateTime.of(2024, 2, 1, 16, 0), 100.0);
+        undated.setTimestamp(null);
+        input.add(undated);
+        input.add(null);
+        BigDecimal close = BigDecimal.valueOf(105);
+        input.add(new MarketDataPoint("T", LocalDateTime.of(2024, 2, 2, 16, 0), close, BigDecimal.valueOf(101),
+                BigDecimal.valueOf(102), close, 1_000)); // High below low
+
+        NormalizedSeries series = SeriesNormalizer.normalize("T", input);
+        assertEquals(3, series.report().dropped());
+        assertEquals(1, series.report().suspect());
+        assertEquals(dailyBars().size() + 1, series.size());
+    }
+
+    @Test
+    void gapsAreFlaggedOnIntradayAndDailySpacing() {
+        List<MarketDataPoint> input = new ArrayList<>();
+        LocalDateTime open = LocalDateTime.of(2024, 1, 2, 9, 30);
+        for (int minute = 0; minute < 60; minute++) {
+            if (minute < 20 || minute >= 30) { // Ten minutes missing
+                input.add(bar(open.plusMinutes(minute), 100 + minute));
+            }
+        }
+        input.add(bar(open.plusDays(1), 200)); // Next morning is not a gap
+        input.add(bar(open.plusDays(8), 201)); // A week later is
+
+        NormalizedSeries series = SeriesNormalizer.normalize("T", input);
+        assertTrue(series.followsGap(20));
+        assertFalse(series.followsGap(50));
+        assertTrue(series.followsGap(51));
+        assertEquals(2, series.report().gaps());
+        assertEquals(7 * 86_400, series.report().largestGapSeconds());
+    }
+
+    @Test
+    void subListsKeepTimestampsAndSearch() {
+        NormalizedSeries series = SeriesNormalizer.normalize("T", dailyBars());
+        NormalizedSeries slice = series.subList(5, 10);
+        assertEquals(5, slice.size());
+        assertEquals(series.timestampAt(5), slice.timestampAt(0));
+        assertEquals(series.get(9), slice.get(4));
+        assertThrows(IndexOutOfBoundsException.class, () -> slice.get(5));
+
+        LocalDateTime first = series.get(5).getTimestamp();
+        assertEquals(0, slice.indexAtOrBefore(first));
+        assertEquals(-1, slice.indexAtOrBefore(first.minusSeconds(1)));
+        assertEquals(0, slice.firstAtOrAfter(first.minusDays(3)));
+        assertEquals(1, slice.firstAtOrAfter(first.plusSeconds(1)));
+        assertEquals(5, slice.firstAtOrAfter(first.plusYears(1)));
+        assertSame(series.report(), slice.report());
+    }
+}